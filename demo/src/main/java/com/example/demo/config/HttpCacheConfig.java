@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import com.example.demo.service.PortfolioVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ETags and 304s for the portfolio read endpoints (see {@link PortfolioETagFilter}).
+ */
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<PortfolioETagFilter> portfolioETagFilter(
+            PortfolioVersion portfolioVersion,
+            @Value("${portfolio.http-cache.max-entries:256}") int maxEntries) {
+        FilterRegistrationBean<PortfolioETagFilter> registration =
+                new FilterRegistrationBean<>(new PortfolioETagFilter(portfolioVersion, maxEntries));
+        registration.addUrlPatterns(
+                "/api/portfolio/summary",
+                "/api/portfolio/allocation",
+                "/api/portfolio/performance",
+                "/api/assets");
+        return registration;
+    }
+}
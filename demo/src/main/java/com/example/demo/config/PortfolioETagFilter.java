@@ -0,0 +1,122 @@
+package com.example.demo.config;
+
+import com.example.demo.service.PortfolioVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional GET for read endpoints whose responses depend only on the
+ * {@link PortfolioVersion}.
+ *
+ * - responses carry a strong ETag of the current version
+ * - a matching If-None-Match gets 304 before any controller runs
+ * - the serialized body of each URL is kept for the current version, so
+ *   other clients polling an unchanged portfolio get the same bytes
+ *
+ * A body is only kept if the version did not move while it was built, and
+ * at most max-entries URLs are kept. Cross-origin requests pass straight
+ * through, so CORS handling stays with the dispatcher.
+ */
+public class PortfolioETagFilter extends OncePerRequestFilter {
+
+    private final PortfolioVersion portfolioVersion;
+    private final int maxEntries;
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    public PortfolioETagFilter(PortfolioVersion portfolioVersion, int maxEntries) {
+        this.portfolioVersion = portfolioVersion;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.ORIGIN) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long version = portfolioVersion.current();
+        String etag = portfolioVersion.etag(version);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            setValidators(response, etag);
+            return;
+        }
+
+        String key = key(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.version() == version) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(cached.contentType());
+            response.setContentLength(cached.body().length);
+            setValidators(response, etag);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            // Built from data at least as new as version, so its tag is safe to hand out
+            setValidators(wrapper, etag);
+            if (portfolioVersion.current() == version) {
+                store(key, new CachedResponse(version, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void store(String key, CachedResponse response) {
+        if (cache.size() >= maxEntries && !cache.containsKey(key)) {
+            cache.values().removeIf(entry -> entry.version() != response.version());
+            if (cache.size() >= maxEntries) {
+                return;
+            }
+        }
+        cache.put(key, response);
+    }
+
+    private static void setValidators(HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Cacheable, but revalidated on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    private static String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+    }
+
+    /**
+     * Whether an If-None-Match header (a list of tags, or *) matches; If-None-Match compares weakly.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record CachedResponse(long version, String contentType, byte[] body) {
+    }
+}
@@ -1,25 +1,44 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.AssetBatchRequest;
+import com.example.demo.dto.AssetBatchResult;
 import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.AssetPageDTO;
+import com.example.demo.dto.ImportJobDTO;
 import com.example.demo.entity.AssetType;
+import com.example.demo.repository.AssetFilter;
 import com.example.demo.service.AssetService;
+import com.example.demo.service.AssetSort;
+import com.example.demo.service.ImportJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,12 +46,31 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api/assets")
-@RequiredArgsConstructor
+@Slf4j
 @Tag(name = "Assets", description = "Asset management endpoints")
 @CrossOrigin(origins = "*")
 public class AssetController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_BATCH_SIZE = 200;
+
     private final AssetService assetService;
+    private final ImportJobService importJobService;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor exportExecutor;
+    private final long exportTimeoutMillis;
+
+    public AssetController(AssetService assetService,
+                           ImportJobService importJobService,
+                           ObjectMapper objectMapper,
+                           @Qualifier("applicationTaskExecutor") AsyncTaskExecutor exportExecutor,
+                           @Value("${portfolio.export.timeout-ms:600000}") long exportTimeoutMillis) {
+        this.assetService = assetService;
+        this.importJobService = importJobService;
+        this.objectMapper = objectMapper;
+        this.exportExecutor = exportExecutor;
+        this.exportTimeoutMillis = exportTimeoutMillis;
+    }
 
     @GetMapping
     @Operation(summary = "Get all assets", description = "Retrieves all assets in the portfolio with current prices")
@@ -41,6 +79,97 @@ public class AssetController {
         return ResponseEntity.ok(ApiResponse.success("Retrieved " + assets.size() + " assets", assets));
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of assets",
+            description = "Keyset-paginated, filterable asset listing. Pass nextCursor from the previous page as cursor; "
+                    + "only the assets on the page are priced")
+    public ResponseEntity<ApiResponse<AssetPageDTO>> getAssetPage(
+            @Parameter(description = "Asset type filter") @RequestParam(required = false) AssetType type,
+            @Parameter(description = "Symbol prefix filter (case-insensitive)") @RequestParam(required = false) String symbol,
+            @Parameter(description = "Purchased on or after (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Purchased on or before (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Sort (ID, PURCHASE_DATE, VALUE, GAIN_LOSS_PERCENTAGE)")
+            @RequestParam(defaultValue = "ID") AssetSort sort,
+            @Parameter(description = "Sort direction (ASC, DESC)") @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)") @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            throw new IllegalArgumentException("limit must be between 1 and 500");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        AssetFilter filter = AssetFilter.builder()
+                .type(type)
+                .symbolPrefix(symbol)
+                .purchasedFrom(from)
+                .purchasedTo(to)
+                .build();
+        AssetPageDTO page = assetService.getAssetPage(filter, sort, direction, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Retrieved " + page.getItems().size() + " assets", page));
+    }
+
+    /**
+     * Stream every asset straight to the response, one priced batch at a
+     * time, instead of building the whole list in memory first. The body is
+     * flushed after each batch; a failure mid-stream truncates the output.
+     * The export gets its own async timeout (portfolio.export.timeout-ms),
+     * since it can run far longer than an ordinary async request.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export assets",
+            description = "Streams all matching assets with current prices as NDJSON (one asset per line) or a JSON array")
+    public ResponseEntity<ResponseBodyEmitter> exportAssets(
+            @Parameter(description = "Output format (ndjson, json)") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Asset type filter") @RequestParam(required = false) AssetType type,
+            @Parameter(description = "Symbol prefix filter (case-insensitive)") @RequestParam(required = false) String symbol,
+            @Parameter(description = "Purchased on or after (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Purchased on or before (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        boolean ndjson = switch (format.toLowerCase()) {
+            case "ndjson" -> true;
+            case "json" -> false;
+            default -> throw new IllegalArgumentException("format must be ndjson or json");
+        };
+        AssetFilter filter = AssetFilter.builder()
+                .type(type)
+                .symbolPrefix(symbol)
+                .purchasedFrom(from)
+                .purchasedTo(to)
+                .build();
+
+        MediaType contentType = ndjson ? NDJSON : MediaType.APPLICATION_JSON;
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(exportTimeoutMillis);
+        exportExecutor.execute(() -> {
+            try (OutputStream out = new EmitterOutputStream(emitter, contentType)) {
+                if (ndjson) {
+                    writeNdjson(filter, out);
+                } else {
+                    writeJsonArray(filter, out);
+                }
+                out.flush();
+                emitter.complete();
+            } catch (IOException | UncheckedIOException | IllegalStateException e) {
+                // IllegalStateException: the emitter already completed, e.g. on timeout
+                log.warn("Asset export aborted: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                // e.g. a failed batch query; without this the client would wait for the timeout
+                log.error("Asset export failed", e);
+                emitter.completeWithError(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"assets." + (ndjson ? "ndjson" : "json") + "\"")
+                .body(emitter);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get asset by ID", description = "Retrieves a specific asset by its ID")
     @ApiResponses(value = {
@@ -62,10 +191,14 @@ public class AssetController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search assets", description = "Search assets by symbol or name")
+    @Operation(summary = "Search assets", description = "Search assets by symbol or name, ranked by match quality")
     public ResponseEntity<ApiResponse<List<AssetDTO>>> searchAssets(
-            @Parameter(description = "Search query") @RequestParam String q) {
-        List<AssetDTO> assets = assetService.searchAssets(q);
+            @Parameter(description = "Search query") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100)") @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("limit must be between 1 and 100");
+        }
+        List<AssetDTO> assets = assetService.searchAssets(q, limit);
         return ResponseEntity.ok(ApiResponse.success("Found " + assets.size() + " matching assets", assets));
     }
 
@@ -109,85 +242,105 @@ public class AssetController {
         return ResponseEntity.ok(ApiResponse.success("Asset deleted successfully", null));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Batch create, update and delete assets",
+            description = "Applies up to 1000 creates, updates (with id) and deletes in one transaction; "
+                    + "either all of them succeed or none do")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch applied"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid operation in the batch"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Asset to update or delete not found")
+    })
+    public ResponseEntity<ApiResponse<AssetBatchResult>> applyBatch(@RequestBody AssetBatchRequest request) {
+        AssetBatchResult result = assetService.applyBatch(request);
+        return ResponseEntity.ok(ApiResponse.success("Created " + result.getCreated().size() + ", updated "
+                + result.getUpdated().size() + ", deleted " + result.getDeleted().size() + " assets", result));
+    }
+
     /**
-     * Upload CSV file containing assets and import them.
-     * Expected columns (header required): symbol,name,type,quantity,buyPrice,purchaseDate
-     * - type should match AssetType enum values (STOCK, BOND, ...)
-     * - quantity and buyPrice are numeric
-     * - purchaseDate (optional) in ISO format yyyy-MM-dd
+     * Upload a CSV file and bulk-import its rows.
+     * Header required; columns are matched by name: symbol, name, type,
+     * quantity, buyPrice and optionally purchaseDate (yyyy-MM-dd).
+     * Values may be quoted. Invalid rows are skipped and listed in the report.
      */
     @PostMapping("/upload")
-    @Operation(summary = "Upload CSV and import assets")
-    public ResponseEntity<ApiResponse<List<AssetDTO>>> uploadAssets(@RequestParam("file") MultipartFile file) {
+    @Operation(summary = "Upload CSV and import assets",
+            description = "Queues a background import of the rows of a CSV file and returns the job; "
+                    + "poll /api/imports/{id} for progress and the per-row error report")
+    public ResponseEntity<ApiResponse<ImportJobDTO>> uploadAssets(@RequestParam("file") MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().body(ApiResponse.error("Empty file"));
         }
 
         String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
-        List<AssetDTO> created = new ArrayList<>();
-
-        try {
-            if (filename.endsWith(".csv") || filename.endsWith(".txt")) {
-                // simple CSV parse
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-                    String header = reader.readLine();
-                    if (header == null) {
-                        return ResponseEntity.badRequest().body(ApiResponse.error("CSV has no header/rows"));
-                    }
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] cols = line.split(",", -1);
-                        AssetDTO dto = csvRowToDto(cols);
-                        if (dto != null) {
-                            created.add(assetService.createAsset(dto));
-                        }
-                    }
-                }
-            } else {
-                return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported file type. Use CSV (or .txt)"));
-            }
-        } catch (Exception ex) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("Failed to parse file: " + ex.getMessage()));
+        if (!filename.endsWith(".csv") && !filename.endsWith(".txt")) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported file type. Use CSV (or .txt)"));
         }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Imported " + created.size() + " assets", created));
+        ImportJobDTO job;
+        try (InputStream content = file.getInputStream()) {
+            job = importJobService.submit(file.getOriginalFilename(), content);
+        } catch (IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("Failed to read file: " + ex.getMessage()));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/imports/" + job.getId()))
+                .body(ApiResponse.success("Import job " + job.getId() + " queued", job));
     }
 
-    // Minimal CSV row -> AssetDTO converter. Returns null for invalid rows.
-    private AssetDTO csvRowToDto(String[] cols) {
-        // Expected columns: symbol,name,type,quantity,buyPrice,purchaseDate
-        if (cols == null || cols.length < 5) return null;
-        try {
-            String symbol = cols[0].trim();
-            String name = cols[1].trim();
-            String typeStr = cols[2].trim().toUpperCase();
-            String qtyStr = cols[3].trim();
-            String buyStr = cols[4].trim();
-            String dateStr = cols.length > 5 ? cols[5].trim() : null;
-
-            if (symbol.isEmpty() || name.isEmpty() || typeStr.isEmpty() || qtyStr.isEmpty() || buyStr.isEmpty()) {
-                return null; // skip incomplete
+    private void writeNdjson(AssetFilter filter, OutputStream out) {
+        assetService.forEachAssetBatch(filter, EXPORT_BATCH_SIZE, batch -> {
+            try {
+                for (AssetDTO asset : batch) {
+                    out.write(objectMapper.writeValueAsBytes(asset));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
+
+    private void writeJsonArray(AssetFilter filter, OutputStream out) throws IOException {
+        try (SequenceWriter array = objectMapper.writer().writeValuesAsArray(out)) {
+            // Opening bracket goes out before the first batch is priced
+            array.flush();
+            assetService.forEachAssetBatch(filter, EXPORT_BATCH_SIZE, batch -> {
+                try {
+                    array.writeAll(batch);
+                    array.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Buffers writes and hands them to the emitter as one chunk on every flush.
+     */
+    private static final class EmitterOutputStream extends ByteArrayOutputStream {
 
-            AssetType type = AssetType.valueOf(typeStr);
-            BigDecimal quantity = new BigDecimal(qtyStr);
-            BigDecimal buyPrice = new BigDecimal(buyStr);
-            LocalDate purchaseDate = null;
-            if (dateStr != null && !dateStr.isEmpty()) {
-                purchaseDate = LocalDate.parse(dateStr);
+        private final ResponseBodyEmitter emitter;
+        private final MediaType contentType;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter, MediaType contentType) {
+            this.emitter = emitter;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (size() > 0) {
+                emitter.send(toByteArray(), contentType);
+                reset();
             }
+        }
 
-            return AssetDTO.builder()
-                    .symbol(symbol)
-                    .name(name)
-                    .type(type)
-                    .quantity(quantity)
-                    .buyPrice(buyPrice)
-                    .purchaseDate(purchaseDate)
-                    .build();
-        } catch (Exception ex) {
-            // invalid row, skip
-            return null;
+        @Override
+        public void close() throws IOException {
+            flush();
         }
     }
 }
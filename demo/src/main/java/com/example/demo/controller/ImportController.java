@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.ImportJobDTO;
+import com.example.demo.service.ImportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for asynchronous CSV import jobs (started by POST /api/assets/upload).
+ */
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+@Tag(name = "Imports", description = "CSV import job endpoints")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+    private final ImportJobService importJobService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get import job", description = "Retrieves the status and progress (rows parsed, imported, rejected, throughput) of an import job")
+    public ResponseEntity<ApiResponse<ImportJobDTO>> getImportJob(
+            @Parameter(description = "Import job ID") @PathVariable String id) {
+        ImportJobDTO job = importJobService.getJob(id);
+        return ResponseEntity.ok(ApiResponse.success("Import job is " + job.getStatus(), job));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel import job", description = "Cancels a queued job, or stops a running one after its current chunk")
+    public ResponseEntity<ApiResponse<ImportJobDTO>> cancelImportJob(
+            @Parameter(description = "Import job ID") @PathVariable String id) {
+        ImportJobDTO job = importJobService.cancel(id);
+        return ResponseEntity.ok(ApiResponse.success("Cancel requested", job));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume import job", description = "Queues a failed or cancelled job again, continuing after the last committed chunk")
+    public ResponseEntity<ApiResponse<ImportJobDTO>> resumeImportJob(
+            @Parameter(description = "Import job ID") @PathVariable String id) {
+        ImportJobDTO job = importJobService.resume(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Resuming after " + job.getCommittedRows() + " rows", job));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.LotEventDTO;
+import com.example.demo.dto.PositionDTO;
+import com.example.demo.service.LotLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for an asset's lot ledger and the position derived from it.
+ */
+@RestController
+@RequestMapping("/api/assets/{id}")
+@RequiredArgsConstructor
+@Tag(name = "Lots", description = "Lot ledger (buy, sell, dividend) and cost basis endpoints")
+@CrossOrigin(origins = "*")
+public class LotController {
+
+    private final LotLedgerService lotLedgerService;
+
+    @PostMapping("/lots")
+    @Operation(summary = "Record a ledger entry",
+            description = "Appends a BUY or SELL (quantity, price) or a DIVIDEND (amount) and returns the updated position")
+    public ResponseEntity<ApiResponse<PositionDTO>> recordEntry(
+            @Parameter(description = "Asset ID") @PathVariable Long id,
+            @RequestBody LotEventDTO entry) {
+        PositionDTO position = lotLedgerService.record(id, entry);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(entry.getType() + " recorded", position));
+    }
+
+    @GetMapping("/lots")
+    @Operation(summary = "Get ledger entries", description = "Retrieves an asset's ledger entries in the order they were recorded")
+    public ResponseEntity<ApiResponse<List<LotEventDTO>>> getEntries(
+            @Parameter(description = "Asset ID") @PathVariable Long id,
+            @Parameter(description = "Return entries after this entry ID") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Maximum entries (1-1000)") @RequestParam(defaultValue = "100") int limit) {
+        List<LotEventDTO> entries = lotLedgerService.getEntries(id, afterId, limit);
+        return ResponseEntity.ok(ApiResponse.success("Retrieved " + entries.size() + " ledger entries", entries));
+    }
+
+    @GetMapping("/position")
+    @Operation(summary = "Get position",
+            description = "Quantity, cost basis and realized gain (FIFO, LIFO and average cost) and dividends of an asset")
+    public ResponseEntity<ApiResponse<PositionDTO>> getPosition(
+            @Parameter(description = "Asset ID") @PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success("Position retrieved", lotLedgerService.getPosition(id)));
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.MoversDTO;
+import com.example.demo.dto.PortfolioSnapshotDTO;
 import com.example.demo.dto.PortfolioSummaryDTO;
+import com.example.demo.dto.RiskReportDTO;
+import com.example.demo.entity.SnapshotResolution;
+import com.example.demo.service.LiveUpdateService;
 import com.example.demo.service.PortfolioService;
+import com.example.demo.service.PortfolioSnapshotService;
+import com.example.demo.service.RiskService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +37,9 @@ import java.util.Map;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final RiskService riskService;
+    private final LiveUpdateService liveUpdateService;
 
     @GetMapping("/summary")
     @Operation(summary = "Get portfolio summary", description = "Retrieves comprehensive portfolio summary with totals, allocation, and top performers")
@@ -31,6 +48,12 @@ public class PortfolioController {
         return ResponseEntity.ok(ApiResponse.success("Portfolio summary retrieved", summary));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live portfolio updates", description = "Server-sent events named 'update', each a coalesced delta: latest prices, changed and removed positions, new totals and allocation. The first event carries the current totals")
+    public SseEmitter streamUpdates() {
+        return liveUpdateService.subscribe();
+    }
+
     @GetMapping("/allocation")
     @Operation(summary = "Get asset allocation", description = "Retrieves asset allocation percentages by type (for pie charts)")
     public ResponseEntity<ApiResponse<Map<String, BigDecimal>>> getAllocation() {
@@ -38,10 +61,46 @@ public class PortfolioController {
         return ResponseEntity.ok(ApiResponse.success("Allocation data retrieved", allocation));
     }
 
+    @GetMapping("/movers")
+    @Operation(summary = "Get top movers", description = "Retrieves the k best and worst performing positions by gain/loss percentage")
+    public ResponseEntity<ApiResponse<MoversDTO>> getMovers(
+            @Parameter(description = "Number of gainers and of losers (1-100)") @RequestParam(defaultValue = "5") int k) {
+        if (k < 1 || k > 100) {
+            throw new IllegalArgumentException("k must be between 1 and 100");
+        }
+        MoversDTO movers = portfolioService.getMovers(k);
+        return ResponseEntity.ok(ApiResponse.success("Top movers retrieved", movers));
+    }
+
     @GetMapping("/performance")
     @Operation(summary = "Get performance by type", description = "Retrieves performance metrics grouped by asset type")
     public ResponseEntity<ApiResponse<Map<String, Map<String, BigDecimal>>>> getPerformance() {
         Map<String, Map<String, BigDecimal>> performance = portfolioService.getPerformanceByType();
         return ResponseEntity.ok(ApiResponse.success("Performance data retrieved", performance));
     }
+
+    @GetMapping("/history")
+    @Operation(summary = "Get portfolio value history", description = "Retrieves recorded portfolio value, cost basis and value per type over a time range")
+    public ResponseEntity<ApiResponse<List<PortfolioSnapshotDTO>>> getHistory(
+            @Parameter(description = "Start, ISO-8601 instant (default: 30 days before to)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End, exclusive (default: now)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "MINUTE, HOUR or DAY (default: finest with at most 500 points)")
+            @RequestParam(required = false) SnapshotResolution resolution) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(30));
+        List<PortfolioSnapshotDTO> history = portfolioSnapshotService.getHistory(start, end, resolution);
+        return ResponseEntity.ok(ApiResponse.success("Retrieved " + history.size() + " snapshots", history));
+    }
+
+    @GetMapping("/risk")
+    @Operation(summary = "Get portfolio risk", description = "Retrieves volatility, beta, historical and parametric VaR, max drawdown and (optionally) the correlation matrix of the holdings, from stored daily prices")
+    public ResponseEntity<ApiResponse<RiskReportDTO>> getRisk(
+            @Parameter(description = "Lookback window in calendar days (30-3650)") @RequestParam(defaultValue = "365") int days,
+            @Parameter(description = "VaR confidence level, e.g. 0.95 or 0.99") @RequestParam(defaultValue = "0.95") double confidence,
+            @Parameter(description = "Include the correlation matrix") @RequestParam(defaultValue = "false") boolean correlations) {
+        RiskReportDTO risk = riskService.getRisk(days, confidence, correlations);
+        return ResponseEntity.ok(ApiResponse.success("Risk computed over " + risk.getObservations() + " daily returns", risk));
+    }
 }
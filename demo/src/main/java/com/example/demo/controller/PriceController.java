@@ -0,0 +1,73 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.PriceBarDTO;
+import com.example.demo.dto.PriceCacheStats;
+import com.example.demo.service.BarInterval;
+import com.example.demo.service.PriceSeriesStore;
+import com.example.demo.service.StockPriceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * REST Controller for quote price diagnostics and price history.
+ */
+@RestController
+@RequestMapping("/api/prices")
+@RequiredArgsConstructor
+@Tag(name = "Prices", description = "Quote price cache and price history endpoints")
+@CrossOrigin(origins = "*")
+public class PriceController {
+
+    private final StockPriceService stockPriceService;
+    private final PriceSeriesStore priceSeriesStore;
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get price cache statistics", description = "Retrieves hit, miss, eviction and load-time counters of the quote price cache")
+    public ResponseEntity<ApiResponse<PriceCacheStats>> getCacheStats() {
+        PriceCacheStats stats = stockPriceService.getCacheStats();
+        return ResponseEntity.ok(ApiResponse.success("Price cache statistics retrieved", stats));
+    }
+
+    @GetMapping("/{symbol}/history")
+    @Operation(summary = "Get price history", description = "Retrieves stored open/high/low/close bars of a symbol, optionally downsampled")
+    public ResponseEntity<ApiResponse<List<PriceBarDTO>>> getHistory(
+            @Parameter(description = "Ticker symbol") @PathVariable String symbol,
+            @Parameter(description = "First day (default: one year before to)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive (default: today)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Downsample to MINUTE, HOUR, DAY, WEEK or MONTH bars (default: as stored)")
+            @RequestParam(required = false) BarInterval interval) {
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from != null ? from : last.minusYears(1);
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<PriceBarDTO> bars = priceSeriesStore.getBars(symbol,
+                first.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                last.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                interval).toDTOs();
+        return ResponseEntity.ok(ApiResponse.success("Retrieved " + bars.size() + " bars", bars));
+    }
+
+    @PostMapping("/{symbol}/history")
+    @Operation(summary = "Append price history", description = "Adds open/high/low/close bars, oldest first, to a symbol's stored history; bars at a stored time replace it")
+    public ResponseEntity<ApiResponse<Integer>> appendHistory(
+            @Parameter(description = "Ticker symbol") @PathVariable String symbol,
+            @RequestBody List<PriceBarDTO> bars) {
+        int stored = priceSeriesStore.append(symbol, bars);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Appended " + bars.size() + " bars; " + stored + " stored", stored));
+    }
+}
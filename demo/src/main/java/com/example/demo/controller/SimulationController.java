@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.SimulationJobDTO;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.service.SimulationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * REST Controller for asynchronous Monte Carlo projections of the portfolio value.
+ */
+@RestController
+@RequestMapping("/api/simulations")
+@RequiredArgsConstructor
+@Tag(name = "Simulations", description = "Monte Carlo portfolio projection endpoints")
+@CrossOrigin(origins = "*")
+public class SimulationController {
+
+    private final SimulationJobService simulationJobService;
+
+    @PostMapping
+    @Operation(summary = "Start simulation",
+            description = "Queues a Monte Carlo projection of the current portfolio (default 1,000,000 paths over 1, 5 and 10 years); "
+                    + "poll /api/simulations/{id} for progress and the percentile bands")
+    public ResponseEntity<ApiResponse<SimulationJobDTO>> startSimulation(
+            @RequestBody(required = false) SimulationRequest request) {
+        SimulationJobDTO job = simulationJobService.submit(request != null ? request : new SimulationRequest());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/simulations/" + job.getId()))
+                .body(ApiResponse.success("Simulation job " + job.getId() + " queued", job));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get simulation job", description = "Retrieves the status, progress (paths done, paths per second) and result of a simulation job")
+    public ResponseEntity<ApiResponse<SimulationJobDTO>> getSimulation(
+            @Parameter(description = "Simulation job ID") @PathVariable String id) {
+        SimulationJobDTO job = simulationJobService.getJob(id);
+        return ResponseEntity.ok(ApiResponse.success("Simulation job is " + job.getStatus(), job));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel simulation job", description = "Cancels a queued job, or stops a running one after the chunks in flight")
+    public ResponseEntity<ApiResponse<SimulationJobDTO>> cancelSimulation(
+            @Parameter(description = "Simulation job ID") @PathVariable String id) {
+        SimulationJobDTO job = simulationJobService.cancel(id);
+        return ResponseEntity.ok(ApiResponse.success("Cancel requested", job));
+    }
+}
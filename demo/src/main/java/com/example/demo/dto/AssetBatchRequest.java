@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Creates, updates and deletes applied together by POST /api/assets/batch.
+ * Any of the lists may be omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetBatchRequest {
+
+    private List<AssetDTO> create;
+
+    // Each entry carries the id of the asset it replaces the fields of
+    private List<AssetDTO> update;
+
+    private List<Long> delete;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of asset operations, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetBatchResult {
+
+    private List<AssetDTO> created;
+    private List<AssetDTO> updated;
+    private List<Long> deleted;
+}
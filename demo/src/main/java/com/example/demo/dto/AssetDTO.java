@@ -31,8 +31,10 @@ public class AssetDTO {
     @NotNull(message = "Asset type is required")
     private AssetType type;
 
+    // Positive, except that an update may keep 0 on a position closed through
+    // its lot ledger; the service checks that against the stored asset
     @NotNull(message = "Quantity is required")
-    @DecimalMin(value = "0.0001", message = "Quantity must be greater than 0")
+    @DecimalMin(value = "0", message = "Quantity must not be negative")
     private BigDecimal quantity;
 
     @NotNull(message = "Buy price is required")
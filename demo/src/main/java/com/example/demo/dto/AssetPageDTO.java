@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated asset listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetPageDTO {
+
+    private List<AssetDTO> items;
+
+    // Pass back as 'cursor' to get the next page; null on the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+}
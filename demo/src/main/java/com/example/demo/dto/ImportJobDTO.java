@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of an asynchronous CSV import job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+
+    private String id;
+    private String fileName;
+    private Status status;
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+
+    // Data rows from the top of the file that are committed (imported or rejected);
+    // a resumed job continues after them
+    private long committedRows;
+
+    // Counters so far: rowsRead, imported, rejected, throughput and rejected rows
+    private ImportReport progress;
+
+    // Why the job failed, if it did
+    private String error;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+
+        /**
+         * Failed and cancelled jobs can be resumed.
+         */
+        public boolean isResumable() {
+            return this == FAILED || this == CANCELLED;
+        }
+    }
+}
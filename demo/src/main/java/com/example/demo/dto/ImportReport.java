@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk CSV import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportReport {
+
+    // Data rows read (header and blank lines excluded)
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+
+    private long elapsedMillis;
+    private double rowsPerSecond;
+
+    // First rejected rows, in the order they were rejected; may be shorter than 'rejected'
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        // 1-based line of the CSV file on which the row starts
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One coalesced delta pushed on the live portfolio stream: everything that
+ * changed since the previous event to the same client. Parts that did not
+ * change are left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveUpdateDTO {
+
+    // Increases by one per event sent to the client
+    private long sequence;
+
+    // Latest price per symbol (symbol -> price)
+    private Map<String, BigDecimal> prices;
+
+    // Positions created or updated, enriched with the current price
+    private List<AssetDTO> assets;
+
+    // Positions deleted
+    private List<Long> removedAssetIds;
+
+    // New totals, sent whenever a price or position changed
+    private BigDecimal totalValue;
+    private BigDecimal totalCostBasis;
+    private BigDecimal totalGainLoss;
+    private BigDecimal totalGainLossPercentage;
+    private Long totalAssets;
+    private Map<String, Long> assetCountByType;
+    private Map<String, BigDecimal> valueByType;
+    private Map<String, BigDecimal> allocationByType;
+}
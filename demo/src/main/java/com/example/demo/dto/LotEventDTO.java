@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.LotEventType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A lot ledger entry: BUY and SELL take quantity and price, DIVIDEND takes amount.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LotEventDTO {
+
+    private Long id;
+    private LotEventType type;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal amount;
+
+    // Defaults to today
+    private LocalDate tradeDate;
+
+    private LocalDateTime createdAt;
+}
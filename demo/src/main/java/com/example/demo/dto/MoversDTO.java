@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Best and worst performing positions by gain/loss percentage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoversDTO {
+
+    // Highest gainLossPercentage first (only positive)
+    private List<AssetDTO> topGainers;
+
+    // Lowest gainLossPercentage first (only negative)
+    private List<AssetDTO> topLosers;
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.AssetType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Portfolio value over one snapshot bucket, starting at {@code time}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSnapshotDTO {
+
+    private Instant time;
+
+    // Last sampled value in the bucket, and the extremes sampled
+    private BigDecimal value;
+    private BigDecimal high;
+    private BigDecimal low;
+
+    private BigDecimal costBasis;
+    private BigDecimal gainLoss;
+
+    // Last sampled value per asset type held at the time
+    private Map<AssetType, BigDecimal> valueByType;
+}
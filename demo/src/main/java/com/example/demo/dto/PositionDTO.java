@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.CostBasisMethod;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * An asset's position as derived from its lot ledger.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PositionDTO {
+
+    private Long assetId;
+    private String symbol;
+    private BigDecimal quantity;
+
+    // Method behind the asset's costBasis (and so the portfolio totals)
+    private CostBasisMethod costBasisMethod;
+
+    // Cost of the held units and gain on the units sold, per method
+    private Map<CostBasisMethod, BigDecimal> costBasis;
+    private Map<CostBasisMethod, BigDecimal> realizedGain;
+
+    private BigDecimal dividends;
+    private long ledgerEntries;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One open/high/low/close price bar, starting at {@code time}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBarDTO {
+
+    private Instant time;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+}
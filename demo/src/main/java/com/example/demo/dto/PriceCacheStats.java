@@ -0,0 +1,30 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+/**
+ * Point-in-time counters for the quote price cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceCacheStats {
+
+    private int size;
+    private int maxEntries;
+
+    // Lookups: fresh hits, stale hits served while refreshing, and misses
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private double hitRate;
+
+    private long evictions;
+
+    // Loads against Finnhub
+    private long loadSuccesses;
+    private long loadFailures;
+    private double averageLoadMillis;
+    private int inFlightLoads;
+}
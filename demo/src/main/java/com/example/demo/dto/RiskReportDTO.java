@@ -0,0 +1,57 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.AssetType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Risk statistics of the priced holdings over a lookback window of daily closes.
+ * Volatilities are annualized; VaR is a one-day loss at the given confidence;
+ * drawdown is a fraction of peak value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskReportDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    // Daily returns in the window (trading days after the first)
+    private int observations;
+    private double confidence;
+
+    private BigDecimal portfolioValue;
+    private Double volatility;
+    private String benchmark;
+    // Null when the benchmark has no price history in the window
+    private Double beta;
+    private BigDecimal historicalVar;
+    private BigDecimal parametricVar;
+    private Double maxDrawdown;
+
+    private List<HoldingRisk> holdings;
+    // Held symbols left out for lack of price history
+    private List<String> unpricedSymbols;
+    // Held symbols left out because their history covers too little of the window
+    private List<String> shortHistorySymbols;
+
+    // Pairwise correlation of daily returns, in holdings order (only when requested)
+    private double[][] correlation;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class HoldingRisk {
+        private String symbol;
+        private AssetType type;
+        private BigDecimal value;
+        private double weight;
+        private double volatility;
+        private Double beta;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.AssetType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State, progress and (once completed) result of a Monte Carlo projection job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationJobDTO {
+
+    private String id;
+    private Status status;
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+
+    private long paths;
+    private long completedPaths;
+    private double pathsPerSecond;
+    private long seed;
+
+    // Portfolio value the paths start from, and the assumptions they use
+    private BigDecimal initialValue;
+    private Map<AssetType, BigDecimal> drifts;
+    private Map<AssetType, BigDecimal> volatilities;
+
+    // One entry per horizon once the job has completed
+    private List<HorizonResult> horizons;
+
+    // Why the job failed, if it did
+    private String error;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    /**
+     * Distribution of portfolio value after a number of years.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class HorizonResult {
+        private int years;
+        private BigDecimal mean;
+        // Percentile (5, 25, 50, 75, 95) to value
+        private Map<Integer, BigDecimal> percentiles;
+        // Share of paths ending below the initial value
+        private double probabilityOfLoss;
+    }
+}
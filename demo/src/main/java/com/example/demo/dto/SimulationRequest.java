@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.AssetType;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameters of a Monte Carlo projection started by POST /api/simulations.
+ * Every field may be omitted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationRequest {
+
+    // Number of simulated paths (default 1,000,000)
+    private Long paths;
+
+    // Same seed, same portfolio and same assumptions give the same result; random if omitted
+    private Long seed;
+
+    // Horizons in whole years (default 1, 5 and 10)
+    private List<Integer> horizons;
+
+    // Expected annual return and volatility per type (e.g. 0.07 and 0.18),
+    // overriding the defaults for the types given
+    private Map<AssetType, BigDecimal> drifts;
+    private Map<AssetType, BigDecimal> volatilities;
+}
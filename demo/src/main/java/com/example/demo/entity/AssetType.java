@@ -10,5 +10,12 @@ public enum AssetType {
     REAL_ESTATE,
     CRYPTO,
     ETF,
-    MUTUAL_FUND
+    MUTUAL_FUND;
+
+    /**
+     * Whether the type has a live market price (quoted by symbol).
+     */
+    public boolean isTradeable() {
+        return this == STOCK || this == ETF || this == CRYPTO || this == MUTUAL_FUND;
+    }
 }
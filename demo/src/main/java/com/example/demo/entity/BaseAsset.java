@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.TableGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -19,9 +22,16 @@ import java.time.LocalDateTime;
  * - Eliminates field duplication across tables
  * - Enables polymorphic queries (SELECT * FROM assets)
  * - Maintains proper FK relationships
+ *
+ * Indexes back the keyset-paginated listing (purchase date order and
+ * symbol prefix / type filters).
  */
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = {
+        @Index(name = "idx_assets_purchase_date", columnList = "purchase_date, id"),
+        @Index(name = "idx_assets_type_symbol", columnList = "asset_type, symbol"),
+        @Index(name = "idx_assets_symbol", columnList = "symbol")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "asset_type", discriminatorType = DiscriminatorType.STRING)
 @Data
@@ -30,8 +40,16 @@ import java.time.LocalDateTime;
 @SuperBuilder
 public abstract class BaseAsset {
 
+    // Table-backed pooled-lo ids (shared with the JDBC bulk insert) instead of
+    // IDENTITY, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "asset_id")
+    @GenericGenerator(name = "asset_id", type = TableGenerator.class, parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = "asset_id_sequence"),
+            @Parameter(name = TableGenerator.SEGMENT_VALUE_PARAM, value = "assets"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     @Column(name = "symbol", nullable = false, length = 20)
@@ -49,6 +67,11 @@ public abstract class BaseAsset {
     @Column(name = "purchase_date")
     private LocalDate purchaseDate;
 
+    // Running cost basis of the held units, kept by the lot ledger;
+    // null until the asset has ledger entries
+    @Column(name = "ledger_cost_basis", precision = 19, scale = 4)
+    private BigDecimal ledgerCostBasis;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -63,9 +86,13 @@ public abstract class BaseAsset {
     public abstract AssetType getType();
 
     /**
-     * Calculates the total cost basis (quantity × buyPrice).
+     * Total cost basis: the lot ledger's running figure when the asset has
+     * one, otherwise quantity × buyPrice.
      */
     public BigDecimal getCostBasis() {
+        if (ledgerCostBasis != null) {
+            return ledgerCostBasis;
+        }
         if (quantity != null && buyPrice != null) {
             return quantity.multiply(buyPrice);
         }
@@ -0,0 +1,13 @@
+package com.example.demo.entity;
+
+/**
+ * Which lots a sale is matched against when computing cost basis and realized gain.
+ */
+public enum CostBasisMethod {
+    // Oldest lots are sold first
+    FIFO,
+    // Newest lots are sold first
+    LIFO,
+    // Every unit carries the running average cost
+    AVERAGE
+}
@@ -0,0 +1,54 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of an asset's append-only lot ledger. Entries are never updated;
+ * their id order is the order they are applied in.
+ */
+@Entity
+@Table(name = "asset_lot_events", indexes = {
+        @Index(name = "idx_lot_events_asset", columnList = "asset_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LotEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "asset_id", nullable = false, updatable = false)
+    private Long assetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 10)
+    private LotEventType type;
+
+    // Units bought or sold (BUY, SELL)
+    @Column(name = "quantity", precision = 19, scale = 4, updatable = false)
+    private BigDecimal quantity;
+
+    // Price per unit (BUY, SELL)
+    @Column(name = "price", precision = 19, scale = 4, updatable = false)
+    private BigDecimal price;
+
+    // Cash received (DIVIDEND)
+    @Column(name = "amount", precision = 19, scale = 4, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "trade_date", updatable = false)
+    private LocalDate tradeDate;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
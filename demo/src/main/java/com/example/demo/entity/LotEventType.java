@@ -0,0 +1,13 @@
+package com.example.demo.entity;
+
+/**
+ * Kinds of entries in an asset's lot ledger.
+ */
+public enum LotEventType {
+    // Opens a lot: quantity units at price each
+    BUY,
+    // Closes quantity units (matched to lots per cost basis method) at price each
+    SELL,
+    // Dividend or interest income of amount; holdings are unchanged
+    DIVIDEND
+}
@@ -0,0 +1,96 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Portfolio value over one bucket of a {@link SnapshotResolution}: the last
+ * sampled value, cost basis and value per type, plus the highest and lowest
+ * value sampled in the bucket. One row per resolution and bucket.
+ */
+@Entity
+@Table(name = "portfolio_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_portfolio_snapshots_bucket", columnNames = {"resolution", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 10)
+    private SnapshotResolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    // Samples folded into this bucket
+    @Column(name = "samples", nullable = false)
+    private int samples;
+
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 4)
+    private BigDecimal value;
+
+    @Column(name = "high_value", nullable = false, precision = 19, scale = 4)
+    private BigDecimal highValue;
+
+    @Column(name = "low_value", nullable = false, precision = 19, scale = 4)
+    private BigDecimal lowValue;
+
+    @Column(name = "cost_basis", nullable = false, precision = 19, scale = 4)
+    private BigDecimal costBasis;
+
+    // Value per asset type, one column each rather than a row per type
+    @Column(name = "stock_value", precision = 19, scale = 4)
+    private BigDecimal stockValue;
+
+    @Column(name = "bond_value", precision = 19, scale = 4)
+    private BigDecimal bondValue;
+
+    @Column(name = "etf_value", precision = 19, scale = 4)
+    private BigDecimal etfValue;
+
+    @Column(name = "mutual_fund_value", precision = 19, scale = 4)
+    private BigDecimal mutualFundValue;
+
+    @Column(name = "crypto_value", precision = 19, scale = 4)
+    private BigDecimal cryptoValue;
+
+    @Column(name = "real_estate_value", precision = 19, scale = 4)
+    private BigDecimal realEstateValue;
+
+    @Column(name = "cash_value", precision = 19, scale = 4)
+    private BigDecimal cashValue;
+
+    public BigDecimal getTypeValue(AssetType type) {
+        return switch (type) {
+            case STOCK -> stockValue;
+            case BOND -> bondValue;
+            case ETF -> etfValue;
+            case MUTUAL_FUND -> mutualFundValue;
+            case CRYPTO -> cryptoValue;
+            case REAL_ESTATE -> realEstateValue;
+            case CASH -> cashValue;
+        };
+    }
+
+    public void setTypeValue(AssetType type, BigDecimal value) {
+        switch (type) {
+            case STOCK -> stockValue = value;
+            case BOND -> bondValue = value;
+            case ETF -> etfValue = value;
+            case MUTUAL_FUND -> mutualFundValue = value;
+            case CRYPTO -> cryptoValue = value;
+            case REAL_ESTATE -> realEstateValue = value;
+            case CASH -> cashValue = value;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.entity;
+
+import java.time.Instant;
+
+/**
+ * Bucket size of a portfolio value snapshot rollup. Buckets are aligned to
+ * the epoch, i.e. to whole minutes, hours and UTC days.
+ */
+public enum SnapshotResolution {
+    MINUTE(60),
+    HOUR(3_600),
+    DAY(86_400);
+
+    private final long seconds;
+
+    SnapshotResolution(long seconds) {
+        this.seconds = seconds;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Start of the bucket holding {@code time}.
+     */
+    public Instant bucketStart(Instant time) {
+        long epochSecond = time.getEpochSecond();
+        return Instant.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, seconds));
+    }
+}
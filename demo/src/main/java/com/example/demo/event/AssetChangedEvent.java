@@ -0,0 +1,30 @@
+package com.example.demo.event;
+
+import com.example.demo.repository.AssetBaseView;
+
+/**
+ * Published by the asset service whenever an asset is created, updated or deleted.
+ * Listeners that maintain derived in-memory state should subscribe with
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param before state before the change, or null for a create
+ * @param after  state after the change, or null for a delete
+ */
+public record AssetChangedEvent(AssetBaseView before, AssetBaseView after) {
+
+    public static AssetChangedEvent created(AssetBaseView after) {
+        return new AssetChangedEvent(null, after);
+    }
+
+    public static AssetChangedEvent updated(AssetBaseView before, AssetBaseView after) {
+        return new AssetChangedEvent(before, after);
+    }
+
+    public static AssetChangedEvent deleted(AssetBaseView before) {
+        return new AssetChangedEvent(before, null);
+    }
+
+    public Long assetId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by the price cache when a symbol's cached quote changes, or is
+ * loaded again after it was missing or past the max-stale window.
+ * Published synchronously on the thread that loaded the quote.
+ *
+ * @param symbol        normalized (upper-case) symbol
+ * @param previousPrice price cached before, or null if the symbol was not cached or had expired
+ * @param price         the new price
+ */
+public record PriceUpdatedEvent(String symbol, BigDecimal previousPrice, BigDecimal price) {
+}
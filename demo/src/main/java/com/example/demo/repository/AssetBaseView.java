@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.BaseAsset;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the base 'assets' columns.
+ * Used when subtype-specific fields are not needed.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AssetBaseView {
+
+    Long id;
+    AssetType type;
+    String symbol;
+    String name;
+    BigDecimal quantity;
+    BigDecimal buyPrice;
+    LocalDate purchaseDate;
+    // See BaseAsset.ledgerCostBasis
+    BigDecimal ledgerCostBasis;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    /**
+     * Snapshot the base fields of an entity.
+     */
+    public static AssetBaseView of(BaseAsset asset) {
+        return new AssetBaseView(asset.getId(), asset.getType(), asset.getSymbol(), asset.getName(),
+                asset.getQuantity(), asset.getBuyPrice(), asset.getPurchaseDate(), asset.getLedgerCostBasis(),
+                asset.getCreatedAt(), asset.getUpdatedAt());
+    }
+
+    /**
+     * Total cost basis, as {@link BaseAsset#getCostBasis()}.
+     */
+    public BigDecimal getCostBasis() {
+        if (ledgerCostBasis != null) {
+            return ledgerCostBasis;
+        }
+        if (quantity != null && buyPrice != null) {
+            return quantity.multiply(buyPrice);
+        }
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Server-side filters for asset listings. Null fields don't filter.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AssetFilter {
+
+    public static final AssetFilter NONE = AssetFilter.builder().build();
+
+    AssetType type;
+
+    // Matched case-insensitively against the start of the symbol
+    String symbolPrefix;
+
+    // Inclusive purchase date range; assets without a purchase date never match a range
+    LocalDate purchasedFrom;
+    LocalDate purchasedTo;
+}
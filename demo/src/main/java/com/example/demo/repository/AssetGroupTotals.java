@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the grouped position totals: per type and symbol for
+ * tradeable types, per type only (empty symbol) for the rest.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AssetGroupTotals {
+
+    AssetType type;
+    String symbol;
+    long count;
+    BigDecimal quantity;
+    BigDecimal costBasis;
+}
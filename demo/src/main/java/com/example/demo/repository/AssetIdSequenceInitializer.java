@@ -0,0 +1,40 @@
+package com.example.demo.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.example.demo.repository.PortfolioAssetRepositoryCustomImpl.ID_SEGMENT;
+import static com.example.demo.repository.PortfolioAssetRepositoryCustomImpl.ID_TABLE;
+
+/**
+ * Moves the asset id sequence past every existing id on startup, e.g. rows
+ * inserted while assets.id was still AUTO_INCREMENT. Runs once the schema
+ * is in place and before anything can insert.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class AssetIdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM assets", Long.class) + 1;
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_val FROM " + ID_TABLE + " WHERE sequence_name = ?", Long.class, ID_SEGMENT);
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + ID_TABLE + " (sequence_name, next_val) VALUES (?, ?)", ID_SEGMENT, next);
+        } else if (current.get(0) < next) {
+            jdbcTemplate.update("UPDATE " + ID_TABLE + " SET next_val = ? WHERE sequence_name = ?", next, ID_SEGMENT);
+            log.info("Advanced asset id sequence from {} to {}", current.get(0), next);
+        }
+    }
+}
@@ -19,6 +19,6 @@ public interface BaseAssetRepository<T extends BaseAsset> extends JpaRepository<
 
     List<T> findByNameContainingIgnoreCase(String name);
 
-    @Query("SELECT COALESCE(SUM(a.quantity * a.buyPrice), 0) FROM #{#entityName} a")
+    @Query("SELECT COALESCE(SUM(COALESCE(a.ledgerCostBasis, a.quantity * a.buyPrice)), 0) FROM #{#entityName} a")
     BigDecimal calculateTotalCostBasis();
 }
\ No newline at end of file
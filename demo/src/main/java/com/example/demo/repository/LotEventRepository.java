@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.LotEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for lot ledger entries.
+ */
+@Repository
+public interface LotEventRepository extends JpaRepository<LotEvent, Long>, LotEventRepositoryCustom {
+
+    /**
+     * Keyset page of an asset's ledger in the order it was written.
+     */
+    List<LotEvent> findByAssetIdAndIdGreaterThanOrderByIdAsc(Long assetId, Long afterId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM LotEvent e WHERE e.assetId = :assetId")
+    int deleteByAssetId(@Param("assetId") Long assetId);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.LotEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC reads of the lot ledger, for replaying long ledgers without
+ * loading them into the persistence context.
+ */
+public interface LotEventRepositoryCustom {
+
+    /**
+     * Stream an asset's ledger entries, in id order, to {@code action} as detached entities.
+     */
+    void forEachEvent(Long assetId, Consumer<LotEvent> action);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.LotEvent;
+import com.example.demo.entity.LotEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * JdbcTemplate implementation of {@link LotEventRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class LotEventRepositoryCustomImpl implements LotEventRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachEvent(Long assetId, Consumer<LotEvent> action) {
+        jdbcTemplate.query("SELECT id, asset_id, event_type, quantity, price, amount, trade_date, created_at " +
+                        "FROM asset_lot_events WHERE asset_id = ? ORDER BY id",
+                (RowCallbackHandler) rs -> action.accept(LotEvent.builder()
+                        .id(rs.getLong("id"))
+                        .assetId(rs.getLong("asset_id"))
+                        .type(LotEventType.valueOf(rs.getString("event_type")))
+                        .quantity(rs.getBigDecimal("quantity"))
+                        .price(rs.getBigDecimal("price"))
+                        .amount(rs.getBigDecimal("amount"))
+                        .tradeDate(rs.getObject("trade_date", LocalDate.class))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .build()),
+                assetId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.BaseAsset;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Polymorphic repository over the whole asset hierarchy.
+ * findAll() returns every subtype from a single query (assets LEFT JOIN each
+ * subtype table) instead of one query per subtype repository.
+ */
+@Repository
+public interface PortfolioAssetRepository extends BaseAssetRepository<BaseAsset>, PortfolioAssetRepositoryCustom {
+}
@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC queries over the base 'assets' table.
+ * Hibernate joins every subtype table for any query rooted at BaseAsset,
+ * even a projection, so reads that only need base columns go through here.
+ */
+public interface PortfolioAssetRepositoryCustom {
+
+    /**
+     * Projection mode: read only the base 'assets' columns, no subtype joins.
+     */
+    List<AssetBaseView> findAllBaseViews();
+
+    /**
+     * Count, quantity and cost basis summed in the database: one row per
+     * type and (upper-cased) symbol for tradeable types, one row per type
+     * for the rest.
+     */
+    List<AssetGroupTotals> findGroupTotals();
+
+    /**
+     * Keyset page ordered by id: up to {@code limit} matching rows after
+     * {@code afterId} (exclusive) in the given direction, or from the start
+     * when it is null.
+     */
+    List<AssetBaseView> findBaseViewsById(AssetFilter filter, Long afterId, Sort.Direction direction, int limit);
+
+    /**
+     * Keyset page ordered by purchase date, then id; assets without a purchase
+     * date come last in either direction. The page starts after the row
+     * ({@code afterDate}, {@code afterId}); a null {@code afterDate} with a
+     * non-null {@code afterId} continues among the undated rows.
+     */
+    List<AssetBaseView> findBaseViewsByPurchaseDate(AssetFilter filter, LocalDate afterDate, Long afterId,
+                                                    Sort.Direction direction, int limit);
+
+    /**
+     * Stream every matching row to {@code action}, in id order, without materializing the result.
+     */
+    void forEachBaseView(AssetFilter filter, Consumer<AssetBaseView> action);
+
+    /**
+     * Reserve {@code count} consecutive asset ids from the table Hibernate's
+     * id generator for BaseAsset draws from, in a transaction of its own.
+     *
+     * @return the first id of the block
+     */
+    long reserveIds(int count);
+
+    /**
+     * Insert new assets (base row plus an empty subtype row each) in JDBC
+     * batches, with ids reserved up front via {@link #reserveIds}.
+     * Runs in the caller's transaction.
+     *
+     * @return the inserted assets with their ids and timestamps set, in input order
+     */
+    List<AssetBaseView> insertAll(List<AssetBaseView> assets);
+}
@@ -0,0 +1,250 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * JdbcTemplate implementation of {@link PortfolioAssetRepositoryCustom}.
+ */
+public class PortfolioAssetRepositoryCustomImpl implements PortfolioAssetRepositoryCustom {
+
+    static final String BASE_COLUMNS =
+            "id, asset_type, symbol, name, quantity, buy_price, purchase_date, ledger_cost_basis, created_at, updated_at";
+
+    static final RowMapper<AssetBaseView> BASE_VIEW_MAPPER = (rs, rowNum) -> new AssetBaseView(
+            rs.getLong("id"),
+            AssetType.valueOf(rs.getString("asset_type")),
+            rs.getString("symbol"),
+            rs.getString("name"),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("buy_price"),
+            rs.getObject("purchase_date", LocalDate.class),
+            rs.getBigDecimal("ledger_cost_basis"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class));
+
+    private static final String GROUP_KEY = "CASE WHEN asset_type IN (" + tradeableTypes() + ") " +
+            "THEN COALESCE(UPPER(TRIM(symbol)), '') ELSE '' END";
+
+    private static final String GROUP_TOTALS_SQL =
+            "SELECT asset_type, " + GROUP_KEY + " AS group_key, COUNT(*) AS positions, " +
+            "COALESCE(SUM(quantity), 0) AS quantity, COALESCE(SUM(COALESCE(ledger_cost_basis, quantity * buy_price)), 0) AS cost_basis " +
+            "FROM assets GROUP BY asset_type, " + GROUP_KEY;
+
+    private static final String INSERT_BASE_SQL = "INSERT INTO assets (" + BASE_COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Subtype table per type (JOINED inheritance), see the entity @Table annotations
+    private static final Map<AssetType, String> SUBTYPE_TABLES = new EnumMap<>(Map.of(
+            AssetType.STOCK, "stocks",
+            AssetType.BOND, "bonds",
+            AssetType.ETF, "etfs",
+            AssetType.MUTUAL_FUND, "mutual_funds",
+            AssetType.CRYPTO, "cryptos",
+            AssetType.REAL_ESTATE, "real_estates",
+            AssetType.CASH, "cash_holdings"));
+
+    // Must match the @GenericGenerator on BaseAsset.id
+    static final String ID_TABLE = "asset_id_sequence";
+    static final String ID_SEGMENT = "assets";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public PortfolioAssetRepositoryCustomImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<AssetBaseView> findAllBaseViews() {
+        return jdbcTemplate.query("SELECT " + BASE_COLUMNS + " FROM assets", BASE_VIEW_MAPPER);
+    }
+
+    @Override
+    public List<AssetGroupTotals> findGroupTotals() {
+        return jdbcTemplate.query(GROUP_TOTALS_SQL, (rs, rowNum) -> new AssetGroupTotals(
+                AssetType.valueOf(rs.getString("asset_type")),
+                rs.getString("group_key"),
+                rs.getLong("positions"),
+                rs.getBigDecimal("quantity"),
+                rs.getBigDecimal("cost_basis")));
+    }
+
+    @Override
+    public List<AssetBaseView> findBaseViewsById(AssetFilter filter, Long afterId, Sort.Direction direction,
+                                                 int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = where(filter, args);
+        if (afterId != null) {
+            where.append(" AND id ").append(direction.isAscending() ? ">" : "<").append(" ?");
+            args.add(afterId);
+        }
+        args.add(limit);
+        return jdbcTemplate.query("SELECT " + BASE_COLUMNS + " FROM assets" + where +
+                " ORDER BY id " + direction + " LIMIT ?", BASE_VIEW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Dated rows first, then the undated tail, each with a plain
+     * (purchase_date, id) ordering that the index on those columns serves;
+     * a single ORDER BY on "purchase_date IS NULL" would have to sort.
+     */
+    @Override
+    public List<AssetBaseView> findBaseViewsByPurchaseDate(AssetFilter filter, LocalDate afterDate, Long afterId,
+                                                           Sort.Direction direction, int limit) {
+        String after = direction.isAscending() ? ">" : "<";
+        List<AssetBaseView> page = new ArrayList<>();
+
+        if (afterId == null || afterDate != null) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder where = where(filter, args).append(" AND purchase_date IS NOT NULL");
+            if (afterId != null) {
+                // Row-value comparison spelled out
+                where.append(" AND (purchase_date ").append(after).append(" ?")
+                        .append(" OR (purchase_date = ? AND id ").append(after).append(" ?))");
+                args.add(afterDate);
+                args.add(afterDate);
+                args.add(afterId);
+            }
+            args.add(limit);
+            page.addAll(jdbcTemplate.query("SELECT " + BASE_COLUMNS + " FROM assets" + where +
+                    " ORDER BY purchase_date " + direction + ", id " + direction + " LIMIT ?",
+                    BASE_VIEW_MAPPER, args.toArray()));
+        }
+
+        if (page.size() < limit) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder where = where(filter, args).append(" AND purchase_date IS NULL");
+            if (afterId != null && afterDate == null) {
+                where.append(" AND id ").append(after).append(" ?");
+                args.add(afterId);
+            }
+            args.add(limit - page.size());
+            page.addAll(jdbcTemplate.query("SELECT " + BASE_COLUMNS + " FROM assets" + where +
+                    " ORDER BY id " + direction + " LIMIT ?", BASE_VIEW_MAPPER, args.toArray()));
+        }
+        return page;
+    }
+
+    @Override
+    public void forEachBaseView(AssetFilter filter, Consumer<AssetBaseView> action) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = where(filter, args);
+        jdbcTemplate.query("SELECT " + BASE_COLUMNS + " FROM assets" + where + " ORDER BY id",
+                (RowCallbackHandler) rs -> action.accept(BASE_VIEW_MAPPER.mapRow(rs, 0)), args.toArray());
+    }
+
+    /**
+     * Same pooled-lo semantics as Hibernate's generator: whoever moves
+     * next_val from v to v + n owns ids [v, v + n). The move is a
+     * compare-and-set in its own transaction, so a reservation never waits on
+     * (or rolls back with) the caller's transaction; ids of a rolled-back
+     * insert are simply skipped.
+     */
+    @Override
+    public long reserveIds(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        while (true) {
+            Long first = newTransaction.execute(status -> {
+                List<Long> current = jdbcTemplate.queryForList(
+                        "SELECT next_val FROM " + ID_TABLE + " WHERE sequence_name = ?", Long.class, ID_SEGMENT);
+                if (current.isEmpty()) {
+                    jdbcTemplate.update("INSERT INTO " + ID_TABLE + " (sequence_name, next_val) VALUES (?, ?)",
+                            ID_SEGMENT, 1L + count);
+                    return 1L;
+                }
+                long value = current.get(0);
+                int updated = jdbcTemplate.update("UPDATE " + ID_TABLE + " SET next_val = ? " +
+                        "WHERE sequence_name = ? AND next_val = ?", value + count, ID_SEGMENT, value);
+                return updated == 1 ? value : null;
+            });
+            if (first != null) {
+                return first;
+            }
+        }
+    }
+
+    @Override
+    public List<AssetBaseView> insertAll(List<AssetBaseView> assets) {
+        if (assets.isEmpty()) {
+            return List.of();
+        }
+
+        long firstId = reserveIds(assets.size());
+        // Same precision the entity timestamps get from the database
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<AssetBaseView> inserted = new ArrayList<>(assets.size());
+        Map<AssetType, List<Object[]>> subtypeIds = new EnumMap<>(AssetType.class);
+        List<Object[]> baseRows = new ArrayList<>(assets.size());
+
+        for (int i = 0; i < assets.size(); i++) {
+            AssetBaseView asset = assets.get(i);
+            long id = firstId + i;
+            inserted.add(new AssetBaseView(id, asset.getType(), asset.getSymbol(), asset.getName(),
+                    asset.getQuantity(), asset.getBuyPrice(), asset.getPurchaseDate(), null, now, now));
+            baseRows.add(new Object[]{id, asset.getType().name(), asset.getSymbol(), asset.getName(),
+                    asset.getQuantity(), asset.getBuyPrice(), asset.getPurchaseDate(), null, now, now});
+            subtypeIds.computeIfAbsent(asset.getType(), t -> new ArrayList<>()).add(new Object[]{id});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_BASE_SQL, baseRows);
+        subtypeIds.forEach((type, ids) ->
+                jdbcTemplate.batchUpdate("INSERT INTO " + SUBTYPE_TABLES.get(type) + " (id) VALUES (?)", ids));
+        return inserted;
+    }
+
+    /**
+     * WHERE clause for the filter (always present, so callers can append
+     * " AND ..."), collecting its bind values into {@code args}.
+     */
+    private static StringBuilder where(AssetFilter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.getType() != null) {
+            where.append(" AND asset_type = ?");
+            args.add(filter.getType().name());
+        }
+        if (filter.getSymbolPrefix() != null && !filter.getSymbolPrefix().isBlank()) {
+            // Symbols are stored upper-cased, so a plain LIKE can use an index on symbol
+            where.append(" AND symbol LIKE ? ESCAPE '!'");
+            args.add(filter.getSymbolPrefix().trim().toUpperCase()
+                    .replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        if (filter.getPurchasedFrom() != null) {
+            where.append(" AND purchase_date >= ?");
+            args.add(filter.getPurchasedFrom());
+        }
+        if (filter.getPurchasedTo() != null) {
+            where.append(" AND purchase_date <= ?");
+            args.add(filter.getPurchasedTo());
+        }
+        return where;
+    }
+
+    private static String tradeableTypes() {
+        return Arrays.stream(AssetType.values())
+                .filter(AssetType::isTradeable)
+                .map(type -> "'" + type.name() + "'")
+                .collect(Collectors.joining(", "));
+    }
+}
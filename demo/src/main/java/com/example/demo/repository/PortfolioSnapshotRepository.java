@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PortfolioSnapshot;
+import com.example.demo.entity.SnapshotResolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for portfolio value snapshot rollups.
+ */
+@Repository
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
+
+    /**
+     * Buckets of one resolution with from <= start < to, oldest first.
+     */
+    List<PortfolioSnapshot> findByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            SnapshotResolution resolution, Instant from, Instant to);
+
+    Optional<PortfolioSnapshot> findFirstByResolutionOrderByBucketStartDesc(SnapshotResolution resolution);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioSnapshot s WHERE s.resolution = :resolution AND s.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("resolution") SnapshotResolution resolution, @Param("cutoff") Instant cutoff);
+}
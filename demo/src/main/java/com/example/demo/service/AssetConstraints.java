@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The constraints declared on AssetDTO, for code paths that take assets in
+ * bulk (CSV import, batch endpoint) and report every violation per asset.
+ */
+public final class AssetConstraints {
+
+    private static final BigDecimal MIN_QUANTITY = new BigDecimal("0.0001");
+    private static final BigDecimal MIN_BUY_PRICE = new BigDecimal("0.01");
+
+    private AssetConstraints() {
+    }
+
+    /**
+     * Every violated constraint of the DTO, checked by hand: no Bean
+     * Validation provider is on the classpath. Empty if it is valid.
+     */
+    public static List<String> violations(AssetDTO dto) {
+        List<String> violations = new ArrayList<>();
+        if (dto.getSymbol() == null) {
+            violations.add("Symbol is required");
+        } else if (dto.getSymbol().length() > 20) {
+            violations.add("Symbol must not exceed 20 characters");
+        }
+        if (dto.getName() == null) {
+            violations.add("Name is required");
+        } else if (dto.getName().length() > 100) {
+            violations.add("Name must not exceed 100 characters");
+        }
+        if (dto.getType() == null) {
+            violations.add("Asset type is required");
+        }
+        if (dto.getQuantity() == null) {
+            violations.add("Quantity is required");
+        } else if (dto.getQuantity().compareTo(MIN_QUANTITY) < 0) {
+            violations.add("Quantity must be greater than 0");
+        }
+        if (dto.getBuyPrice() == null) {
+            violations.add("Buy price is required");
+        } else if (dto.getBuyPrice().compareTo(MIN_BUY_PRICE) < 0) {
+            violations.add("Buy price must be greater than 0");
+        }
+        return violations;
+    }
+}
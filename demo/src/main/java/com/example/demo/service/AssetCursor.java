@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last row of a page.
+ * A cursor is only valid for the sort and direction it was issued for.
+ *
+ * @param key the last row's sort key as a string, or null if it had none
+ *            (always null for {@link AssetSort#ID})
+ */
+record AssetCursor(AssetSort sort, Sort.Direction direction, String key, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = sort + SEPARATOR + direction + SEPARATOR + (key != null ? key : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or was
+     *                                  issued for another sort or direction
+     */
+    static AssetCursor decode(String cursor, AssetSort sort, Sort.Direction direction) {
+        AssetCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            decoded = new AssetCursor(AssetSort.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    parts[2].isEmpty() ? null : parts[2], Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // also covers bad Base64, enum names and numbers
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (decoded.sort() != sort || decoded.direction() != direction) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + decoded.sort() + " "
+                    + decoded.direction() + ", not " + sort + " " + direction);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.ImportReport;
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk CSV import.
+ *
+ * The file is parsed as a stream and handled in chunks: rows of a chunk are
+ * validated in parallel, then the valid ones are inserted with JDBC batches
+ * in one transaction per chunk. A failing chunk rejects only its own rows.
+ * No prices are looked up; the background refresher picks up new symbols
+ * from the created events.
+ *
+ * Columns are matched by header name (case-insensitive): symbol, name, type,
+ * quantity and buyPrice are required, purchaseDate (yyyy-MM-dd) is optional.
+ * A quoted field that is never closed swallows the rest of the file; it is
+ * reported as a rejected row and ends the import, keeping the rows before it.
+ */
+@Service
+@Slf4j
+public class AssetImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("symbol", "name", "type", "quantity", "buyprice");
+    private static final String PURCHASE_DATE_COLUMN = "purchasedate";
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public AssetImportService(PortfolioAssetRepository portfolioAssetRepository,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${portfolio.import.chunk-size:1000}") int chunkSize,
+                              @Value("${portfolio.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.portfolioAssetRepository = portfolioAssetRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Import every row of a CSV file.
+     *
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     */
+    public ImportReport importCsv(Reader input) throws IOException {
+        return importCsv(input, newProgress());
+    }
+
+    /**
+     * Import a CSV file, recording progress as it goes.
+     *
+     * The first progress.getCommittedRows() data rows are skipped, so a failed
+     * or cancelled import resumes on the same file where it stopped. A cancel
+     * request takes effect once the current chunk is committed.
+     *
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     */
+    public ImportReport importCsv(Reader input, ImportProgress progress) throws IOException {
+        boolean reachedEnd = false;
+        progress.started();
+        try (CsvParser parser = new CsvParser(input)) {
+            Map<String, Integer> columns = readHeader(parser);
+            for (long skipped = progress.getCommittedRows(); skipped > 0 && parser.next() != null; skipped--) {
+                // already imported by an earlier run
+            }
+
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            List<String> fields;
+            String unterminated = null;
+            while (true) {
+                try {
+                    fields = parser.next();
+                } catch (IllegalArgumentException e) {
+                    unterminated = e.getMessage();
+                    break;
+                }
+                if (fields == null) {
+                    break;
+                }
+                progress.rowParsed();
+                chunk.add(new CsvRow(parser.getRecordLine(), fields));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, columns, progress);
+                    chunk.clear();
+                    if (progress.isCancelRequested()) {
+                        log.info("CSV import cancelled after {} rows", progress.getCommittedRows());
+                        return progress.toReport();
+                    }
+                }
+            }
+            importChunk(chunk, columns, progress);
+            if (unterminated != null) {
+                // Everything from the open quote on is one broken row, and the last one
+                progress.rowParsed();
+                progress.reject(parser.getRecordLine(), unterminated);
+                progress.chunkCommitted(1);
+            }
+            reachedEnd = true;
+        } finally {
+            progress.stopped(reachedEnd);
+        }
+
+        ImportReport report = progress.toReport();
+        log.info("CSV import: {} rows read, {} imported, {} rejected in {}ms ({} rows/s)",
+                report.getRowsRead(), report.getImported(), report.getRejected(), report.getElapsedMillis(),
+                Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Fresh progress for an import run through {@link #importCsv(Reader, ImportProgress)}.
+     */
+    public ImportProgress newProgress() {
+        return new ImportProgress(maxReportedErrors);
+    }
+
+    private Map<String, Integer> readHeader(CsvParser parser) throws IOException {
+        List<String> header = parser.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV has no header/rows");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing column(s): " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private void importChunk(List<CsvRow> chunk, Map<String, Integer> columns, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Parsing and bean validation are CPU-bound and independent per row
+        List<RowResult> results = chunk.parallelStream()
+                .map(row -> validate(row, columns))
+                .toList();
+
+        List<AssetBaseView> valid = new ArrayList<>(results.size());
+        List<Long> validLines = new ArrayList<>(results.size());
+        for (RowResult result : results) {
+            if (result.asset() != null) {
+                valid.add(result.asset());
+                validLines.add(result.line());
+            } else {
+                progress.reject(result.line(), result.error());
+            }
+        }
+        if (!valid.isEmpty()) {
+            insertChunk(valid, validLines, progress);
+        }
+        progress.chunkCommitted(chunk.size());
+    }
+
+    private void insertChunk(List<AssetBaseView> valid, List<Long> validLines, ImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> portfolioAssetRepository.insertAll(valid)
+                    .forEach(asset -> eventPublisher.publishEvent(AssetChangedEvent.created(asset))));
+            progress.imported(valid.size());
+        } catch (RuntimeException e) {
+            log.error("CSV import chunk of {} rows failed: {}", valid.size(), e.getMessage());
+            validLines.forEach(line -> progress.reject(line, "Not imported: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Parse a row into a new asset, or describe why it is invalid.
+     */
+    RowResult validate(CsvRow row, Map<String, Integer> columns) {
+        try {
+            AssetDTO dto = csvRowToDto(row.fields(), columns);
+            List<String> violations = AssetConstraints.violations(dto);
+            if (!violations.isEmpty()) {
+                return RowResult.rejected(row.line(), String.join("; ", violations));
+            }
+            return RowResult.accepted(row.line(), AssetBaseView.builder()
+                    .type(dto.getType())
+                    .symbol(dto.getSymbol().toUpperCase().trim())
+                    .name(dto.getName().trim())
+                    .quantity(dto.getQuantity())
+                    .buyPrice(dto.getBuyPrice())
+                    .purchaseDate(dto.getPurchaseDate())
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return RowResult.rejected(row.line(), e.getMessage());
+        }
+    }
+
+    /**
+     * CSV row to an (unvalidated) AssetDTO. Blank cells become nulls.
+     *
+     * @throws IllegalArgumentException if a type, number or date cell cannot be parsed
+     */
+    private static AssetDTO csvRowToDto(List<String> fields, Map<String, Integer> columns) {
+        String type = cell(fields, columns, "type");
+        String quantity = cell(fields, columns, "quantity");
+        String buyPrice = cell(fields, columns, "buyprice");
+        String purchaseDate = cell(fields, columns, PURCHASE_DATE_COLUMN);
+
+        AssetDTO dto = AssetDTO.builder()
+                .symbol(cell(fields, columns, "symbol"))
+                .name(cell(fields, columns, "name"))
+                .build();
+        if (type != null) {
+            try {
+                dto.setType(AssetType.valueOf(type.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown type '" + type + "'");
+            }
+        }
+        dto.setQuantity(decimal(quantity, "quantity"));
+        dto.setBuyPrice(decimal(buyPrice, "buyPrice"));
+        if (purchaseDate != null) {
+            try {
+                dto.setPurchaseDate(LocalDate.parse(purchaseDate));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid purchaseDate '" + purchaseDate + "' (expected yyyy-MM-dd)");
+            }
+        }
+        return dto;
+    }
+
+    private static String cell(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    record CsvRow(long line, List<String> fields) {
+    }
+
+    record RowResult(long line, AssetBaseView asset, String error) {
+
+        static RowResult accepted(long line, AssetBaseView asset) {
+            return new RowResult(line, asset, null);
+        }
+
+        static RowResult rejected(long line, String error) {
+            return new RowResult(line, null, error);
+        }
+    }
+}
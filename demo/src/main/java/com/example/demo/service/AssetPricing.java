@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.entity.BaseAsset;
+import com.example.demo.repository.AssetBaseView;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO conversion and live-price enrichment shared by the asset and
+ * portfolio services, so every endpoint values an asset the same way.
+ */
+public final class AssetPricing {
+
+    private AssetPricing() {
+    }
+
+    /**
+     * Convert BaseAsset entity to an un-enriched DTO.
+     */
+    public static AssetDTO toAssetDTO(BaseAsset asset) {
+        return AssetDTO.builder()
+                .id(asset.getId())
+                .symbol(asset.getSymbol())
+                .name(asset.getName())
+                .type(asset.getType())
+                .quantity(asset.getQuantity())
+                .buyPrice(asset.getBuyPrice())
+                .purchaseDate(asset.getPurchaseDate())
+                .createdAt(asset.getCreatedAt())
+                .updatedAt(asset.getUpdatedAt())
+                .costBasis(asset.getCostBasis())
+                .build();
+    }
+
+    /**
+     * Convert a base-columns projection to an un-enriched DTO.
+     */
+    public static AssetDTO toAssetDTO(AssetBaseView asset) {
+        return AssetDTO.builder()
+                .id(asset.getId())
+                .symbol(asset.getSymbol())
+                .name(asset.getName())
+                .type(asset.getType())
+                .quantity(asset.getQuantity())
+                .buyPrice(asset.getBuyPrice())
+                .purchaseDate(asset.getPurchaseDate())
+                .createdAt(asset.getCreatedAt())
+                .updatedAt(asset.getUpdatedAt())
+                .costBasis(asset.getCostBasis())
+                .build();
+    }
+
+    /**
+     * Fill in current price, value and gain/loss from an already resolved live
+     * price. A null price (or a non-tradeable type) falls back to the buy price.
+     * Value and gain/loss are computed in {@link FixedPoint} and rounded to 4 decimals.
+     */
+    public static void applyPricing(AssetDTO dto, BigDecimal currentPrice) {
+        if (dto.getType() != null && dto.getType().isTradeable() && currentPrice != null) {
+            long value = FixedPoint.valueAt(FixedPoint.of(dto.getQuantity()), FixedPoint.ofPrice(currentPrice));
+            long costBasis = FixedPoint.of(dto.getCostBasis());
+            long gainLoss = FixedPoint.subtract(value, costBasis);
+
+            dto.setCurrentPrice(currentPrice);
+            dto.setCurrentValue(FixedPoint.toBigDecimal(value));
+            dto.setGainLoss(FixedPoint.toBigDecimal(gainLoss));
+            dto.setGainLossPercentage(costBasis > 0
+                    ? FixedPoint.toBigDecimal(FixedPoint.percentage(gainLoss, costBasis))
+                    : null);
+        } else {
+            setDefaultPricing(dto);
+        }
+    }
+
+    /**
+     * Gain/loss as a percentage of cost basis (4 decimal places before
+     * scaling), or null when there is no cost basis.
+     */
+    public static BigDecimal gainLossPercentage(BigDecimal gainLoss, BigDecimal costBasis) {
+        long cost = FixedPoint.of(costBasis);
+        if (cost <= 0) {
+            return null;
+        }
+        return FixedPoint.toBigDecimal(FixedPoint.percentage(FixedPoint.of(gainLoss), cost));
+    }
+
+    /**
+     * Set default pricing when live price is not available.
+     */
+    private static void setDefaultPricing(AssetDTO dto) {
+        dto.setCurrentPrice(dto.getBuyPrice());
+        dto.setCurrentValue(dto.getCostBasis());
+        dto.setGainLoss(BigDecimal.ZERO);
+        dto.setGainLossPercentage(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over asset symbol and name.
+ *
+ * Two structures back the lookups:
+ * - a sorted term map (symbol plus each word of the name) for prefix matches,
+ *   used for queries shorter than a trigram
+ * - a trigram map for substring matches on longer queries
+ *
+ * Loaded once from the base 'assets' table and then kept current from
+ * committed {@link AssetChangedEvent}s, so searches never touch the database.
+ * A {@link ChangeFence} makes sure no change committed during the load is lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssetSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChangeFence fence = new ChangeFence();
+    private final Map<Long, AssetBaseView> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> terms = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Drop everything and reload from the database.
+     */
+    public synchronized void rebuild() {
+        while (true) {
+            long token = fence.quiet();
+            List<AssetBaseView> assets = portfolioAssetRepository.findAllBaseViews();
+            lock.writeLock().lock();
+            try {
+                if (!fence.unchanged(token)) {
+                    log.debug("Assets changed while indexing, reloading");
+                    continue;
+                }
+                documents.clear();
+                terms.clear();
+                trigrams.clear();
+                assets.forEach(this::add);
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed {} assets for search", assets.size());
+            return;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeAssetCommit(AssetChangedEvent event) {
+        fence.enter(event);
+    }
+
+    @TransactionalEventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.assetId());
+            if (event.after() != null) {
+                add(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAssetCompletion(AssetChangedEvent event) {
+        fence.exit(event);
+    }
+
+    /**
+     * Find assets whose symbol or name matches the query, best matches first.
+     */
+    public List<AssetBaseView> search(String query, int limit) {
+        ensureLoaded();
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (Long id : candidates(q)) {
+                AssetBaseView asset = documents.get(id);
+                int score = score(asset, q);
+                if (score > 0) {
+                    matches.add(new Match(asset, score));
+                }
+            }
+
+            matches.sort(Comparator.comparingInt(Match::score).reversed()
+                    .thenComparingInt(m -> m.asset().getSymbol().length())
+                    .thenComparing(m -> m.asset().getSymbol())
+                    .thenComparing(m -> m.asset().getId()));
+
+            return matches.stream()
+                    .limit(limit)
+                    .map(Match::asset)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids that can possibly match. Short queries use the term prefix map,
+     * longer ones intersect the posting lists of their trigrams.
+     */
+    private Set<Long> candidates(String q) {
+        if (q.length() < GRAM) {
+            Set<Long> ids = new HashSet<>();
+            terms.subMap(q, true, q + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            return ids;
+        }
+
+        Set<Long> ids = null;
+        for (String gram : grams(q)) {
+            Set<Long> postings = trigrams.get(gram);
+            if (postings == null) {
+                return Collections.emptySet();
+            }
+            if (ids == null) {
+                ids = new HashSet<>(postings);
+            } else {
+                ids.retainAll(postings);
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Rank: exact symbol, symbol prefix, name prefix, name word prefix,
+     * then plain substring hits. Zero means no match.
+     */
+    private int score(AssetBaseView asset, String q) {
+        String symbol = normalize(asset.getSymbol());
+        String name = normalize(asset.getName());
+
+        if (symbol.equals(q)) {
+            return 100;
+        }
+        if (symbol.startsWith(q)) {
+            return 80;
+        }
+        if (name.startsWith(q)) {
+            return 70;
+        }
+        if (tokens(name).stream().anyMatch(t -> t.startsWith(q))) {
+            return 60;
+        }
+        if (symbol.contains(q)) {
+            return 40;
+        }
+        if (name.contains(q)) {
+            return 20;
+        }
+        return 0;
+    }
+
+    private void add(AssetBaseView asset) {
+        documents.put(asset.getId(), asset);
+        for (String term : terms(asset)) {
+            terms.computeIfAbsent(term, t -> new HashSet<>()).add(asset.getId());
+        }
+        for (String gram : grams(asset)) {
+            trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(asset.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        AssetBaseView asset = documents.remove(id);
+        if (asset == null) {
+            return;
+        }
+        for (String term : terms(asset)) {
+            removePosting(terms, term, id);
+        }
+        for (String gram : grams(asset)) {
+            removePosting(trigrams, gram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> index, String key, Long id) {
+        Set<Long> postings = index.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> terms(AssetBaseView asset) {
+        Set<String> result = new HashSet<>(tokens(normalize(asset.getName())));
+        result.add(normalize(asset.getSymbol()));
+        return result;
+    }
+
+    private static Set<String> grams(AssetBaseView asset) {
+        Set<String> result = grams(normalize(asset.getSymbol()));
+        result.addAll(grams(normalize(asset.getName())));
+        return result;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static List<String> tokens(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(AssetBaseView asset, int score) {
+    }
+}
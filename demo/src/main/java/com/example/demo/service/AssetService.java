@@ -1,9 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.AssetBatchRequest;
+import com.example.demo.dto.AssetBatchResult;
 import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.AssetPageDTO;
 import com.example.demo.entity.AssetType;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.AssetFilter;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Asset CRUD operations.
@@ -26,9 +33,24 @@ public interface AssetService {
     List<AssetDTO> getAssetsByType(AssetType type);
 
     /**
-     * Search assets by symbol or name.
+     * Get one page of assets matching the filter, in the given order.
+     * Only the rows on the page are priced.
+     *
+     * @param cursor the previous page's nextCursor, or null for the first page
      */
-    List<AssetDTO> searchAssets(String query);
+    AssetPageDTO getAssetPage(AssetFilter filter, AssetSort sort, Sort.Direction direction, String cursor, int limit);
+
+    /**
+     * Walk every asset matching the filter in id order, handing each priced
+     * batch of at most {@code batchSize} assets to {@code action}. Memory use
+     * is bounded by the batch size, not the portfolio size.
+     */
+    void forEachAssetBatch(AssetFilter filter, int batchSize, Consumer<List<AssetDTO>> action);
+
+    /**
+     * Search assets by symbol or name, best matches first. A blank query matches nothing.
+     */
+    List<AssetDTO> searchAssets(String query, int limit);
 
     /**
      * Create a new asset.
@@ -44,4 +66,12 @@ public interface AssetService {
      * Delete an asset by ID.
      */
     void deleteAsset(Long id);
-}
\ No newline at end of file
+
+    /**
+     * Apply creates, updates and deletes in one transaction: all of them or none.
+     *
+     * @throws IllegalArgumentException if an operation is invalid or an id is repeated
+     * @throws ResourceNotFoundException if an asset to update or delete does not exist
+     */
+    AssetBatchResult applyBatch(AssetBatchRequest request);
+}
@@ -1,19 +1,29 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.AssetBatchRequest;
+import com.example.demo.dto.AssetBatchResult;
 import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.AssetPageDTO;
 import com.example.demo.entity.*;
+import com.example.demo.event.AssetChangedEvent;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Implementation of AssetService with support for multiple asset types.
@@ -32,177 +42,519 @@ public class AssetServiceImpl implements AssetService {
     private final CryptoRepository cryptoRepository;
     private final RealEstateRepository realEstateRepository;
     private final CashRepository cashRepository;
+    private final PortfolioAssetRepository portfolioAssetRepository;
     private final StockPriceService stockPriceService;
+    private final AssetSearchIndex assetSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
+    private static final int MAX_BATCH_OPERATIONS = 1000;
+
+    // id -> subtype for recently touched assets, so single-asset lookups go
+    // straight to the matching repository. An asset never changes subtype.
+    private static final int ASSET_TYPE_CACHE_SIZE = 10_000;
+    private final Map<Long, AssetType> assetTypeById = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, AssetType> eldest) {
+                    return size() > ASSET_TYPE_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Read paths run without a surrounding transaction: each repository call
+     * commits its own read, so no connection is pinned while quotes are fetched.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<AssetDTO> getAllAssets() {
-        List<BaseAsset> allAssets = new ArrayList<>();
-
-        allAssets.addAll(stockRepository.findAll());
-        allAssets.addAll(bondRepository.findAll());
-        allAssets.addAll(etfRepository.findAll());
-        allAssets.addAll(mutualFundRepository.findAll());
-        allAssets.addAll(cryptoRepository.findAll());
-        allAssets.addAll(realEstateRepository.findAll());
-        allAssets.addAll(cashRepository.findAll());
-
-        return allAssets.stream()
-                .map(this::enrichAssetDTO)
+        // AssetDTO only carries base fields, so a single scan of 'assets' is enough
+        List<AssetDTO> allAssets = portfolioAssetRepository.findAllBaseViews().stream()
+                .map(AssetPricing::toAssetDTO)
                 .collect(Collectors.toList());
+
+        return enrichAssetDTOs(allAssets);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AssetDTO getAssetById(Long id) {
         BaseAsset asset = findAssetById(id);
         return enrichAssetDTO(asset);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<AssetDTO> getAssetsByType(AssetType type) {
-        List<? extends BaseAsset> assets = switch (type) {
-            case STOCK -> stockRepository.findAll();
-            case BOND -> bondRepository.findAll();
-            case ETF -> etfRepository.findAll();
-            case MUTUAL_FUND -> mutualFundRepository.findAll();
-            case CRYPTO -> cryptoRepository.findAll();
-            case REAL_ESTATE -> realEstateRepository.findAll();
-            case CASH -> cashRepository.findAll();
+        List<? extends BaseAsset> assets = repositoryFor(type).findAll();
+
+        return enrichAssetDTOs(assets.stream()
+                .map(AssetPricing::toAssetDTO)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Keyset pagination: each page resumes strictly after the cursor row, so
+     * deep pages cost the same as the first and concurrent inserts or deletes
+     * never shift rows between pages. Id and purchase date pages are read
+     * with an indexed LIMIT query; value and gain % depend on live prices, so
+     * those stream the filtered rows through a bounded heap keyed on the
+     * cached quotes.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AssetPageDTO getAssetPage(AssetFilter filter, AssetSort sort, Sort.Direction direction,
+                                     String cursor, int limit) {
+        AssetCursor after = cursor != null && !cursor.isBlank()
+                ? AssetCursor.decode(cursor, sort, direction)
+                : null;
+        Long afterId = after != null ? after.id() : null;
+
+        // One row past the page tells whether another page follows
+        List<PageRow> rows = switch (sort) {
+            case ID -> portfolioAssetRepository.findBaseViewsById(filter, afterId, direction, limit + 1).stream()
+                    .map(asset -> new PageRow(asset, null))
+                    .toList();
+            case PURCHASE_DATE -> portfolioAssetRepository.findBaseViewsByPurchaseDate(filter,
+                            after != null && after.key() != null ? LocalDate.parse(after.key()) : null,
+                            afterId, direction, limit + 1).stream()
+                    .map(asset -> new PageRow(asset, asset.getPurchaseDate() != null
+                            ? asset.getPurchaseDate().toString()
+                            : null))
+                    .toList();
+            case VALUE, GAIN_LOSS_PERCENTAGE -> pageByCachedPrice(filter, sort, direction, after, limit + 1);
         };
 
-        return assets.stream()
-                .map(this::enrichAssetDTO)
-                .collect(Collectors.toList());
+        boolean hasMore = rows.size() > limit;
+        List<PageRow> page = hasMore ? rows.subList(0, limit) : rows;
+        PageRow last = hasMore ? page.get(page.size() - 1) : null;
+
+        return AssetPageDTO.builder()
+                .items(enrichAssetDTOs(page.stream()
+                        .map(row -> AssetPricing.toAssetDTO(row.asset()))
+                        .collect(Collectors.toList())))
+                .nextCursor(last != null
+                        ? new AssetCursor(sort, direction, last.key(), last.asset().getId()).encode()
+                        : null)
+                .hasMore(hasMore)
+                .build();
     }
 
+    /**
+     * Pages through 'assets' by id with the same keyset query as
+     * {@link #getAssetPage}, so no connection or result set is held open
+     * while a batch is priced or written out.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public List<AssetDTO> searchAssets(String query) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void forEachAssetBatch(AssetFilter filter, int batchSize, Consumer<List<AssetDTO>> action) {
+        Long afterId = null;
+        List<AssetBaseView> batch;
+        do {
+            batch = portfolioAssetRepository.findBaseViewsById(filter, afterId, Sort.Direction.ASC, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+            action.accept(enrichAssetDTOs(batch.stream()
+                    .map(AssetPricing::toAssetDTO)
+                    .collect(Collectors.toList())));
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * The first {@code size} filtered rows after the cursor, ordered by value
+     * or gain % at the cached price (the same fallback as enrichment when no
+     * quote is cached). Rows without a gain % (no cached quote or no cost
+     * basis) sort last.
+     */
+    private List<PageRow> pageByCachedPrice(AssetFilter filter, AssetSort sort, Sort.Direction direction,
+                                            AssetCursor after, int size) {
+        Comparator<BigDecimal> byKey = direction.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Comparator<Long> byId = direction.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Comparator<KeyedRow> order = Comparator
+                .comparing(KeyedRow::key, Comparator.nullsLast(byKey))
+                .thenComparing(KeyedRow::id, byId);
+        KeyedRow cursorRow = after != null
+                ? new KeyedRow(after.id(), after.key() != null ? new BigDecimal(after.key()) : null, null)
+                : null;
+
+        // Smallest 'size' rows in page order = greatest by the reversed order
+        List<KeyedRow> selected = collect(action -> portfolioAssetRepository.forEachBaseView(filter, asset -> {
+            KeyedRow row = new KeyedRow(asset.getId(), cachedSortKey(asset, sort), asset);
+            if (cursorRow == null || order.compare(row, cursorRow) > 0) {
+                action.accept(row);
+            }
+        }), TopK.greatest(size, order.reversed()));
+
+        return selected.stream()
+                .map(row -> new PageRow(row.asset(), row.key() != null ? row.key().toPlainString() : null))
+                .toList();
+    }
+
+    /**
+     * Value or gain % of an asset priced from the quote cache only; the gain %
+     * is null when there is no cached quote or no cost basis.
+     */
+    private BigDecimal cachedSortKey(AssetBaseView asset, AssetSort sort) {
+        BigDecimal price = isTradeableAsset(asset.getType())
+                ? stockPriceService.getCachedPrice(asset.getSymbol())
+                : null;
+        BigDecimal costBasis = asset.getCostBasis();
+        BigDecimal value = price != null ? asset.getQuantity().multiply(price) : costBasis;
+        if (sort == AssetSort.VALUE) {
+            return value;
+        }
+        return price != null ? AssetPricing.gainLossPercentage(value.subtract(costBasis), costBasis) : null;
+    }
+
+    /**
+     * Run a push-style source through a collector without buffering it.
+     */
+    private static <T, A, R> R collect(Consumer<Consumer<T>> source, Collector<T, A, R> collector) {
+        A container = collector.supplier().get();
+        source.accept(item -> collector.accumulator().accept(container, item));
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * Answered from the in-memory search index; only price enrichment may
+     * leave the process.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AssetDTO> searchAssets(String query, int limit) {
         if (query == null || query.isBlank()) {
-            return getAllAssets();
+            return Collections.emptyList();
         }
 
-        Set<BaseAsset> combined = new LinkedHashSet<>();
-
-        // Search across all repositories
-        combined.addAll(stockRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(stockRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(bondRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(bondRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(etfRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(etfRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(mutualFundRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(mutualFundRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(cryptoRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(cryptoRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(realEstateRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(realEstateRepository.findByNameContainingIgnoreCase(query));
-        combined.addAll(cashRepository.findBySymbolContainingIgnoreCase(query));
-        combined.addAll(cashRepository.findByNameContainingIgnoreCase(query));
-
-        return combined.stream()
-                .map(this::enrichAssetDTO)
-                .collect(Collectors.toList());
+        return enrichAssetDTOs(assetSearchIndex.search(query, limit).stream()
+                .map(AssetPricing::toAssetDTO)
+                .collect(Collectors.toList()));
     }
 
     @Override
     public AssetDTO createAsset(AssetDTO assetDTO) {
-        BaseAsset saved = switch (assetDTO.getType()) {
-            case STOCK -> stockRepository.save(Stock.builder()
+        if (isZero(assetDTO.getQuantity())) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        BaseAsset saved = saveAsset(newAsset(assetDTO));
+        assetTypeById.put(saved.getId(), saved.getType());
+        eventPublisher.publishEvent(AssetChangedEvent.created(AssetBaseView.of(saved)));
+        log.info("Created new {} asset: {} ({})", saved.getType(), saved.getName(), saved.getSymbol());
+        return enrichAssetDTO(saved);
+    }
+
+    @Override
+    public AssetDTO updateAsset(Long id, AssetDTO assetDTO) {
+        BaseAsset existing = findAssetById(id);
+        checkHoldingEditable(existing, assetDTO);
+        AssetBaseView before = AssetBaseView.of(existing);
+
+        existing.setSymbol(assetDTO.getSymbol().toUpperCase().trim());
+        existing.setName(assetDTO.getName().trim());
+        existing.setQuantity(assetDTO.getQuantity());
+        existing.setBuyPrice(assetDTO.getBuyPrice());
+        existing.setPurchaseDate(assetDTO.getPurchaseDate());
+
+        BaseAsset updated = saveAsset(existing);
+        eventPublisher.publishEvent(AssetChangedEvent.updated(before, AssetBaseView.of(updated)));
+        log.info("Updated {} asset: {} (ID: {})", updated.getType(), updated.getName(), updated.getId());
+        return enrichAssetDTO(updated);
+    }
+
+    @Override
+    public void deleteAsset(Long id) {
+        BaseAsset asset = findAssetById(id);
+        deleteAssetEntity(asset);
+        assetTypeById.remove(id);
+        eventPublisher.publishEvent(AssetChangedEvent.deleted(AssetBaseView.of(asset)));
+        log.info("Deleted {} asset: {} (ID: {})", asset.getType(), asset.getName(), id);
+    }
+
+    /**
+     * All existing assets are read with one polymorphic query. Writes are
+     * grouped by subtype repository; with the table id generator and
+     * hibernate.jdbc.batch_size they go out as JDBC batches when the
+     * transaction flushes. Results are priced after commit with one batched
+     * quote lookup, so no connection is held while quotes are fetched.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AssetBatchResult applyBatch(AssetBatchRequest request) {
+        List<AssetDTO> creates = request.getCreate() != null ? request.getCreate() : List.of();
+        List<AssetDTO> updates = request.getUpdate() != null ? request.getUpdate() : List.of();
+        List<Long> deletes = request.getDelete() != null ? request.getDelete() : List.of();
+        validateBatch(creates, updates, deletes);
+
+        AssetBatchResult result = new TransactionTemplate(transactionManager)
+                .execute(status -> writeBatch(creates, updates, deletes));
+
+        List<AssetDTO> written = new ArrayList<>(result.getCreated());
+        written.addAll(result.getUpdated());
+        enrichAssetDTOs(written);
+        log.info("Applied asset batch: {} created, {} updated, {} deleted",
+                result.getCreated().size(), result.getUpdated().size(), result.getDeleted().size());
+        return result;
+    }
+
+    private AssetBatchResult writeBatch(List<AssetDTO> creates, List<AssetDTO> updates, List<Long> deletes) {
+        Set<Long> ids = new LinkedHashSet<>(deletes);
+        updates.forEach(u -> ids.add(u.getId()));
+        Map<Long, BaseAsset> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            portfolioAssetRepository.findAllById(ids).forEach(a -> existing.put(a.getId(), a));
+        }
+        List<Long> missing = ids.stream().filter(id -> !existing.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Asset", "id", missing);
+        }
+        checkUpdatesAgainstStored(updates, existing);
+
+        List<BaseAsset> created = creates.stream().map(AssetServiceImpl::newAsset).toList();
+        bySubtype(created).forEach((type, assets) -> sameTypeRepository(type).saveAll(assets));
+
+        List<AssetBaseView> before = new ArrayList<>(updates.size());
+        List<BaseAsset> updated = new ArrayList<>(updates.size());
+        for (AssetDTO update : updates) {
+            BaseAsset asset = existing.get(update.getId());
+            checkHoldingEditable(asset, update);
+            before.add(AssetBaseView.of(asset));
+            asset.setSymbol(update.getSymbol().toUpperCase().trim());
+            asset.setName(update.getName().trim());
+            asset.setQuantity(update.getQuantity());
+            asset.setBuyPrice(update.getBuyPrice());
+            asset.setPurchaseDate(update.getPurchaseDate());
+            updated.add(asset);
+        }
+        bySubtype(updated).forEach((type, assets) -> sameTypeRepository(type).saveAll(assets));
+
+        List<BaseAsset> deleted = deletes.stream().map(existing::get).toList();
+        bySubtype(deleted).forEach((type, assets) -> sameTypeRepository(type).deleteAll(assets));
+
+        // Write now, so timestamps are set and failures surface before events go out
+        portfolioAssetRepository.flush();
+
+        for (BaseAsset asset : created) {
+            assetTypeById.put(asset.getId(), asset.getType());
+            eventPublisher.publishEvent(AssetChangedEvent.created(AssetBaseView.of(asset)));
+        }
+        for (int i = 0; i < updated.size(); i++) {
+            eventPublisher.publishEvent(AssetChangedEvent.updated(before.get(i), AssetBaseView.of(updated.get(i))));
+        }
+        for (BaseAsset asset : deleted) {
+            assetTypeById.remove(asset.getId());
+            eventPublisher.publishEvent(AssetChangedEvent.deleted(AssetBaseView.of(asset)));
+        }
+
+        return AssetBatchResult.builder()
+                .created(created.stream().map(AssetPricing::toAssetDTO).collect(Collectors.toList()))
+                .updated(updated.stream().map(AssetPricing::toAssetDTO).collect(Collectors.toList()))
+                .deleted(List.copyOf(deletes))
+                .build();
+    }
+
+    /**
+     * Reject the whole batch up front if any operation is invalid.
+     */
+    private static void validateBatch(List<AssetDTO> creates, List<AssetDTO> updates, List<Long> deletes) {
+        int operations = creates.size() + updates.size() + deletes.size();
+        if (operations == 0) {
+            throw new IllegalArgumentException("Batch is empty");
+        }
+        if (operations > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("Batch has " + operations + " operations; the limit is " + MAX_BATCH_OPERATIONS);
+        }
+
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            List<String> violations = AssetConstraints.violations(creates.get(i));
+            if (!violations.isEmpty()) {
+                problems.add("create[" + i + "]: " + String.join("; ", violations));
+            }
+        }
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            AssetDTO update = updates.get(i);
+            List<String> violations = new ArrayList<>();
+            if (update.getId() == null) {
+                violations.add("Id is required");
+            } else if (!seen.add(update.getId())) {
+                violations.add("Asset " + update.getId() + " appears more than once");
+            }
+            violations.addAll(AssetConstraints.violations(update).stream()
+                    .filter(v -> !v.equals("Asset type is required")) // the subtype of an asset never changes
+                    // 0 is allowed on a closed ledger position, checked once the stored asset is loaded
+                    .filter(v -> !(v.equals("Quantity must be greater than 0") && isZero(update.getQuantity())))
+                    .toList());
+            if (!violations.isEmpty()) {
+                problems.add("update[" + i + "]: " + String.join("; ", violations));
+            }
+        }
+        for (int i = 0; i < deletes.size(); i++) {
+            Long id = deletes.get(i);
+            if (id == null) {
+                problems.add("delete[" + i + "]: Id is required");
+            } else if (!seen.add(id)) {
+                problems.add("delete[" + i + "]: Asset " + id + " appears more than once");
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid batch: " + String.join(" | ", problems));
+        }
+    }
+
+    /**
+     * Checks of batch updates against the stored assets. The subtype of an
+     * asset never changes; an update that names a different type is rejected
+     * rather than applied as the stored one. A quantity of 0 is only kept on
+     * a position closed through its lot ledger.
+     */
+    private static void checkUpdatesAgainstStored(List<AssetDTO> updates, Map<Long, BaseAsset> existing) {
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            AssetDTO update = updates.get(i);
+            BaseAsset stored = existing.get(update.getId());
+            if (update.getType() != null && update.getType() != stored.getType()) {
+                problems.add("update[" + i + "]: Asset " + update.getId() + " is a " + stored.getType()
+                        + " and cannot become a " + update.getType());
+            }
+            if (isZero(update.getQuantity()) && stored.getLedgerCostBasis() == null) {
+                problems.add("update[" + i + "]: Quantity must be greater than 0");
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid batch: " + String.join(" | ", problems));
+        }
+    }
+
+    /**
+     * Once an asset has a lot ledger, its quantity and buy price follow the
+     * ledger, so a position closed by selling keeps (and may be sent back
+     * with) a quantity of 0. Other assets need a positive quantity.
+     */
+    private static void checkHoldingEditable(BaseAsset asset, AssetDTO update) {
+        if (asset.getLedgerCostBasis() == null && isZero(update.getQuantity())) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (asset.getLedgerCostBasis() != null
+                && (!sameAmount(asset.getQuantity(), update.getQuantity())
+                || !sameAmount(asset.getBuyPrice(), update.getBuyPrice()))) {
+            throw new IllegalArgumentException("Asset " + asset.getId()
+                    + " has a lot ledger; record a BUY or SELL to change its quantity or buy price");
+        }
+    }
+
+    private static boolean isZero(BigDecimal amount) {
+        return amount != null && amount.signum() == 0;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static Map<AssetType, List<BaseAsset>> bySubtype(List<BaseAsset> assets) {
+        return assets.stream().collect(Collectors.groupingBy(BaseAsset::getType,
+                () -> new EnumMap<>(AssetType.class), Collectors.toList()));
+    }
+
+    /**
+     * Find asset by ID with a single query. A known subtype is loaded from its
+     * own repository; otherwise one polymorphic lookup resolves the
+     * discriminator and the subtype is remembered for next time.
+     */
+    private BaseAsset findAssetById(Long id) {
+        AssetType knownType = assetTypeById.get(id);
+        Optional<? extends BaseAsset> asset = knownType != null
+                ? repositoryFor(knownType).findById(id)
+                : portfolioAssetRepository.findById(id);
+
+        if (asset.isEmpty()) {
+            assetTypeById.remove(id);
+            throw new ResourceNotFoundException("Asset", "id", id);
+        }
+        assetTypeById.put(id, asset.get().getType());
+        return asset.get();
+    }
+
+    /**
+     * New (unsaved) entity of the DTO's subtype.
+     */
+    private static BaseAsset newAsset(AssetDTO assetDTO) {
+        return switch (assetDTO.getType()) {
+            case STOCK -> Stock.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case BOND -> bondRepository.save(Bond.builder()
+                    .build();
+            case BOND -> Bond.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case ETF -> etfRepository.save(Etf.builder()
+                    .build();
+            case ETF -> Etf.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case MUTUAL_FUND -> mutualFundRepository.save(MutualFund.builder()
+                    .build();
+            case MUTUAL_FUND -> MutualFund.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case CRYPTO -> cryptoRepository.save(Crypto.builder()
+                    .build();
+            case CRYPTO -> Crypto.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case REAL_ESTATE -> realEstateRepository.save(RealEstate.builder()
+                    .build();
+            case REAL_ESTATE -> RealEstate.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
-            case CASH -> cashRepository.save(Cash.builder()
+                    .build();
+            case CASH -> Cash.builder()
                     .symbol(assetDTO.getSymbol().toUpperCase().trim())
                     .name(assetDTO.getName().trim())
                     .quantity(assetDTO.getQuantity())
                     .buyPrice(assetDTO.getBuyPrice())
                     .purchaseDate(assetDTO.getPurchaseDate())
-                    .build());
+                    .build();
         };
-
-        log.info("Created new {} asset: {} ({})", saved.getType(), saved.getName(), saved.getSymbol());
-        return enrichAssetDTO(saved);
-    }
-
-    @Override
-    public AssetDTO updateAsset(Long id, AssetDTO assetDTO) {
-        BaseAsset existing = findAssetById(id);
-
-        existing.setSymbol(assetDTO.getSymbol().toUpperCase().trim());
-        existing.setName(assetDTO.getName().trim());
-        existing.setQuantity(assetDTO.getQuantity());
-        existing.setBuyPrice(assetDTO.getBuyPrice());
-        existing.setPurchaseDate(assetDTO.getPurchaseDate());
-
-        BaseAsset updated = saveAsset(existing);
-        log.info("Updated {} asset: {} (ID: {})", updated.getType(), updated.getName(), updated.getId());
-        return enrichAssetDTO(updated);
     }
 
-    @Override
-    public void deleteAsset(Long id) {
-        BaseAsset asset = findAssetById(id);
-        deleteAssetEntity(asset);
-        log.info("Deleted {} asset: {} (ID: {})", asset.getType(), asset.getName(), id);
+    /**
+     * Repository holding the given asset subtype.
+     */
+    private BaseAssetRepository<? extends BaseAsset> repositoryFor(AssetType type) {
+        return switch (type) {
+            case STOCK -> stockRepository;
+            case BOND -> bondRepository;
+            case ETF -> etfRepository;
+            case MUTUAL_FUND -> mutualFundRepository;
+            case CRYPTO -> cryptoRepository;
+            case REAL_ESTATE -> realEstateRepository;
+            case CASH -> cashRepository;
+        };
     }
 
     /**
-     * Find asset by ID across all repositories.
+     * {@link #repositoryFor} typed for a group of assets that are all of the given subtype.
      */
-    private BaseAsset findAssetById(Long id) {
-        return Stream.<Optional<? extends BaseAsset>>of(
-                        stockRepository.findById(id),
-                        bondRepository.findById(id),
-                        etfRepository.findById(id),
-                        mutualFundRepository.findById(id),
-                        cryptoRepository.findById(id),
-                        realEstateRepository.findById(id),
-                        cashRepository.findById(id))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Asset", "id", id));
+    @SuppressWarnings("unchecked")
+    private BaseAssetRepository<BaseAsset> sameTypeRepository(AssetType type) {
+        return (BaseAssetRepository<BaseAsset>) repositoryFor(type);
     }
 
     /**
@@ -251,66 +603,50 @@ public class AssetServiceImpl implements AssetService {
     }
 
     /**
-     * Convert BaseAsset entity to DTO and enrich with current price data.
+     * Enrich a batch of DTOs. Live prices for all distinct tradeable symbols are
+     * resolved up front in one concurrent batch, so the cost is bounded by the
+     * slowest quote rather than the sum of all of them.
      */
-    private AssetDTO enrichAssetDTO(BaseAsset asset) {
-        AssetDTO dto = AssetDTO.builder()
-                .id(asset.getId())
-                .symbol(asset.getSymbol())
-                .name(asset.getName())
-                .type(asset.getType())
-                .quantity(asset.getQuantity())
-                .buyPrice(asset.getBuyPrice())
-                .purchaseDate(asset.getPurchaseDate())
-                .createdAt(asset.getCreatedAt())
-                .updatedAt(asset.getUpdatedAt())
-                .costBasis(asset.getCostBasis())
-                .build();
+    private List<AssetDTO> enrichAssetDTOs(List<AssetDTO> assets) {
+        String[] symbols = assets.stream()
+                .filter(a -> isTradeableAsset(a.getType()) && a.getSymbol() != null)
+                .map(a -> a.getSymbol().toUpperCase().trim())
+                .distinct()
+                .toArray(String[]::new);
 
-        // For STOCK, ETF, CRYPTO, and MUTUAL_FUND, try to get current price
-        if (isTradeableAsset(asset.getType())) {
-            BigDecimal currentPrice = stockPriceService.getCurrentPrice(asset.getSymbol());
-            if (currentPrice != null) {
-                dto.setCurrentPrice(currentPrice);
-                dto.setCurrentValue(asset.getQuantity().multiply(currentPrice));
-
-                BigDecimal costBasis = asset.getCostBasis();
-                BigDecimal gainLoss = dto.getCurrentValue().subtract(costBasis);
-                dto.setGainLoss(gainLoss);
-
-                if (costBasis.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal gainLossPercentage = gainLoss
-                            .divide(costBasis, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100));
-                    dto.setGainLossPercentage(gainLossPercentage);
-                }
-            } else {
-                setDefaultPricing(dto, asset);
-            }
-        } else {
-            setDefaultPricing(dto, asset);
-        }
+        Map<String, BigDecimal> prices = stockPriceService.getCurrentPrices(symbols);
 
-        return dto;
+        assets.forEach(a -> AssetPricing.applyPricing(a, a.getSymbol() != null
+                ? prices.get(a.getSymbol().toUpperCase().trim())
+                : null));
+        return assets;
     }
 
     /**
-     * Set default pricing when live price is not available.
+     * Convert BaseAsset entity to DTO and enrich with current price data.
      */
-    private void setDefaultPricing(AssetDTO dto, BaseAsset asset) {
-        dto.setCurrentPrice(asset.getBuyPrice());
-        dto.setCurrentValue(asset.getCostBasis());
-        dto.setGainLoss(BigDecimal.ZERO);
-        dto.setGainLossPercentage(BigDecimal.ZERO);
+    private AssetDTO enrichAssetDTO(BaseAsset asset) {
+        AssetDTO dto = AssetPricing.toAssetDTO(asset);
+
+        // For STOCK, ETF, CRYPTO, and MUTUAL_FUND, try to get current price
+        BigDecimal currentPrice = isTradeableAsset(asset.getType())
+                ? stockPriceService.getCurrentPrice(asset.getSymbol())
+                : null;
+        AssetPricing.applyPricing(dto, currentPrice);
+        return dto;
     }
 
     /**
      * Check if asset type supports live price fetching.
      */
     private boolean isTradeableAsset(AssetType type) {
-        return type == AssetType.STOCK ||
-                type == AssetType.ETF ||
-                type == AssetType.CRYPTO ||
-                type == AssetType.MUTUAL_FUND;
+        return type != null && type.isTradeable();
+    }
+
+    // A page row with its sort key as carried in the cursor
+    private record PageRow(AssetBaseView asset, String key) {
+    }
+
+    private record KeyedRow(long id, BigDecimal key, AssetBaseView asset) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+/**
+ * Orderings available for paginated asset listings. Every ordering breaks
+ * ties by id, so each row has a unique position a cursor can point at.
+ */
+public enum AssetSort {
+    ID,
+    PURCHASE_DATE,
+    // Current value / gain % as of the cached quotes
+    VALUE,
+    GAIN_LOSS_PERCENTAGE
+}
@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+
+/**
+ * Bucket sizes for downsampling price bars. Buckets are aligned in UTC:
+ * days at midnight, weeks on Monday, months on the 1st.
+ */
+public enum BarInterval {
+    MINUTE,
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Start (epoch seconds) of the bucket holding {@code epochSecond}.
+     */
+    public long bucketStart(long epochSecond) {
+        return switch (this) {
+            case MINUTE -> epochSecond - Math.floorMod(epochSecond, 60);
+            case HOUR -> epochSecond - Math.floorMod(epochSecond, 3_600);
+            case DAY -> epochSecond - Math.floorMod(epochSecond, SECONDS_PER_DAY);
+            case WEEK -> {
+                long day = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+                // 1970-01-01 was a Thursday
+                yield (day - Math.floorMod(day + 3, 7)) * SECONDS_PER_DAY;
+            }
+            case MONTH -> LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY))
+                    .withDayOfMonth(1).toEpochDay() * SECONDS_PER_DAY;
+        };
+    }
+
+    /**
+     * Start of the bucket after the one starting at {@code bucketStart}.
+     */
+    public long nextBucketStart(long bucketStart) {
+        return switch (this) {
+            case MINUTE -> bucketStart + 60;
+            case HOUR -> bucketStart + 3_600;
+            case DAY -> bucketStart + SECONDS_PER_DAY;
+            case WEEK -> bucketStart + 7 * SECONDS_PER_DAY;
+            case MONTH -> LocalDate.ofEpochDay(bucketStart / SECONDS_PER_DAY)
+                    .plusMonths(1).toEpochDay() * SECONDS_PER_DAY;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AssetChangedEvent;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Lets a component that loads its state with a query and then keeps it
+ * current from committed {@link AssetChangedEvent}s take that first snapshot
+ * without losing a change that commits while the query runs.
+ *
+ * The owner reports every event when its transaction starts committing
+ * ({@link #enter}, from a BEFORE_COMMIT listener) and when it has completed
+ * ({@link #exit}, from an AFTER_COMPLETION listener), and applies it in
+ * between, on AFTER_COMMIT, under its own lock. A load then goes:
+ *
+ * <pre>
+ * long token = fence.quiet();      // no commit under way
+ * state = query();
+ * lock owner;
+ * if (!fence.unchanged(token)) retry;
+ * install state; loaded = true;
+ * </pre>
+ *
+ * Every change that finished before {@link #quiet} returned is in the query
+ * result. A change that started committing after it makes the check fail,
+ * so the query runs again rather than missing it. Once installed, later
+ * changes are applied by the owner's AFTER_COMMIT listener as usual.
+ */
+final class ChangeFence {
+
+    private static final long WAIT_MILLIS = 100;
+
+    // Guarded by this
+    private final Set<Object> committing = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long entered;
+
+    synchronized void enter(Object event) {
+        committing.add(event);
+        entered++;
+    }
+
+    synchronized void exit(Object event) {
+        if (committing.remove(event) && committing.isEmpty()) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Wait until no transaction is between its BEFORE_COMMIT and
+     * AFTER_COMPLETION, and return a token for {@link #unchanged}.
+     *
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    synchronized long quiet() {
+        while (!committing.isEmpty()) {
+            try {
+                wait(WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for commits to finish", e);
+            }
+        }
+        return entered;
+    }
+
+    /**
+     * Whether no transaction has started committing since {@link #quiet} returned token.
+     */
+    synchronized boolean unchanged(long token) {
+        return entered == token;
+    }
+}
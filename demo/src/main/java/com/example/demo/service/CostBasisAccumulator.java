@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Running cost basis and realized gain of one position under FIFO, LIFO and
+ * average cost at once, fed one ledger event at a time.
+ *
+ * A buy is O(1). A sell is O(1) for average cost and amortized O(1) for
+ * FIFO/LIFO: it removes the lots it uses up, and each lot is removed at most
+ * once. Cost bases are kept as running totals, so reading them never walks
+ * the lots. Not thread-safe.
+ */
+public class CostBasisAccumulator {
+
+    // Scale of the average cost relieved by a partial sale
+    private static final int AVERAGE_SCALE = 10;
+
+    private BigDecimal quantity = BigDecimal.ZERO;
+    private BigDecimal dividends = BigDecimal.ZERO;
+    private long events;
+
+    // Open lots, oldest first; FIFO and LIFO use them up from opposite ends
+    private final Deque<Lot> fifoLots = new ArrayDeque<>();
+    private final Deque<Lot> lifoLots = new ArrayDeque<>();
+
+    private final Map<CostBasisMethod, BigDecimal> costBasis = new EnumMap<>(CostBasisMethod.class);
+    private final Map<CostBasisMethod, BigDecimal> realizedGain = new EnumMap<>(CostBasisMethod.class);
+
+    public CostBasisAccumulator() {
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            costBasis.put(method, BigDecimal.ZERO);
+            realizedGain.put(method, BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Add a lot of {@code quantity} units bought at {@code price} each.
+     */
+    public void buy(BigDecimal quantity, BigDecimal price) {
+        requirePositive(quantity, "quantity");
+        requireNonNegative(price, "price");
+        BigDecimal cost = quantity.multiply(price);
+
+        this.quantity = this.quantity.add(quantity);
+        fifoLots.addLast(new Lot(quantity, price));
+        lifoLots.addLast(new Lot(quantity, price));
+        costBasis.replaceAll((method, total) -> total.add(cost));
+        events++;
+    }
+
+    /**
+     * Sell {@code quantity} units at {@code price} each.
+     *
+     * @throws IllegalArgumentException if more units are sold than are held
+     */
+    public void sell(BigDecimal quantity, BigDecimal price) {
+        requirePositive(quantity, "quantity");
+        requireNonNegative(price, "price");
+        if (quantity.compareTo(this.quantity) > 0) {
+            throw new IllegalArgumentException("Cannot sell " + quantity.stripTrailingZeros().toPlainString()
+                    + " units; only " + this.quantity.stripTrailingZeros().toPlainString() + " held");
+        }
+        BigDecimal proceeds = quantity.multiply(price);
+
+        BigDecimal averageCost = costBasis.get(CostBasisMethod.AVERAGE);
+        BigDecimal averageRelieved = quantity.compareTo(this.quantity) == 0
+                ? averageCost
+                : averageCost.multiply(quantity).divide(this.quantity, AVERAGE_SCALE, RoundingMode.HALF_EVEN);
+        relieve(CostBasisMethod.AVERAGE, averageRelieved, proceeds);
+        relieve(CostBasisMethod.FIFO, consume(fifoLots, quantity, true), proceeds);
+        relieve(CostBasisMethod.LIFO, consume(lifoLots, quantity, false), proceeds);
+
+        this.quantity = this.quantity.subtract(quantity);
+        if (this.quantity.signum() == 0) {
+            // Drop rounding dust of the average once the position is closed
+            costBasis.put(CostBasisMethod.AVERAGE, BigDecimal.ZERO);
+        }
+        events++;
+    }
+
+    /**
+     * Record dividend (or interest) income; holdings are unchanged.
+     */
+    public void dividend(BigDecimal amount) {
+        requireNonNegative(amount, "amount");
+        dividends = dividends.add(amount);
+        events++;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Cost of the units still held.
+     */
+    public BigDecimal getCostBasis(CostBasisMethod method) {
+        return costBasis.get(method);
+    }
+
+    /**
+     * Proceeds minus cost of everything sold so far.
+     */
+    public BigDecimal getRealizedGain(CostBasisMethod method) {
+        return realizedGain.get(method);
+    }
+
+    public BigDecimal getDividends() {
+        return dividends;
+    }
+
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * Lots not (fully) sold yet under FIFO or LIFO; average cost keeps no lots
+     * and reports the FIFO count.
+     */
+    public int getOpenLotCount(CostBasisMethod method) {
+        return method == CostBasisMethod.LIFO ? lifoLots.size() : fifoLots.size();
+    }
+
+    private void relieve(CostBasisMethod method, BigDecimal cost, BigDecimal proceeds) {
+        costBasis.compute(method, (m, total) -> total.subtract(cost));
+        realizedGain.compute(method, (m, total) -> total.add(proceeds.subtract(cost)));
+    }
+
+    /**
+     * Take {@code quantity} units off one end of the lots.
+     *
+     * @return the cost of the units taken
+     */
+    private static BigDecimal consume(Deque<Lot> lots, BigDecimal quantity, boolean oldestFirst) {
+        BigDecimal remaining = quantity;
+        BigDecimal cost = BigDecimal.ZERO;
+        while (remaining.signum() > 0) {
+            Lot lot = oldestFirst ? lots.peekFirst() : lots.peekLast();
+            if (lot.quantity.compareTo(remaining) <= 0) {
+                cost = cost.add(lot.quantity.multiply(lot.price));
+                remaining = remaining.subtract(lot.quantity);
+                if (oldestFirst) {
+                    lots.pollFirst();
+                } else {
+                    lots.pollLast();
+                }
+            } else {
+                cost = cost.add(remaining.multiply(lot.price));
+                lot.quantity = lot.quantity.subtract(remaining);
+                remaining = BigDecimal.ZERO;
+            }
+        }
+        return cost;
+    }
+
+    private static void requirePositive(BigDecimal value, String name) {
+        if (value == null || value.signum() <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+    }
+
+    private static void requireNonNegative(BigDecimal value, String name) {
+        if (value == null || value.signum() < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+    }
+
+    // An open lot: units left and what each cost
+    private static final class Lot {
+        BigDecimal quantity;
+        final BigDecimal price;
+
+        Lot(BigDecimal quantity, BigDecimal price) {
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single gateway for all outbound Finnhub calls.
+ *
+ * - Rate limit: at most {@code permits} calls start in any {@code window}
+ *   (a token bucket whose tokens come back one window after they are spent),
+ *   so the free tier's 60 calls/minute is never exceeded.
+ * - Priority lanes: queued requests are dispatched by {@link Priority},
+ *   so user-facing quotes go ahead of validation, news and background refresh.
+ * - Coalescing: a GET for a URL that is already queued or running shares
+ *   that request's result. A higher-priority caller joining a queued
+ *   request moves it to its own lane, so a quote never waits behind the
+ *   background refresh it joined.
+ * - Shedding: requests are rejected when the queue is full and fail once
+ *   they have waited longer than {@code maxWaitMillis}.
+ */
+@Component
+@Slf4j
+public class FinnhubRequestScheduler {
+
+    /**
+     * Dispatch order, highest priority first.
+     */
+    public enum Priority {
+        QUOTE,
+        VALIDATION,
+        NEWS,
+        REFRESH
+    }
+
+    private final int permits;
+    private final long windowMillis;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+    private final int maxConcurrency;
+    private final RestTemplate restTemplate;
+
+    private final PriorityBlockingQueue<Request> queue = new PriorityBlockingQueue<>();
+    private final Map<String, Call> inFlight = new ConcurrentHashMap<>();
+    // Start times of the calls made in the current window, oldest first (dispatcher thread only)
+    private final Deque<Long> recentCalls = new ArrayDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long pausedUntil;
+
+    private ExecutorService workers;
+    private Thread dispatcher;
+
+    @Autowired
+    public FinnhubRequestScheduler(@Value("${finnhub.api.rate-limit.calls-per-minute:60}") int callsPerMinute,
+                                   @Value("${finnhub.api.rate-limit.queue-capacity:200}") int queueCapacity,
+                                   @Value("${finnhub.api.rate-limit.max-wait-ms:10000}") long maxWaitMillis,
+                                   @Value("${finnhub.api.rate-limit.max-concurrency:4}") int maxConcurrency) {
+        this(callsPerMinute, 60_000, queueCapacity, maxWaitMillis, maxConcurrency);
+    }
+
+    FinnhubRequestScheduler(int permits, long windowMillis, int queueCapacity, long maxWaitMillis,
+                            int maxConcurrency) {
+        this.permits = permits;
+        this.windowMillis = windowMillis;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxConcurrency = maxConcurrency;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(5_000);
+        requestFactory.setReadTimeout(10_000);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "finnhub-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatchLoop, "finnhub-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.interrupt();
+        workers.shutdownNow();
+        Request request;
+        while ((request = queue.poll()) != null) {
+            fail(request, new CancellationException("Finnhub scheduler stopped"));
+        }
+    }
+
+    /**
+     * Queue a GET and return its body once it has run.
+     */
+    public CompletableFuture<String> submit(String url, Priority priority) {
+        Call created = new Call();
+        // Held until the request is queued, so a caller joining it meanwhile can still raise it
+        synchronized (created) {
+            Call existing = inFlight.putIfAbsent(url, created);
+            if (existing != null) {
+                raise(url, existing, priority);
+                return existing.result;
+            }
+
+            if (queue.size() >= queueCapacity) {
+                log.warn("Finnhub queue full ({} requests), shedding {} request", queueCapacity, priority);
+                inFlight.remove(url, created);
+                created.result.completeExceptionally(new RejectedExecutionException("Finnhub request queue is full"));
+                return created.result;
+            }
+
+            created.queued = new Request(url, priority, sequence.incrementAndGet(), System.currentTimeMillis(), created);
+            queue.add(created.queued);
+            return created.result;
+        }
+    }
+
+    /**
+     * Move a queued request for {@code url} up to {@code priority}, if it is
+     * queued in a lower lane; a no-op when it is running or not requested.
+     */
+    public void prioritize(String url, Priority priority) {
+        Call call = inFlight.get(url);
+        if (call != null) {
+            raise(url, call, priority);
+        }
+    }
+
+    private void raise(String url, Call call, Priority priority) {
+        synchronized (call) {
+            Request queued = call.queued;
+            // Once the dispatcher has taken it, remove fails and the request runs as is
+            if (queued != null && priority.compareTo(queued.priority()) < 0 && queue.remove(queued)) {
+                call.queued = new Request(url, priority, sequence.incrementAndGet(), System.currentTimeMillis(), call);
+                queue.add(call.queued);
+                log.debug("Raised queued Finnhub request from {} to {}", queued.priority(), priority);
+            }
+        }
+    }
+
+    /**
+     * Blocking form of {@link #submit}.
+     *
+     * @throws IllegalStateException if the request was shed or the call failed
+     */
+    public String get(String url, Priority priority) {
+        try {
+            return submit(url, priority).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                awaitPermit();
+                Request request = queue.take();
+
+                if (System.currentTimeMillis() - request.enqueuedAt() > maxWaitMillis) {
+                    log.warn("Finnhub {} request waited over {}ms, shedding", request.priority(), maxWaitMillis);
+                    fail(request, new TimeoutException("Finnhub request waited too long for rate limit"));
+                    continue;
+                }
+
+                recentCalls.addLast(System.currentTimeMillis());
+                workers.execute(() -> execute(request));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            // workers shut down
+        }
+    }
+
+    /**
+     * Block until a call may start without exceeding the rate limit.
+     */
+    private void awaitPermit() throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+            while (!recentCalls.isEmpty() && now - recentCalls.peekFirst() >= windowMillis) {
+                recentCalls.pollFirst();
+            }
+
+            long waitMillis = 0;
+            if (recentCalls.size() >= permits) {
+                waitMillis = recentCalls.peekFirst() + windowMillis - now;
+            }
+            waitMillis = Math.max(waitMillis, pausedUntil - now);
+            if (waitMillis <= 0) {
+                return;
+            }
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    private void execute(Request request) {
+        try {
+            String body = restTemplate.getForObject(request.url(), String.class);
+            inFlight.remove(request.url(), request.call());
+            request.call().result.complete(body);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                // Budget used elsewhere (another process, same key): back off for a slot
+                pausedUntil = System.currentTimeMillis() + windowMillis / Math.max(1, permits);
+                log.warn("Finnhub answered 429, pausing outbound calls");
+            }
+            fail(request, e);
+        } catch (RuntimeException e) {
+            fail(request, e);
+        }
+    }
+
+    private void fail(Request request, Throwable cause) {
+        inFlight.remove(request.url(), request.call());
+        request.call().result.completeExceptionally(cause);
+    }
+
+    /**
+     * One outbound GET shared by every caller of its URL.
+     */
+    private static final class Call {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        // Guarded by this: the queue entry, replaced when a caller raises its priority
+        Request queued;
+    }
+
+    private record Request(String url, Priority priority, long sequence, long enqueuedAt,
+                           Call call) implements Comparable<Request> {
+
+        @Override
+        public int compareTo(Request other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
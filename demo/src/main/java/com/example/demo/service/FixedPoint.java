@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money and quantity arithmetic on longs holding value x 10^4, the scale of
+ * the DECIMAL(19,4) columns (DECIMAL(19,2) prices convert exactly), so the
+ * analytics paths do not allocate a BigDecimal per step. Values convert to
+ * and from BigDecimal only at the API and database boundary.
+ *
+ * Live prices are kept at 8 decimals instead ({@link #ofPrice}), since a
+ * crypto quote can be far below 0.0001; {@link #valueAt} multiplies one by a
+ * quantity and rounds the value to the usual 4 decimals.
+ *
+ * Rounding is HALF_UP (ties away from zero), the same as the BigDecimal code
+ * it replaces: on conversion of values with more than 4 decimals, and on the
+ * result of every multiplication and division. Sums and differences are
+ * exact. Anything that does not fit a long throws ArithmeticException rather
+ * than wrapping.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000;
+    public static final int PRICE_SCALE = 8;
+    public static final long PRICE_ONE = 100_000_000;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * The scaled value of a decimal, 0 for null.
+     *
+     * @throws ArithmeticException if it does not fit
+     */
+    public static long of(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        // With scale 0 and a compact value, longValueExact reads the long directly
+        return value.setScale(SCALE, RoundingMode.HALF_UP).scaleByPowerOfTen(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    /**
+     * The value of a price x 10^8, 0 for null.
+     *
+     * @throws ArithmeticException if it does not fit
+     */
+    public static long ofPrice(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).scaleByPowerOfTen(PRICE_SCALE).longValueExact();
+    }
+
+    public static BigDecimal priceToBigDecimal(long scaledPrice) {
+        return BigDecimal.valueOf(scaledPrice, PRICE_SCALE);
+    }
+
+    /**
+     * quantity x price, with the price from {@link #ofPrice}; the result has the usual 4 decimals.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long valueAt(long quantity, long scaledPrice) {
+        return multiplyDivide(quantity, scaledPrice, PRICE_ONE);
+    }
+
+    /**
+     * @throws ArithmeticException on overflow
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * @throws ArithmeticException on overflow
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * a x b, e.g. quantity x price.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long multiply(long a, long b) {
+        return multiplyDivide(a, b, ONE);
+    }
+
+    /**
+     * a / b, rounded to 4 decimals.
+     *
+     * @throws ArithmeticException if b is zero or on overflow
+     */
+    public static long divide(long a, long b) {
+        return multiplyDivide(a, ONE, b);
+    }
+
+    /**
+     * part / whole as a percentage, with the ratio rounded to 4 decimals
+     * before scaling (so 1/8 is 12.5000 and 1/3 is 33.3300), the rule the
+     * gain/loss and allocation percentages have always used.
+     *
+     * @throws ArithmeticException if whole is zero or on overflow
+     */
+    public static long percentage(long part, long whole) {
+        return Math.multiplyExact(divide(part, whole), 100);
+    }
+
+    /**
+     * a x b / divisor rounded HALF_UP, with a 128-bit intermediate product.
+     */
+    static long multiplyDivide(long a, long b, long divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if (high == (low >> 63)) {
+            return divideHalfUp(low, divisor);
+        }
+        // The product needs more than 64 bits; rare enough to do it the slow way
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        if (dividend == Long.MIN_VALUE && divisor == -1) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        long absDivisor = Math.abs(divisor);
+        // Half or more of the divisor left over rounds away from zero
+        if (remainder != 0 && remainder >= absDivisor - remainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportJobDTO;
+import com.example.demo.dto.ImportJobDTO.Status;
+import com.example.demo.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CSV imports in the background.
+ *
+ * An upload is spooled to a temporary file and queued on a bounded executor;
+ * submitting to a full queue fails rather than piling up work. Jobs report
+ * live progress, can be cancelled (a running job stops after its current
+ * chunk) and, when failed or cancelled, resumed from the last committed chunk.
+ * Finished jobs are kept for retention-minutes.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    private final AssetImportService assetImportService;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(AssetImportService assetImportService,
+                            @Value("${portfolio.import.jobs.max-concurrency:1}") int maxConcurrency,
+                            @Value("${portfolio.import.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${portfolio.import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.assetImportService = assetImportService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "asset-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(ImportJob::deleteFile);
+    }
+
+    /**
+     * Spool a CSV upload and queue it for import.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ImportJobDTO submit(String fileName, InputStream content) throws IOException {
+        evictExpired();
+
+        Path file = Files.createTempFile("asset-import-", ".csv");
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName, file,
+                assetImportService.newProgress());
+        jobs.put(job.id, job);
+        try {
+            enqueue(job);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            job.deleteFile();
+            throw e;
+        }
+        log.info("Queued import job {} for {}", job.id, fileName);
+        return job.toDTO();
+    }
+
+    /**
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public ImportJobDTO getJob(String id) {
+        return find(id).toDTO();
+    }
+
+    /**
+     * Cancel a queued or running job. A running job stops once its current
+     * chunk is committed; finished jobs are left as they are.
+     *
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public ImportJobDTO cancel(String id) {
+        ImportJob job = find(id);
+        synchronized (job) {
+            if (job.status == Status.QUEUED) {
+                job.finish(Status.CANCELLED, null);
+            } else if (job.status == Status.RUNNING) {
+                job.progress.requestCancel();
+            }
+            return job.toDTO();
+        }
+    }
+
+    /**
+     * Queue a failed or cancelled job again; it skips the rows already committed.
+     *
+     * @throws ResourceNotFoundException if there is no such job
+     * @throws IllegalArgumentException if the job is not failed or cancelled
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ImportJobDTO resume(String id) {
+        ImportJob job = find(id);
+        synchronized (job) {
+            if (!job.status.isResumable()) {
+                throw new IllegalArgumentException("Import job " + id + " is " + job.status + "; only failed or cancelled jobs can be resumed");
+            }
+            Status previous = job.status;
+            job.status = Status.QUEUED;
+            job.finishedAt = null;
+            job.error = null;
+            job.progress.clearCancel();
+            try {
+                enqueue(job);
+            } catch (RejectedExecutionException e) {
+                job.status = previous;
+                throw e;
+            }
+        }
+        log.info("Resuming import job {} after {} rows", id, job.progress.getCommittedRows());
+        return job.toDTO();
+    }
+
+    private ImportJob find(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job", "id", id);
+        }
+        return job;
+    }
+
+    private void enqueue(ImportJob job) {
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Import job queue is full", e);
+        }
+    }
+
+    private void run(ImportJob job) {
+        synchronized (job) {
+            // Cancelled while queued, or a stale queue entry of a resumed job
+            if (job.status != Status.QUEUED) {
+                return;
+            }
+            job.status = Status.RUNNING;
+        }
+
+        try (Reader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            assetImportService.importCsv(reader, job.progress);
+            synchronized (job) {
+                if (job.progress.isComplete()) {
+                    job.finish(Status.COMPLETED, null);
+                    job.deleteFile();
+                } else {
+                    job.finish(Status.CANCELLED, null);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Import job {} failed after {} rows: {}", job.id, job.progress.getCommittedRows(), e.getMessage());
+            synchronized (job) {
+                job.finish(Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                boolean expired = job.finishedAt != null && job.finishedAt.isBefore(cutoff);
+                if (expired) {
+                    job.deleteFile();
+                }
+                return expired;
+            }
+        });
+    }
+
+    private static class ImportJob {
+        final String id;
+        final String fileName;
+        final Path file;
+        final ImportProgress progress;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+
+        // Guarded by the job's monitor
+        Status status = Status.QUEUED;
+        LocalDateTime finishedAt;
+        String error;
+
+        ImportJob(String id, String fileName, Path file, ImportProgress progress) {
+            this.id = id;
+            this.fileName = fileName;
+            this.file = file;
+            this.progress = progress;
+        }
+
+        void finish(Status status, String error) {
+            this.status = status;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        void deleteFile() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}: {}", file, e.getMessage());
+            }
+        }
+
+        synchronized ImportJobDTO toDTO() {
+            return ImportJobDTO.builder()
+                    .id(id)
+                    .fileName(fileName)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .finishedAt(finishedAt)
+                    .committedRows(progress.getCommittedRows())
+                    .progress(progress.toReport())
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live counters of a CSV import.
+ *
+ * Written by the importing thread only and read from any thread (progress
+ * polling). committedRows counts the data rows, from the top of the file,
+ * whose chunk has been committed or rejected; a resumed import skips them.
+ */
+public class ImportProgress {
+
+    private final int maxReportedErrors;
+
+    private volatile long rowsParsed;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile long committedRows;
+    private volatile boolean complete;
+    private volatile boolean cancelRequested;
+
+    // Running time of finished runs, plus the start of the current one (0 when idle)
+    private volatile long elapsedNanos;
+    private volatile long runStartedNanos;
+
+    private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+    public ImportProgress(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Ask the import to stop after the chunk it is working on.
+     */
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Withdraw a cancel request before the import is run again.
+     */
+    void clearCancel() {
+        cancelRequested = false;
+    }
+
+    /**
+     * True once the import has reached the end of the file.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    /**
+     * Snapshot of the counters as a report.
+     */
+    public ImportReport toReport() {
+        long elapsed = elapsedNanos;
+        long runStarted = runStartedNanos;
+        if (runStarted != 0) {
+            elapsed += System.nanoTime() - runStarted;
+        }
+        long rows = rowsParsed;
+        List<ImportReport.RowError> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = new ArrayList<>(errors);
+        }
+        return ImportReport.builder()
+                .rowsRead(rows)
+                .imported(imported)
+                .rejected(rejected)
+                .elapsedMillis(elapsed / 1_000_000)
+                .rowsPerSecond(elapsed > 0 ? rows * 1e9 / elapsed : 0.0)
+                .errors(errorsCopy)
+                .build();
+    }
+
+    // ---------------------------------------------------------------------
+    // Importing thread
+    // ---------------------------------------------------------------------
+
+    /**
+     * Start a (re)run: rows parsed but not committed by an earlier run are read again.
+     */
+    void started() {
+        rowsParsed = committedRows;
+        runStartedNanos = System.nanoTime();
+    }
+
+    void stopped(boolean reachedEnd) {
+        complete = reachedEnd;
+        elapsedNanos += System.nanoTime() - runStartedNanos;
+        runStartedNanos = 0;
+    }
+
+    void rowParsed() {
+        rowsParsed++;
+    }
+
+    void imported(long rows) {
+        imported += rows;
+    }
+
+    void reject(long line, String message) {
+        rejected++;
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+
+    void chunkCommitted(int rows) {
+        committedRows += rows;
+    }
+}
@@ -0,0 +1,440 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.LiveUpdateDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pushes portfolio changes to dashboards over server-sent events, so an open
+ * dashboard no longer reloads the whole summary to see a price move.
+ *
+ * Price and committed asset events only queue up. Every interval-ms the
+ * queue is drained into one delta (latest prices, changed positions priced
+ * once, totals and allocation from {@link PortfolioAggregates}), shared by
+ * all clients. Each client folds deltas into its own pending event and gets
+ * at most one event per interval; while its previous event is still being
+ * written, newer deltas keep folding in. A client whose write has been
+ * running for over max-lag-ms is dropped, so a slow connection never grows
+ * a backlog. Writes run on a small sender pool of sender-threads.
+ *
+ * A blocked write cannot be cut short: the emitter's send and
+ * completeWithError share one lock, so it only returns when the client
+ * reads or the connector's write timeout fails it. Dropping such a client
+ * therefore writes off its thread and adds one to the pool until the write
+ * returns, so stuck clients never take the threads of the healthy ones.
+ */
+@Service
+@Slf4j
+public class LiveUpdateService {
+
+    private static final String EVENT_NAME = "update";
+
+    private final PortfolioAggregates portfolioAggregates;
+    private final PriceCache priceCache;
+    private final int maxClients;
+    private final long maxLagMillis;
+    private final long heartbeatMillis;
+    private final int senderThreads;
+    private final ThreadPoolExecutor sender;
+    // Guarded by sender: writes of dropped clients still holding a sender thread
+    private int abandonedWrites;
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientIds = new AtomicLong();
+
+    // Guarded by this: changes since the last flush (asset id -> new row, or null when deleted)
+    private final Map<String, BigDecimal> pendingPrices = new HashMap<>();
+    private final Map<Long, AssetBaseView> pendingRows = new LinkedHashMap<>();
+
+    public LiveUpdateService(PortfolioAggregates portfolioAggregates,
+                             PriceCache priceCache,
+                             @Value("${portfolio.live.max-clients:100}") int maxClients,
+                             @Value("${portfolio.live.max-lag-ms:10000}") long maxLagMillis,
+                             @Value("${portfolio.live.heartbeat-ms:15000}") long heartbeatMillis,
+                             @Value("${portfolio.live.sender-threads:2}") int senderThreads) {
+        this.portfolioAggregates = portfolioAggregates;
+        this.priceCache = priceCache;
+        this.maxClients = maxClients;
+        this.maxLagMillis = maxLagMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.senderThreads = senderThreads;
+
+        // A client has at most one write queued or running, so the queue never fills
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxClients), runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-live-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        clients.values().forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    /**
+     * Open a stream for a new client. Its first event carries the current
+     * totals; the positions themselves come from the summary endpoint.
+     *
+     * @throws RejectedExecutionException if max-clients are already connected
+     */
+    public SseEmitter subscribe() {
+        // No timeout: heartbeats keep the connection open and slow clients are dropped
+        SseEmitter emitter = new SseEmitter(0L);
+        register(emitter);
+        return emitter;
+    }
+
+    long register(SseEmitter emitter) {
+        Client client;
+        synchronized (clients) {
+            if (clients.size() >= maxClients) {
+                throw new RejectedExecutionException("Too many live update clients (max " + maxClients + ")");
+            }
+            client = new Client(clientIds.incrementAndGet(), emitter);
+            clients.put(client.id, client);
+        }
+        emitter.onCompletion(() -> clients.remove(client.id));
+        emitter.onTimeout(() -> clients.remove(client.id));
+        emitter.onError(e -> clients.remove(client.id));
+        log.debug("Live update client {} connected ({} open)", client.id, clients.size());
+        return client.id;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        if (clients.isEmpty() || event.price() == null) {
+            return;
+        }
+        synchronized (this) {
+            pendingPrices.put(event.symbol(), event.price());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pendingRows.put(event.assetId(), event.after());
+        }
+    }
+
+    /**
+     * Drain the queued changes into one delta and hand every client whose
+     * previous event has been written its coalesced next event.
+     */
+    @Scheduled(fixedDelayString = "${portfolio.live.interval-ms:1000}")
+    public void flush() {
+        Delta delta = drain();
+        if (clients.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LiveUpdateDTO totals = delta != null ? totals() : null;
+        for (Client client : clients.values()) {
+            if (client.isLagging(now, maxLagMillis)) {
+                drop(client);
+                continue;
+            }
+            if (totals == null && client.needsTotals()) {
+                totals = totals();
+            }
+            LiveUpdateDTO event = client.next(delta, totals, now, heartbeatMillis);
+            if (event != null) {
+                dispatch(client, event);
+            }
+        }
+    }
+
+    private Delta drain() {
+        Map<String, BigDecimal> prices;
+        Map<Long, AssetBaseView> rows;
+        synchronized (this) {
+            if (pendingPrices.isEmpty() && pendingRows.isEmpty()) {
+                return null;
+            }
+            prices = new LinkedHashMap<>(pendingPrices);
+            rows = new LinkedHashMap<>(pendingRows);
+            pendingPrices.clear();
+            pendingRows.clear();
+        }
+        // Changed positions are priced once here, not once per client
+        List<AssetDTO> assets = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        rows.forEach((id, row) -> {
+            if (row == null) {
+                removed.add(id);
+            } else {
+                AssetDTO dto = AssetPricing.toAssetDTO(row);
+                String symbol = symbolOf(row);
+                AssetPricing.applyPricing(dto, symbol != null ? priceCache.getIfPresent(symbol) : null);
+                assets.add(dto);
+            }
+        });
+        return new Delta(prices, assets, removed);
+    }
+
+    /**
+     * Totals, counts, value and allocation by type, the same figures as the summary.
+     */
+    private LiveUpdateDTO totals() {
+        Map<AssetType, TypeTotals> totalsByType = portfolioAggregates.snapshot();
+        TypeTotals overall = totalsByType.values().stream().reduce(TypeTotals.EMPTY, TypeTotals::plus);
+
+        Map<String, BigDecimal> valueByType = new HashMap<>();
+        Map<String, Long> assetCountByType = new HashMap<>();
+        totalsByType.forEach((type, typeTotals) -> {
+            valueByType.put(type.name(), typeTotals.value());
+            assetCountByType.put(type.name(), typeTotals.count());
+        });
+
+        return LiveUpdateDTO.builder()
+                .totalValue(overall.value())
+                .totalCostBasis(overall.costBasis())
+                .totalGainLoss(overall.gainLoss())
+                .totalGainLossPercentage(overall.gainLossPercentage() != null
+                        ? overall.gainLossPercentage()
+                        : BigDecimal.ZERO)
+                .totalAssets(overall.count())
+                .assetCountByType(assetCountByType)
+                .valueByType(valueByType)
+                .allocationByType(PortfolioService.allocation(valueByType, overall.value()))
+                .build();
+    }
+
+    private void dispatch(Client client, LiveUpdateDTO event) {
+        try {
+            sender.execute(() -> send(client, event));
+        } catch (RejectedExecutionException e) {
+            // Only when shutting down
+            client.sent(System.currentTimeMillis());
+        }
+    }
+
+    private void send(Client client, LiveUpdateDTO event) {
+        client.writing(System.currentTimeMillis());
+        try {
+            if (event == Client.HEARTBEAT) {
+                client.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                client.emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name(EVENT_NAME)
+                        .data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Disconnected, or completed meanwhile
+            log.debug("Live update client {} went away: {}", client.id, e.getMessage());
+            clients.remove(client.id);
+        } finally {
+            if (client.sent(System.currentTimeMillis())) {
+                resizeSender(-1);
+            }
+            if (client.dropped) {
+                client.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Stop sending to a client whose write is stuck, and replace the sender
+     * thread it holds. The emitter is completed by the stuck write once it
+     * returns, since completing it here would wait for that write.
+     */
+    private void drop(Client client) {
+        client.dropped = true;
+        clients.remove(client.id);
+        client.abandon(() -> resizeSender(1));
+        log.warn("Dropped live update client {}: no event delivered for over {} ms", client.id, maxLagMillis);
+    }
+
+    /**
+     * Add (1) or remove (-1) a sender thread for an abandoned write; at most
+     * max-clients are added.
+     *
+     * @return whether the pool was resized
+     */
+    private boolean resizeSender(int change) {
+        synchronized (sender) {
+            if (change > 0 && abandonedWrites >= maxClients) {
+                return false;
+            }
+            abandonedWrites += change;
+            int threads = senderThreads + abandonedWrites;
+            // The core size may never exceed the maximum
+            if (change > 0) {
+                sender.setMaximumPoolSize(threads);
+                sender.setCorePoolSize(threads);
+            } else {
+                sender.setCorePoolSize(threads);
+                sender.setMaximumPoolSize(threads);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The quote symbol of a position: its normalized symbol if tradeable, else null.
+     */
+    private static String symbolOf(AssetBaseView asset) {
+        if (asset.getType() == null || !asset.getType().isTradeable()
+                || asset.getSymbol() == null || asset.getSymbol().isBlank()) {
+            return null;
+        }
+        return asset.getSymbol().toUpperCase().trim();
+    }
+
+    /**
+     * Changes drained in one flush.
+     */
+    private record Delta(Map<String, BigDecimal> prices, List<AssetDTO> assets, List<Long> removedAssetIds) {
+    }
+
+    /**
+     * One connected dashboard and what it has not been sent yet.
+     */
+    private static final class Client {
+        private static final LiveUpdateDTO HEARTBEAT = new LiveUpdateDTO();
+
+        private final long id;
+        private final SseEmitter emitter;
+        private volatile boolean dropped;
+
+        // Guarded by this
+        private long sequence;
+        private boolean needsTotals = true;
+        // An event is queued or being written; writeStartedAt is -1 until the write begins
+        private boolean sending;
+        private long writeStartedAt = -1;
+        private boolean replaced;
+        private long lastSentAt;
+        private final Map<String, BigDecimal> prices = new LinkedHashMap<>();
+        private final Map<Long, AssetDTO> assets = new LinkedHashMap<>();
+        private final Set<Long> removedAssetIds = new LinkedHashSet<>();
+
+        Client(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+
+        synchronized boolean needsTotals() {
+            return needsTotals;
+        }
+
+        synchronized boolean isLagging(long now, long maxLagMillis) {
+            return sending && writeStartedAt >= 0 && now - writeStartedAt > maxLagMillis;
+        }
+
+        synchronized void writing(long now) {
+            writeStartedAt = now;
+        }
+
+        /**
+         * Replace the sender thread of the running write, once.
+         */
+        synchronized void abandon(BooleanSupplier replaceThread) {
+            if (sending && writeStartedAt >= 0 && !replaced) {
+                replaced = replaceThread.getAsBoolean();
+            }
+        }
+
+        /**
+         * Fold in a delta and, unless a write is still running, take the
+         * coalesced event to send (a heartbeat when idle for too long), or null.
+         */
+        synchronized LiveUpdateDTO next(Delta delta, LiveUpdateDTO totals, long now, long heartbeatMillis) {
+            if (delta != null) {
+                prices.putAll(delta.prices());
+                for (AssetDTO asset : delta.assets()) {
+                    removedAssetIds.remove(asset.getId());
+                    assets.put(asset.getId(), asset);
+                }
+                for (Long removedId : delta.removedAssetIds()) {
+                    assets.remove(removedId);
+                    removedAssetIds.add(removedId);
+                }
+                needsTotals = true;
+            }
+            if (sending) {
+                return null;
+            }
+            LiveUpdateDTO event;
+            if (needsTotals) {
+                event = LiveUpdateDTO.builder()
+                        .sequence(++sequence)
+                        .prices(prices.isEmpty() ? null : new LinkedHashMap<>(prices))
+                        .assets(assets.isEmpty() ? null : new ArrayList<>(assets.values()))
+                        .removedAssetIds(removedAssetIds.isEmpty() ? null : new ArrayList<>(removedAssetIds))
+                        .totalValue(totals.getTotalValue())
+                        .totalCostBasis(totals.getTotalCostBasis())
+                        .totalGainLoss(totals.getTotalGainLoss())
+                        .totalGainLossPercentage(totals.getTotalGainLossPercentage())
+                        .totalAssets(totals.getTotalAssets())
+                        .assetCountByType(totals.getAssetCountByType())
+                        .valueByType(totals.getValueByType())
+                        .allocationByType(totals.getAllocationByType())
+                        .build();
+                prices.clear();
+                assets.clear();
+                removedAssetIds.clear();
+                needsTotals = false;
+            } else if (now - lastSentAt >= heartbeatMillis) {
+                event = HEARTBEAT;
+            } else {
+                return null;
+            }
+            sending = true;
+            return event;
+        }
+
+        /**
+         * @return whether the write's thread had been replaced
+         */
+        synchronized boolean sent(long now) {
+            sending = false;
+            writeStartedAt = -1;
+            lastSentAt = now;
+            boolean wasReplaced = replaced;
+            replaced = false;
+            return wasReplaced;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LotEventDTO;
+import com.example.demo.dto.PositionDTO;
+import com.example.demo.entity.BaseAsset;
+import com.example.demo.entity.CostBasisMethod;
+import com.example.demo.entity.LotEvent;
+import com.example.demo.entity.LotEventType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.LotEventRepository;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only lot ledger (buys, sells, dividends) per asset.
+ *
+ * Each asset's ledger is replayed once into a {@link CostBasisAccumulator},
+ * which is then kept up to date one entry at a time; recording an entry
+ * never rescans history. Buys and sells write the new quantity, cost basis
+ * (per portfolio.ledger.cost-basis-method) and average buy price back to the
+ * asset, so BaseAsset.getCostBasis and the portfolio totals follow the ledger.
+ *
+ * An asset's first ledger entry is preceded by an opening BUY of its current
+ * quantity at its buy price. From then on quantity and buy price can only be
+ * changed through the ledger.
+ */
+@Service
+@Slf4j
+public class LotLedgerService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int LOCK_STRIPES = 64;
+
+    private final LotEventRepository lotEventRepository;
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final CostBasisMethod costBasisMethod;
+
+    // Replayed ledgers; dropped when a write rolls back or the asset is deleted
+    private final Map<Long, CostBasisAccumulator> accumulators = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public LotLedgerService(LotEventRepository lotEventRepository,
+                            PortfolioAssetRepository portfolioAssetRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${portfolio.ledger.cost-basis-method:AVERAGE}") CostBasisMethod costBasisMethod) {
+        this.lotEventRepository = lotEventRepository;
+        this.portfolioAssetRepository = portfolioAssetRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.costBasisMethod = costBasisMethod;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Append an entry to an asset's ledger.
+     *
+     * @throws ResourceNotFoundException if the asset does not exist
+     * @throws IllegalArgumentException if the entry is incomplete or sells more than is held
+     */
+    public PositionDTO record(Long assetId, LotEventDTO entry) {
+        LotEvent event = toEvent(assetId, entry);
+
+        // Entries of one asset are applied (and committed) one at a time
+        synchronized (lockFor(assetId)) {
+            return transactionTemplate.execute(status -> {
+                BaseAsset asset = findAsset(assetId);
+                CostBasisAccumulator accumulator = accumulators.get(assetId);
+                if (accumulator == null) {
+                    accumulator = replay(assetId);
+                    LotEvent opening = accumulator.getEventCount() == 0 ? openingLot(asset) : null;
+                    if (opening != null) {
+                        apply(accumulator, opening);
+                        lotEventRepository.save(opening);
+                    }
+                    accumulators.put(assetId, accumulator);
+                }
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        if (completionStatus != STATUS_COMMITTED) {
+                            accumulators.remove(assetId);
+                        }
+                    }
+                });
+
+                apply(accumulator, event);
+                lotEventRepository.save(event);
+                AssetBaseView before = AssetBaseView.of(asset);
+                writeBack(asset, accumulator);
+                portfolioAssetRepository.saveAndFlush(asset);
+                eventPublisher.publishEvent(AssetChangedEvent.updated(before, AssetBaseView.of(asset)));
+                log.info("Recorded {} for asset {} ({})", event.getType(), assetId, asset.getSymbol());
+                return toPosition(asset, accumulator);
+            });
+        }
+    }
+
+    /**
+     * Position of an asset per its ledger (an asset without entries counts as
+     * one lot of its quantity at its buy price).
+     *
+     * @throws ResourceNotFoundException if the asset does not exist
+     */
+    public PositionDTO getPosition(Long assetId) {
+        synchronized (lockFor(assetId)) {
+            BaseAsset asset = findAsset(assetId);
+            CostBasisAccumulator accumulator = accumulators.get(assetId);
+            if (accumulator == null) {
+                accumulator = replay(assetId);
+                if (accumulator.getEventCount() > 0) {
+                    accumulators.put(assetId, accumulator);
+                } else {
+                    LotEvent opening = openingLot(asset);
+                    if (opening != null) {
+                        apply(accumulator, opening);
+                    }
+                }
+            }
+            return toPosition(asset, accumulator);
+        }
+    }
+
+    /**
+     * Ledger entries in the order they were recorded, after {@code afterId} (exclusive).
+     *
+     * @throws ResourceNotFoundException if the asset does not exist
+     */
+    public List<LotEventDTO> getEntries(Long assetId, Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        findAsset(assetId);
+        return lotEventRepository.findByAssetIdAndIdGreaterThanOrderByIdAsc(assetId, afterId != null ? afterId : 0L,
+                        Limit.of(limit)).stream()
+                .map(LotLedgerService::toDTO)
+                .toList();
+    }
+
+    /**
+     * A deleted asset takes its ledger with it, in the same transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (event.after() == null) {
+            accumulators.remove(event.assetId());
+            lotEventRepository.deleteByAssetId(event.assetId());
+        }
+    }
+
+    /**
+     * Read an asset's stored ledger into a fresh accumulator.
+     */
+    private CostBasisAccumulator replay(Long assetId) {
+        CostBasisAccumulator accumulator = new CostBasisAccumulator();
+        lotEventRepository.forEachEvent(assetId, event -> apply(accumulator, event));
+        return accumulator;
+    }
+
+    /**
+     * The asset's holding before it had ledger entries, as a BUY; null if it holds nothing.
+     */
+    private static LotEvent openingLot(BaseAsset asset) {
+        if (asset.getQuantity() == null || asset.getQuantity().signum() <= 0) {
+            return null;
+        }
+        return LotEvent.builder()
+                .assetId(asset.getId())
+                .type(LotEventType.BUY)
+                .quantity(asset.getQuantity())
+                .price(asset.getBuyPrice())
+                .tradeDate(asset.getPurchaseDate())
+                .build();
+    }
+
+    private static void apply(CostBasisAccumulator accumulator, LotEvent event) {
+        switch (event.getType()) {
+            case BUY -> accumulator.buy(event.getQuantity(), event.getPrice());
+            case SELL -> accumulator.sell(event.getQuantity(), event.getPrice());
+            case DIVIDEND -> accumulator.dividend(event.getAmount());
+        }
+    }
+
+    private void writeBack(BaseAsset asset, CostBasisAccumulator accumulator) {
+        BigDecimal quantity = accumulator.getQuantity();
+        BigDecimal costBasis = accumulator.getCostBasis(costBasisMethod).setScale(4, RoundingMode.HALF_EVEN);
+        asset.setQuantity(quantity);
+        asset.setLedgerCostBasis(costBasis);
+        if (quantity.signum() > 0) {
+            // Average price of the held units; kept as is once the position is closed
+            asset.setBuyPrice(costBasis.divide(quantity, 2, RoundingMode.HALF_UP));
+        }
+    }
+
+    private PositionDTO toPosition(BaseAsset asset, CostBasisAccumulator accumulator) {
+        Map<CostBasisMethod, BigDecimal> costBasis = new EnumMap<>(CostBasisMethod.class);
+        Map<CostBasisMethod, BigDecimal> realizedGain = new EnumMap<>(CostBasisMethod.class);
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            costBasis.put(method, accumulator.getCostBasis(method).setScale(4, RoundingMode.HALF_EVEN));
+            realizedGain.put(method, accumulator.getRealizedGain(method).setScale(4, RoundingMode.HALF_EVEN));
+        }
+        return PositionDTO.builder()
+                .assetId(asset.getId())
+                .symbol(asset.getSymbol())
+                .quantity(accumulator.getQuantity())
+                .costBasisMethod(costBasisMethod)
+                .costBasis(costBasis)
+                .realizedGain(realizedGain)
+                .dividends(accumulator.getDividends())
+                .ledgerEntries(accumulator.getEventCount())
+                .build();
+    }
+
+    private static LotEvent toEvent(Long assetId, LotEventDTO entry) {
+        if (entry.getType() == null) {
+            throw new IllegalArgumentException("Entry type is required (BUY, SELL or DIVIDEND)");
+        }
+        LotEvent.LotEventBuilder event = LotEvent.builder()
+                .assetId(assetId)
+                .type(entry.getType())
+                .tradeDate(entry.getTradeDate() != null ? entry.getTradeDate() : LocalDate.now());
+        if (entry.getType() == LotEventType.DIVIDEND) {
+            if (entry.getAmount() == null || entry.getAmount().signum() < 0) {
+                throw new IllegalArgumentException("DIVIDEND needs an amount of 0 or more");
+            }
+            return event.amount(entry.getAmount()).build();
+        }
+        if (entry.getQuantity() == null || entry.getQuantity().signum() <= 0) {
+            throw new IllegalArgumentException(entry.getType() + " needs a quantity greater than 0");
+        }
+        if (entry.getPrice() == null || entry.getPrice().signum() < 0) {
+            throw new IllegalArgumentException(entry.getType() + " needs a price of 0 or more");
+        }
+        return event.quantity(entry.getQuantity()).price(entry.getPrice()).build();
+    }
+
+    private static LotEventDTO toDTO(LotEvent event) {
+        return LotEventDTO.builder()
+                .id(event.getId())
+                .type(event.getType())
+                .quantity(event.getQuantity())
+                .price(event.getPrice())
+                .amount(event.getAmount())
+                .tradeDate(event.getTradeDate())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+
+    private BaseAsset findAsset(Long assetId) {
+        return portfolioAssetRepository.findById(assetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Asset", "id", assetId));
+    }
+
+    private Object lockFor(Long assetId) {
+        return locks[Math.floorMod(assetId.hashCode(), LOCK_STRIPES)];
+    }
+}
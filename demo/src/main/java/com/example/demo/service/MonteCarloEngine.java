@@ -0,0 +1,254 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Monte Carlo projection of a portfolio made of independent geometric
+ * Brownian motion components (one per asset type).
+ *
+ * Each path steps one year at a time, which is exact for GBM, and at every
+ * horizon its total value goes into a log-spaced histogram of value relative
+ * to today; paths themselves are never stored. Paths run in chunks of
+ * CHUNK_PATHS on a fork/join pool. Every chunk draws from its own
+ * {@link SplittableRandom}, split off along the fixed task tree, so a run is
+ * reproducible from its seed no matter how the chunks are scheduled.
+ */
+public final class MonteCarloEngine {
+
+    public static final int CHUNK_PATHS = 16_384;
+
+    // Histogram of value / initial value, log-spaced over [MIN_RATIO, MAX_RATIO);
+    // outliers land in the first or last bin
+    static final int BINS = 4096;
+    static final double MIN_RATIO = 1e-3;
+    static final double MAX_RATIO = 1e3;
+    private static final double LOG_MIN = Math.log(MIN_RATIO);
+    private static final double BINS_PER_LOG = BINS / (Math.log(MAX_RATIO) - LOG_MIN);
+
+    private final double[] weights;
+    private final double[] logDrifts;
+    private final double[] volatilities;
+    private final int[] horizons;
+
+    /**
+     * @param values       current value of each component; components without value are ignored
+     * @param drifts       expected annual return of each component (e.g. 0.07)
+     * @param volatilities annual volatility of each component (e.g. 0.18)
+     * @param horizons     horizons in whole years, ascending
+     * @throws IllegalArgumentException if there is nothing to simulate
+     */
+    public MonteCarloEngine(double[] values, double[] drifts, double[] volatilities, int[] horizons) {
+        if (horizons.length == 0 || horizons[0] < 1) {
+            throw new IllegalArgumentException("Horizons must be at least one year");
+        }
+        for (int h = 1; h < horizons.length; h++) {
+            if (horizons[h] <= horizons[h - 1]) {
+                throw new IllegalArgumentException("Horizons must be ascending");
+            }
+        }
+        double total = 0;
+        int count = 0;
+        for (double value : values) {
+            if (value > 0) {
+                total += value;
+                count++;
+            }
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Portfolio has no value to simulate");
+        }
+
+        // Only components with value; weights are fractions of today's total
+        this.weights = new double[count];
+        this.logDrifts = new double[count];
+        this.volatilities = new double[count];
+        for (int i = 0, k = 0; i < values.length; i++) {
+            if (values[i] > 0) {
+                weights[k] = values[i] / total;
+                logDrifts[k] = Math.log1p(drifts[i]) - volatilities[i] * volatilities[i] / 2;
+                this.volatilities[k] = volatilities[i];
+                k++;
+            }
+        }
+        this.horizons = horizons.clone();
+    }
+
+    /**
+     * Simulate paths paths.
+     *
+     * @param pool      pool to run the chunks on, or null to run them on the calling thread
+     * @param progress  called with the path count of each finished chunk
+     * @param cancelled polled before each chunk
+     * @throws CancellationException if cancelled returned true
+     */
+    public Result run(long paths, long seed, ForkJoinPool pool, LongConsumer progress, BooleanSupplier cancelled) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("At least one path is required");
+        }
+        int chunks = (int) ((paths + CHUNK_PATHS - 1) / CHUNK_PATHS);
+        Result result = new Result(horizons, paths, chunks);
+        ChunkTask task = new ChunkTask(result, new SplittableRandom(seed), 0, chunks, progress, cancelled);
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Simulation cancelled");
+        }
+        return result;
+    }
+
+    /**
+     * Simulate one chunk: paths [chunk * CHUNK_PATHS, ...) of the run.
+     */
+    private void simulateChunk(Result result, SplittableRandom random, int chunk) {
+        int paths = (int) Math.min(CHUNK_PATHS, result.paths - (long) chunk * CHUNK_PATHS);
+        int components = weights.length;
+        int lastYear = horizons[horizons.length - 1];
+        double[] logGrowth = new double[components];
+        long[] counts = new long[horizons.length * BINS];
+        long[] losses = new long[horizons.length];
+        double[] sums = new double[horizons.length];
+
+        for (int p = 0; p < paths; p++) {
+            Arrays.fill(logGrowth, 0);
+            int h = 0;
+            for (int year = 1; year <= lastYear; year++) {
+                for (int k = 0; k < components; k++) {
+                    logGrowth[k] += logDrifts[k] + volatilities[k] * random.nextGaussian();
+                }
+                if (year == horizons[h]) {
+                    double ratio = 0;
+                    for (int k = 0; k < components; k++) {
+                        ratio += weights[k] * Math.exp(logGrowth[k]);
+                    }
+                    int bin = (int) ((Math.log(ratio) - LOG_MIN) * BINS_PER_LOG);
+                    counts[h * BINS + Math.max(0, Math.min(BINS - 1, bin))]++;
+                    sums[h] += ratio;
+                    if (ratio < 1) {
+                        losses[h]++;
+                    }
+                    h++;
+                }
+            }
+        }
+        result.merge(chunk, counts, losses, sums);
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private final Result result;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final LongConsumer progress;
+        private final BooleanSupplier cancelled;
+
+        ChunkTask(Result result, SplittableRandom random, int from, int to,
+                  LongConsumer progress, BooleanSupplier cancelled) {
+            this.result = result;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                // The split happens here, not in whichever thread runs the halves,
+                // so every chunk gets the same generator on every run
+                int mid = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(result, random, from, mid, progress, cancelled);
+                ChunkTask right = new ChunkTask(result, random.split(), mid, to, progress, cancelled);
+                if (getPool() != null) {
+                    invokeAll(left, right);
+                } else {
+                    left.compute();
+                    right.compute();
+                }
+                return;
+            }
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            simulateChunk(result, random, from);
+            progress.accept(Math.min(CHUNK_PATHS, result.paths - (long) from * CHUNK_PATHS));
+        }
+    }
+
+    /**
+     * Merged histograms of a run; values are relative to the initial value.
+     */
+    public static final class Result {
+        private final int[] horizons;
+        private final long paths;
+        private final long[] counts;
+        private final long[] losses;
+        // Sums per chunk, added up in chunk order so the mean does not depend on scheduling
+        private final double[] chunkSums;
+
+        Result(int[] horizons, long paths, int chunks) {
+            this.horizons = horizons;
+            this.paths = paths;
+            this.counts = new long[horizons.length * BINS];
+            this.losses = new long[horizons.length];
+            this.chunkSums = new double[chunks * horizons.length];
+        }
+
+        private synchronized void merge(int chunk, long[] chunkCounts, long[] chunkLosses, double[] sums) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += chunkCounts[i];
+            }
+            for (int h = 0; h < horizons.length; h++) {
+                losses[h] += chunkLosses[h];
+            }
+            System.arraycopy(sums, 0, chunkSums, chunk * horizons.length, horizons.length);
+        }
+
+        public int[] getHorizons() {
+            return horizons.clone();
+        }
+
+        public long getPaths() {
+            return paths;
+        }
+
+        public synchronized double mean(int horizon) {
+            double sum = 0;
+            for (int i = horizon; i < chunkSums.length; i += horizons.length) {
+                sum += chunkSums[i];
+            }
+            return sum / paths;
+        }
+
+        public synchronized double probabilityOfLoss(int horizon) {
+            return (double) losses[horizon] / paths;
+        }
+
+        /**
+         * The q-quantile (0..1) at a horizon, interpolated log-linearly within its bin.
+         */
+        public synchronized double percentile(int horizon, double q) {
+            double target = q * paths;
+            long cumulative = 0;
+            int offset = horizon * BINS;
+            for (int bin = 0; bin < BINS; bin++) {
+                long count = counts[offset + bin];
+                if (count > 0 && cumulative + count >= target) {
+                    double within = Math.max(0, target - cumulative) / count;
+                    return Math.exp(LOG_MIN + (bin + within) / BINS_PER_LOG);
+                }
+                cumulative += count;
+            }
+            return MAX_RATIO;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.MoversDTO;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Positions ranked by gain/loss percentage, kept sorted as prices and
+ * positions change, so the top K gainers and losers are read in O(k)
+ * without touching the rest of the portfolio.
+ *
+ * Only tradeable positions with a known price and a cost basis are ranked;
+ * everything else has a gain/loss of zero and can never be a mover.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MoversRanking {
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingLong(Ranked::gainLossPercentage)
+            .thenComparing(r -> r.asset().getId());
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final PriceCache priceCache;
+
+    private final Map<Long, Ranked> byId = new HashMap<>();
+    private final Map<String, Set<Long>> idsBySymbol = new HashMap<>();
+    private final NavigableSet<Ranked> ranking = new TreeSet<>(ORDER);
+    // Held tradeable positions that are not ranked yet (no price), by id
+    private final Map<Long, AssetBaseView> unpriced = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Serializes loads; held while waiting on the fence, so never the state lock (this)
+    private final Object buildLock = new Object();
+    private final ChangeFence fence = new ChangeFence();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Drop everything and reload from the database. Prices are read from the
+     * cache at install time, so quotes that arrive during the query are kept.
+     */
+    public void rebuild() {
+        synchronized (buildLock) {
+            while (true) {
+                long token = fence.quiet();
+                List<AssetBaseView> assets = portfolioAssetRepository.findAllBaseViews();
+                synchronized (this) {
+                    if (!fence.unchanged(token)) {
+                        log.debug("Assets changed while ranking, reloading");
+                        continue;
+                    }
+                    byId.clear();
+                    idsBySymbol.clear();
+                    ranking.clear();
+                    unpriced.clear();
+                    assets.forEach(this::add);
+                    loaded = true;
+                }
+                log.info("Ranked {} of {} assets by gain/loss", ranking.size(), assets.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * The k best (positive) and k worst (negative) performers.
+     */
+    public MoversDTO top(int k) {
+        ensureLoaded();
+        synchronized (this) {
+            return MoversDTO.builder()
+                    .topGainers(take(ranking.descendingIterator(), k, 1))
+                    .topLosers(take(ranking.iterator(), k, -1))
+                    .build();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeAssetCommit(AssetChangedEvent event) {
+        fence.enter(event);
+    }
+
+    // Skipping while not loaded is safe: the fence makes the pending load see this change
+    @TransactionalEventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            remove(event.assetId());
+            if (event.after() != null) {
+                add(event.after());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAssetCompletion(AssetChangedEvent event) {
+        fence.exit(event);
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            Set<Long> ids = idsBySymbol.get(event.symbol());
+            if (ids == null) {
+                return;
+            }
+            for (Long id : ids) {
+                Ranked previous = byId.get(id);
+                AssetBaseView asset = previous != null ? previous.asset() : unpriced.remove(id);
+                if (previous != null) {
+                    ranking.remove(previous);
+                }
+                rank(asset, event.price());
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (buildLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private List<AssetDTO> take(Iterator<Ranked> iterator, int k, int sign) {
+        List<AssetDTO> result = new ArrayList<>();
+        while (result.size() < k && iterator.hasNext()) {
+            Ranked next = iterator.next();
+            if (Long.signum(next.gainLossPercentage()) != sign) {
+                break;
+            }
+            AssetDTO dto = AssetPricing.toAssetDTO(next.asset());
+            AssetPricing.applyPricing(dto, next.price());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private void add(AssetBaseView asset) {
+        String symbol = symbolOf(asset);
+        if (symbol == null) {
+            return;
+        }
+        idsBySymbol.computeIfAbsent(symbol, s -> new HashSet<>()).add(asset.getId());
+        rank(asset, priceCache.getIfPresent(symbol));
+    }
+
+    private void rank(AssetBaseView asset, BigDecimal price) {
+        long costBasis = FixedPoint.of(asset.getCostBasis());
+        if (price == null || asset.getQuantity() == null || costBasis <= 0) {
+            byId.remove(asset.getId());
+            unpriced.put(asset.getId(), asset);
+            return;
+        }
+        long value = FixedPoint.valueAt(FixedPoint.of(asset.getQuantity()), FixedPoint.ofPrice(price));
+        long percentage = FixedPoint.percentage(FixedPoint.subtract(value, costBasis), costBasis);
+        Ranked ranked = new Ranked(asset, price, percentage);
+        byId.put(asset.getId(), ranked);
+        ranking.add(ranked);
+    }
+
+    private void remove(Long id) {
+        Ranked ranked = byId.remove(id);
+        AssetBaseView asset = ranked != null ? ranked.asset() : unpriced.remove(id);
+        if (ranked != null) {
+            ranking.remove(ranked);
+        }
+        if (asset == null) {
+            return;
+        }
+        Set<Long> ids = idsBySymbol.get(symbolOf(asset));
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsBySymbol.remove(symbolOf(asset));
+            }
+        }
+    }
+
+    private static String symbolOf(AssetBaseView asset) {
+        if (asset.getType() == null || !asset.getType().isTradeable()
+                || asset.getSymbol() == null || asset.getSymbol().isBlank()) {
+            return null;
+        }
+        return asset.getSymbol().toUpperCase().trim();
+    }
+
+    // gainLossPercentage is a FixedPoint value
+    private record Ranked(AssetBaseView asset, BigDecimal price, long gainLossPercentage) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.AssetGroupTotals;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Per-type portfolio totals (count, cost basis, current value), kept current
+ * by deltas instead of being recomputed from every asset.
+ *
+ * Positions are grouped by type and symbol (non-tradeable types use one group
+ * per type). A group of a tradeable type is valued at quantity x last known
+ * price; groups without a price, and all non-tradeable groups, are valued at
+ * cost, the same fallback the asset DTOs use.
+ *
+ * - seeded from a database-side GROUP BY, never from individual rows
+ * - committed {@link AssetChangedEvent}s move one asset in or out of its group
+ * - {@link PriceUpdatedEvent}s revalue the groups holding that symbol
+ *
+ * so both updates and reads cost O(number of types). Quantities, prices and
+ * amounts are held as {@link FixedPoint} longs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioAggregates {
+
+    private static final String NO_SYMBOL = "";
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final PriceCache priceCache;
+
+    private final Map<AssetType, Map<String, Group>> groups = new EnumMap<>(AssetType.class);
+    private final TypeTotalsAccumulator totals = new TypeTotalsAccumulator();
+    // Held tradeable symbols -> last known scaled price (null until a quote arrives)
+    private final Map<String, Long> prices = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Serializes loads; held while waiting on the fence, so never the state lock (this)
+    private final Object buildLock = new Object();
+    private final ChangeFence fence = new ChangeFence();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Drop everything and reload from the database. Rows are summed per
+     * type and symbol by the database, so no asset rows are transferred.
+     * Prices are read from the cache at install time, which already holds
+     * any quote whose update event arrived during the query.
+     */
+    public void rebuild() {
+        synchronized (buildLock) {
+            while (true) {
+                long token = fence.quiet();
+                List<AssetGroupTotals> rows = portfolioAssetRepository.findGroupTotals();
+                synchronized (this) {
+                    if (!fence.unchanged(token)) {
+                        log.debug("Assets changed while aggregating, reloading");
+                        continue;
+                    }
+                    groups.clear();
+                    totals.clear();
+                    prices.clear();
+                    rows.forEach(row -> adjust(row.getType(), row.getSymbol(),
+                            row.getCount(), FixedPoint.of(row.getQuantity()), FixedPoint.of(row.getCostBasis())));
+                    loaded = true;
+                }
+                log.info("Aggregated {} position groups into {} types", rows.size(), groups.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Totals for every type that has at least one asset.
+     */
+    public Map<AssetType, TypeTotals> snapshot() {
+        ensureLoaded();
+        synchronized (this) {
+            return totals.toMap();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeAssetCommit(AssetChangedEvent event) {
+        fence.enter(event);
+    }
+
+    // Skipping while not loaded is safe: the fence makes the pending load see this change
+    @TransactionalEventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            apply(event.before(), -1);
+            apply(event.after(), 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAssetCompletion(AssetChangedEvent event) {
+        fence.exit(event);
+    }
+
+    // Before PortfolioVersion moves on, so a new version never reads old values
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!prices.containsKey(event.symbol())) {
+                return; // not held
+            }
+            prices.put(event.symbol(), event.price() != null ? FixedPoint.ofPrice(event.price()) : null);
+            groups.forEach((type, byKey) -> {
+                Group group = byKey.get(event.symbol());
+                if (group != null) {
+                    long before = group.value;
+                    group.value = valueOf(type, event.symbol(), group);
+                    totals.add(type, 0, 0, FixedPoint.subtract(group.value, before));
+                }
+            });
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (buildLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Add (sign 1) or remove (sign -1) one asset's contribution.
+     */
+    private void apply(AssetBaseView asset, int sign) {
+        if (asset == null || asset.getType() == null) {
+            return;
+        }
+        adjust(asset.getType(), groupKey(asset), sign,
+                sign * FixedPoint.of(asset.getQuantity()), sign * FixedPoint.of(asset.getCostBasis()));
+    }
+
+    private void adjust(AssetType type, String key, long count, long quantity, long cost) {
+        if (count > 0 && type.isTradeable() && !key.equals(NO_SYMBOL) && !prices.containsKey(key)) {
+            BigDecimal price = priceCache.getIfPresent(key);
+            prices.put(key, price != null ? FixedPoint.ofPrice(price) : null);
+        }
+
+        Group group = groups.computeIfAbsent(type, t -> new HashMap<>()).computeIfAbsent(key, k -> new Group());
+        long before = group.value;
+        group.count += count;
+        group.quantity = FixedPoint.add(group.quantity, quantity);
+        group.cost = FixedPoint.add(group.cost, cost);
+        group.value = group.count > 0 ? valueOf(type, key, group) : 0;
+
+        totals.add(type, count, cost, FixedPoint.subtract(group.value, before));
+
+        if (group.count <= 0) {
+            groups.get(type).remove(key);
+            if (groups.values().stream().noneMatch(byKey -> byKey.containsKey(key))) {
+                prices.remove(key);
+            }
+        }
+        if (totals.count(type) <= 0) {
+            groups.remove(type);
+        }
+    }
+
+    private long valueOf(AssetType type, String key, Group group) {
+        Long price = type.isTradeable() ? prices.get(key) : null;
+        return price != null ? FixedPoint.valueAt(group.quantity, price) : group.cost;
+    }
+
+    private static String groupKey(AssetBaseView asset) {
+        if (!asset.getType().isTradeable() || asset.getSymbol() == null || asset.getSymbol().isBlank()) {
+            return NO_SYMBOL;
+        }
+        return asset.getSymbol().toUpperCase().trim();
+    }
+
+    private static class Group {
+        long count;
+        long quantity;
+        long cost;
+        long value;
+    }
+}
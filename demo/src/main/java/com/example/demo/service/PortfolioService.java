@@ -1,31 +1,42 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.MoversDTO;
 import com.example.demo.dto.PortfolioSummaryDTO;
 import com.example.demo.entity.AssetType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for portfolio-level analytics and calculations.
+ * Not transactional: asset loading manages its own reads, and holding a
+ * transaction here would keep a connection open across price lookups.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class PortfolioService {
 
+    private static final int SUMMARY_MOVERS = 5;
+
     private final AssetService assetService;
+    private final PortfolioAggregates portfolioAggregates;
+    private final MoversRanking moversRanking;
 
     /**
      * Get comprehensive portfolio summary with all analytics.
+     *
+     * Still O(n): the response carries every asset, priced as it is loaded.
+     * Its parts come from three reads that are not taken atomically: the
+     * totals and per-type figures from {@link PortfolioAggregates}, the movers
+     * from {@link MoversRanking} and the asset list from the asset service.
+     * A change or quote landing between them can show in one part before
+     * another; the next request has it everywhere. For totals alone use
+     * {@link #getAllocation()} or {@link #getPerformanceByType()}.
      */
     public PortfolioSummaryDTO getPortfolioSummary() {
         List<AssetDTO> allAssets = assetService.getAllAssets();
@@ -46,129 +57,105 @@ public class PortfolioService {
                     .build();
         }
 
-        // Calculate totals
-        BigDecimal totalValue = allAssets.stream()
-                .map(a -> a.getCurrentValue() != null ? a.getCurrentValue() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalCostBasis = allAssets.stream()
-                .map(a -> a.getCostBasis() != null ? a.getCostBasis() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Totals, value, allocation and counts by type, read separately from the asset list above
+        Map<AssetType, TypeTotals> totalsByType = portfolioAggregates.snapshot();
+        TypeTotals overall = totalsByType.values().stream().reduce(TypeTotals.EMPTY, TypeTotals::plus);
 
-        BigDecimal totalGainLoss = totalValue.subtract(totalCostBasis);
-
-        BigDecimal totalGainLossPercentage = BigDecimal.ZERO;
-        if (totalCostBasis.compareTo(BigDecimal.ZERO) > 0) {
-            totalGainLossPercentage = totalGainLoss
-                    .divide(totalCostBasis, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-        }
+        BigDecimal totalValue = overall.value();
+        BigDecimal totalCostBasis = overall.costBasis();
+        BigDecimal totalGainLoss = overall.gainLoss();
+        BigDecimal totalGainLossPercentage = overall.gainLossPercentage() != null
+                ? overall.gainLossPercentage()
+                : BigDecimal.ZERO;
 
-        // Calculate value by type
-        Map<String, BigDecimal> valueByType = allAssets.stream()
-                .collect(Collectors.groupingBy(
-                        a -> a.getType().name(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                a -> a.getCurrentValue() != null ? a.getCurrentValue() : BigDecimal.ZERO,
-                                BigDecimal::add)));
+        Map<String, BigDecimal> valueByType = new HashMap<>();
+        Map<String, Long> assetCountByType = new HashMap<>();
+        totalsByType.forEach((type, totals) -> {
+            valueByType.put(type.name(), totals.value());
+            assetCountByType.put(type.name(), totals.count());
+        });
 
-        // Calculate allocation percentages
-        Map<String, BigDecimal> allocationByType = new HashMap<>();
-        if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
-            for (Map.Entry<String, BigDecimal> entry : valueByType.entrySet()) {
-                BigDecimal percentage = entry.getValue()
-                        .divide(totalValue, 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100));
-                allocationByType.put(entry.getKey(), percentage);
-            }
-        }
+        Map<String, BigDecimal> allocationByType = allocation(valueByType, totalValue);
 
-        // Count assets by type
-        Map<String, Long> assetCountByType = allAssets.stream()
-                .collect(Collectors.groupingBy(
-                        a -> a.getType().name(),
-                        Collectors.counting()));
-
-        // Find top gainers (sorted by gainLossPercentage descending)
-        List<AssetDTO> topGainers = allAssets.stream()
-                .filter(a -> a.getGainLossPercentage() != null
-                        && a.getGainLossPercentage().compareTo(BigDecimal.ZERO) > 0)
-                .sorted(Comparator.comparing(AssetDTO::getGainLossPercentage).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        // Find top losers (sorted by gainLossPercentage ascending)
-        List<AssetDTO> topLosers = allAssets.stream()
-                .filter(a -> a.getGainLossPercentage() != null
-                        && a.getGainLossPercentage().compareTo(BigDecimal.ZERO) < 0)
-                .sorted(Comparator.comparing(AssetDTO::getGainLossPercentage))
-                .limit(5)
-                .collect(Collectors.toList());
+        // Top gainers and losers from the maintained ranking, the same source and order as /movers
+        MoversDTO movers = moversRanking.top(SUMMARY_MOVERS);
 
         return PortfolioSummaryDTO.builder()
                 .totalValue(totalValue)
                 .totalCostBasis(totalCostBasis)
                 .totalGainLoss(totalGainLoss)
                 .totalGainLossPercentage(totalGainLossPercentage)
-                .totalAssets((long) allAssets.size())
+                .totalAssets(overall.count())
                 .assetCountByType(assetCountByType)
                 .allocationByType(allocationByType)
                 .valueByType(valueByType)
                 .assets(allAssets)
-                .topGainers(topGainers)
-                .topLosers(topLosers)
+                .topGainers(movers.getTopGainers())
+                .topLosers(movers.getTopLosers())
                 .build();
     }
 
     /**
      * Get just the allocation data for pie charts.
+     * Served from the maintained per-type aggregates: no assets are loaded
+     * and no DTOs are built.
      */
     public Map<String, BigDecimal> getAllocation() {
-        PortfolioSummaryDTO summary = getPortfolioSummary();
-        return summary.getAllocationByType();
+        Map<String, BigDecimal> valueByType = new HashMap<>();
+        portfolioAggregates.snapshot().forEach((type, totals) -> valueByType.put(type.name(), totals.value()));
+        BigDecimal totalValue = valueByType.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        return allocation(valueByType, totalValue);
+    }
+
+    /**
+     * Get the k best and worst performers by gain/loss percentage.
+     * Read from the maintained ranking, so the cost does not grow with the portfolio.
+     */
+    public MoversDTO getMovers(int k) {
+        return moversRanking.top(k);
     }
 
     /**
      * Get performance data for each asset type.
+     * Read from the maintained per-type aggregates instead of re-scanning the assets.
      */
     public Map<String, Map<String, BigDecimal>> getPerformanceByType() {
-        List<AssetDTO> allAssets = assetService.getAllAssets();
+        return performanceByType(portfolioAggregates.snapshot());
+    }
 
+    /**
+     * Value, cost, gain/loss and (when there is a cost basis) percentage per type.
+     */
+    static Map<String, Map<String, BigDecimal>> performanceByType(Map<AssetType, TypeTotals> totalsByType) {
         Map<String, Map<String, BigDecimal>> performanceByType = new HashMap<>();
 
-        for (AssetType type : AssetType.values()) {
-            List<AssetDTO> assetsOfType = allAssets.stream()
-                    .filter(a -> a.getType() == type)
-                    .collect(Collectors.toList());
-
-            if (!assetsOfType.isEmpty()) {
-                BigDecimal totalValue = assetsOfType.stream()
-                        .map(a -> a.getCurrentValue() != null ? a.getCurrentValue() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalCost = assetsOfType.stream()
-                        .map(a -> a.getCostBasis() != null ? a.getCostBasis() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+        totalsByType.forEach((type, totals) -> {
+            Map<String, BigDecimal> typePerformance = new HashMap<>();
+            typePerformance.put("value", totals.value());
+            typePerformance.put("cost", totals.costBasis());
+            typePerformance.put("gainLoss", totals.gainLoss());
 
-                BigDecimal gainLoss = totalValue.subtract(totalCost);
+            BigDecimal percentage = totals.gainLossPercentage();
+            if (percentage != null) {
+                typePerformance.put("percentage", percentage);
+            }
 
-                Map<String, BigDecimal> typePerformance = new HashMap<>();
-                typePerformance.put("value", totalValue);
-                typePerformance.put("cost", totalCost);
-                typePerformance.put("gainLoss", gainLoss);
+            performanceByType.put(type.name(), typePerformance);
+        });
 
-                if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal percentage = gainLoss
-                            .divide(totalCost, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100));
-                    typePerformance.put("percentage", percentage);
-                }
+        return performanceByType;
+    }
 
-                performanceByType.put(type.name(), typePerformance);
-            }
+    /**
+     * Percentage of the total value held in each type.
+     */
+    static Map<String, BigDecimal> allocation(Map<String, BigDecimal> valueByType, BigDecimal totalValue) {
+        Map<String, BigDecimal> allocationByType = new HashMap<>();
+        long total = FixedPoint.of(totalValue);
+        if (total > 0) {
+            valueByType.forEach((type, value) -> allocationByType.put(type,
+                    FixedPoint.toBigDecimal(FixedPoint.percentage(FixedPoint.of(value), total))));
         }
-
-        return performanceByType;
+        return allocationByType;
     }
 }
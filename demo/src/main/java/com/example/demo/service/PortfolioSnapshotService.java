@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PortfolioSnapshotDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.PortfolioSnapshot;
+import com.example.demo.entity.SnapshotResolution;
+import com.example.demo.repository.PortfolioSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records portfolio value over time for charts.
+ *
+ * Every interval-ms the current totals are read from {@link PortfolioAggregates}
+ * (O(types), nothing is recomputed from assets) and folded into the open
+ * MINUTE, HOUR and DAY buckets, so the rollups are maintained as samples
+ * arrive rather than aggregated at query time. A history query reads a
+ * single resolution: the finest one that covers the range in at most
+ * MAX_POINTS buckets, e.g. about 365 DAY rows for a one-year chart.
+ *
+ * MINUTE and HOUR rows are purged after their retention; DAY rows are kept.
+ */
+@Service
+@Slf4j
+public class PortfolioSnapshotService {
+
+    static final int MAX_POINTS = 500;
+    // Explicitly requested resolutions may return more, up to this many
+    private static final int MAX_REQUESTED_POINTS = 10_000;
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+    private final PortfolioAggregates portfolioAggregates;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Map<SnapshotResolution, Duration> retention = new EnumMap<>(SnapshotResolution.class);
+
+    // Newest bucket per resolution; guarded by this
+    private final Map<SnapshotResolution, PortfolioSnapshot> openBuckets = new EnumMap<>(SnapshotResolution.class);
+    private boolean openBucketsLoaded;
+
+    public PortfolioSnapshotService(PortfolioSnapshotRepository snapshotRepository,
+                                    PortfolioAggregates portfolioAggregates,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${portfolio.snapshots.enabled:true}") boolean enabled,
+                                    @Value("${portfolio.snapshots.minute-retention-days:7}") long minuteRetentionDays,
+                                    @Value("${portfolio.snapshots.hour-retention-days:90}") long hourRetentionDays) {
+        this.snapshotRepository = snapshotRepository;
+        this.portfolioAggregates = portfolioAggregates;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        retention.put(SnapshotResolution.MINUTE, Duration.ofDays(minuteRetentionDays));
+        retention.put(SnapshotResolution.HOUR, Duration.ofDays(hourRetentionDays));
+    }
+
+    @Scheduled(fixedRateString = "${portfolio.snapshots.interval-ms:60000}",
+            initialDelayString = "${portfolio.snapshots.interval-ms:60000}")
+    public void scheduledSnapshot() {
+        if (enabled) {
+            try {
+                record(Instant.now());
+            } catch (RuntimeException e) {
+                log.error("Portfolio snapshot failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fold the current portfolio totals, sampled at {@code time}, into every
+     * resolution's bucket. Samples must not go back in time.
+     */
+    public synchronized void record(Instant time) {
+        Map<AssetType, TypeTotals> totals = portfolioAggregates.snapshot();
+        TypeTotals overall = totals.values().stream().reduce(TypeTotals.EMPTY, TypeTotals::plus);
+
+        if (!openBucketsLoaded) {
+            for (SnapshotResolution resolution : SnapshotResolution.values()) {
+                snapshotRepository.findFirstByResolutionOrderByBucketStartDesc(resolution)
+                        .ifPresent(bucket -> openBuckets.put(resolution, bucket));
+            }
+            openBucketsLoaded = true;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                boolean newHour = false;
+                for (SnapshotResolution resolution : SnapshotResolution.values()) {
+                    Instant bucketStart = resolution.bucketStart(time);
+                    PortfolioSnapshot bucket = openBuckets.get(resolution);
+                    if (bucket == null || bucket.getBucketStart().isBefore(bucketStart)) {
+                        bucket = newBucket(resolution, bucketStart, overall.value());
+                        newHour |= resolution == SnapshotResolution.HOUR;
+                    } else if (bucket.getBucketStart().isAfter(bucketStart)) {
+                        throw new IllegalArgumentException("Snapshot at " + time + " is before the bucket at " + bucket.getBucketStart());
+                    }
+                    fold(bucket, overall, totals);
+                    openBuckets.put(resolution, snapshotRepository.save(bucket));
+                }
+                if (newHour) {
+                    purge(time);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Buckets may hold changes that were rolled back
+            reload();
+            throw e;
+        }
+    }
+
+    /**
+     * Forget the open buckets; the next sample reads them from the database.
+     */
+    public synchronized void reload() {
+        openBuckets.clear();
+        openBucketsLoaded = false;
+    }
+
+    /**
+     * Portfolio value from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param resolution bucket size, or null for the finest one that covers the
+     *                   range in at most MAX_POINTS buckets and is still retained
+     */
+    public List<PortfolioSnapshotDTO> getHistory(Instant from, Instant to, SnapshotResolution resolution) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long seconds = Duration.between(from, to).getSeconds();
+        SnapshotResolution chosen = resolution != null ? resolution : chooseResolution(from, seconds);
+        if (seconds / chosen.getSeconds() > MAX_REQUESTED_POINTS) {
+            throw new IllegalArgumentException("Range has more than " + MAX_REQUESTED_POINTS + " "
+                    + chosen + " points; use a coarser resolution");
+        }
+        return snapshotRepository
+                .findByResolutionAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(chosen, from, to)
+                .stream()
+                .map(PortfolioSnapshotService::toDTO)
+                .toList();
+    }
+
+    private SnapshotResolution chooseResolution(Instant from, long seconds) {
+        Instant now = Instant.now();
+        for (SnapshotResolution resolution : SnapshotResolution.values()) {
+            Duration kept = retention.get(resolution);
+            boolean retained = kept == null || !from.isBefore(now.minus(kept));
+            if (retained && seconds / resolution.getSeconds() <= MAX_POINTS) {
+                return resolution;
+            }
+        }
+        return SnapshotResolution.DAY;
+    }
+
+    private void purge(Instant now) {
+        retention.forEach((resolution, kept) -> {
+            int deleted = snapshotRepository.deleteOlderThan(resolution, now.minus(kept));
+            if (deleted > 0) {
+                log.info("Purged {} {} portfolio snapshots older than {}", deleted, resolution, kept);
+            }
+        });
+    }
+
+    private static PortfolioSnapshot newBucket(SnapshotResolution resolution, Instant bucketStart, BigDecimal value) {
+        return PortfolioSnapshot.builder()
+                .resolution(resolution)
+                .bucketStart(bucketStart)
+                .highValue(value)
+                .lowValue(value)
+                .build();
+    }
+
+    private static void fold(PortfolioSnapshot bucket, TypeTotals overall, Map<AssetType, TypeTotals> totals) {
+        BigDecimal value = overall.value();
+        bucket.setSamples(bucket.getSamples() + 1);
+        bucket.setValue(value);
+        bucket.setHighValue(bucket.getHighValue().max(value));
+        bucket.setLowValue(bucket.getLowValue().min(value));
+        bucket.setCostBasis(overall.costBasis());
+        for (AssetType type : AssetType.values()) {
+            TypeTotals typeTotals = totals.get(type);
+            bucket.setTypeValue(type, typeTotals != null ? typeTotals.value() : null);
+        }
+    }
+
+    private static PortfolioSnapshotDTO toDTO(PortfolioSnapshot snapshot) {
+        Map<AssetType, BigDecimal> valueByType = new EnumMap<>(AssetType.class);
+        for (AssetType type : AssetType.values()) {
+            BigDecimal value = snapshot.getTypeValue(type);
+            if (value != null) {
+                valueByType.put(type, value);
+            }
+        }
+        return PortfolioSnapshotDTO.builder()
+                .time(snapshot.getBucketStart())
+                .value(snapshot.getValue())
+                .high(snapshot.getHighValue())
+                .low(snapshot.getLowValue())
+                .costBasis(snapshot.getCostBasis())
+                .gainLoss(snapshot.getValue().subtract(snapshot.getCostBasis()))
+                .valueByType(valueByType)
+                .build();
+    }
+}
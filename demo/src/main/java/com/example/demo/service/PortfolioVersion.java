@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of everything the portfolio read
+ * endpoints return. It moves on every committed asset write and every price
+ * update, and only after the derived state (aggregates, columns) has taken
+ * the change in, so a response built at a version never shows older data.
+ *
+ * ETags carry the process start time as well, so a tag from before a
+ * restart never matches.
+ */
+@Component
+public class PortfolioVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag (quoted) for a version.
+     */
+    public String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    // After completion runs once every after-commit listener is done
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onAssetChanged(AssetChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    // Derived state listens at HIGHEST_PRECEDENCE, so it has been updated by now
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBarDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Price bars in column arrays: times in epoch seconds, prices as longs scaled
+ * by {@link #PRICE_SCALE} decimal places. Built by appending bars in time order.
+ */
+public final class PriceBars {
+
+    public static final int PRICE_SCALE = 4;
+
+    private long[] times;
+    private long[] opens;
+    private long[] highs;
+    private long[] lows;
+    private long[] closes;
+    private int size;
+
+    public PriceBars(int capacity) {
+        int initial = Math.max(capacity, 1);
+        times = new long[initial];
+        opens = new long[initial];
+        highs = new long[initial];
+        lows = new long[initial];
+        closes = new long[initial];
+    }
+
+    public void add(long time, long open, long high, long low, long close) {
+        if (size == times.length) {
+            int grown = size * 2;
+            times = Arrays.copyOf(times, grown);
+            opens = Arrays.copyOf(opens, grown);
+            highs = Arrays.copyOf(highs, grown);
+            lows = Arrays.copyOf(lows, grown);
+            closes = Arrays.copyOf(closes, grown);
+        }
+        times[size] = time;
+        opens[size] = open;
+        highs[size] = high;
+        lows[size] = low;
+        closes[size] = close;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTime(int i) {
+        return times[i];
+    }
+
+    public long getOpen(int i) {
+        return opens[i];
+    }
+
+    public long getHigh(int i) {
+        return highs[i];
+    }
+
+    public long getLow(int i) {
+        return lows[i];
+    }
+
+    public long getClose(int i) {
+        return closes[i];
+    }
+
+    /**
+     * Merge bars into buckets of {@code interval}: first open, highest high,
+     * lowest low and last close, stamped with the bucket start.
+     */
+    public PriceBars downsample(BarInterval interval) {
+        PriceBars result = new PriceBars(Math.min(size, 1024));
+        long bucketEnd = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            long time = times[i];
+            if (time >= bucketEnd) {
+                long bucketStart = interval.bucketStart(time);
+                bucketEnd = interval.nextBucketStart(bucketStart);
+                result.add(bucketStart, opens[i], highs[i], lows[i], closes[i]);
+            } else {
+                int last = result.size - 1;
+                result.highs[last] = Math.max(result.highs[last], highs[i]);
+                result.lows[last] = Math.min(result.lows[last], lows[i]);
+                result.closes[last] = closes[i];
+            }
+        }
+        return result;
+    }
+
+    public List<PriceBarDTO> toDTOs() {
+        List<PriceBarDTO> bars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bars.add(PriceBarDTO.builder()
+                    .time(Instant.ofEpochSecond(times[i]))
+                    .open(toPrice(opens[i]))
+                    .high(toPrice(highs[i]))
+                    .low(toPrice(lows[i]))
+                    .close(toPrice(closes[i]))
+                    .build());
+        }
+        return bars;
+    }
+
+    /**
+     * @throws ArithmeticException if the price has too many digits for a scaled long
+     */
+    public static long toScaled(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toPrice(long scaled) {
+        return BigDecimal.valueOf(scaled, PRICE_SCALE);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceCacheStats;
+import com.example.demo.event.PriceUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, LRU-evicting cache of quote prices.
+ *
+ * - Fresh entries (younger than the TTL) are returned as-is.
+ * - Stale entries (older than the TTL but within the max-stale window) are
+ *   returned immediately while a single background refresh runs.
+ * - Missing or too-stale entries are loaded by the first caller; concurrent
+ *   callers for the same symbol wait on that one load instead of issuing their own.
+ *
+ * Failed or empty loads are not cached. A {@link PriceUpdatedEvent} is
+ * published whenever a load changes the cached price, and also when it
+ * replaces nothing or an entry past the max-stale window, so listeners that
+ * stopped trusting the expired price see the symbol priced again.
+ */
+@Component
+@Slf4j
+public class PriceCache {
+
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    @Autowired
+    public PriceCache(@Value("${finnhub.api.cache.ttl-seconds:300}") long ttlSeconds,
+                      @Value("${finnhub.api.cache.max-stale-seconds:3600}") long maxStaleSeconds,
+                      @Value("${finnhub.api.cache.max-entries:1000}") int maxEntries,
+                      ApplicationEventPublisher eventPublisher) {
+        this(ttlSeconds * 1000, maxStaleSeconds * 1000, maxEntries, Clock.systemUTC(), eventPublisher);
+    }
+
+    PriceCache(long ttlMillis, long maxStaleMillis, int maxEntries, Clock clock,
+               ApplicationEventPublisher eventPublisher) {
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = Math.max(ttlMillis, maxStaleMillis);
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.eventPublisher = eventPublisher;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "price-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Get a price, loading it on the calling thread if nothing usable is cached.
+     */
+    public BigDecimal get(String symbol, Function<String, BigDecimal> loader) {
+        return getAsync(symbol, loader, Runnable::run).join();
+    }
+
+    /**
+     * Get a price without blocking on a cache hit. A load, if needed, runs on
+     * the given executor and is shared with any concurrent caller.
+     */
+    public CompletableFuture<BigDecimal> getAsync(String symbol, Function<String, BigDecimal> loader,
+                                                  Executor executor) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(symbol);
+        }
+
+        long age = entry != null ? clock.millis() - entry.loadedAt : Long.MAX_VALUE;
+        if (age <= ttlMillis) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.price);
+        }
+        if (age <= maxStaleMillis) {
+            staleHits.increment();
+            load(symbol, loader, refreshExecutor);
+            return CompletableFuture.completedFuture(entry.price);
+        }
+
+        misses.increment();
+        return load(symbol, loader, executor);
+    }
+
+    /**
+     * Force a reload in the background, regardless of the entry's age.
+     */
+    public CompletableFuture<BigDecimal> refresh(String symbol, Function<String, BigDecimal> loader) {
+        return load(symbol, loader, refreshExecutor);
+    }
+
+    /**
+     * Cached price (fresh or stale) without triggering a load.
+     */
+    public synchronized BigDecimal getIfPresent(String symbol) {
+        Entry entry = entries.get(symbol);
+        return entry != null && clock.millis() - entry.loadedAt <= maxStaleMillis ? entry.price : null;
+    }
+
+    /**
+     * Milliseconds since the entry was loaded, or -1 if the symbol is not cached.
+     */
+    public synchronized long ageMillis(String symbol) {
+        Entry entry = entries.get(symbol);
+        return entry != null ? clock.millis() - entry.loadedAt : -1;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public PriceCacheStats stats() {
+        long loads = loadSuccesses.sum() + loadFailures.sum();
+        long lookups = hits.sum() + staleHits.sum() + misses.sum();
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return PriceCacheStats.builder()
+                .size(size)
+                .maxEntries(maxEntries)
+                .hits(hits.sum())
+                .staleHits(staleHits.sum())
+                .misses(misses.sum())
+                .hitRate(lookups > 0 ? (double) (hits.sum() + staleHits.sum()) / lookups : 0.0)
+                .evictions(evictions.sum())
+                .loadSuccesses(loadSuccesses.sum())
+                .loadFailures(loadFailures.sum())
+                .averageLoadMillis(loads > 0 ? totalLoadNanos.sum() / 1_000_000.0 / loads : 0.0)
+                .inFlightLoads(inFlight.size())
+                .build();
+    }
+
+    /**
+     * Single-flight load: the first caller for a symbol starts the load, later
+     * callers get the same future until it completes.
+     */
+    private CompletableFuture<BigDecimal> load(String symbol, Function<String, BigDecimal> loader,
+                                               Executor executor) {
+        CompletableFuture<BigDecimal> created = new CompletableFuture<>();
+        CompletableFuture<BigDecimal> existing = inFlight.putIfAbsent(symbol, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                BigDecimal price = null;
+                try {
+                    price = loader.apply(symbol);
+                } catch (RuntimeException e) {
+                    log.error("Price load failed for {}: {}", symbol, e.getMessage());
+                } finally {
+                    totalLoadNanos.add(System.nanoTime() - start);
+                    BigDecimal previous = null;
+                    if (price != null) {
+                        loadSuccesses.increment();
+                        previous = put(symbol, price);
+                    } else {
+                        loadFailures.increment();
+                    }
+                    inFlight.remove(symbol, created);
+                    if (price != null && (previous == null || previous.compareTo(price) != 0)) {
+                        // previous is null when nothing usable was cached, so a reload after expiry publishes
+                        publish(new PriceUpdatedEvent(symbol, previous, price));
+                    }
+                    created.complete(price);
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor rejected the task (e.g. during shutdown)
+            inFlight.remove(symbol, created);
+            created.complete(null);
+        }
+        return created;
+    }
+
+    private void publish(PriceUpdatedEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Price update listener failed for {}: {}", event.symbol(), e.getMessage());
+        }
+    }
+
+    /**
+     * Store a loaded price.
+     *
+     * @return the previously cached price, or null if there was none or it was past max-stale
+     */
+    private synchronized BigDecimal put(String symbol, BigDecimal price) {
+        long now = clock.millis();
+        Entry previous = entries.put(symbol, new Entry(price, now));
+
+        // Drop entries past the stale window from the LRU end, then enforce the size cap
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (now - entry.loadedAt <= maxStaleMillis && entries.size() <= maxEntries) {
+                break;
+            }
+            eldest.remove();
+            evictions.increment();
+        }
+        return previous != null && now - previous.loadedAt <= maxStaleMillis ? previous.price : null;
+    }
+
+    private record Entry(BigDecimal price, long loadedAt) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.*;
+
+/**
+ * Keeps quotes for every held tradeable symbol warm, so enriching the
+ * portfolio is served from the price cache instead of the network.
+ *
+ * Each tick spends at most its share of the refresh budget on the symbols
+ * that are missing from the cache or about to expire, largest
+ * (position value x age) first. Refreshes go through the lowest-priority
+ * lane of {@link FinnhubRequestScheduler} and are skipped while
+ * interactive requests are queued.
+ *
+ * A symbol whose refresh fails (unknown symbol, no quote) backs off: it is
+ * not retried for interval-ms, doubling per consecutive failure up to
+ * max-backoff-seconds, and while it keeps failing it no longer counts as
+ * missing, so it competes on value x age instead of going first every tick.
+ */
+@Component
+@Slf4j
+public class PriceRefresher {
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final StockPriceService stockPriceService;
+    private final PriceCache priceCache;
+    private final FinnhubRequestScheduler requestScheduler;
+
+    private final boolean enabled;
+    private final int callsPerTick;
+    private final long refreshAheadMillis;
+    private final long intervalMillis;
+    private final long maxBackoffMillis;
+    private final Clock clock;
+
+    // Symbol -> total quantity and cost across all positions in that symbol
+    private final Map<String, Holding> holdings = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Serializes loads; held while waiting on the fence, so never the state lock (holdings)
+    private final Object buildLock = new Object();
+    private final ChangeFence fence = new ChangeFence();
+
+    @Autowired
+    public PriceRefresher(PortfolioAssetRepository portfolioAssetRepository,
+                          StockPriceService stockPriceService,
+                          PriceCache priceCache,
+                          FinnhubRequestScheduler requestScheduler,
+                          @Value("${finnhub.api.refresh.enabled:true}") boolean enabled,
+                          @Value("${finnhub.api.refresh.calls-per-minute:30}") int callsPerMinute,
+                          @Value("${finnhub.api.refresh.interval-ms:10000}") long intervalMillis,
+                          @Value("${finnhub.api.refresh.refresh-ahead-seconds:60}") long refreshAheadSeconds,
+                          @Value("${finnhub.api.refresh.max-backoff-seconds:900}") long maxBackoffSeconds) {
+        this(portfolioAssetRepository, stockPriceService, priceCache, requestScheduler, enabled,
+                callsPerMinute, intervalMillis, refreshAheadSeconds, maxBackoffSeconds, Clock.systemUTC());
+    }
+
+    PriceRefresher(PortfolioAssetRepository portfolioAssetRepository,
+                   StockPriceService stockPriceService,
+                   PriceCache priceCache,
+                   FinnhubRequestScheduler requestScheduler,
+                   boolean enabled,
+                   int callsPerMinute,
+                   long intervalMillis,
+                   long refreshAheadSeconds,
+                   long maxBackoffSeconds,
+                   Clock clock) {
+        this.portfolioAssetRepository = portfolioAssetRepository;
+        this.stockPriceService = stockPriceService;
+        this.priceCache = priceCache;
+        this.requestScheduler = requestScheduler;
+        this.enabled = enabled;
+        this.callsPerTick = (int) Math.max(1, callsPerMinute * intervalMillis / 60_000);
+        this.refreshAheadMillis = refreshAheadSeconds * 1000;
+        this.intervalMillis = intervalMillis;
+        this.maxBackoffMillis = Math.max(intervalMillis, maxBackoffSeconds * 1000);
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            refreshDue();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finnhub.api.refresh.interval-ms:10000}",
+            initialDelayString = "${finnhub.api.refresh.interval-ms:10000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refreshDue();
+        }
+    }
+
+    /**
+     * Refresh up to one tick's budget of due symbols.
+     *
+     * @return the symbols refreshed, in the order they were submitted
+     */
+    public List<String> refreshDue() {
+        if (requestScheduler.getQueuedCount() > 0) {
+            log.debug("Interactive Finnhub requests queued, skipping price refresh tick");
+            return Collections.emptyList();
+        }
+
+        List<String> due = dueSymbols(callsPerTick);
+        due.forEach(symbol -> stockPriceService.refreshPrice(symbol)
+                .whenComplete((price, error) -> recordOutcome(symbol, price != null && error == null)));
+        if (!due.isEmpty()) {
+            log.debug("Refreshing {} symbols: {}", due.size(), due);
+        }
+        return due;
+    }
+
+    /**
+     * Held symbols whose quote is missing or will expire within the
+     * refresh-ahead window, most urgent first. Symbols backing off after
+     * failed refreshes are left out until their retry time.
+     */
+    List<String> dueSymbols(int limit) {
+        ensureLoaded();
+        long staleAfter = Math.max(0, priceCache.getTtlMillis() - refreshAheadMillis);
+        long now = clock.millis();
+        List<Candidate> candidates = new ArrayList<>();
+
+        synchronized (holdings) {
+            holdings.forEach((symbol, holding) -> {
+                if (holding.retryAt > now) {
+                    return;
+                }
+                long age = priceCache.ageMillis(symbol);
+                if (age >= 0 && age < staleAfter) {
+                    return;
+                }
+                BigDecimal price = priceCache.getIfPresent(symbol);
+                BigDecimal value = price != null ? holding.quantity.multiply(price) : holding.cost;
+                double staleness = age < 0 ? 1 : 1 + (double) age / priceCache.getTtlMillis();
+                // Only a symbol that has not failed yet jumps the queue for being missing
+                candidates.add(new Candidate(symbol, age < 0 && holding.failures == 0, value.doubleValue() * staleness));
+            });
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparing(Candidate::missing).reversed()
+                        .thenComparing(Comparator.comparingDouble(Candidate::score).reversed())
+                        .thenComparing(Candidate::symbol))
+                .limit(limit)
+                .map(Candidate::symbol)
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeAssetCommit(AssetChangedEvent event) {
+        fence.enter(event);
+    }
+
+    // Skipping while not loaded is safe: the fence makes the pending load see this change
+    @TransactionalEventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (holdings) {
+            apply(event.before(), -1);
+            apply(event.after(), 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAssetCompletion(AssetChangedEvent event) {
+        fence.exit(event);
+    }
+
+    /**
+     * Reset the backoff after a successful refresh, or extend it after a failed one.
+     */
+    private void recordOutcome(String symbol, boolean succeeded) {
+        synchronized (holdings) {
+            Holding holding = holdings.get(symbol);
+            if (holding == null) {
+                return;
+            }
+            if (succeeded) {
+                holding.failures = 0;
+                holding.retryAt = 0;
+            } else {
+                holding.failures++;
+                long backoff = intervalMillis << Math.min(holding.failures - 1, 20);
+                holding.retryAt = clock.millis() + Math.min(backoff, maxBackoffMillis);
+                log.debug("Refresh of {} failed {} times, retrying in {} ms", symbol, holding.failures,
+                        Math.min(backoff, maxBackoffMillis));
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (buildLock) {
+            while (!loaded) {
+                long token = fence.quiet();
+                List<AssetBaseView> assets = portfolioAssetRepository.findAllBaseViews();
+                synchronized (holdings) {
+                    if (!fence.unchanged(token)) {
+                        log.debug("Assets changed while loading held symbols, reloading");
+                        continue;
+                    }
+                    assets.forEach(asset -> apply(asset, 1));
+                    loaded = true;
+                }
+                log.info("Tracking {} held symbols for background price refresh", holdings.size());
+            }
+        }
+    }
+
+    private void apply(AssetBaseView asset, int sign) {
+        if (asset == null || asset.getType() == null || !asset.getType().isTradeable()
+                || asset.getSymbol() == null || asset.getSymbol().isBlank()) {
+            return;
+        }
+        String symbol = asset.getSymbol().toUpperCase().trim();
+        Holding holding = holdings.computeIfAbsent(symbol, s -> new Holding());
+        holding.positions += sign;
+        holding.quantity = holding.quantity.add(orZero(asset.getQuantity()).multiply(BigDecimal.valueOf(sign)));
+        holding.cost = holding.cost.add(orZero(asset.getCostBasis()).multiply(BigDecimal.valueOf(sign)));
+        if (holding.positions <= 0) {
+            holdings.remove(symbol);
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static class Holding {
+        int positions;
+        BigDecimal quantity = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+        // Consecutive failed refreshes, and when the next one may run
+        int failures;
+        long retryAt;
+    }
+
+    private record Candidate(String symbol, boolean missing, double score) {
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One symbol's price bars in an append-only, memory-mapped file.
+ *
+ * Layout: a 32-byte header (magic, version, base time, bar count) followed by
+ * fixed 24-byte records, oldest first:
+ *
+ *   int  seconds since the base time (the first bar's time)
+ *   long open, scaled by PriceBars.PRICE_SCALE
+ *   int  high - open, low - open and close - open, same scale
+ *
+ * Storing time and high/low/close as deltas halves the record compared to
+ * five longs, and fixed-size records let a range scan binary-search its
+ * start. The file is mapped with room to spare and remapped at twice the
+ * size when full; bytes past the bar count are unused.
+ *
+ * Bars are normally appended at the end. Bars older than the newest one are
+ * merged in by rewriting the records from the first one they precede, and
+ * a bar older than the base time moves the base time back, rewriting the
+ * whole file.
+ */
+final class PriceSeriesFile implements AutoCloseable {
+
+    private static final int MAGIC = 0x50585331; // "PXS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 24;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final int BASE_TIME_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    // Time offsets are stored as unsigned ints
+    private static final long MAX_OFFSET = 0xFFFF_FFFFL;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private MappedByteBuffer buffer;
+    private long baseTime;
+    private int count;
+
+    private PriceSeriesFile(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Open the file at {@code path}, creating an empty series if it does not exist.
+     */
+    static PriceSeriesFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PriceSeriesFile file = new PriceSeriesFile(path, channel);
+        try {
+            if (channel.size() == 0) {
+                file.map(MIN_CAPACITY);
+                file.buffer.putInt(0, MAGIC);
+                file.buffer.putInt(4, VERSION);
+            } else {
+                file.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                if (file.buffer.getInt(0) != MAGIC || file.buffer.getInt(4) != VERSION) {
+                    throw new IOException(path + " is not a price series file");
+                }
+                file.baseTime = file.buffer.getLong(BASE_TIME_OFFSET);
+                file.count = (int) file.buffer.getLong(COUNT_OFFSET);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return file;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Time of the newest bar, or Long.MIN_VALUE if there is none.
+     */
+    long lastTime() {
+        lock.readLock().lock();
+        try {
+            return count == 0 ? Long.MIN_VALUE : timeAt(count - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add bars (scaled prices) in time order. Bars may be older than stored
+     * ones; a bar with the same time as a stored bar replaces it. Either all
+     * bars are written or none.
+     *
+     * @throws IllegalArgumentException if a bar is older than the one before it
+     *         in {@code bars}, or its time or price spread does not fit the record
+     */
+    void append(PriceBars bars) {
+        if (bars.size() == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (count > 0 && bars.getTime(0) < timeAt(count - 1)) {
+                merge(bars);
+                return;
+            }
+            long base = count == 0 ? bars.getTime(0) : baseTime;
+            long previous = count == 0 ? Long.MIN_VALUE : timeAt(count - 1);
+            for (int i = 0; i < bars.size(); i++) {
+                check(base, previous, bars.getTime(i), bars.getOpen(i), bars.getHigh(i), bars.getLow(i), bars.getClose(i));
+                previous = bars.getTime(i);
+            }
+            for (int i = 0; i < bars.size(); i++) {
+                write(bars.getTime(i), bars.getOpen(i), bars.getHigh(i), bars.getLow(i), bars.getClose(i));
+            }
+            buffer.putLong(COUNT_OFFSET, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock; bars starts before the newest stored bar
+    private void merge(PriceBars bars) {
+        long first = bars.getTime(0);
+        long base = Math.min(baseTime, first);
+        // Records before start keep their offsets unless the base time moves
+        int start = first < baseTime ? 0 : lowerBound(first);
+        PriceBars merged = new PriceBars(count - start + bars.size());
+        long previous = Long.MIN_VALUE;
+        int stored = start;
+        for (int i = 0; i < bars.size(); i++) {
+            long time = bars.getTime(i);
+            check(base, previous, time, bars.getOpen(i), bars.getHigh(i), bars.getLow(i), bars.getClose(i));
+            previous = time;
+            if (i + 1 < bars.size() && bars.getTime(i + 1) == time) {
+                continue; // a later bar in the same batch replaces it
+            }
+            for (; stored < count && timeAt(stored) <= time; stored++) {
+                if (timeAt(stored) < time) {
+                    addStored(merged, stored);
+                }
+            }
+            merged.add(time, bars.getOpen(i), bars.getHigh(i), bars.getLow(i), bars.getClose(i));
+        }
+        for (; stored < count; stored++) {
+            addStored(merged, stored);
+        }
+        long last = merged.getTime(merged.size() - 1);
+        if (last - base > MAX_OFFSET) {
+            throw new IllegalArgumentException("Bar time " + first + " is too far from the series end at " + last);
+        }
+
+        ensureCapacity(start + merged.size());
+        baseTime = base;
+        buffer.putLong(BASE_TIME_OFFSET, base);
+        for (int i = 0; i < merged.size(); i++) {
+            putRecord(start + i, merged.getTime(i), merged.getOpen(i), merged.getHigh(i), merged.getLow(i), merged.getClose(i));
+        }
+        count = start + merged.size();
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    private void addStored(PriceBars bars, int index) {
+        int position = recordPosition(index);
+        long open = buffer.getLong(position + 4);
+        bars.add(timeAt(index),
+                open,
+                open + buffer.getInt(position + 12),
+                open + buffer.getInt(position + 16),
+                open + buffer.getInt(position + 20));
+    }
+
+    /**
+     * Fold one price into the bar starting at {@code barTime}: a new bar if
+     * it is newer than the newest bar, otherwise the newest bar's high, low
+     * and close are updated.
+     *
+     * @throws IllegalArgumentException if {@code barTime} is older than the newest bar
+     */
+    void update(long barTime, long price) {
+        lock.writeLock().lock();
+        try {
+            long base = count == 0 ? barTime : baseTime;
+            if (count > 0 && timeAt(count - 1) == barTime) {
+                int position = recordPosition(count - 1);
+                long open = buffer.getLong(position + 4);
+                long high = Math.max(open + buffer.getInt(position + 12), price);
+                long low = Math.min(open + buffer.getInt(position + 16), price);
+                check(base, barTime, barTime, open, high, low, price);
+                write(barTime, open, high, low, price);
+            } else {
+                check(base, count == 0 ? Long.MIN_VALUE : timeAt(count - 1), barTime, price, price, price, price);
+                write(barTime, price, price, price, price);
+                buffer.putLong(COUNT_OFFSET, count);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bars with from <= time < to, in time order.
+     */
+    PriceBars read(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int first = lowerBound(from);
+            int end = lowerBound(to);
+            PriceBars bars = new PriceBars(Math.max(end - first, 0));
+            for (int i = first; i < end; i++) {
+                addStored(bars, i);
+            }
+            return bars;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flush written bars to disk.
+     */
+    void force() {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void check(long base, long previous, long time, long open, long high, long low, long close) {
+        if (time < previous) {
+            throw new IllegalArgumentException("Bar time " + time + " is before the bar at " + previous);
+        }
+        long offset = time - base;
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Bar time " + time + " is too far from the series start at " + base);
+        }
+        if (!fitsInt(high - open) || !fitsInt(low - open) || !fitsInt(close - open)) {
+            throw new IllegalArgumentException("Bar at " + time + " has a price range too wide to store");
+        }
+    }
+
+    private static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    // Caller holds the write lock, has checked the bar and stores the count
+    private void write(long time, long open, long high, long low, long close) {
+        if (count == 0) {
+            baseTime = time;
+            buffer.putLong(BASE_TIME_OFFSET, time);
+        }
+        int index = count > 0 && timeAt(count - 1) == time ? count - 1 : count;
+        if (index == count) {
+            ensureCapacity(count + 1);
+        }
+        putRecord(index, time, open, high, low, close);
+        if (index == count) {
+            count++;
+        }
+    }
+
+    private void putRecord(int index, long time, long open, long high, long low, long close) {
+        int position = recordPosition(index);
+        buffer.putInt(position, (int) (time - baseTime));
+        buffer.putLong(position + 4, open);
+        buffer.putInt(position + 12, (int) (high - open));
+        buffer.putInt(position + 16, (int) (low - open));
+        buffer.putInt(position + 20, (int) (close - open));
+    }
+
+    private long timeAt(int index) {
+        return baseTime + Integer.toUnsignedLong(buffer.getInt(recordPosition(index)));
+    }
+
+    /**
+     * Index of the first bar at or after {@code time}.
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int recordPosition(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    private void ensureCapacity(int records) {
+        int capacity = (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+        if (records > capacity) {
+            map(Math.max(capacity * 2L, records));
+        }
+    }
+
+    private void map(long records) {
+        long bytes = HEADER_BYTES + records * RECORD_BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException(path + " is full");
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
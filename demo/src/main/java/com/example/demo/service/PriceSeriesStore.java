@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBarDTO;
+import com.example.demo.event.PriceUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local store of historical price bars (open/high/low/close), one
+ * memory-mapped {@link PriceSeriesFile} per symbol under store-dir.
+ *
+ * Bars are backfilled through {@link #append}; with record-quotes enabled,
+ * every quote the price cache loads is also folded into the symbol's daily
+ * bar. Reads never touch Finnhub, so history is available offline.
+ */
+@Component
+@Slf4j
+public class PriceSeriesStore {
+
+    private static final String FILE_SUFFIX = ".bars";
+
+    private final Path directory;
+    private final boolean recordQuotes;
+    private final Map<String, PriceSeriesFile> files = new ConcurrentHashMap<>();
+
+    public PriceSeriesStore(@Value("${portfolio.prices.store-dir:data/prices}") Path directory,
+                            @Value("${portfolio.prices.record-quotes:true}") boolean recordQuotes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.recordQuotes = recordQuotes;
+    }
+
+    @PreDestroy
+    void close() {
+        files.values().forEach(file -> {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.warn("Could not close price series file: {}", e.getMessage());
+            }
+        });
+        files.clear();
+    }
+
+    /**
+     * Add bars to a symbol's history. Bars must be in time order but may be
+     * older than stored ones, e.g. a backfill after quotes were recorded; a
+     * bar at a stored bar's time replaces it.
+     *
+     * @return the number of bars stored for the symbol afterwards
+     * @throws IllegalArgumentException if a bar is incomplete, inconsistent or out of order
+     */
+    public int append(String symbol, List<PriceBarDTO> bars) {
+        PriceBars scaled = new PriceBars(bars.size());
+        for (PriceBarDTO bar : bars) {
+            if (bar.getTime() == null || bar.getOpen() == null || bar.getHigh() == null
+                    || bar.getLow() == null || bar.getClose() == null) {
+                throw new IllegalArgumentException("Each bar needs a time, open, high, low and close");
+            }
+            long open = scaled(bar.getOpen());
+            long high = scaled(bar.getHigh());
+            long low = scaled(bar.getLow());
+            long close = scaled(bar.getClose());
+            if (low > Math.min(open, close) || high < Math.max(open, close) || low < 0) {
+                throw new IllegalArgumentException("Bar at " + bar.getTime() + " needs 0 <= low <= open, close <= high");
+            }
+            scaled.add(bar.getTime().getEpochSecond(), open, high, low, close);
+        }
+        PriceSeriesFile file = file(normalize(symbol), true);
+        file.append(scaled);
+        file.force();
+        return file.size();
+    }
+
+    /**
+     * Bars of a symbol with from <= time < to, downsampled to {@code interval}
+     * if one is given. An unknown symbol has no bars.
+     */
+    public PriceBars getBars(String symbol, Instant from, Instant to, BarInterval interval) {
+        PriceSeriesFile file = file(normalize(symbol), false);
+        if (file == null) {
+            return new PriceBars(0);
+        }
+        PriceBars bars = file.read(from.getEpochSecond(), to.getEpochSecond());
+        return interval != null ? bars.downsample(interval) : bars;
+    }
+
+    /**
+     * Fold a quote into the symbol's bar for the (UTC) day of {@code time}.
+     */
+    public void recordQuote(String symbol, Instant time, BigDecimal price) {
+        long epochSecond = time.getEpochSecond();
+        file(normalize(symbol), true).update(BarInterval.DAY.bucketStart(epochSecond), scaled(price));
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        if (!recordQuotes || event.price() == null) {
+            return;
+        }
+        try {
+            recordQuote(event.symbol(), Instant.now(), event.price());
+        } catch (RuntimeException e) {
+            // History is best effort; never fail the quote load
+            log.warn("Could not record {} quote in price history: {}", event.symbol(), e.getMessage());
+        }
+    }
+
+    private PriceSeriesFile file(String symbol, boolean create) {
+        PriceSeriesFile file = files.get(symbol);
+        if (file != null) {
+            return file;
+        }
+        Path path = directory.resolve(fileName(symbol));
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        return files.computeIfAbsent(symbol, key -> {
+            try {
+                return PriceSeriesFile.open(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open price history of " + key, e);
+            }
+        });
+    }
+
+    private static long scaled(BigDecimal price) {
+        try {
+            return PriceBars.toScaled(price);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Price " + price + " is too large to store");
+        }
+    }
+
+    private static String normalize(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            throw new IllegalArgumentException("Symbol is required");
+        }
+        return symbol.trim().toUpperCase();
+    }
+
+    /**
+     * File name for a symbol: letters, digits, '.' and '-' as is, anything
+     * else (e.g. ':' or '^') as '_' plus its hex code.
+     */
+    static String fileName(String symbol) {
+        StringBuilder name = new StringBuilder(symbol.length() + FILE_SUFFIX.length());
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('_').append(Integer.toHexString(c).toUpperCase());
+            }
+        }
+        return name.append(FILE_SUFFIX).toString();
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Risk statistics over daily return series held in primitive arrays.
+ *
+ * Series are row-major double[][] (one contiguous row per symbol, one column
+ * per day), so every loop runs along a row. Daily figures are annualized with
+ * TRADING_DAYS. Returns are simple returns; VaR and drawdown are reported as
+ * positive fractions of value lost.
+ */
+public final class RiskEngine {
+
+    public static final int TRADING_DAYS = 252;
+
+    // A row whose daily returns vary less than this is treated as constant
+    private static final double FLAT_STD_DEV = 1e-12;
+
+    // Rows per correlation task; smaller ranges are computed inline
+    private static final int CORRELATION_ROWS_PER_TASK = 8;
+
+    private RiskEngine() {
+    }
+
+    /**
+     * Simple daily returns of each row of closes; one column shorter.
+     */
+    public static double[][] returns(double[][] closes) {
+        double[][] returns = new double[closes.length][];
+        for (int i = 0; i < closes.length; i++) {
+            double[] close = closes[i];
+            double[] r = new double[Math.max(close.length - 1, 0)];
+            for (int t = 0; t < r.length; t++) {
+                r[t] = close[t] > 0 ? close[t + 1] / close[t] - 1 : 0;
+            }
+            returns[i] = r;
+        }
+        return returns;
+    }
+
+    /**
+     * Daily returns of a fixed-weight portfolio of the given return rows.
+     */
+    public static double[] portfolioReturns(double[][] returns, double[] weights) {
+        double[] portfolio = new double[returns.length == 0 ? 0 : returns[0].length];
+        for (int i = 0; i < returns.length; i++) {
+            double weight = weights[i];
+            double[] r = returns[i];
+            for (int t = 0; t < portfolio.length; t++) {
+                portfolio[t] += weight * r[t];
+            }
+        }
+        return portfolio;
+    }
+
+    public static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    /**
+     * Sample standard deviation (n - 1); 0 for fewer than two values.
+     */
+    public static double stdDev(double[] values) {
+        if (values.length < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double sumSquares = 0;
+        for (double value : values) {
+            double d = value - mean;
+            sumSquares += d * d;
+        }
+        return Math.sqrt(sumSquares / (values.length - 1));
+    }
+
+    public static double annualizedVolatility(double[] returns) {
+        return stdDev(returns) * Math.sqrt(TRADING_DAYS);
+    }
+
+    /**
+     * Covariance with the benchmark over the benchmark's variance; NaN if the
+     * benchmark does not move.
+     */
+    public static double beta(double[] returns, double[] benchmark) {
+        double meanR = mean(returns);
+        double meanB = mean(benchmark);
+        double covariance = 0;
+        double variance = 0;
+        for (int t = 0; t < returns.length; t++) {
+            double b = benchmark[t] - meanB;
+            covariance += (returns[t] - meanR) * b;
+            variance += b * b;
+        }
+        return variance > 0 ? covariance / variance : Double.NaN;
+    }
+
+    /**
+     * One-day loss not exceeded on {@code confidence} of the observed days.
+     */
+    public static double historicalVar(double[] returns, double confidence) {
+        if (returns.length == 0) {
+            return 0;
+        }
+        double[] sorted = returns.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.floor((1 - confidence) * sorted.length);
+        return Math.max(0, -sorted[Math.min(index, sorted.length - 1)]);
+    }
+
+    /**
+     * One-day loss at {@code confidence} assuming normally distributed returns.
+     */
+    public static double parametricVar(double[] returns, double confidence) {
+        return Math.max(0, inverseNormal(confidence) * stdDev(returns) - mean(returns));
+    }
+
+    /**
+     * Largest peak-to-trough fall of the value compounded from the returns.
+     */
+    public static double maxDrawdown(double[] returns) {
+        double value = 1;
+        double peak = 1;
+        double drawdown = 0;
+        for (double r : returns) {
+            value *= 1 + r;
+            if (value > peak) {
+                peak = value;
+            } else {
+                drawdown = Math.max(drawdown, 1 - value / peak);
+            }
+        }
+        return drawdown;
+    }
+
+    /**
+     * Pearson correlation of every pair of rows.
+     *
+     * Each row is centered and scaled to unit length once, after which a
+     * correlation is a plain dot product. The upper triangle is computed in
+     * row ranges on {@code pool} (inline when it is null) and mirrored; a row
+     * that does not move correlates 0 with everything.
+     */
+    public static double[][] correlationMatrix(double[][] returns, ForkJoinPool pool) {
+        int n = returns.length;
+        double[][] unit = new double[n][];
+        boolean[] flat = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            unit[i] = standardize(returns[i]);
+            flat[i] = unit[i] == null;
+            if (flat[i]) {
+                unit[i] = new double[returns[i].length];
+            }
+        }
+        double[][] correlation = new double[n][n];
+        CorrelationTask task = new CorrelationTask(unit, flat, correlation, 0, n);
+        if (pool == null) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return correlation;
+    }
+
+    /**
+     * Deviations from the mean divided by their norm, or null if the row is
+     * constant (up to rounding).
+     */
+    private static double[] standardize(double[] row) {
+        double mean = mean(row);
+        double[] unit = new double[row.length];
+        double sumSquares = 0;
+        for (int t = 0; t < row.length; t++) {
+            double d = row[t] - mean;
+            unit[t] = d;
+            sumSquares += d * d;
+        }
+        if (sumSquares <= FLAT_STD_DEV * FLAT_STD_DEV * row.length) {
+            return null;
+        }
+        double scale = 1 / Math.sqrt(sumSquares);
+        for (int t = 0; t < row.length; t++) {
+            unit[t] *= scale;
+        }
+        return unit;
+    }
+
+    /**
+     * Upper-triangle rows [from, to). Row i costs n - i dot products, so
+     * ranges are split until small and work stealing evens out the triangle.
+     */
+    private static final class CorrelationTask extends RecursiveAction {
+        private final double[][] unit;
+        private final boolean[] flat;
+        private final double[][] correlation;
+        private final int from;
+        private final int to;
+
+        CorrelationTask(double[][] unit, boolean[] flat, double[][] correlation, int from, int to) {
+            this.unit = unit;
+            this.flat = flat;
+            this.correlation = correlation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CORRELATION_ROWS_PER_TASK && getPool() != null) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CorrelationTask(unit, flat, correlation, from, mid),
+                        new CorrelationTask(unit, flat, correlation, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                computeRow(i);
+            }
+        }
+
+        /**
+         * Correlations of row i with rows i..n-1, four rows per pass over row i
+         * so each of its values is loaded once for four products.
+         */
+        private void computeRow(int i) {
+            int n = unit.length;
+            double[] x = unit[i];
+            double[] out = correlation[i];
+            out[i] = flat[i] ? 0 : 1;
+            int j = i + 1;
+            for (; j + 3 < n; j += 4) {
+                double[] a = unit[j];
+                double[] b = unit[j + 1];
+                double[] c = unit[j + 2];
+                double[] d = unit[j + 3];
+                double sa = 0;
+                double sb = 0;
+                double sc = 0;
+                double sd = 0;
+                for (int t = 0; t < x.length; t++) {
+                    double v = x[t];
+                    sa += v * a[t];
+                    sb += v * b[t];
+                    sc += v * c[t];
+                    sd += v * d[t];
+                }
+                store(i, j, sa);
+                store(i, j + 1, sb);
+                store(i, j + 2, sc);
+                store(i, j + 3, sd);
+            }
+            for (; j < n; j++) {
+                double[] a = unit[j];
+                double s = 0;
+                for (int t = 0; t < x.length; t++) {
+                    s += x[t] * a[t];
+                }
+                store(i, j, s);
+            }
+        }
+
+        private void store(int i, int j, double value) {
+            // Rounding can push a dot product of unit vectors just past +-1
+            double clamped = Math.max(-1, Math.min(1, value));
+            correlation[i][j] = clamped;
+            correlation[j][i] = clamped;
+        }
+    }
+
+    /**
+     * Standard normal quantile (Acklam's rational approximation, relative
+     * error below 1.2e-9).
+     *
+     * @throws IllegalArgumentException unless 0 < p < 1
+     */
+    public static double inverseNormal(double p) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1 (exclusive)");
+        }
+        final double pLow = 0.02425;
+        if (p < pLow) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return tail(q);
+        }
+        if (p > 1 - pLow) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -tail(q);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+
+    private static double tail(double q) {
+        return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                + 3.754408661907416e+00) * q + 1);
+    }
+}
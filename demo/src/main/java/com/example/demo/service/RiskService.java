@@ -0,0 +1,260 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RiskReportDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.repository.AssetGroupTotals;
+import com.example.demo.repository.PortfolioAssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Portfolio risk from the local price history ({@link PriceSeriesStore}).
+ *
+ * Held tradeable symbols are valued at their latest stored close. Their
+ * daily closes over the lookback window are aligned on the days any of them
+ * traded (missing days carry the previous close forward, and the window
+ * starts once every included symbol has a price) and handed to
+ * {@link RiskEngine} as primitive arrays. Symbols without history, or priced
+ * on fewer than min-coverage of the trading days, are reported, not guessed;
+ * a recently added holding therefore does not shrink the window for the rest.
+ */
+@Service
+@Slf4j
+public class RiskService {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int MIN_DAYS = 30;
+    private static final int MAX_DAYS = 3650;
+
+    private final PortfolioAssetRepository portfolioAssetRepository;
+    private final PriceSeriesStore priceSeriesStore;
+    private final String benchmarkSymbol;
+    private final double minCoverage;
+
+    public RiskService(PortfolioAssetRepository portfolioAssetRepository,
+                       PriceSeriesStore priceSeriesStore,
+                       @Value("${portfolio.risk.benchmark-symbol:SPY}") String benchmarkSymbol,
+                       @Value("${portfolio.risk.min-coverage:0.25}") double minCoverage) {
+        this.portfolioAssetRepository = portfolioAssetRepository;
+        this.priceSeriesStore = priceSeriesStore;
+        this.benchmarkSymbol = benchmarkSymbol.trim().toUpperCase();
+        this.minCoverage = minCoverage;
+    }
+
+    /**
+     * @param days                lookback window in calendar days, ending today
+     * @param confidence          VaR confidence, e.g. 0.95
+     * @param includeCorrelations whether to return the correlation matrix
+     * @throws IllegalArgumentException if days or confidence are out of range
+     */
+    public RiskReportDTO getRisk(int days, double confidence, boolean includeCorrelations) {
+        if (days < MIN_DAYS || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between " + MIN_DAYS + " and " + MAX_DAYS);
+        }
+        if (!(confidence >= 0.5 && confidence < 1)) {
+            throw new IllegalArgumentException("confidence must be at least 0.5 and below 1");
+        }
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusDays(days);
+        long fromSecond = from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        int dayCount = days + 1;
+
+        // Quantity per held tradeable symbol
+        Map<String, Holding> holdings = new LinkedHashMap<>();
+        for (AssetGroupTotals group : portfolioAssetRepository.findGroupTotals()) {
+            if (group.getType().isTradeable() && group.getSymbol() != null && !group.getSymbol().isBlank()
+                    && group.getQuantity() != null && group.getQuantity().signum() > 0) {
+                holdings.computeIfAbsent(group.getSymbol(), symbol -> new Holding(symbol, group.getType()))
+                        .quantity += group.getQuantity().doubleValue();
+            }
+        }
+
+        // Daily closes on a calendar axis (NaN where a symbol has no bar)
+        List<Holding> withHistory = new ArrayList<>();
+        List<String> unpriced = new ArrayList<>();
+        boolean[] traded = new boolean[dayCount];
+        for (Holding holding : holdings.values()) {
+            holding.closes = dailyCloses(holding.symbol, fromSecond, dayCount, traded);
+            holding.first = firstPriced(holding.closes);
+            if (holding.first < 0) {
+                unpriced.add(holding.symbol);
+            } else {
+                withHistory.add(holding);
+            }
+        }
+
+        // Trading days from each day on; the window starts at the latest first
+        // price among the symbols that cover enough of them
+        int[] tradedFrom = new int[dayCount + 1];
+        for (int d = dayCount - 1; d >= 0; d--) {
+            tradedFrom[d] = tradedFrom[d + 1] + (traded[d] ? 1 : 0);
+        }
+        List<Holding> priced = new ArrayList<>();
+        List<String> shortHistory = new ArrayList<>();
+        int start = 0;
+        for (Holding holding : withHistory) {
+            if (tradedFrom[holding.first] >= minCoverage * tradedFrom[0]) {
+                priced.add(holding);
+                start = Math.max(start, holding.first);
+            } else {
+                shortHistory.add(holding.symbol);
+            }
+        }
+        double[] benchmarkCloses = dailyCloses(benchmarkSymbol, fromSecond, dayCount, null);
+
+        int[] tradingDays = tradingDays(traded, start);
+        RiskReportDTO.RiskReportDTOBuilder report = RiskReportDTO.builder()
+                .from(from)
+                .to(to)
+                .confidence(confidence)
+                .benchmark(benchmarkSymbol)
+                .unpricedSymbols(unpriced)
+                .shortHistorySymbols(shortHistory);
+        if (priced.isEmpty() || tradingDays.length < 3) {
+            return report.observations(0)
+                    .portfolioValue(BigDecimal.ZERO)
+                    .holdings(List.of())
+                    .build();
+        }
+
+        int n = priced.size();
+        double[][] closes = new double[n][];
+        double[] values = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            closes[i] = align(priced.get(i).closes, tradingDays);
+            values[i] = priced.get(i).quantity * closes[i][closes[i].length - 1];
+            total += values[i];
+        }
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = total > 0 ? values[i] / total : 1.0 / n;
+        }
+
+        double[][] returns = RiskEngine.returns(closes);
+        double[] portfolio = RiskEngine.portfolioReturns(returns, weights);
+        double[] benchmark = firstPriced(benchmarkCloses) >= 0 && firstPriced(benchmarkCloses) <= tradingDays[0]
+                ? RiskEngine.returns(new double[][]{align(benchmarkCloses, tradingDays)})[0]
+                : null;
+
+        List<RiskReportDTO.HoldingRisk> holdingRisks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            holdingRisks.add(RiskReportDTO.HoldingRisk.builder()
+                    .symbol(priced.get(i).symbol)
+                    .type(priced.get(i).type)
+                    .value(money(values[i]))
+                    .weight(weights[i])
+                    .volatility(RiskEngine.annualizedVolatility(returns[i]))
+                    .beta(benchmark != null ? finiteOrNull(RiskEngine.beta(returns[i], benchmark)) : null)
+                    .build());
+        }
+
+        return report.observations(portfolio.length)
+                .portfolioValue(money(total))
+                .volatility(RiskEngine.annualizedVolatility(portfolio))
+                .beta(benchmark != null ? finiteOrNull(RiskEngine.beta(portfolio, benchmark)) : null)
+                .historicalVar(money(RiskEngine.historicalVar(portfolio, confidence) * total))
+                .parametricVar(money(RiskEngine.parametricVar(portfolio, confidence) * total))
+                .maxDrawdown(RiskEngine.maxDrawdown(portfolio))
+                .holdings(holdingRisks)
+                .correlation(includeCorrelations ? RiskEngine.correlationMatrix(returns, ForkJoinPool.commonPool()) : null)
+                .build();
+    }
+
+    /**
+     * Closes per calendar day from fromSecond, NaN where there is no bar;
+     * marks the days with a bar in {@code traded} if given.
+     */
+    private double[] dailyCloses(String symbol, long fromSecond, int dayCount, boolean[] traded) {
+        double[] closes = new double[dayCount];
+        Arrays.fill(closes, Double.NaN);
+        PriceBars bars = priceSeriesStore.getBars(symbol, Instant.ofEpochSecond(fromSecond),
+                Instant.ofEpochSecond(fromSecond + dayCount * SECONDS_PER_DAY), BarInterval.DAY);
+        for (int b = 0; b < bars.size(); b++) {
+            int day = (int) ((bars.getTime(b) - fromSecond) / SECONDS_PER_DAY);
+            closes[day] = PriceBars.toPrice(bars.getClose(b)).doubleValue();
+            if (traded != null) {
+                traded[day] = true;
+            }
+        }
+        return closes;
+    }
+
+    private static int firstPriced(double[] closes) {
+        for (int d = 0; d < closes.length; d++) {
+            if (!Double.isNaN(closes[d])) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] tradingDays(boolean[] traded, int start) {
+        int count = 0;
+        for (int d = start; d < traded.length; d++) {
+            if (traded[d]) {
+                count++;
+            }
+        }
+        int[] days = new int[count];
+        int k = 0;
+        for (int d = start; d < traded.length; d++) {
+            if (traded[d]) {
+                days[k++] = d;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Closes on the trading days, carrying the last close over days without one.
+     */
+    private static double[] align(double[] dailyCloses, int[] tradingDays) {
+        double[] aligned = new double[tradingDays.length];
+        double last = Double.NaN;
+        int next = 0;
+        for (int k = 0; k < tradingDays.length; k++) {
+            for (; next <= tradingDays[k]; next++) {
+                if (!Double.isNaN(dailyCloses[next])) {
+                    last = dailyCloses[next];
+                }
+            }
+            aligned[k] = last;
+        }
+        return aligned;
+    }
+
+    private static Double finiteOrNull(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Holding {
+        final String symbol;
+        final AssetType type;
+        double quantity;
+        double[] closes;
+        int first;
+
+        Holding(String symbol, AssetType type) {
+            this.symbol = symbol;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationJobDTO;
+import com.example.demo.dto.SimulationJobDTO.HorizonResult;
+import com.example.demo.dto.SimulationJobDTO.Status;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.entity.AssetType;
+import com.example.demo.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Monte Carlo projections of the portfolio in the background.
+ *
+ * A job starts from the current per-type values of {@link PortfolioAggregates}
+ * and models every asset type with its own drift and volatility (defaults
+ * below, overridable per request). Jobs wait on a bounded executor and fan
+ * their paths out over the common fork/join pool; they report paths done and
+ * throughput while running and can be cancelled. Finished jobs are kept for
+ * retention-minutes.
+ */
+@Service
+@Slf4j
+public class SimulationJobService {
+
+    public static final long DEFAULT_PATHS = 1_000_000;
+    public static final List<Integer> DEFAULT_HORIZONS = List.of(1, 5, 10);
+    private static final int MAX_HORIZON_YEARS = 50;
+    private static final int[] PERCENTILES = {5, 25, 50, 75, 95};
+
+    // Long-run annual return and volatility assumed per type
+    private static final Map<AssetType, double[]> DEFAULT_ASSUMPTIONS = new EnumMap<>(Map.of(
+            AssetType.STOCK, new double[]{0.07, 0.18},
+            AssetType.ETF, new double[]{0.065, 0.15},
+            AssetType.MUTUAL_FUND, new double[]{0.06, 0.14},
+            AssetType.BOND, new double[]{0.035, 0.06},
+            AssetType.CRYPTO, new double[]{0.15, 0.70},
+            AssetType.REAL_ESTATE, new double[]{0.05, 0.12},
+            AssetType.CASH, new double[]{0.02, 0.005}));
+
+    private final PortfolioAggregates portfolioAggregates;
+    private final long maxPaths;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    // Paths of running jobs; not the common pool, which imports and risk reports share
+    private final ForkJoinPool workers;
+    private final Map<String, SimulationJob> jobs = new ConcurrentHashMap<>();
+
+    public SimulationJobService(PortfolioAggregates portfolioAggregates,
+                                @Value("${portfolio.simulation.max-paths:50000000}") long maxPaths,
+                                @Value("${portfolio.simulation.parallelism:0}") int parallelism,
+                                @Value("${portfolio.simulation.jobs.max-concurrency:1}") int maxConcurrency,
+                                @Value("${portfolio.simulation.jobs.queue-capacity:5}") int queueCapacity,
+                                @Value("${portfolio.simulation.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.portfolioAggregates = portfolioAggregates;
+        this.maxPaths = maxPaths;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-simulation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("portfolio-simulation-worker-" + workerCount.incrementAndGet());
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue a projection of the portfolio as it is now.
+     *
+     * @throws IllegalArgumentException if the request is out of range or the portfolio has no value
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public SimulationJobDTO submit(SimulationRequest request) {
+        evictExpired();
+
+        long paths = request.getPaths() != null ? request.getPaths() : DEFAULT_PATHS;
+        if (paths < 1 || paths > maxPaths) {
+            throw new IllegalArgumentException("paths must be between 1 and " + maxPaths);
+        }
+        int[] horizons = horizons(request.getHorizons());
+
+        Map<AssetType, TypeTotals> totals = portfolioAggregates.snapshot();
+        AssetType[] types = AssetType.values();
+        double[] values = new double[types.length];
+        double[] drifts = new double[types.length];
+        double[] volatilities = new double[types.length];
+        Map<AssetType, BigDecimal> usedDrifts = new EnumMap<>(AssetType.class);
+        Map<AssetType, BigDecimal> usedVolatilities = new EnumMap<>(AssetType.class);
+        BigDecimal initialValue = BigDecimal.ZERO;
+        for (int i = 0; i < types.length; i++) {
+            AssetType type = types[i];
+            TypeTotals typeTotals = totals.getOrDefault(type, TypeTotals.EMPTY);
+            drifts[i] = assumption(request.getDrifts(), type, 0, "drift", -0.99, 1);
+            volatilities[i] = assumption(request.getVolatilities(), type, 1, "volatility", 0, 2);
+            if (typeTotals.value().signum() > 0) {
+                values[i] = typeTotals.value().doubleValue();
+                initialValue = initialValue.add(typeTotals.value());
+                usedDrifts.put(type, BigDecimal.valueOf(drifts[i]));
+                usedVolatilities.put(type, BigDecimal.valueOf(volatilities[i]));
+            }
+        }
+        MonteCarloEngine engine = new MonteCarloEngine(values, drifts, volatilities, horizons);
+
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
+        SimulationJob job = new SimulationJob(UUID.randomUUID().toString(), engine, paths, seed,
+                initialValue, usedDrifts, usedVolatilities);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("Simulation job queue is full", e);
+        }
+        log.info("Queued simulation job {}: {} paths over {} years, seed {}", job.id, paths, Arrays.toString(horizons), seed);
+        return job.toDTO();
+    }
+
+    /**
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public SimulationJobDTO getJob(String id) {
+        return find(id).toDTO();
+    }
+
+    /**
+     * Cancel a queued or running job; a running job stops after the chunks in flight.
+     *
+     * @throws ResourceNotFoundException if there is no such job
+     */
+    public SimulationJobDTO cancel(String id) {
+        SimulationJob job = find(id);
+        synchronized (job) {
+            if (job.status == Status.QUEUED) {
+                job.finish(Status.CANCELLED, null);
+            } else if (job.status == Status.RUNNING) {
+                job.cancelled = true;
+            }
+            return job.toDTO();
+        }
+    }
+
+    private SimulationJob find(String id) {
+        SimulationJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Simulation job", "id", id);
+        }
+        return job;
+    }
+
+    private void run(SimulationJob job) {
+        synchronized (job) {
+            if (job.status != Status.QUEUED) {
+                return;
+            }
+            job.status = Status.RUNNING;
+            job.startedNanos = System.nanoTime();
+        }
+
+        try {
+            MonteCarloEngine.Result result = job.engine.run(job.paths, job.seed, workers,
+                    job.completedPaths::addAndGet, () -> job.cancelled);
+            synchronized (job) {
+                job.result = result;
+                job.finish(Status.COMPLETED, null);
+            }
+            log.info("Simulation job {} completed {} paths in {} ms", job.id, job.paths, job.elapsedNanos() / 1_000_000);
+        } catch (CancellationException e) {
+            synchronized (job) {
+                job.finish(Status.CANCELLED, null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Simulation job {} failed: {}", job.id, e.getMessage());
+            synchronized (job) {
+                job.finish(Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.finishedAt != null && job.finishedAt.isBefore(cutoff);
+            }
+        });
+    }
+
+    private static int[] horizons(List<Integer> requested) {
+        if (requested == null || requested.isEmpty()) {
+            requested = DEFAULT_HORIZONS;
+        }
+        int[] horizons = requested.stream().filter(Objects::nonNull).mapToInt(Integer::intValue)
+                .sorted().distinct().toArray();
+        if (horizons.length != requested.size() || horizons[0] < 1 || horizons[horizons.length - 1] > MAX_HORIZON_YEARS) {
+            throw new IllegalArgumentException("horizons must be distinct whole years between 1 and " + MAX_HORIZON_YEARS);
+        }
+        return horizons;
+    }
+
+    private static double assumption(Map<AssetType, BigDecimal> overrides, AssetType type, int index,
+                                     String name, double min, double max) {
+        BigDecimal override = overrides != null ? overrides.get(type) : null;
+        if (override == null) {
+            return DEFAULT_ASSUMPTIONS.get(type)[index];
+        }
+        double value = override.doubleValue();
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " of " + type + " must be between " + min + " and " + max);
+        }
+        return value;
+    }
+
+    private static BigDecimal money(BigDecimal initialValue, double ratio) {
+        return initialValue.multiply(BigDecimal.valueOf(ratio)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static class SimulationJob {
+        final String id;
+        final MonteCarloEngine engine;
+        final long paths;
+        final long seed;
+        final BigDecimal initialValue;
+        final Map<AssetType, BigDecimal> drifts;
+        final Map<AssetType, BigDecimal> volatilities;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final AtomicLong completedPaths = new AtomicLong();
+        volatile boolean cancelled;
+
+        // Guarded by the job's monitor
+        Status status = Status.QUEUED;
+        long startedNanos;
+        long finishedNanos;
+        LocalDateTime finishedAt;
+        MonteCarloEngine.Result result;
+        String error;
+
+        SimulationJob(String id, MonteCarloEngine engine, long paths, long seed, BigDecimal initialValue,
+                      Map<AssetType, BigDecimal> drifts, Map<AssetType, BigDecimal> volatilities) {
+            this.id = id;
+            this.engine = engine;
+            this.paths = paths;
+            this.seed = seed;
+            this.initialValue = initialValue;
+            this.drifts = drifts;
+            this.volatilities = volatilities;
+        }
+
+        void finish(Status status, String error) {
+            this.status = status;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            if (startedNanos != 0) {
+                this.finishedNanos = System.nanoTime();
+            }
+        }
+
+        synchronized long elapsedNanos() {
+            if (startedNanos == 0) {
+                return 0;
+            }
+            return (finishedNanos != 0 ? finishedNanos : System.nanoTime()) - startedNanos;
+        }
+
+        synchronized SimulationJobDTO toDTO() {
+            long done = completedPaths.get();
+            long elapsed = elapsedNanos();
+            return SimulationJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .finishedAt(finishedAt)
+                    .paths(paths)
+                    .completedPaths(done)
+                    .pathsPerSecond(elapsed > 0 ? done * 1e9 / elapsed : 0)
+                    .seed(seed)
+                    .initialValue(initialValue)
+                    .drifts(drifts)
+                    .volatilities(volatilities)
+                    .horizons(result != null ? horizonResults() : null)
+                    .error(error)
+                    .build();
+        }
+
+        private List<HorizonResult> horizonResults() {
+            int[] years = result.getHorizons();
+            List<HorizonResult> horizons = new ArrayList<>(years.length);
+            for (int h = 0; h < years.length; h++) {
+                Map<Integer, BigDecimal> percentiles = new LinkedHashMap<>();
+                for (int percentile : PERCENTILES) {
+                    percentiles.put(percentile, money(initialValue, result.percentile(h, percentile / 100.0)));
+                }
+                horizons.add(HorizonResult.builder()
+                        .years(years[h])
+                        .mean(money(initialValue, result.mean(h)))
+                        .percentiles(percentiles)
+                        .probabilityOfLoss(result.probabilityOfLoss(h))
+                        .build());
+            }
+            return horizons;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.demo.service;
 
 import java.math.BigDecimal;
+import com.example.demo.dto.PriceCacheStats;
 import com.example.demo.dto.StockNews; // Import the new DTO
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.List;
 import java.time.LocalDate;
 
@@ -21,12 +23,31 @@ public interface StockPriceService {
 
     /**
      * Get current prices for multiple symbols.
+     * Lookups run concurrently and the call returns once all of them finish or
+     * the batch deadline passes, whichever comes first.
      * 
      * @param symbols Array of stock ticker symbols
-     * @return Map of symbol to price
+     * @return Map of normalized symbol to price; symbols without a price by the deadline are absent
      */
     Map<String, BigDecimal> getCurrentPrices(String... symbols);
 
+    /**
+     * Reload a symbol's quote in the background at the lowest priority,
+     * replacing the cached price once it arrives.
+     *
+     * @param symbol Stock ticker symbol
+     * @return the new price, or null if the lookup failed or was shed
+     */
+    CompletableFuture<BigDecimal> refreshPrice(String symbol);
+
+    /**
+     * Cached price for a symbol, without any network call.
+     *
+     * @param symbol Stock ticker symbol
+     * @return the cached (possibly stale) price, or null if none is cached
+     */
+    BigDecimal getCachedPrice(String symbol);
+
     /**
      * Check if a symbol is valid and tradeable.
      * 
@@ -35,6 +56,11 @@ public interface StockPriceService {
      */
     boolean isValidSymbol(String symbol);
 
+    /**
+     * Hit/miss/eviction and load-time counters of the quote cache.
+     */
+    PriceCacheStats getCacheStats();
+
     List<StockNews> getMarketNews(String category);
     List<StockNews> getCompanyNews(String symbol, LocalDate from, LocalDate to);
 }
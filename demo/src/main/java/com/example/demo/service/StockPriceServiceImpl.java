@@ -1,13 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.PriceCacheStats;
 import com.example.demo.dto.StockNews;
+import com.example.demo.service.FinnhubRequestScheduler.Priority;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
@@ -16,20 +19,27 @@ import java.util.Map;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of StockPriceService using Finnhub API.
- * Provides real-time stock prices with caching to reduce API calls.
+ * Provides real-time stock prices through a bounded PriceCache to reduce API calls.
  * 
- * Free tier: 60 API calls/minute
+ * Free tier: 60 API calls/minute, enforced by FinnhubRequestScheduler
  * API Docs: https://finnhub.io/docs/api
  */
 @Service
 @Slf4j
 public class StockPriceServiceImpl implements StockPriceService {
 
-    private final RestTemplate restTemplate;
+    private final FinnhubRequestScheduler requestScheduler;
     private final ObjectMapper objectMapper;
 
     @Value("${finnhub.api.key}")
@@ -38,13 +48,37 @@ public class StockPriceServiceImpl implements StockPriceService {
     @Value("${finnhub.api.base-url}")
     private String baseUrl;
 
-    // Simple cache with 5-minute expiry to reduce API calls
-    private final Map<String, CachedPrice> priceCache = new ConcurrentHashMap<>();
-    private static final long CACHE_DURATION_MS = 5 * 60 * 1000; // 5 minutes
+    // Bounded fan-out for batch quote lookups (see getCurrentPrices)
+    @Value("${finnhub.api.batch.max-concurrency:8}")
+    private int batchMaxConcurrency;
 
-    public StockPriceServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    @Value("${finnhub.api.batch.timeout-ms:3000}")
+    private long batchTimeoutMs;
+
+    private ExecutorService quoteExecutor;
+
+    // Bounded quote cache (TTL, stale-while-revalidate, single-flight loads)
+    private final PriceCache priceCache;
+
+    public StockPriceServiceImpl(PriceCache priceCache, FinnhubRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
         this.objectMapper = new ObjectMapper();
+        this.priceCache = priceCache;
+    }
+
+    @PostConstruct
+    void startQuoteExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.quoteExecutor = Executors.newFixedThreadPool(batchMaxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "finnhub-quote-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopQuoteExecutor() {
+        quoteExecutor.shutdownNow();
     }
 
     @Override
@@ -54,52 +88,7 @@ public class StockPriceServiceImpl implements StockPriceService {
             return null;
         }
 
-        String upperSymbol = normalizeSymbol(symbol);
-
-        // Check cache first
-        CachedPrice cached = priceCache.get(upperSymbol);
-        if (cached != null && !cached.isExpired()) {
-            log.debug("Returning cached price for {}: {}", upperSymbol, cached.price);
-            return cached.price;
-        }
-
-        try {
-            // Build the API URL
-            String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/quote")
-                    .queryParam("symbol", upperSymbol)
-                    .queryParam("token", apiKey)
-                    .toUriString();
-
-            log.debug("Fetching price from Finnhub for symbol: {}", upperSymbol);
-
-            // Make the API call
-            String response = restTemplate.getForObject(url, String.class);
-
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-
-                // "c" is the current price in Finnhub's response
-                JsonNode currentPriceNode = jsonNode.get("c");
-
-                if (currentPriceNode != null && !currentPriceNode.isNull()) {
-                    double priceValue = currentPriceNode.asDouble();
-
-                    // Finnhub returns 0 for invalid symbols
-                    if (priceValue > 0) {
-                        BigDecimal price = BigDecimal.valueOf(priceValue);
-                        priceCache.put(upperSymbol, new CachedPrice(price));
-                        log.info("Fetched price for {}: ${}", upperSymbol, price);
-                        return price;
-                    } else {
-                        log.warn("Finnhub returned 0 for symbol {} - symbol may be invalid", upperSymbol);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to fetch price for {}: {}", upperSymbol, e.getMessage());
-        }
-
-        return null;
+        return quoteAsync(normalizeSymbol(symbol), Priority.QUOTE, Runnable::run).join();
     }
 
     @Override
@@ -110,25 +99,75 @@ public class StockPriceServiceImpl implements StockPriceService {
             return prices;
         }
 
-        // Finnhub doesn't have a batch endpoint on free tier, so we call individually
+        // Finnhub doesn't have a batch endpoint on free tier, so we fan the
+        // individual calls out on a bounded pool. Cache hits resolve inline.
+        Map<String, CompletableFuture<BigDecimal>> pending = new LinkedHashMap<>();
         for (String symbol : symbols) {
-            BigDecimal price = getCurrentPrice(symbol);
-            if (price != null) {
-                prices.put(normalizeSymbol(symbol), price);
+            if (symbol == null || symbol.isBlank()) {
+                continue;
             }
+            pending.computeIfAbsent(normalizeSymbol(symbol),
+                    upperSymbol -> quoteAsync(upperSymbol, Priority.QUOTE, quoteExecutor));
+        }
+
+        // Wait for the whole batch, but never longer than the batch deadline.
+        // Quotes that miss it keep running and land in the cache for next time.
+        try {
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                    .get(batchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            long outstanding = pending.values().stream().filter(f -> !f.isDone()).count();
+            log.warn("Price batch deadline of {}ms reached with {} of {} quotes outstanding",
+                    batchTimeoutMs, outstanding, pending.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Price batch failed: {}", e.getMessage());
         }
 
+        pending.forEach((upperSymbol, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                BigDecimal price = future.join();
+                if (price != null) {
+                    prices.put(upperSymbol, price);
+                }
+            }
+        });
+
         return prices;
     }
 
+    @Override
+    public CompletableFuture<BigDecimal> refreshPrice(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return priceCache.refresh(normalizeSymbol(symbol),
+                upperSymbol -> fetchQuote(upperSymbol, Priority.REFRESH));
+    }
+
+    @Override
+    public BigDecimal getCachedPrice(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            return null;
+        }
+        return priceCache.getIfPresent(normalizeSymbol(symbol));
+    }
+
+    @Override
+    public PriceCacheStats getCacheStats() {
+        return priceCache.stats();
+    }
+
     @Override
     public boolean isValidSymbol(String symbol) {
         if (symbol == null || symbol.isBlank()) {
             return false;
         }
 
-        // Try to get the price - if we get a valid price, the symbol is valid
-        BigDecimal price = getCurrentPrice(symbol);
+        // Try to get the price - if we get a valid price, the symbol is valid.
+        // Uncached symbols queue behind user-facing quotes.
+        BigDecimal price = quoteAsync(normalizeSymbol(symbol), Priority.VALIDATION, Runnable::run).join();
         return price != null && price.compareTo(BigDecimal.ZERO) > 0;
     }
 
@@ -155,7 +194,7 @@ public class StockPriceServiceImpl implements StockPriceService {
             log.debug("Fetching market news for category: {}", safeCategory);
 
             // Finnhub returns a JSON Array of objects
-            String response = restTemplate.getForObject(url, String.class);
+            String response = requestScheduler.get(url, Priority.NEWS);
 
             if (response != null) {
                 // Deserialize JSON Array to List<StockNews>
@@ -194,7 +233,7 @@ public class StockPriceServiceImpl implements StockPriceService {
 
             log.debug("Fetching company news for {} from {} to {}", upperSymbol, fromDate, toDate);
 
-            String response = restTemplate.getForObject(url, String.class);
+            String response = requestScheduler.get(url, Priority.NEWS);
 
             if (response != null) {
                 return objectMapper.readValue(response, new TypeReference<List<StockNews>>(){});
@@ -206,6 +245,67 @@ public class StockPriceServiceImpl implements StockPriceService {
         return Collections.emptyList();
     }
 
+    /**
+     * Fetch a single quote from Finnhub, bypassing the cache.
+     * Returns null when the call fails or the symbol has no price.
+     */
+    /**
+     * A cached or loading price. A load still pending may be one this call
+     * joined, started at a lower priority (e.g. by the background refresh),
+     * so its queued Finnhub request is raised to this caller's priority.
+     */
+    private CompletableFuture<BigDecimal> quoteAsync(String upperSymbol, Priority priority, Executor executor) {
+        CompletableFuture<BigDecimal> price = priceCache.getAsync(upperSymbol,
+                key -> fetchQuote(key, priority), executor);
+        if (!price.isDone()) {
+            requestScheduler.prioritize(quoteUrl(upperSymbol), priority);
+        }
+        return price;
+    }
+
+    private String quoteUrl(String upperSymbol) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/quote")
+                .queryParam("symbol", upperSymbol)
+                .queryParam("token", apiKey)
+                .toUriString();
+    }
+
+    private BigDecimal fetchQuote(String upperSymbol, Priority priority) {
+        try {
+            // Build the API URL
+            String url = quoteUrl(upperSymbol);
+
+            log.debug("Fetching price from Finnhub for symbol: {}", upperSymbol);
+
+            // Make the API call (rate limited)
+            String response = requestScheduler.get(url, priority);
+
+            if (response != null) {
+                JsonNode jsonNode = objectMapper.readTree(response);
+
+                // "c" is the current price in Finnhub's response
+                JsonNode currentPriceNode = jsonNode.get("c");
+
+                if (currentPriceNode != null && !currentPriceNode.isNull()) {
+                    double priceValue = currentPriceNode.asDouble();
+
+                    // Finnhub returns 0 for invalid symbols
+                    if (priceValue > 0) {
+                        BigDecimal price = BigDecimal.valueOf(priceValue);
+                        log.info("Fetched price for {}: ${}", upperSymbol, price);
+                        return price;
+                    } else {
+                        log.warn("Finnhub returned 0 for symbol {} - symbol may be invalid", upperSymbol);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to fetch price for {}: {}", upperSymbol, e.getMessage());
+        }
+
+        return null;
+    }
+
     /**
      * Normalize symbol for API calls.
      * Handles crypto symbols and other special cases.
@@ -221,22 +321,4 @@ public class StockPriceServiceImpl implements StockPriceService {
         return normalized;
     }
 
-    /**
-     * Simple cache entry with expiration.
-     */
-    private static class CachedPrice {
-        final BigDecimal price;
-        final long timestamp;
-
-        CachedPrice(BigDecimal price) {
-            this.price = price;
-            this.timestamp = System.currentTimeMillis();
-        }
-
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_DURATION_MS;
-        }
-    }
-
-
 }
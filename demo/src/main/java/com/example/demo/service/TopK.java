@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Bounded-heap top-K selection: O(n log k) instead of sorting everything.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Collect the k greatest elements by the given order, greatest first.
+     */
+    public static <T> Collector<T, ?, List<T>> greatest(int k, Comparator<? super T> order) {
+        return Collector.<T, PriorityQueue<T>, List<T>>of(
+                () -> new PriorityQueue<>(Math.max(1, k), order),
+                (heap, item) -> offer(heap, item, k, order),
+                (left, right) -> {
+                    right.forEach(item -> offer(left, item, k, order));
+                    return left;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(order.reversed());
+                    return result;
+                });
+    }
+
+    /**
+     * Keep the item if the heap has room or it beats the smallest kept item.
+     */
+    private static <T> void offer(PriorityQueue<T> heap, T item, int k, Comparator<? super T> order) {
+        if (k <= 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (order.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Position count, cost basis and current value of one slice of the
+ * portfolio (typically one asset type).
+ */
+public record TypeTotals(long count, BigDecimal costBasis, BigDecimal value) {
+
+    public static final TypeTotals EMPTY = new TypeTotals(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public BigDecimal gainLoss() {
+        return value.subtract(costBasis);
+    }
+
+    /**
+     * Gain/loss as a percentage of cost basis, or null when there is no cost basis.
+     */
+    public BigDecimal gainLossPercentage() {
+        return AssetPricing.gainLossPercentage(gainLoss(), costBasis);
+    }
+
+    public TypeTotals plus(TypeTotals other) {
+        return new TypeTotals(count + other.count, costBasis.add(other.costBasis), value.add(other.value));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Mutable running totals (count, cost basis, value) with one slot per
+ * {@link AssetType}, moved by deltas.
+ *
+ * Amounts are summed as {@link FixedPoint} longs and become BigDecimals
+ * only in {@link #toMap()}.
+ */
+public final class TypeTotalsAccumulator {
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private final long[] counts = new long[TYPES.length];
+    private final long[] costs = new long[TYPES.length];
+    private final long[] values = new long[TYPES.length];
+
+    /**
+     * Apply a delta to one type; negative amounts remove a contribution.
+     * Missing amounts count as zero.
+     */
+    public void add(AssetType type, long count, BigDecimal cost, BigDecimal value) {
+        add(type, count, FixedPoint.of(cost), FixedPoint.of(value));
+    }
+
+    /**
+     * Apply a delta of {@link FixedPoint} amounts to one type.
+     */
+    public void add(AssetType type, long count, long cost, long value) {
+        int slot = type.ordinal();
+        counts[slot] += count;
+        costs[slot] = FixedPoint.add(costs[slot], cost);
+        values[slot] = FixedPoint.add(values[slot], value);
+    }
+
+    public long count(AssetType type) {
+        return counts[type.ordinal()];
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(costs, 0);
+        Arrays.fill(values, 0);
+    }
+
+    /**
+     * Totals for every type with at least one asset.
+     */
+    public Map<AssetType, TypeTotals> toMap() {
+        Map<AssetType, TypeTotals> result = new EnumMap<>(AssetType.class);
+        for (int slot = 0; slot < TYPES.length; slot++) {
+            if (counts[slot] > 0) {
+                result.put(TYPES[slot], new TypeTotals(counts[slot],
+                        FixedPoint.toBigDecimal(costs[slot]), FixedPoint.toBigDecimal(values[slot])));
+            }
+        }
+        return result;
+    }
+}
@@ -34,3 +34,28 @@ USE portfolio_db;
 -- 
 -- INSERT INTO stocks (id, exchange, sector, market_cap)
 -- VALUES (LAST_INSERT_ID(), 'NASDAQ', 'Technology', 'Large');
+
+-- Asset ids: BaseAsset.id now comes from a table generator instead of IDENTITY,
+-- so Hibernate and the bulk CSV import can batch inserts. Hibernate creates the
+-- table; the application seeds it past MAX(assets.id) on startup. To do it by hand:
+-- CREATE TABLE IF NOT EXISTS asset_id_sequence (sequence_name VARCHAR(255) NOT NULL PRIMARY KEY, next_val BIGINT);
+-- INSERT INTO asset_id_sequence (sequence_name, next_val)
+-- SELECT 'assets', COALESCE(MAX(id), 0) + 1 FROM assets;
+
+-- Lot ledger: assets with ledger entries store their cost basis (per
+-- portfolio.ledger.cost-basis-method) in ledger_cost_basis; other assets keep
+-- NULL and are valued at quantity * buy_price.
+-- ALTER TABLE assets ADD COLUMN ledger_cost_basis DECIMAL(19, 4) NULL AFTER purchase_date;
+-- CREATE TABLE IF NOT EXISTS asset_lot_events (
+--     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+--     asset_id BIGINT NOT NULL,
+--     event_type VARCHAR(10) NOT NULL,
+--     quantity DECIMAL(19, 4), price DECIMAL(19, 4), amount DECIMAL(19, 4),
+--     trade_date DATE, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+--     INDEX idx_lot_events_asset (asset_id, id),
+--     CONSTRAINT fk_lot_events_assets FOREIGN KEY (asset_id) REFERENCES assets(id) ON DELETE CASCADE
+-- );
+
+-- Portfolio value snapshots: Hibernate creates portfolio_snapshots (see setup.sql
+-- for the DDL). MINUTE and HOUR rows are purged by the application after
+-- portfolio.snapshots.minute-retention-days / hour-retention-days.
@@ -18,6 +18,7 @@ CREATE TABLE IF NOT EXISTS assets (
     quantity DECIMAL(19, 4) NOT NULL COMMENT 'Number of units held',
     buy_price DECIMAL(19, 2) NOT NULL COMMENT 'Average purchase price per unit',
     purchase_date DATE COMMENT 'Date of purchase',
+    ledger_cost_basis DECIMAL(19, 4) COMMENT 'Cost basis per the lot ledger; NULL = quantity * buy_price',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 
@@ -110,6 +111,56 @@ CREATE TABLE IF NOT EXISTS cash_holdings (
     CONSTRAINT fk_cash_holdings_assets FOREIGN KEY (id) REFERENCES assets(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ============================================
+-- ID SEQUENCE: asset ids are handed out in blocks from here (Hibernate table
+-- generator + JDBC bulk import). The application moves next_val past
+-- MAX(assets.id) on startup, so AUTO_INCREMENT rows below are safe.
+-- ============================================
+CREATE TABLE IF NOT EXISTS asset_id_sequence (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- LOT LEDGER: append-only buys, sells and dividends per asset
+-- ============================================
+CREATE TABLE IF NOT EXISTS asset_lot_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    asset_id BIGINT NOT NULL,
+    event_type VARCHAR(10) NOT NULL COMMENT 'BUY, SELL, DIVIDEND',
+    quantity DECIMAL(19, 4) COMMENT 'Units bought or sold',
+    price DECIMAL(19, 4) COMMENT 'Price per unit',
+    amount DECIMAL(19, 4) COMMENT 'Dividend received',
+    trade_date DATE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_lot_events_asset (asset_id, id),
+    CONSTRAINT fk_lot_events_assets FOREIGN KEY (asset_id) REFERENCES assets(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- PORTFOLIO SNAPSHOTS: value over time, rolled up per MINUTE, HOUR and DAY
+-- ============================================
+CREATE TABLE IF NOT EXISTS portfolio_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    resolution VARCHAR(10) NOT NULL COMMENT 'MINUTE, HOUR, DAY',
+    bucket_start DATETIME(6) NOT NULL COMMENT 'Bucket start (UTC)',
+    samples INT NOT NULL COMMENT 'Samples folded into the bucket',
+    total_value DECIMAL(19, 4) NOT NULL COMMENT 'Last sampled value',
+    high_value DECIMAL(19, 4) NOT NULL,
+    low_value DECIMAL(19, 4) NOT NULL,
+    cost_basis DECIMAL(19, 4) NOT NULL,
+    stock_value DECIMAL(19, 4),
+    bond_value DECIMAL(19, 4),
+    etf_value DECIMAL(19, 4),
+    mutual_fund_value DECIMAL(19, 4),
+    crypto_value DECIMAL(19, 4),
+    real_estate_value DECIMAL(19, 4),
+    cash_value DECIMAL(19, 4),
+
+    CONSTRAINT uk_portfolio_snapshots_bucket UNIQUE (resolution, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- ============================================
 -- SAMPLE DATA
 -- ============================================
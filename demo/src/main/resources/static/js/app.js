@@ -59,6 +59,10 @@ const elements = {
 let currentDeleteId = null;
 let allAssets = [];
 
+// Types valued at a live market price (see AssetType.isTradeable)
+const TRADEABLE_TYPES = ['STOCK', 'ETF', 'CRYPTO', 'MUTUAL_FUND'];
+const TOP_PERFORMERS = 5;
+
 // ===================================
 // API Service
 // ===================================
@@ -312,6 +316,91 @@ async function loadPortfolioData() {
     }
 }
 
+// ===================================
+// Live Updates
+// ===================================
+// The server pushes coalesced deltas (prices, changed positions, totals) on
+// /portfolio/stream, so the summary is only loaded once and after reconnects.
+function connectLiveUpdates() {
+    if (!window.EventSource) {
+        return;
+    }
+    const source = new EventSource(`${API_BASE_URL}/portfolio/stream`);
+    let reconnecting = false;
+
+    source.addEventListener('update', (e) => applyLiveUpdate(JSON.parse(e.data)));
+    source.addEventListener('error', () => {
+        reconnecting = true;
+    });
+    source.addEventListener('open', () => {
+        // Changes made while disconnected were not streamed
+        if (reconnecting) {
+            reconnecting = false;
+            loadPortfolioData();
+        }
+    });
+}
+
+function applyLiveUpdate(update) {
+    if (update.removedAssetIds) {
+        const removed = new Set(update.removedAssetIds);
+        allAssets = allAssets.filter(asset => !removed.has(asset.id));
+    }
+    if (update.assets) {
+        update.assets.forEach(asset => {
+            const index = allAssets.findIndex(a => a.id === asset.id);
+            if (index >= 0) {
+                allAssets[index] = asset;
+            } else {
+                allAssets.push(asset);
+            }
+        });
+    }
+    if (update.prices) {
+        allAssets.forEach(asset => {
+            if (TRADEABLE_TYPES.includes(asset.type) && asset.symbol) {
+                const price = update.prices[asset.symbol.trim().toUpperCase()];
+                if (price !== undefined) {
+                    repriceAsset(asset, price);
+                }
+            }
+        });
+    }
+
+    if (update.totalValue !== undefined) {
+        updateSummaryCards(update);
+        if (typeof createAllocationChart === 'function' && update.allocationByType) {
+            createAllocationChart(update.allocationByType);
+        }
+    }
+    if (update.assets || update.removedAssetIds || update.prices) {
+        updateTopPerformers(rankPerformers(allAssets));
+        const filterType = elements.assetFilter.value;
+        renderAssetsTable(filterType ? allAssets.filter(a => a.type === filterType) : allAssets);
+        if (typeof createPerformanceChart === 'function') {
+            createPerformanceChart(allAssets);
+        }
+    }
+}
+
+// Same valuation as the server: quantity x price against the cost basis
+function repriceAsset(asset, price) {
+    asset.currentPrice = price;
+    asset.currentValue = asset.quantity * price;
+    asset.gainLoss = asset.currentValue - asset.costBasis;
+    asset.gainLossPercentage = asset.costBasis > 0 ? asset.gainLoss / asset.costBasis * 100 : null;
+}
+
+// Best gainers (above zero) and worst losers (below zero), as in the summary
+function rankPerformers(assets) {
+    const ranked = assets.filter(a => a.gainLossPercentage != null)
+        .sort((a, b) => b.gainLossPercentage - a.gainLossPercentage);
+    return {
+        topGainers: ranked.filter(a => a.gainLossPercentage > 0).slice(0, TOP_PERFORMERS),
+        topLosers: ranked.filter(a => a.gainLossPercentage < 0).reverse().slice(0, TOP_PERFORMERS)
+    };
+}
+
 async function createAsset(assetData) {
     try {
         const response = await api.post('/assets', assetData);
@@ -378,8 +467,9 @@ window.confirmDelete = function (id, name) {
 // Event Listeners
 // ===================================
 document.addEventListener('DOMContentLoaded', () => {
-    // Load initial data
+    // Load initial data, then follow live updates
     loadPortfolioData();
+    connectLiveUpdates();
 
     // Add Asset button
     elements.addAssetBtn.addEventListener('click', openAddModal);
@@ -433,6 +523,22 @@ document.addEventListener('DOMContentLoaded', () => {
         }
     });
 
+    // Poll an import job until it is no longer queued or running
+    async function waitForImportJob(id) {
+        while (true) {
+            const resp = await fetch(`${API_BASE_URL}/imports/${id}`);
+            const result = await resp.json();
+            if (!resp.ok || !result.success) {
+                throw new Error(result.message || 'Failed to get import status');
+            }
+            const job = result.data;
+            if (job.status !== 'QUEUED' && job.status !== 'RUNNING') {
+                return job;
+            }
+            await new Promise(resolve => setTimeout(resolve, 1000));
+        }
+    }
+
     // CSV upload controls
     const csvFileInput = document.getElementById('csv-file-input');
     const uploadCsvBtn = document.getElementById('upload-csv-btn');
@@ -465,7 +571,15 @@ document.addEventListener('DOMContentLoaded', () => {
 
             const result = await resp.json();
             if (resp.ok && result && result.success) {
-                showToast(result.message || 'CSV imported successfully', 'success');
+                uploadCsvBtn.textContent = 'Importing...';
+                const job = await waitForImportJob(result.data.id);
+                const progress = job.progress || {};
+                const message = `Imported ${progress.imported || 0} assets, rejected ${progress.rejected || 0} rows`;
+                if (job.status === 'COMPLETED') {
+                    showToast(message, progress.imported > 0 || !progress.rejected ? 'success' : 'error');
+                } else {
+                    showToast(`Import ${job.status.toLowerCase()}${job.error ? ': ' + job.error : ''}. ${message}`, 'error');
+                }
                 // refresh portfolio
                 loadPortfolioData();
             } else {
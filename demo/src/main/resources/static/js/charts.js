@@ -6,6 +6,16 @@
 // Chart instances
 let allocationChart = null;
 let performanceChart = null;
+let historyChart = null;
+let historyRange = '1M';
+
+// Portfolio value history ranges, in milliseconds
+const historyRanges = {
+    '1D': 24 * 3600 * 1000,
+    '1W': 7 * 24 * 3600 * 1000,
+    '1M': 30 * 24 * 3600 * 1000,
+    '1Y': 365 * 24 * 3600 * 1000
+};
 
 // Color palette
 const chartColors = {
@@ -322,6 +332,110 @@ function formatCompactCurrency(value) {
     return '$' + value.toFixed(0);
 }
 
+// ===================================
+// Portfolio Value History Chart
+// ===================================
+async function loadValueHistory(range) {
+    historyRange = range;
+    document.querySelectorAll('.history-range').forEach(button => {
+        button.classList.toggle('active', button.dataset.range === range);
+    });
+
+    const to = new Date();
+    const from = new Date(to.getTime() - historyRanges[range]);
+    try {
+        // The server picks a rollup (minute, hour or day) of at most a few hundred points
+        const response = await fetch(`/api/portfolio/history?from=${from.toISOString()}&to=${to.toISOString()}`);
+        const body = await response.json();
+        createValueHistoryChart(body.success ? body.data : []);
+    } catch (error) {
+        console.error('Error loading portfolio history:', error);
+        createValueHistoryChart([]);
+    }
+}
+
+function createValueHistoryChart(points) {
+    const container = document.getElementById('history-chart');
+    if (!container) {
+        return;
+    }
+    if (historyChart) {
+        historyChart.destroy();
+        historyChart = null;
+    }
+
+    if (!points || points.length === 0) {
+        container.innerHTML = '<div style="display: flex; align-items: center; justify-content: center; height: 100%; color: #94a3b8;">No value history recorded yet</div>';
+        return;
+    }
+    container.innerHTML = '';
+
+    const options = {
+        ...baseChartOptions,
+        series: [
+            {
+                name: 'Value',
+                data: points.map(p => [new Date(p.time).getTime(), parseFloat(p.value)])
+            },
+            {
+                name: 'Cost Basis',
+                data: points.map(p => [new Date(p.time).getTime(), parseFloat(p.costBasis)])
+            }
+        ],
+        chart: {
+            ...baseChartOptions.chart,
+            type: 'area',
+            height: 320
+        },
+        colors: ['#6366f1', '#64748b'],
+        stroke: {
+            curve: 'smooth',
+            width: [2, 1]
+        },
+        fill: {
+            type: 'gradient',
+            gradient: {
+                opacityFrom: 0.4,
+                opacityTo: 0.05
+            }
+        },
+        dataLabels: {
+            enabled: false
+        },
+        xaxis: {
+            type: 'datetime',
+            labels: {
+                datetimeUTC: false,
+                style: {
+                    colors: '#94a3b8'
+                }
+            }
+        },
+        yaxis: {
+            labels: {
+                formatter: formatCompactCurrency,
+                style: {
+                    colors: '#94a3b8'
+                }
+            }
+        },
+        grid: {
+            borderColor: '#334155',
+            strokeDashArray: 4
+        }
+    };
+
+    historyChart = new ApexCharts(container, options);
+    historyChart.render();
+}
+
+document.addEventListener('click', event => {
+    const button = event.target.closest('.history-range');
+    if (button) {
+        loadValueHistory(button.dataset.range);
+    }
+});
+
 // ===================================
 // Main Update Function
 // ===================================
@@ -335,6 +449,8 @@ function updateCharts(summary) {
     if (summary.assets) {
         createPerformanceChart(summary.assets);
     }
+
+    loadValueHistory(historyRange);
 }
 
 // Make updateCharts available globally
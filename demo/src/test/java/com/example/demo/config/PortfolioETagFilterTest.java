@@ -0,0 +1,97 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.PortfolioController;
+import com.example.demo.dto.PortfolioSummaryDTO;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.service.LiveUpdateService;
+import com.example.demo.service.PortfolioService;
+import com.example.demo.service.PortfolioSnapshotService;
+import com.example.demo.service.PortfolioVersion;
+import com.example.demo.service.RiskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class PortfolioETagFilterTest {
+
+    private PortfolioService portfolioService;
+    private PortfolioVersion portfolioVersion;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        portfolioService = mock(PortfolioService.class);
+        portfolioVersion = new PortfolioVersion();
+        when(portfolioService.getPortfolioSummary()).thenReturn(PortfolioSummaryDTO.builder()
+                .totalValue(new BigDecimal("10000.00"))
+                .totalAssets(5)
+                .build());
+        PortfolioController controller = new PortfolioController(portfolioService,
+                mock(PortfolioSnapshotService.class), mock(RiskService.class), mock(LiveUpdateService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilter(new PortfolioETagFilter(portfolioVersion, 16), "/api/portfolio/summary")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given the ETag of the current version when get summary then 304 without calling the service")
+    void givenCurrentETag_whenGetSummary_thenNotModified() throws Exception {
+        // GIVEN
+        String etag = mockMvc.perform(get("/api/portfolio/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // WHEN & THEN
+        mockMvc.perform(get("/api/portfolio/summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        verify(portfolioService, times(1)).getPortfolioSummary();
+    }
+
+    @Test
+    @DisplayName("Given an unchanged version when another client gets summary then the cached bytes are served")
+    void givenUnchangedVersion_whenGetSummary_thenServedFromCache() throws Exception {
+        // GIVEN
+        byte[] first = mockMvc.perform(get("/api/portfolio/summary"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // WHEN & THEN
+        byte[] second = mockMvc.perform(get("/api/portfolio/summary").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalValue").value(10000.00))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(second).isEqualTo(first);
+        verify(portfolioService, times(1)).getPortfolioSummary();
+    }
+
+    @Test
+    @DisplayName("Given a price update since the last response when get summary then it is rebuilt with a new ETag")
+    void givenPriceUpdate_whenGetSummary_thenRebuiltWithNewETag() throws Exception {
+        // GIVEN
+        String etag = mockMvc.perform(get("/api/portfolio/summary"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        portfolioVersion.onPriceUpdated(new PriceUpdatedEvent("AAPL", new BigDecimal("150"), new BigDecimal("151")));
+
+        // WHEN & THEN
+        String newEtag = mockMvc.perform(get("/api/portfolio/summary").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+        verify(portfolioService, times(2)).getPortfolioSummary();
+    }
+}
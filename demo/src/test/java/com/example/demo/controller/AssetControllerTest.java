@@ -1,25 +1,42 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AssetBatchRequest;
+import com.example.demo.dto.AssetBatchResult;
 import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.AssetPageDTO;
+import com.example.demo.dto.ImportJobDTO;
 import com.example.demo.entity.AssetType;
+import com.example.demo.repository.AssetFilter;
 import com.example.demo.service.AssetService;
+import com.example.demo.service.AssetSort;
+import com.example.demo.service.ImportJobService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +54,9 @@ class AssetControllerTest {
     @MockBean
     private AssetService assetService;
 
+    @MockBean
+    private ImportJobService importJobService;
+
     // Helper method to create a dummy AssetDTO
     private AssetDTO createAssetDTO(Long id, String symbol, AssetType type) {
         AssetDTO dto = new AssetDTO();
@@ -149,7 +169,7 @@ class AssetControllerTest {
             AssetDTO asset = createAssetDTO(1L, "MSFT", AssetType.STOCK);
             List<AssetDTO> mockAssets = Collections.singletonList(asset);
 
-            when(assetService.searchAssets(query)).thenReturn(mockAssets);
+            when(assetService.searchAssets(query, 20)).thenReturn(mockAssets);
 
             // WHEN & THEN
             mockMvc.perform(get("/api/assets/search")
@@ -158,6 +178,168 @@ class AssetControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.data[0].symbol").value("MSFT"));
         }
+
+        @Test
+        @DisplayName("Given limit out of range when searchAssets then return Bad Request")
+        void givenLimitOutOfRange_whenSearchAssets_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/search")
+                            .param("q", "Tech")
+                            .param("limit", "0")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/assets/page")
+    class GetAssetPageTests {
+
+        @Test
+        @DisplayName("Given filters and sort when getAssetPage then pass them on and return the page")
+        void givenFiltersAndSort_whenGetAssetPage_thenReturnPage() throws Exception {
+            // GIVEN
+            AssetFilter filter = AssetFilter.builder()
+                    .type(AssetType.STOCK)
+                    .symbolPrefix("a")
+                    .purchasedFrom(LocalDate.of(2024, 1, 1))
+                    .build();
+            AssetPageDTO page = AssetPageDTO.builder()
+                    .items(List.of(createAssetDTO(1L, "AAPL", AssetType.STOCK)))
+                    .nextCursor("next")
+                    .hasMore(true)
+                    .build();
+
+            when(assetService.getAssetPage(filter, AssetSort.VALUE, Sort.Direction.DESC, "abc", 10))
+                    .thenReturn(page);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/page")
+                            .param("type", "STOCK")
+                            .param("symbol", "a")
+                            .param("from", "2024-01-01")
+                            .param("sort", "VALUE")
+                            .param("direction", "DESC")
+                            .param("cursor", "abc")
+                            .param("limit", "10")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.items[0].symbol").value("AAPL"))
+                    .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                    .andExpect(jsonPath("$.data.hasMore").value(true));
+        }
+
+        @Test
+        @DisplayName("Given limit out of range when getAssetPage then return Bad Request")
+        void givenLimitOutOfRange_whenGetAssetPage_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/page")
+                            .param("limit", "501")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+
+        @Test
+        @DisplayName("Given unknown sort when getAssetPage then return Bad Request")
+        void givenUnknownSort_whenGetAssetPage_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/page")
+                            .param("sort", "NAME")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/assets/export")
+    class ExportAssetsTests {
+
+        @SafeVarargs
+        private void givenBatches(List<AssetDTO>... batches) {
+            doAnswer(invocation -> {
+                Consumer<List<AssetDTO>> action = invocation.getArgument(2);
+                for (List<AssetDTO> batch : batches) {
+                    action.accept(batch);
+                }
+                return null;
+            }).when(assetService).forEachAssetBatch(any(AssetFilter.class), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("Given assets when exporting as NDJSON then stream one asset per line")
+        void givenAssets_whenExportNdjson_thenOneAssetPerLine() throws Exception {
+            // GIVEN
+            givenBatches(List.of(createAssetDTO(1L, "AAPL", AssetType.STOCK), createAssetDTO(2L, "MSFT", AssetType.STOCK)),
+                    List.of(createAssetDTO(3L, "BOND1", AssetType.BOND)));
+
+            // WHEN
+            MvcResult result = mockMvc.perform(get("/api/assets/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // THEN
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(3);
+            assertThat(objectMapper.readValue(lines[2], AssetDTO.class).getSymbol()).isEqualTo("BOND1");
+        }
+
+        @Test
+        @DisplayName("Given assets when exporting as JSON then stream a single array")
+        void givenAssets_whenExportJson_thenJsonArray() throws Exception {
+            // GIVEN
+            givenBatches(List.of(createAssetDTO(1L, "AAPL", AssetType.STOCK)),
+                    List.of(createAssetDTO(2L, "MSFT", AssetType.STOCK)));
+
+            // WHEN
+            MvcResult result = mockMvc.perform(get("/api/assets/export").param("format", "json"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // THEN
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[1].symbol").value("MSFT"));
+        }
+
+        @Test
+        @DisplayName("Given a batch query that fails midway when exporting then the stream ends with the error")
+        void givenFailingBatch_whenExport_thenCompletedWithError() throws Exception {
+            // GIVEN
+            DataAccessResourceFailureException failure = new DataAccessResourceFailureException("connection lost");
+            doAnswer(invocation -> {
+                Consumer<List<AssetDTO>> action = invocation.getArgument(2);
+                action.accept(List.of(createAssetDTO(1L, "AAPL", AssetType.STOCK)));
+                throw failure;
+            }).when(assetService).forEachAssetBatch(any(AssetFilter.class), anyInt(), any());
+
+            // WHEN
+            MvcResult result = mockMvc.perform(get("/api/assets/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // THEN - completed promptly, not left for the export timeout
+            assertThat(result.getAsyncResult(5_000)).isSameAs(failure);
+        }
+
+        @Test
+        @DisplayName("Given unknown format when exporting then return Bad Request")
+        void givenUnknownFormat_whenExport_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
     }
 
     // ---------------------------------------------------------------------
@@ -241,5 +423,99 @@ class AssetControllerTest {
                     .andExpect(jsonPath("$.success").value(true));
         }
     }
-}
 
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("POST /api/assets/batch")
+    class ApplyBatchTests {
+
+        @Test
+        @DisplayName("Given creates, updates and deletes when applyBatch then return the results with counts")
+        void givenBatch_whenApplyBatch_thenReturnResults() throws Exception {
+            // GIVEN
+            AssetBatchRequest request = AssetBatchRequest.builder()
+                    .create(List.of(createAssetDTO(null, "AAPL", AssetType.STOCK)))
+                    .update(List.of(createAssetDTO(2L, "MSFT", AssetType.STOCK)))
+                    .delete(List.of(3L, 4L))
+                    .build();
+            when(assetService.applyBatch(any(AssetBatchRequest.class))).thenReturn(AssetBatchResult.builder()
+                    .created(List.of(createAssetDTO(10L, "AAPL", AssetType.STOCK)))
+                    .updated(List.of(createAssetDTO(2L, "MSFT", AssetType.STOCK)))
+                    .deleted(List.of(3L, 4L))
+                    .build());
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/assets/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Created 1, updated 1, deleted 2 assets"))
+                    .andExpect(jsonPath("$.data.created[0].id").value(10))
+                    .andExpect(jsonPath("$.data.deleted[1]").value(4));
+        }
+
+        @Test
+        @DisplayName("Given an invalid operation when applyBatch then return Bad Request")
+        void givenInvalidOperation_whenApplyBatch_thenReturnBadRequest() throws Exception {
+            // GIVEN
+            when(assetService.applyBatch(any(AssetBatchRequest.class)))
+                    .thenThrow(new IllegalArgumentException("Invalid batch: create[0]: Symbol is required"));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/assets/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"create\": [{\"type\": \"STOCK\"}]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid batch: create[0]: Symbol is required"));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("POST /api/assets/upload")
+    class UploadAssetsTests {
+
+        private final MockMultipartFile csv = new MockMultipartFile("file", "assets.csv", "text/csv",
+                "symbol,name,type,quantity,buyPrice\nAAPL,Apple,STOCK,1,100\n".getBytes());
+
+        @Test
+        @DisplayName("Given a CSV file when uploadAssets then return Accepted with the queued import job")
+        void givenCsv_whenUploadAssets_thenReturnQueuedJob() throws Exception {
+            // GIVEN
+            when(importJobService.submit(eq("assets.csv"), any())).thenReturn(ImportJobDTO.builder()
+                    .id("job-1")
+                    .fileName("assets.csv")
+                    .status(ImportJobDTO.Status.QUEUED)
+                    .build());
+
+            // WHEN & THEN
+            mockMvc.perform(multipart("/api/assets/upload").file(csv))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/imports/job-1"))
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.data.id").value("job-1"))
+                    .andExpect(jsonPath("$.data.status").value("QUEUED"));
+        }
+
+        @Test
+        @DisplayName("Given a full import queue when uploadAssets then return Service Unavailable")
+        void givenFullQueue_whenUploadAssets_thenReturnServiceUnavailable() throws Exception {
+            // GIVEN
+            when(importJobService.submit(any(), any())).thenThrow(new RejectedExecutionException("Import job queue is full"));
+
+            // WHEN & THEN
+            mockMvc.perform(multipart("/api/assets/upload").file(csv))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+
+        @Test
+        @DisplayName("Given a non-CSV file when uploadAssets then return Bad Request")
+        void givenNonCsvFile_whenUploadAssets_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(multipart("/api/assets/upload")
+                            .file(new MockMultipartFile("file", "assets.xlsx", null, new byte[]{1})))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
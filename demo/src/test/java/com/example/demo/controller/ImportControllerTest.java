@@ -0,0 +1,122 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ImportJobDTO;
+import com.example.demo.dto.ImportReport;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.ImportJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportJobService importJobService;
+
+    private ImportJobDTO job(ImportJobDTO.Status status, long committedRows) {
+        return ImportJobDTO.builder()
+                .id("job-1")
+                .fileName("assets.csv")
+                .status(status)
+                .committedRows(committedRows)
+                .progress(ImportReport.builder()
+                        .rowsRead(committedRows)
+                        .imported(committedRows - 1)
+                        .rejected(1)
+                        .rowsPerSecond(2500.0)
+                        .errors(List.of(new ImportReport.RowError(3, "Unknown type 'WIDGET'")))
+                        .build())
+                .build();
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/imports/{id}")
+    class GetImportJobTests {
+
+        @Test
+        @DisplayName("Given a running job when getImportJob then return its progress")
+        void givenRunningJob_whenGetImportJob_thenReturnProgress() throws Exception {
+            // GIVEN
+            when(importJobService.getJob("job-1")).thenReturn(job(ImportJobDTO.Status.RUNNING, 2000));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/imports/{id}", "job-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                    .andExpect(jsonPath("$.data.progress.rowsRead").value(2000))
+                    .andExpect(jsonPath("$.data.progress.imported").value(1999))
+                    .andExpect(jsonPath("$.data.progress.rowsPerSecond").value(2500.0))
+                    .andExpect(jsonPath("$.data.progress.errors[0].line").value(3));
+        }
+
+        @Test
+        @DisplayName("Given an unknown id when getImportJob then return Not Found")
+        void givenUnknownId_whenGetImportJob_thenReturnNotFound() throws Exception {
+            // GIVEN
+            when(importJobService.getJob("nope")).thenThrow(new ResourceNotFoundException("Import job", "id", "nope"));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/imports/{id}", "nope"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("DELETE /api/imports/{id} and POST /api/imports/{id}/resume")
+    class CancelAndResumeTests {
+
+        @Test
+        @DisplayName("Given a job when cancelImportJob then return its state")
+        void givenJob_whenCancelImportJob_thenReturnJob() throws Exception {
+            // GIVEN
+            when(importJobService.cancel("job-1")).thenReturn(job(ImportJobDTO.Status.CANCELLED, 1000));
+
+            // WHEN & THEN
+            mockMvc.perform(delete("/api/imports/{id}", "job-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.status").value("CANCELLED"));
+        }
+
+        @Test
+        @DisplayName("Given a cancelled job when resumeImportJob then return Accepted")
+        void givenCancelledJob_whenResumeImportJob_thenReturnAccepted() throws Exception {
+            // GIVEN
+            when(importJobService.resume("job-1")).thenReturn(job(ImportJobDTO.Status.QUEUED, 1000));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/imports/{id}/resume", "job-1"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.message").value("Resuming after 1000 rows"))
+                    .andExpect(jsonPath("$.data.committedRows").value(1000));
+        }
+
+        @Test
+        @DisplayName("Given a completed job when resumeImportJob then return Bad Request")
+        void givenCompletedJob_whenResumeImportJob_thenReturnBadRequest() throws Exception {
+            // GIVEN
+            when(importJobService.resume("job-1"))
+                    .thenThrow(new IllegalArgumentException("Import job job-1 is COMPLETED; only failed or cancelled jobs can be resumed"));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/imports/{id}/resume", "job-1"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
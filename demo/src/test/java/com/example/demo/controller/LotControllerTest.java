@@ -0,0 +1,115 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.LotEventDTO;
+import com.example.demo.dto.PositionDTO;
+import com.example.demo.entity.CostBasisMethod;
+import com.example.demo.entity.LotEventType;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.LotLedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LotController.class)
+class LotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LotLedgerService lotLedgerService;
+
+    private PositionDTO position() {
+        return PositionDTO.builder()
+                .assetId(1L)
+                .symbol("AAPL")
+                .quantity(new BigDecimal("5"))
+                .costBasisMethod(CostBasisMethod.AVERAGE)
+                .costBasis(Map.of(CostBasisMethod.FIFO, new BigDecimal("600"), CostBasisMethod.AVERAGE, new BigDecimal("550")))
+                .realizedGain(Map.of(CostBasisMethod.FIFO, new BigDecimal("650")))
+                .dividends(BigDecimal.ZERO)
+                .ledgerEntries(3)
+                .build();
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("POST /api/assets/{id}/lots")
+    class RecordEntryTests {
+
+        @Test
+        @DisplayName("Given a sell when recordEntry then return Created with the position")
+        void givenSell_whenRecordEntry_thenReturnCreated() throws Exception {
+            // GIVEN
+            when(lotLedgerService.record(eq(1L), any(LotEventDTO.class))).thenReturn(position());
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/assets/{id}/lots", 1L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"type\":\"SELL\",\"quantity\":15,\"price\":150}"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.message").value("SELL recorded"))
+                    .andExpect(jsonPath("$.data.quantity").value(5))
+                    .andExpect(jsonPath("$.data.costBasis.FIFO").value(600));
+        }
+
+        @Test
+        @DisplayName("Given an oversell when recordEntry then return Bad Request")
+        void givenOversell_whenRecordEntry_thenReturnBadRequest() throws Exception {
+            // GIVEN
+            when(lotLedgerService.record(eq(1L), any(LotEventDTO.class)))
+                    .thenThrow(new IllegalArgumentException("Cannot sell 50 units; only 5 held"));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/assets/{id}/lots", 1L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"type\":\"SELL\",\"quantity\":50,\"price\":150}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/assets/{id}/position")
+    class GetPositionTests {
+
+        @Test
+        @DisplayName("Given an unknown asset when getPosition then return Not Found")
+        void givenUnknownAsset_whenGetPosition_thenReturnNotFound() throws Exception {
+            // GIVEN
+            when(lotLedgerService.getPosition(99L)).thenThrow(new ResourceNotFoundException("Asset", "id", 99L));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/{id}/position", 99L))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Given an asset when getPosition then return its position")
+        void givenAsset_whenGetPosition_thenReturnPosition() throws Exception {
+            // GIVEN
+            when(lotLedgerService.getPosition(1L)).thenReturn(position());
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/assets/{id}/position", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.symbol").value("AAPL"))
+                    .andExpect(jsonPath("$.data.ledgerEntries").value(3));
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.MoversDTO;
+import com.example.demo.dto.PortfolioSnapshotDTO;
 import com.example.demo.dto.PortfolioSummaryDTO;
+import com.example.demo.dto.RiskReportDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.SnapshotResolution;
+import com.example.demo.service.LiveUpdateService;
 import com.example.demo.service.PortfolioService;
+import com.example.demo.service.PortfolioSnapshotService;
+import com.example.demo.service.RiskService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,12 +19,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +45,15 @@ class PortfolioControllerTest {
     @MockBean
     private PortfolioService portfolioService;
 
+    @MockBean
+    private PortfolioSnapshotService portfolioSnapshotService;
+
+    @MockBean
+    private RiskService riskService;
+
+    @MockBean
+    private LiveUpdateService liveUpdateService;
+
     // ---------------------------------------------------------------------
     @Nested
     @DisplayName("GET /api/portfolio/summary")
@@ -81,6 +106,42 @@ class PortfolioControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/portfolio/movers")
+    class GetMoversTests {
+
+        @Test
+        @DisplayName("Given k when getMovers then return that many gainers and losers")
+        void givenK_whenGetMovers_thenReturnMovers() throws Exception {
+            // GIVEN
+            MoversDTO movers = MoversDTO.builder()
+                    .topGainers(List.of(AssetDTO.builder().symbol("NVDA")
+                            .gainLossPercentage(new BigDecimal("42.5")).build()))
+                    .topLosers(Collections.emptyList())
+                    .build();
+
+            when(portfolioService.getMovers(20)).thenReturn(movers);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/movers").param("k", "20")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.topGainers[0].symbol").value("NVDA"))
+                    .andExpect(jsonPath("$.data.topLosers").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Given k out of range when getMovers then return bad request")
+        void givenKOutOfRange_whenGetMovers_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/movers").param("k", "0")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
     // ---------------------------------------------------------------------
     @Nested
     @DisplayName("GET /api/portfolio/performance")
@@ -119,4 +180,119 @@ class PortfolioControllerTest {
                     .andExpect(jsonPath("$.data").isEmpty());
         }
     }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/portfolio/history")
+    class GetHistoryTests {
+
+        @Test
+        @DisplayName("Given recorded snapshots when getHistory then return the points of the range")
+        void givenSnapshots_whenGetHistory_thenReturnPoints() throws Exception {
+            // GIVEN
+            Instant from = Instant.parse("2024-01-01T00:00:00Z");
+            Instant to = Instant.parse("2025-01-01T00:00:00Z");
+            PortfolioSnapshotDTO point = PortfolioSnapshotDTO.builder()
+                    .time(from)
+                    .value(new BigDecimal("10500.00"))
+                    .costBasis(new BigDecimal("10000.00"))
+                    .gainLoss(new BigDecimal("500.00"))
+                    .valueByType(Map.of(AssetType.STOCK, new BigDecimal("10500.00")))
+                    .build();
+            when(portfolioSnapshotService.getHistory(from, to, SnapshotResolution.DAY)).thenReturn(List.of(point));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/history")
+                            .param("from", "2024-01-01T00:00:00Z")
+                            .param("to", "2025-01-01T00:00:00Z")
+                            .param("resolution", "DAY"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].time").value("2024-01-01T00:00:00Z"))
+                    .andExpect(jsonPath("$.data[0].value").value(10500.00))
+                    .andExpect(jsonPath("$.data[0].valueByType.STOCK").value(10500.00));
+        }
+
+        @Test
+        @DisplayName("Given an unknown resolution when getHistory then return Bad Request")
+        void givenUnknownResolution_whenGetHistory_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/history").param("resolution", "SECOND"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/portfolio/risk")
+    class GetRiskTests {
+
+        @Test
+        @DisplayName("Given priced holdings when getRisk then return the risk report")
+        void givenPricedHoldings_whenGetRisk_thenReturnReport() throws Exception {
+            // GIVEN
+            RiskReportDTO report = RiskReportDTO.builder()
+                    .observations(250)
+                    .confidence(0.99)
+                    .portfolioValue(new BigDecimal("10000.00"))
+                    .volatility(0.18)
+                    .historicalVar(new BigDecimal("312.50"))
+                    .holdings(List.of())
+                    .unpricedSymbols(List.of("XYZ"))
+                    .correlation(new double[][]{{1.0}})
+                    .build();
+            when(riskService.getRisk(730, 0.99, true)).thenReturn(report);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/risk")
+                            .param("days", "730")
+                            .param("confidence", "0.99")
+                            .param("correlations", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Risk computed over 250 daily returns"))
+                    .andExpect(jsonPath("$.data.historicalVar").value(312.50))
+                    .andExpect(jsonPath("$.data.unpricedSymbols[0]").value("XYZ"))
+                    .andExpect(jsonPath("$.data.correlation[0][0]").value(1.0));
+        }
+
+        @Test
+        @DisplayName("Given an out-of-range window when getRisk then return Bad Request")
+        void givenBadWindow_whenGetRisk_thenReturnBadRequest() throws Exception {
+            // GIVEN
+            when(riskService.getRisk(anyInt(), anyDouble(), anyBoolean()))
+                    .thenThrow(new IllegalArgumentException("days must be between 30 and 3650"));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/risk").param("days", "5"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/portfolio/stream")
+    class StreamUpdatesTests {
+
+        @Test
+        @DisplayName("When streamUpdates then start an event stream")
+        void whenStreamUpdates_thenStartEventStream() throws Exception {
+            // GIVEN
+            when(liveUpdateService.subscribe()).thenReturn(new SseEmitter());
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isOk())
+                    .andExpect(request().asyncStarted());
+        }
+
+        @Test
+        @DisplayName("Given too many clients when streamUpdates then return Service Unavailable")
+        void givenTooManyClients_whenStreamUpdates_thenReturnServiceUnavailable() throws Exception {
+            // GIVEN
+            when(liveUpdateService.subscribe()).thenThrow(new RejectedExecutionException("Too many live update clients (max 100)"));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/portfolio/stream"))
+                    .andExpect(status().isServiceUnavailable());
+        }
+    }
 }
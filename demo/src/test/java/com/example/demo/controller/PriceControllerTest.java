@@ -0,0 +1,118 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.PriceCacheStats;
+import com.example.demo.service.BarInterval;
+import com.example.demo.service.PriceBars;
+import com.example.demo.service.PriceSeriesStore;
+import com.example.demo.service.StockPriceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PriceController.class)
+class PriceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @MockBean
+    private PriceSeriesStore priceSeriesStore;
+
+    @Nested
+    @DisplayName("GET /api/prices/cache/stats")
+    class GetCacheStatsTests {
+
+        @Test
+        @DisplayName("Given cache activity when getCacheStats then return counters")
+        void givenCacheActivity_whenGetCacheStats_thenReturnCounters() throws Exception {
+            // GIVEN
+            PriceCacheStats stats = PriceCacheStats.builder()
+                    .size(2)
+                    .maxEntries(1000)
+                    .hits(8)
+                    .misses(2)
+                    .hitRate(0.8)
+                    .evictions(0)
+                    .loadSuccesses(2)
+                    .build();
+            when(stockPriceService.getCacheStats()).thenReturn(stats);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/prices/cache/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.data.size").value(2))
+                    .andExpect(jsonPath("$.data.hits").value(8))
+                    .andExpect(jsonPath("$.data.hitRate").value(0.8));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET and POST /api/prices/{symbol}/history")
+    class HistoryTests {
+
+        @Test
+        @DisplayName("Given stored bars when getHistory for a date range then return the bars of those days")
+        void givenStoredBars_whenGetHistory_thenReturnBars() throws Exception {
+            // GIVEN
+            PriceBars bars = new PriceBars(1);
+            bars.add(Instant.parse("2024-01-01T00:00:00Z").getEpochSecond(), 1_855_000, 1_880_000, 1_832_500, 1_870_000);
+            when(priceSeriesStore.getBars("AAPL", Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z"),
+                    BarInterval.WEEK)).thenReturn(bars);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/prices/{symbol}/history", "AAPL")
+                            .param("from", "2024-01-01")
+                            .param("to", "2024-01-31")
+                            .param("interval", "WEEK"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Retrieved 1 bars"))
+                    .andExpect(jsonPath("$.data[0].time").value("2024-01-01T00:00:00Z"))
+                    .andExpect(jsonPath("$.data[0].open").value(185.5))
+                    .andExpect(jsonPath("$.data[0].low").value(183.25));
+        }
+
+        @Test
+        @DisplayName("Given bars when appendHistory then return Created with the stored count")
+        void givenBars_whenAppendHistory_thenReturnCreated() throws Exception {
+            // GIVEN
+            when(priceSeriesStore.append(eq("AAPL"), anyList())).thenReturn(251);
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/prices/{symbol}/history", "AAPL")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"time\":\"2024-01-02T00:00:00Z\",\"open\":185.5,\"high\":188,\"low\":183.25,\"close\":187}]"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.message").value("Appended 1 bars; 251 stored"))
+                    .andExpect(jsonPath("$.data").value(251));
+        }
+
+        @Test
+        @DisplayName("Given from after to when getHistory then return Bad Request")
+        void givenInvertedRange_whenGetHistory_thenReturnBadRequest() throws Exception {
+            // WHEN & THEN
+            mockMvc.perform(get("/api/prices/{symbol}/history", "AAPL")
+                            .param("from", "2024-02-01")
+                            .param("to", "2024-01-01"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
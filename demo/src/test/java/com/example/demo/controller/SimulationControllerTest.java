@@ -0,0 +1,122 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.SimulationJobDTO;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.SimulationJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SimulationController.class)
+class SimulationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SimulationJobService simulationJobService;
+
+    private SimulationJobDTO job(SimulationJobDTO.Status status) {
+        return SimulationJobDTO.builder()
+                .id("sim-1")
+                .status(status)
+                .paths(1_000_000)
+                .completedPaths(status == SimulationJobDTO.Status.COMPLETED ? 1_000_000 : 0)
+                .seed(42)
+                .initialValue(new BigDecimal("10000.00"))
+                .build();
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("POST /api/simulations")
+    class StartSimulationTests {
+
+        @Test
+        @DisplayName("Given a request when startSimulation then return Accepted with the job location")
+        void givenRequest_whenStartSimulation_thenReturnAccepted() throws Exception {
+            // GIVEN
+            when(simulationJobService.submit(argThat(request -> request.getSeed() == 42L
+                    && request.getHorizons().equals(List.of(1, 5)))))
+                    .thenReturn(job(SimulationJobDTO.Status.QUEUED));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/simulations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"seed\":42,\"horizons\":[1,5]}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/simulations/sim-1"))
+                    .andExpect(jsonPath("$.data.status").value("QUEUED"))
+                    .andExpect(jsonPath("$.data.seed").value(42));
+        }
+
+        @Test
+        @DisplayName("Given out-of-range parameters when startSimulation then return Bad Request")
+        void givenInvalidRequest_whenStartSimulation_thenReturnBadRequest() throws Exception {
+            // GIVEN
+            when(simulationJobService.submit(any(SimulationRequest.class)))
+                    .thenThrow(new IllegalArgumentException("paths must be between 1 and 50000000"));
+
+            // WHEN & THEN
+            mockMvc.perform(post("/api/simulations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"paths\":0}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("GET /api/simulations/{id}")
+    class GetSimulationTests {
+
+        @Test
+        @DisplayName("Given a completed job when getSimulation then return its bands")
+        void givenCompletedJob_whenGetSimulation_thenReturnBands() throws Exception {
+            // GIVEN
+            SimulationJobDTO completed = job(SimulationJobDTO.Status.COMPLETED);
+            completed.setHorizons(List.of(SimulationJobDTO.HorizonResult.builder()
+                    .years(1)
+                    .mean(new BigDecimal("10700.00"))
+                    .percentiles(Map.of(50, new BigDecimal("10490.00")))
+                    .probabilityOfLoss(0.41)
+                    .build()));
+            when(simulationJobService.getJob("sim-1")).thenReturn(completed);
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/simulations/{id}", "sim-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.completedPaths").value(1_000_000))
+                    .andExpect(jsonPath("$.data.horizons[0].percentiles.50").value(10490.00))
+                    .andExpect(jsonPath("$.data.horizons[0].probabilityOfLoss").value(0.41));
+        }
+
+        @Test
+        @DisplayName("Given an unknown id when getSimulation then return Not Found")
+        void givenUnknownId_whenGetSimulation_thenReturnNotFound() throws Exception {
+            // GIVEN
+            when(simulationJobService.getJob("nope")).thenThrow(new ResourceNotFoundException("Simulation job", "id", "nope"));
+
+            // WHEN & THEN
+            mockMvc.perform(get("/api/simulations/{id}", "nope"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Bond;
+import com.example.demo.entity.Cash;
+import com.example.demo.entity.Stock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class PortfolioAssetRepositoryTest {
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private BondRepository bondRepository;
+
+    @Autowired
+    private CashRepository cashRepository;
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("findGroupTotals()")
+    class FindGroupTotalsTests {
+
+        @Test
+        @DisplayName("Given mixed assets when findGroupTotals then tradeable rows group by symbol and others by type")
+        void givenMixedAssets_whenFindGroupTotals_thenGroupedInDatabase() {
+            // GIVEN
+            stockRepository.saveAllAndFlush(List.of(
+                    Stock.builder().symbol("AAPL").name("Apple").quantity(new BigDecimal("10"))
+                            .buyPrice(new BigDecimal("150.00")).build(),
+                    Stock.builder().symbol("aapl ").name("Apple again").quantity(new BigDecimal("5"))
+                            .buyPrice(new BigDecimal("100.00")).build(),
+                    Stock.builder().symbol("MSFT").name("Microsoft").quantity(new BigDecimal("2"))
+                            .buyPrice(new BigDecimal("300.00")).build()));
+            bondRepository.saveAllAndFlush(List.of(
+                    Bond.builder().symbol("T-2030").name("Treasury 2030").quantity(new BigDecimal("10"))
+                            .buyPrice(new BigDecimal("95.00")).build(),
+                    Bond.builder().symbol("T-2040").name("Treasury 2040").quantity(new BigDecimal("5"))
+                            .buyPrice(new BigDecimal("90.00")).build()));
+            cashRepository.saveAndFlush(Cash.builder().symbol("USD").name("Checking")
+                    .quantity(BigDecimal.ONE).buyPrice(new BigDecimal("500.00")).build());
+
+            // WHEN
+            List<AssetGroupTotals> groups = portfolioAssetRepository.findGroupTotals();
+
+            // THEN
+            assertThat(groups).hasSize(4);
+            AssetGroupTotals apple = find(groups, AssetType.STOCK, "AAPL");
+            assertThat(apple.getCount()).isEqualTo(2);
+            assertThat(apple.getQuantity()).isEqualByComparingTo("15");
+            assertThat(apple.getCostBasis()).isEqualByComparingTo("2000");
+            AssetGroupTotals bonds = find(groups, AssetType.BOND, "");
+            assertThat(bonds.getCount()).isEqualTo(2);
+            assertThat(bonds.getCostBasis()).isEqualByComparingTo("1400");
+            assertThat(find(groups, AssetType.CASH, "").getCostBasis()).isEqualByComparingTo("500");
+        }
+
+        @Test
+        @DisplayName("Given no assets when findGroupTotals then return no rows")
+        void givenNoAssets_whenFindGroupTotals_thenEmpty() {
+            assertThat(portfolioAssetRepository.findGroupTotals()).isEmpty();
+        }
+
+        private AssetGroupTotals find(List<AssetGroupTotals> groups, AssetType type, String symbol) {
+            return groups.stream()
+                    .filter(g -> g.getType() == type && g.getSymbol().equals(symbol))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("findBaseViewsByPurchaseDate()")
+    class FindBaseViewsByPurchaseDateTests {
+
+        @Test
+        @DisplayName("Given dated and undated assets when paged in either direction then dated rows come first, undated last")
+        void givenDatedAndUndated_whenPaged_thenDatedFirstAndUndatedLast() {
+            // GIVEN
+            stockRepository.saveAllAndFlush(List.of(
+                    stock("A", LocalDate.of(2024, 3, 1)),
+                    stock("B", null),
+                    stock("C", LocalDate.of(2024, 1, 1)),
+                    stock("D", LocalDate.of(2024, 3, 1)),
+                    stock("E", null)));
+
+            // WHEN
+            List<String> ascending = pageAll(Sort.Direction.ASC, 2);
+            List<String> descending = pageAll(Sort.Direction.DESC, 2);
+
+            // THEN - pages of two cross from the dated rows into the undated ones
+            assertThat(ascending).containsExactly("C", "A", "D", "B", "E");
+            assertThat(descending).containsExactly("D", "A", "C", "E", "B");
+        }
+
+        private List<String> pageAll(Sort.Direction direction, int size) {
+            List<String> symbols = new ArrayList<>();
+            LocalDate afterDate = null;
+            Long afterId = null;
+            while (true) {
+                List<AssetBaseView> page = portfolioAssetRepository.findBaseViewsByPurchaseDate(
+                        AssetFilter.NONE, afterDate, afterId, direction, size);
+                page.forEach(asset -> symbols.add(asset.getSymbol()));
+                if (page.size() < size) {
+                    return symbols;
+                }
+                AssetBaseView last = page.get(page.size() - 1);
+                afterDate = last.getPurchaseDate();
+                afterId = last.getId();
+            }
+        }
+
+        private Stock stock(String symbol, LocalDate purchaseDate) {
+            return Stock.builder().symbol(symbol).name(symbol).quantity(BigDecimal.ONE)
+                    .buyPrice(BigDecimal.TEN).purchaseDate(purchaseDate).build();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the seven per-type findAll() calls against the polymorphic
+ * repository, its base-columns projection and the grouped totals that
+ * seed the portfolio aggregates.
+ * Not part of the regular test run: mvn -Pbenchmark test
+ * Row counts can be overridden with -Dbenchmark.rows=10000,100000
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(StatementCounter.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortfolioQueryBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    private static final String[] SUBTYPE_TABLES = {
+            "stocks", "bonds", "cash_holdings", "real_estates", "cryptos", "etfs", "mutual_funds"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private BondRepository bondRepository;
+
+    @Autowired
+    private EtfRepository etfRepository;
+
+    @Autowired
+    private MutualFundRepository mutualFundRepository;
+
+    @Autowired
+    private CryptoRepository cryptoRepository;
+
+    @Autowired
+    private RealEstateRepository realEstateRepository;
+
+    @Autowired
+    private CashRepository cashRepository;
+
+    @Test
+    void compareQueryPaths() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.rows", "10000,100000,1000000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%n%-10s %-22s %8s %8s %12s%n", "rows", "path", "loaded", "queries", "median ms");
+        for (int rows : sizes) {
+            seed(rows);
+            report(rows, "7x subtype findAll()", this::loadPerSubtype);
+            report(rows, "polymorphic findAll()", () -> portfolioAssetRepository.findAll().size());
+            report(rows, "base projection", () -> portfolioAssetRepository.findAllBaseViews().size());
+            report(rows, "group totals", () -> portfolioAssetRepository.findGroupTotals().size());
+        }
+    }
+
+    private int loadPerSubtype() {
+        return stockRepository.findAll().size()
+                + bondRepository.findAll().size()
+                + etfRepository.findAll().size()
+                + mutualFundRepository.findAll().size()
+                + cryptoRepository.findAll().size()
+                + realEstateRepository.findAll().size()
+                + cashRepository.findAll().size();
+    }
+
+    private void report(int rows, String path, Supplier<Integer> query) {
+        query.get(); // warm-up
+        long[] timings = new long[ITERATIONS];
+        int loaded = 0;
+        long queries = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            statementCounter.reset();
+            long start = System.nanoTime();
+            loaded = query.get();
+            timings[i] = System.nanoTime() - start;
+            queries = statementCounter.count();
+        }
+        Arrays.sort(timings);
+
+        System.out.printf("%-10d %-22s %8d %8d %12.1f%n",
+                rows, path, loaded, queries, timings[ITERATIONS / 2] / 1_000_000.0);
+    }
+
+    /**
+     * Insert rows spread evenly across the seven subtypes, bypassing JPA.
+     */
+    private void seed(int rows) {
+        for (String table : SUBTYPE_TABLES) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+        jdbcTemplate.execute("DELETE FROM assets");
+
+        AssetType[] types = {
+                AssetType.STOCK, AssetType.BOND, AssetType.CASH, AssetType.REAL_ESTATE,
+                AssetType.CRYPTO, AssetType.ETF, AssetType.MUTUAL_FUND
+        };
+        Date purchaseDate = Date.valueOf(LocalDate.of(2024, 1, 15));
+        int batchSize = 10_000;
+
+        for (int from = 0; from < rows; from += batchSize) {
+            List<Object[]> assetRows = new ArrayList<>();
+            List<List<Object[]>> subtypeRows = new ArrayList<>();
+            for (int t = 0; t < types.length; t++) {
+                subtypeRows.add(new ArrayList<>());
+            }
+
+            for (int i = from; i < Math.min(rows, from + batchSize); i++) {
+                long id = i + 1L;
+                int t = i % types.length;
+                assetRows.add(new Object[]{id, types[t].name(), "SYM" + i, "Asset " + i, 10, 100, purchaseDate});
+                subtypeRows.get(t).add(new Object[]{id});
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO assets (id, asset_type, symbol, name, quantity, buy_price, purchase_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", assetRows);
+            for (int t = 0; t < types.length; t++) {
+                jdbcTemplate.batchUpdate("INSERT INTO " + SUBTYPE_TABLES[t] + " (id) VALUES (?)", subtypeRows.get(t));
+            }
+        }
+    }
+}
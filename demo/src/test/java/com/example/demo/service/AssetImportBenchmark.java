@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.ImportReport;
+import com.example.demo.entity.AssetType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Rows/sec of the bulk CSV import against the old per-row path
+ * (AssetService.createAsset for every line), on an embedded database.
+ * Not part of the regular test run: mvn -Pbenchmark test
+ * Row counts can be overridden with -Dbenchmark.rows=10000,100000
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({AssetImportService.class, AssetServiceImpl.class, AssetSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetImportBenchmark {
+
+    // The per-row path is too slow to run at full size
+    private static final int MAX_PER_ROW = 10_000;
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    @Autowired
+    private AssetImportService assetImportService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @Test
+    void compareImportPaths() throws IOException {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.rows", "10000,100000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%n%-10s %-14s %10s %12s%n", "rows", "path", "ms", "rows/s");
+        for (int rows : sizes) {
+            String csv = csv(rows);
+
+            clear();
+            ImportReport report = assetImportService.importCsv(new StringReader(csv));
+            print(rows, "bulk import", report.getElapsedMillis());
+
+            if (rows <= MAX_PER_ROW) {
+                clear();
+                long start = System.nanoTime();
+                for (int i = 0; i < rows; i++) {
+                    assetService.createAsset(dto(i));
+                }
+                print(rows, "per-row create", (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        clear();
+    }
+
+    private void print(int rows, String path, long millis) {
+        System.out.printf("%-10d %-14s %10d %12.0f%n", rows, path, millis, rows * 1000.0 / Math.max(1, millis));
+    }
+
+    private void clear() {
+        for (String table : new String[]{"stocks", "bonds", "cash_holdings", "real_estates", "cryptos", "etfs",
+                "mutual_funds"}) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+        jdbcTemplate.execute("DELETE FROM assets");
+    }
+
+    private static String csv(int rows) {
+        StringBuilder csv = new StringBuilder("symbol,name,type,quantity,buyPrice,purchaseDate\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("SYM").append(i).append(",\"Asset ").append(i).append(", Inc.\",")
+                    .append(TYPES[i % TYPES.length]).append(",10,100.00,2024-01-15\n");
+        }
+        return csv.toString();
+    }
+
+    private static AssetDTO dto(int i) {
+        return AssetDTO.builder()
+                .symbol("SYM" + i)
+                .name("Asset " + i + ", Inc.")
+                .type(TYPES[i % TYPES.length])
+                .quantity(BigDecimal.TEN)
+                .buyPrice(new BigDecimal("100.00"))
+                .purchaseDate(LocalDate.of(2024, 1, 15))
+                .build();
+    }
+}
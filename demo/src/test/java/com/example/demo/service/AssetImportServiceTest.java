@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportReport;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Stock;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import com.example.demo.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "portfolio.import.chunk-size=2"
+})
+@Import(AssetImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetImportServiceTest {
+
+    @Autowired
+    private AssetImportService assetImportService;
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @AfterEach
+    void cleanUp() {
+        portfolioAssetRepository.deleteAll();
+    }
+
+    private ImportReport importCsv(String csv) throws IOException {
+        return assetImportService.importCsv(new StringReader(csv));
+    }
+
+    @Test
+    @DisplayName("Given valid and invalid rows when importCsv then valid rows are inserted and invalid ones reported by line")
+    void givenMixedRows_whenImportCsv_thenReportPerRow() throws IOException {
+        // GIVEN
+        String csv = """
+                symbol,name,type,quantity,buyPrice,purchaseDate
+                aapl ,"Apple, Inc.",STOCK,10,150.00,2024-01-15
+                BND,Bond fund,BOND,5,72.50,
+                XYZ,Unknown,WIDGET,1,1.00,
+                MSFT,Microsoft,STOCK,abc,300.00,
+                ,No symbol,STOCK,1,1.00,
+                BTC-USD,Bitcoin,crypto,0.5,42000,2024-13-01
+                CASH,Checking,CASH,1,500.00,2024-02-01
+                """;
+
+        // WHEN
+        ImportReport report = importCsv(csv);
+
+        // THEN
+        assertThat(report.getRowsRead()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Unknown type 'WIDGET'");
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Symbol is required");
+
+        List<AssetBaseView> assets = portfolioAssetRepository.findAllBaseViews();
+        assertThat(assets).extracting(AssetBaseView::getSymbol).containsExactlyInAnyOrder("AAPL", "BND", "CASH");
+        AssetBaseView apple = assets.stream().filter(a -> a.getSymbol().equals("AAPL")).findFirst().orElseThrow();
+        assertThat(apple.getName()).isEqualTo("Apple, Inc.");
+        assertThat(apple.getPurchaseDate()).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(portfolioAssetRepository.findById(apple.getId()).orElseThrow().getType()).isEqualTo(AssetType.STOCK);
+    }
+
+    @Test
+    @DisplayName("Given JPA saves between imports when importCsv then ids never collide")
+    void givenInterleavedJpaSaves_whenImportCsv_thenUniqueIds() throws IOException {
+        // GIVEN
+        String csv = """
+                symbol,name,type,quantity,buyPrice
+                A,A,STOCK,1,1.00
+                B,B,STOCK,1,1.00
+                C,C,STOCK,1,1.00
+                """;
+
+        // WHEN
+        importCsv(csv);
+        stockRepository.save(Stock.builder().symbol("JPA").name("Saved").quantity(BigDecimal.ONE)
+                .buyPrice(BigDecimal.TEN).build());
+        importCsv(csv);
+
+        // THEN
+        Set<Long> ids = new HashSet<>();
+        portfolioAssetRepository.findAllBaseViews().forEach(a -> ids.add(a.getId()));
+        assertThat(ids).hasSize(7);
+    }
+
+    @Test
+    @DisplayName("Given a cancel request when importCsv then stop after the chunk and resume after the committed rows")
+    void givenCancelRequest_whenImportCsv_thenResumeFromCommittedChunk() throws IOException {
+        // GIVEN
+        String csv = """
+                symbol,name,type,quantity,buyPrice
+                A,A,STOCK,1,1.00
+                B,B,STOCK,1,1.00
+                C,C,WIDGET,1,1.00
+                D,D,STOCK,1,1.00
+                E,E,STOCK,1,1.00
+                """;
+        ImportProgress progress = assetImportService.newProgress();
+        progress.requestCancel();
+
+        // WHEN
+        ImportReport first = assetImportService.importCsv(new StringReader(csv), progress);
+
+        // THEN the first chunk (chunk-size=2) is committed, the rest is left
+        assertThat(progress.isComplete()).isFalse();
+        assertThat(progress.getCommittedRows()).isEqualTo(2);
+        assertThat(first.getImported()).isEqualTo(2);
+
+        // WHEN
+        progress.clearCancel();
+        ImportReport resumed = assetImportService.importCsv(new StringReader(csv), progress);
+
+        // THEN
+        assertThat(progress.isComplete()).isTrue();
+        assertThat(resumed.getRowsRead()).isEqualTo(5);
+        assertThat(resumed.getImported()).isEqualTo(4);
+        assertThat(resumed.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(4L);
+        assertThat(portfolioAssetRepository.findAllBaseViews()).extracting(AssetBaseView::getSymbol)
+                .containsExactlyInAnyOrder("A", "B", "D", "E");
+    }
+
+    @Test
+    @DisplayName("Given an unterminated quote after committed chunks when importCsv then report it as a row and stop")
+    void givenUnterminatedQuote_whenImportCsv_thenRowErrorAndEarlierRowsKept() throws IOException {
+        // GIVEN - chunks of two: rows 2-3 and 4-5 commit before the broken row on line 6
+        String csv = """
+                symbol,name,type,quantity,buyPrice
+                AAPL,Apple,STOCK,1,150.00
+                MSFT,Microsoft,STOCK,1,300.00
+                NVDA,Nvidia,STOCK,1,450.00
+                XYZ,Unknown,WIDGET,1,1.00
+                IBM,"IBM Corp,STOCK,1,140.00
+                SPY,S&P 500,ETF,1,400.00
+                """;
+
+        // WHEN
+        ImportReport report = importCsv(csv);
+
+        // THEN
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRowsRead()).isEqualTo(5);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(5L, 6L);
+        assertThat(report.getErrors().get(1).getMessage()).contains("Unterminated quoted field");
+        assertThat(portfolioAssetRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Given a header without a required column when importCsv then throw IllegalArgumentException")
+    void givenMissingColumn_whenImportCsv_thenThrow() {
+        assertThatThrownBy(() -> importCsv("symbol,name,type,quantity\nAAPL,Apple,STOCK,1\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("buyprice");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AssetSearchIndexTest {
+
+    private AssetSearchIndex index;
+
+    private static AssetBaseView asset(long id, String symbol, String name) {
+        return AssetBaseView.builder()
+                .id(id)
+                .type(AssetType.STOCK)
+                .symbol(symbol)
+                .name(name)
+                .quantity(BigDecimal.ONE)
+                .buyPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private static List<String> symbols(List<AssetBaseView> results) {
+        return results.stream().map(AssetBaseView::getSymbol).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        PortfolioAssetRepository repository = mock(PortfolioAssetRepository.class);
+        when(repository.findAllBaseViews()).thenReturn(List.of(
+                asset(1, "AAPL", "Apple Inc."),
+                asset(2, "GOOGL", "Alphabet Inc."),
+                asset(3, "MSFT", "Microsoft Corporation"),
+                asset(4, "APLE", "Apple Hospitality REIT"),
+                asset(5, "SPY", "SPDR S&P 500 ETF Trust")));
+        index = new AssetSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Given exact symbol when search then exact match ranks first")
+    void givenExactSymbol_whenSearch_thenExactMatchFirst() {
+        assertThat(symbols(index.search("aple", 10))).containsExactly("APLE");
+        assertThat(symbols(index.search("AAPL", 10)).get(0)).isEqualTo("AAPL");
+    }
+
+    @Test
+    @DisplayName("Given short prefix when search then symbols and name words starting with it match")
+    void givenShortPrefix_whenSearch_thenPrefixMatches() {
+        assertThat(symbols(index.search("ap", 10))).containsExactly("APLE", "AAPL");
+        assertThat(symbols(index.search("m", 10))).containsExactly("MSFT");
+    }
+
+    @Test
+    @DisplayName("Given substring when search then trigram matches are returned")
+    void givenSubstring_whenSearch_thenTrigramMatches() {
+        assertThat(symbols(index.search("soft", 10))).containsExactly("MSFT");
+        assertThat(symbols(index.search("inc", 10))).containsExactlyInAnyOrder("AAPL", "GOOGL");
+    }
+
+    @Test
+    @DisplayName("Given limit when search then at most limit results are returned")
+    void givenLimit_whenSearch_thenResultsCapped() {
+        assertThat(index.search("apple", 1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given committed changes when search then index reflects them")
+    void givenChanges_whenSearch_thenIndexUpdated() {
+        index.onAssetChanged(AssetChangedEvent.created(asset(6, "NVDA", "NVIDIA Corporation")));
+        index.onAssetChanged(AssetChangedEvent.updated(asset(3, "MSFT", "Microsoft Corporation"),
+                asset(3, "MSFT", "Microsoft")));
+        index.onAssetChanged(AssetChangedEvent.deleted(asset(1, "AAPL", "Apple Inc.")));
+
+        assertThat(symbols(index.search("corporation", 10))).containsExactly("NVDA");
+        assertThat(symbols(index.search("apple", 10))).containsExactly("APLE");
+    }
+
+    @Test
+    @DisplayName("Given a change committed while the index loads when search then the change is not lost")
+    void givenChangeDuringLoad_whenSearch_thenNotLost() {
+        // GIVEN - the first load reads the table just before asset 6 commits
+        PortfolioAssetRepository repository = mock(PortfolioAssetRepository.class);
+        AssetSearchIndex loading = new AssetSearchIndex(repository);
+        AssetChangedEvent created = AssetChangedEvent.created(asset(6, "NVDA", "NVIDIA Corporation"));
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findAllBaseViews()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                loading.beforeAssetCommit(created);
+                loading.onAssetChanged(created);
+                loading.afterAssetCompletion(created);
+                return List.of(asset(1, "AAPL", "Apple Inc."));
+            }
+            return List.of(asset(1, "AAPL", "Apple Inc."), asset(6, "NVDA", "NVIDIA Corporation"));
+        });
+
+        // WHEN
+        List<AssetBaseView> results = loading.search("nvidia", 10);
+
+        // THEN
+        assertThat(symbols(results)).containsExactly("NVDA");
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetBatchRequest;
+import com.example.demo.dto.AssetBatchResult;
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.AssetPageDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Cash;
+import com.example.demo.entity.Stock;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.AssetFilter;
+import com.example.demo.repository.CashRepository;
+import com.example.demo.repository.PortfolioAssetRepository;
+import com.example.demo.repository.StockRepository;
+import com.example.demo.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement-count regressions for AssetServiceImpl against an embedded database.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({AssetServiceImpl.class, AssetSearchIndex.class, StatementCounter.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetServiceImplTest {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private CashRepository cashRepository;
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @AfterEach
+    void cleanUp() {
+        portfolioAssetRepository.deleteAll();
+    }
+
+    private AssetDTO createAssetDTO(String symbol, AssetType type) {
+        return AssetDTO.builder()
+                .symbol(symbol)
+                .name("Test Asset " + symbol)
+                .type(type)
+                .quantity(new BigDecimal("10"))
+                .buyPrice(new BigDecimal("100.00"))
+                .build();
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("Single-asset lookups")
+    class SingleAssetLookupTests {
+
+        @Test
+        @DisplayName("Given an asset the service has not seen when getAssetById then one polymorphic query is issued")
+        void givenUnseenAsset_whenGetAssetById_thenOneQuery() {
+            // GIVEN
+            Cash cash = cashRepository.save(Cash.builder()
+                    .symbol("USD").name("Checking").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("500.00"))
+                    .build());
+            statementCounter.reset();
+
+            // WHEN
+            AssetDTO found = assetService.getAssetById(cash.getId());
+
+            // THEN
+            assertThat(found.getType()).isEqualTo(AssetType.CASH);
+            assertThat(statementCounter.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given a known asset when getAssetById then only its subtype table is queried")
+        void givenKnownAsset_whenGetAssetById_thenOneSubtypeQuery() {
+            // GIVEN
+            Long id = assetService.createAsset(createAssetDTO("AAPL", AssetType.STOCK)).getId();
+            statementCounter.reset();
+
+            // WHEN
+            AssetDTO found = assetService.getAssetById(id);
+
+            // THEN
+            assertThat(found.getSymbol()).isEqualTo("AAPL");
+            assertThat(statementCounter.count()).isEqualTo(1);
+            assertThat(statementCounter.statements().get(0)).contains("stocks").doesNotContain("bonds");
+        }
+
+        @Test
+        @DisplayName("Given an existing asset when updateAsset then it is read with one query")
+        void givenExistingAsset_whenUpdateAsset_thenOneSelect() {
+            // GIVEN
+            Stock stock = stockRepository.save(Stock.builder()
+                    .symbol("MSFT").name("Microsoft").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("380.00"))
+                    .build());
+            AssetDTO update = createAssetDTO("MSFT", AssetType.STOCK);
+            statementCounter.reset();
+
+            // WHEN
+            AssetDTO updated = assetService.updateAsset(stock.getId(), update);
+
+            // THEN
+            assertThat(updated.getQuantity()).isEqualByComparingTo("10");
+            assertThat(statementCounter.selectCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given an existing asset when deleteAsset then it is read with one query")
+        void givenExistingAsset_whenDeleteAsset_thenOneSelect() {
+            // GIVEN
+            Stock stock = stockRepository.save(Stock.builder()
+                    .symbol("TSLA").name("Tesla").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("250.00"))
+                    .build());
+            statementCounter.reset();
+
+            // WHEN
+            assetService.deleteAsset(stock.getId());
+
+            // THEN
+            assertThat(statementCounter.selectCount()).isEqualTo(1);
+            assertThat(portfolioAssetRepository.findById(stock.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Given an unknown ID when getAssetById then throw ResourceNotFoundException after one query")
+        void givenUnknownId_whenGetAssetById_thenThrowNotFound() {
+            // GIVEN
+            statementCounter.reset();
+
+            // WHEN & THEN
+            assertThatThrownBy(() -> assetService.getAssetById(999_999L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            assertThat(statementCounter.count()).isEqualTo(1);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("Paginated listing")
+    class AssetPageTests {
+
+        private Stock stock(String symbol, String quantity, String buyPrice, LocalDate purchaseDate) {
+            return stockRepository.save(Stock.builder()
+                    .symbol(symbol).name(symbol).quantity(new BigDecimal(quantity)).buyPrice(new BigDecimal(buyPrice))
+                    .purchaseDate(purchaseDate)
+                    .build());
+        }
+
+        private List<AssetDTO> walk(AssetFilter filter, AssetSort sort, Sort.Direction direction, int limit) {
+            List<AssetDTO> all = new ArrayList<>();
+            String cursor = null;
+            do {
+                AssetPageDTO page = assetService.getAssetPage(filter, sort, direction, cursor, limit);
+                assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+                all.addAll(page.getItems());
+                cursor = page.getNextCursor();
+                assertThat(page.isHasMore()).isEqualTo(cursor != null);
+            } while (cursor != null);
+            return all;
+        }
+
+        private List<String> symbols(List<AssetDTO> assets) {
+            return assets.stream().map(AssetDTO::getSymbol).toList();
+        }
+
+        @Test
+        @DisplayName("Given more assets than a page when paging by id then every asset is returned once, in order")
+        void givenManyAssets_whenPageById_thenEachAssetOnce() {
+            // GIVEN
+            for (int i = 0; i < 7; i++) {
+                stock("S" + i, "1", "10.00", null);
+            }
+
+            // WHEN
+            List<AssetDTO> ascending = walk(AssetFilter.NONE, AssetSort.ID, Sort.Direction.ASC, 3);
+            List<AssetDTO> descending = walk(AssetFilter.NONE, AssetSort.ID, Sort.Direction.DESC, 3);
+
+            // THEN
+            assertThat(symbols(ascending)).containsExactly("S0", "S1", "S2", "S3", "S4", "S5", "S6");
+            assertThat(symbols(descending)).containsExactly("S6", "S5", "S4", "S3", "S2", "S1", "S0");
+        }
+
+        @Test
+        @DisplayName("Given undated and same-day assets when paging by purchase date then ties break by id and undated come last")
+        void givenUndatedAssets_whenPageByPurchaseDate_thenUndatedLast() {
+            // GIVEN
+            stock("C", "1", "10.00", LocalDate.of(2024, 3, 1));
+            stock("U1", "1", "10.00", null);
+            stock("A", "1", "10.00", LocalDate.of(2024, 1, 1));
+            stock("B1", "1", "10.00", LocalDate.of(2024, 2, 1));
+            stock("B2", "1", "10.00", LocalDate.of(2024, 2, 1));
+            stock("U2", "1", "10.00", null);
+
+            // WHEN & THEN
+            assertThat(symbols(walk(AssetFilter.NONE, AssetSort.PURCHASE_DATE, Sort.Direction.ASC, 2)))
+                    .containsExactly("A", "B1", "B2", "C", "U1", "U2");
+            assertThat(symbols(walk(AssetFilter.NONE, AssetSort.PURCHASE_DATE, Sort.Direction.DESC, 4)))
+                    .containsExactly("C", "B2", "B1", "A", "U2", "U1");
+        }
+
+        @Test
+        @DisplayName("Given filters when paging then only matching assets are returned")
+        void givenFilters_whenPage_thenOnlyMatches() {
+            // GIVEN
+            stock("AAPL", "1", "10.00", LocalDate.of(2024, 1, 15));
+            stock("AMZN", "1", "10.00", LocalDate.of(2023, 6, 1));
+            stock("A_B", "1", "10.00", LocalDate.of(2024, 1, 20));
+            stock("MSFT", "1", "10.00", LocalDate.of(2024, 1, 10));
+            cashRepository.save(Cash.builder()
+                    .symbol("AUD").name("Savings").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("500.00"))
+                    .purchaseDate(LocalDate.of(2024, 1, 1))
+                    .build());
+
+            // WHEN
+            AssetFilter filter = AssetFilter.builder()
+                    .type(AssetType.STOCK)
+                    .symbolPrefix("a")
+                    .purchasedFrom(LocalDate.of(2024, 1, 1))
+                    .purchasedTo(LocalDate.of(2024, 12, 31))
+                    .build();
+            AssetFilter literalUnderscore = AssetFilter.builder().symbolPrefix("A_").build();
+
+            // THEN
+            assertThat(symbols(walk(filter, AssetSort.ID, Sort.Direction.ASC, 10))).containsExactly("AAPL", "A_B");
+            assertThat(symbols(walk(literalUnderscore, AssetSort.ID, Sort.Direction.ASC, 10))).containsExactly("A_B");
+        }
+
+        @Test
+        @DisplayName("Given cached quotes when paging by value and gain then order follows them and only the page is priced")
+        void givenCachedQuotes_whenPageByValue_thenOrderedAndPagePriced() {
+            // GIVEN - cost basis 1000 each
+            stock("AAPL", "10", "100.00", null);
+            stock("MSFT", "10", "100.00", null);
+            stock("NVDA", "10", "100.00", null);
+            stock("IBM", "10", "100.00", null);
+            when(stockPriceService.getCachedPrice("AAPL")).thenReturn(new BigDecimal("150"));
+            when(stockPriceService.getCachedPrice("MSFT")).thenReturn(new BigDecimal("80"));
+            when(stockPriceService.getCachedPrice("NVDA")).thenReturn(new BigDecimal("300"));
+
+            // WHEN
+            AssetPageDTO first = assetService.getAssetPage(AssetFilter.NONE, AssetSort.VALUE, Sort.Direction.DESC, null, 2);
+
+            // THEN - IBM has no quote: valued at cost, and without a gain % it sorts last by gain
+            assertThat(symbols(first.getItems())).containsExactly("NVDA", "AAPL");
+            verify(stockPriceService).getCurrentPrices("NVDA", "AAPL");
+            assertThat(symbols(walk(AssetFilter.NONE, AssetSort.VALUE, Sort.Direction.DESC, 2)))
+                    .containsExactly("NVDA", "AAPL", "IBM", "MSFT");
+            assertThat(symbols(walk(AssetFilter.NONE, AssetSort.GAIN_LOSS_PERCENTAGE, Sort.Direction.ASC, 3)))
+                    .containsExactly("MSFT", "AAPL", "NVDA", "IBM");
+        }
+
+        @Test
+        @DisplayName("Given more assets than a batch when forEachAssetBatch then every asset is priced and handed over once")
+        void givenManyAssets_whenForEachAssetBatch_thenBatchedInIdOrder() {
+            // GIVEN
+            for (int i = 0; i < 5; i++) {
+                stock("S" + i, "1", "10.00", null);
+            }
+            List<List<String>> batches = new ArrayList<>();
+
+            // WHEN
+            assetService.forEachAssetBatch(AssetFilter.NONE, 2, batch -> batches.add(symbols(batch)));
+
+            // THEN
+            assertThat(batches).containsExactly(List.of("S0", "S1"), List.of("S2", "S3"), List.of("S4"));
+            verify(stockPriceService).getCurrentPrices("S0", "S1");
+            verify(stockPriceService).getCurrentPrices("S4");
+        }
+
+        @Test
+        @DisplayName("Given a cursor for another sort when getAssetPage then throw IllegalArgumentException")
+        void givenForeignCursor_whenGetAssetPage_thenThrow() {
+            // GIVEN
+            stock("AAPL", "1", "10.00", null);
+            stock("MSFT", "1", "10.00", null);
+            String cursor = assetService.getAssetPage(AssetFilter.NONE, AssetSort.ID, Sort.Direction.ASC, null, 1)
+                    .getNextCursor();
+
+            // WHEN & THEN
+            assertThatThrownBy(() -> assetService.getAssetPage(
+                    AssetFilter.NONE, AssetSort.VALUE, Sort.Direction.ASC, cursor, 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> assetService.getAssetPage(
+                    AssetFilter.NONE, AssetSort.ID, Sort.Direction.ASC, "not a cursor", 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    @Nested
+    @DisplayName("Batch operations")
+    class AssetBatchTests {
+
+        private AssetDTO update(Long id, String symbol, String quantity) {
+            AssetDTO dto = createAssetDTO(symbol, null);
+            dto.setId(id);
+            dto.setQuantity(new BigDecimal(quantity));
+            return dto;
+        }
+
+        @Test
+        @DisplayName("Given creates, updates and deletes when applyBatch then statements do not grow with the batch and prices are resolved once")
+        void givenMixedBatch_whenApplyBatch_thenBatchedStatementsAndOnePriceLookup() {
+            // GIVEN
+            Stock keep = stockRepository.save(Stock.builder()
+                    .symbol("MSFT").name("Microsoft").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("380.00"))
+                    .build());
+            Cash drop = cashRepository.save(Cash.builder()
+                    .symbol("USD").name("Checking").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("500.00"))
+                    .build());
+            List<AssetDTO> creates = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                creates.add(createAssetDTO("S" + i, i % 2 == 0 ? AssetType.STOCK : AssetType.CASH));
+            }
+            statementCounter.reset();
+
+            // WHEN
+            AssetBatchResult result = assetService.applyBatch(AssetBatchRequest.builder()
+                    .create(creates)
+                    .update(List.of(update(keep.getId(), "msft", "3")))
+                    .delete(List.of(drop.getId()))
+                    .build());
+            long statements = statementCounter.count();
+
+            // THEN one select, one insert per table and subtype, one update, one delete per table
+            // (plus an id block from the generator table, if needed) for 42 operations
+            assertThat(statements).isLessThanOrEqualTo(10);
+            verify(stockPriceService, times(1)).getCurrentPrices(any(String[].class));
+            assertThat(result.getCreated()).extracting(AssetDTO::getSymbol).startsWith("S0", "S1", "S2");
+            assertThat(result.getCreated()).allMatch(a -> a.getId() != null);
+            assertThat(result.getUpdated().get(0).getQuantity()).isEqualByComparingTo("3");
+            assertThat(result.getDeleted()).containsExactly(drop.getId());
+            assertThat(portfolioAssetRepository.count()).isEqualTo(41);
+            assertThat(cashRepository.findById(drop.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Given an unknown id in the batch when applyBatch then throw ResourceNotFoundException and write nothing")
+        void givenUnknownId_whenApplyBatch_thenNothingWritten() {
+            // GIVEN
+            AssetBatchRequest request = AssetBatchRequest.builder()
+                    .create(List.of(createAssetDTO("AAPL", AssetType.STOCK)))
+                    .delete(List.of(999_999L))
+                    .build();
+
+            // WHEN & THEN
+            assertThatThrownBy(() -> assetService.applyBatch(request))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("999999");
+            assertThat(portfolioAssetRepository.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Given invalid operations when applyBatch then throw IllegalArgumentException naming each of them")
+        void givenInvalidOperations_whenApplyBatch_thenThrow() {
+            // GIVEN
+            AssetDTO noSymbol = createAssetDTO(null, AssetType.STOCK);
+            AssetBatchRequest request = AssetBatchRequest.builder()
+                    .create(List.of(createAssetDTO("AAPL", AssetType.STOCK), noSymbol))
+                    .update(List.of(update(null, "MSFT", "1")))
+                    .delete(List.of(5L, 5L))
+                    .build();
+
+            // WHEN & THEN
+            assertThatThrownBy(() -> assetService.applyBatch(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("create[1]: Symbol is required")
+                    .hasMessageContaining("update[0]: Id is required")
+                    .hasMessageContaining("delete[1]: Asset 5 appears more than once");
+            assertThat(portfolioAssetRepository.count()).isZero();
+        }
+    
+        @Test
+        @DisplayName("Given an update naming another type when applyBatch then throw IllegalArgumentException and write nothing")
+        void givenTypeChange_whenApplyBatch_thenThrow() {
+            // GIVEN
+            Stock stock = stockRepository.save(Stock.builder()
+                    .symbol("MSFT").name("Microsoft").quantity(BigDecimal.ONE).buyPrice(new BigDecimal("380.00"))
+                    .build());
+            AssetDTO toBond = update(stock.getId(), "MSFT", "2");
+            toBond.setType(AssetType.BOND);
+            AssetBatchRequest request = AssetBatchRequest.builder()
+                    .create(List.of(createAssetDTO("AAPL", AssetType.STOCK)))
+                    .update(List.of(toBond))
+                    .build();
+
+            // WHEN & THEN
+            assertThatThrownBy(() -> assetService.applyBatch(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("update[0]: Asset " + stock.getId() + " is a STOCK and cannot become a BOND");
+            assertThat(portfolioAssetRepository.count()).isEqualTo(1);
+            assertThat(stockRepository.findById(stock.getId()).orElseThrow().getQuantity()).isEqualByComparingTo("1");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CostBasisMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CostBasisAccumulatorTest {
+
+    private static BigDecimal bd(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    @DisplayName("Given three lots when part is sold then FIFO, LIFO and average relieve different costs")
+    void givenThreeLots_whenSell_thenCostBasisPerMethod() {
+        // GIVEN
+        CostBasisAccumulator accumulator = new CostBasisAccumulator();
+        accumulator.buy(bd("10"), bd("100"));
+        accumulator.buy(bd("10"), bd("120"));
+        accumulator.buy(bd("10"), bd("140"));
+
+        // WHEN
+        accumulator.sell(bd("15"), bd("150"));
+
+        // THEN
+        assertThat(accumulator.getQuantity()).isEqualByComparingTo("15");
+        // FIFO sells 10 @100 + 5 @120; LIFO sells 10 @140 + 5 @120; average sells 15 @120
+        assertThat(accumulator.getCostBasis(CostBasisMethod.FIFO)).isEqualByComparingTo("2000");
+        assertThat(accumulator.getCostBasis(CostBasisMethod.LIFO)).isEqualByComparingTo("1600");
+        assertThat(accumulator.getCostBasis(CostBasisMethod.AVERAGE)).isEqualByComparingTo("1800");
+        assertThat(accumulator.getRealizedGain(CostBasisMethod.FIFO)).isEqualByComparingTo("650");
+        assertThat(accumulator.getRealizedGain(CostBasisMethod.LIFO)).isEqualByComparingTo("250");
+        assertThat(accumulator.getRealizedGain(CostBasisMethod.AVERAGE)).isEqualByComparingTo("450");
+        assertThat(accumulator.getOpenLotCount(CostBasisMethod.FIFO)).isEqualTo(2);
+        assertThat(accumulator.getOpenLotCount(CostBasisMethod.LIFO)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a closed position when everything is sold then no cost basis is left")
+    void givenPosition_whenSellAll_thenNoCostBasisLeft() {
+        // GIVEN
+        CostBasisAccumulator accumulator = new CostBasisAccumulator();
+        accumulator.buy(bd("3"), bd("10"));
+        accumulator.buy(bd("3"), bd("11"));
+        accumulator.sell(bd("1"), bd("12"));
+
+        // WHEN
+        accumulator.sell(bd("5"), bd("12"));
+        accumulator.dividend(bd("4.50"));
+
+        // THEN
+        assertThat(accumulator.getQuantity()).isEqualByComparingTo("0");
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            assertThat(accumulator.getCostBasis(method)).as(method.name()).isEqualByComparingTo("0");
+            assertThat(accumulator.getRealizedGain(method)).as(method.name()).isEqualByComparingTo("9");
+        }
+        assertThat(accumulator.getDividends()).isEqualByComparingTo("4.50");
+        assertThat(accumulator.getEventCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Given a position when more is sold than held then the sale is rejected and nothing changes")
+    void givenPosition_whenOversell_thenRejected() {
+        // GIVEN
+        CostBasisAccumulator accumulator = new CostBasisAccumulator();
+        accumulator.buy(bd("2"), bd("50"));
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> accumulator.sell(bd("3"), bd("60")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot sell 3 units; only 2 held");
+        assertThat(accumulator.getQuantity()).isEqualByComparingTo("2");
+        assertThat(accumulator.getCostBasis(CostBasisMethod.FIFO)).isEqualByComparingTo("100");
+        assertThat(accumulator.getEventCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CostBasisMethod;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of recording a trade against a ledger of {@code lots} buys:
+ * applying it to the kept accumulator (what LotLedgerService does) against
+ * replaying the whole history to recompute the cost basis.
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=CostBasisBenchmark
+ * Sizes can be overridden with -Dbenchmark.lots=1000,1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CostBasisBenchmark {
+
+    private static final BigDecimal ONE = BigDecimal.ONE;
+
+    @Param({"1000", "1000000"})
+    public int lots;
+
+    private List<BigDecimal> prices;
+    private CostBasisAccumulator accumulator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new ArrayList<>(lots);
+        accumulator = new CostBasisAccumulator();
+        for (int i = 0; i < lots; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            prices.add(price);
+            accumulator.buy(BigDecimal.TEN, price);
+        }
+    }
+
+    /**
+     * A buy then a sell of one unit, so the position size stays the same
+     * across invocations.
+     */
+    @Benchmark
+    public BigDecimal incremental() {
+        accumulator.buy(ONE, prices.get(0));
+        accumulator.sell(ONE, prices.get(1));
+        return accumulator.getCostBasis(CostBasisMethod.FIFO);
+    }
+
+    @Benchmark
+    public BigDecimal fullReplay() {
+        CostBasisAccumulator replayed = new CostBasisAccumulator();
+        for (BigDecimal price : prices) {
+            replayed.buy(BigDecimal.TEN, price);
+        }
+        replayed.buy(ONE, prices.get(0));
+        replayed.sell(ONE, prices.get(1));
+        return replayed.getCostBasis(CostBasisMethod.FIFO);
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CostBasisBenchmark.class.getSimpleName() + "\\.")
+                .param("lots", System.getProperty("benchmark.lots", "1000,1000000").split(","))
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvParserTest {
+
+    private static List<List<String>> parse(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvParser parser = new CsvParser(new StringReader(csv))) {
+            List<String> record;
+            while ((record = parser.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Given plain rows when parsed then fields are split on commas, keeping empty fields")
+    void givenPlainRows_whenParsed_thenSplit() throws IOException {
+        assertThat(parse("a,b,c\n1,,3\n,,\n")).containsExactly(
+                List.of("a", "b", "c"), List.of("1", "", "3"), List.of("", "", ""));
+    }
+
+    @Test
+    @DisplayName("Given quoted fields when parsed then commas, doubled quotes and line breaks are kept")
+    void givenQuotedFields_whenParsed_thenContentKept() throws IOException {
+        assertThat(parse("\"Apple, Inc.\",\"say \"\"hi\"\"\",\"two\nlines\"\nx,\"\",y")).containsExactly(
+                List.of("Apple, Inc.", "say \"hi\"", "two\nlines"), List.of("x", "", "y"));
+    }
+
+    @Test
+    @DisplayName("Given CRLF, blank lines and a BOM when parsed then they are handled and lines are tracked")
+    void givenCrlfAndBlankLines_whenParsed_thenLinesTracked() throws IOException {
+        try (CsvParser parser = new CsvParser(new StringReader("﻿h1,h2\r\n\r\n\"a\nb\",1\r\nc,2"))) {
+            assertThat(parser.next()).containsExactly("h1", "h2");
+            assertThat(parser.getRecordLine()).isEqualTo(1);
+            assertThat(parser.next()).containsExactly("a\nb", "1");
+            assertThat(parser.getRecordLine()).isEqualTo(3);
+            assertThat(parser.next()).containsExactly("c", "2");
+            assertThat(parser.getRecordLine()).isEqualTo(5);
+            assertThat(parser.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Given an unterminated quote when parsed then throw IllegalArgumentException")
+    void givenUnterminatedQuote_whenParsed_thenThrow() {
+        assertThatThrownBy(() -> parse("a,\"b\nc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 1");
+    }
+}
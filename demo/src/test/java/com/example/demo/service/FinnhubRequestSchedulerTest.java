@@ -0,0 +1,197 @@
+package com.example.demo.service;
+
+import com.example.demo.service.FinnhubRequestScheduler.Priority;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the scheduler against a local stub HTTP server that records when each
+ * request arrives.
+ */
+class FinnhubRequestSchedulerTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<Long> arrivals = new CopyOnWriteArrayList<>();
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private FinnhubRequestScheduler scheduler;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            arrivals.add(System.currentTimeMillis());
+            paths.add(exchange.getRequestURI().getPath());
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"c\":1.0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Given concurrent callers when requests exceed the budget then no window sees more than the limit")
+    void givenConcurrentLoad_whenBudgetExceeded_thenLimitNeverExceeded() throws Exception {
+        // GIVEN
+        int permits = 5;
+        long windowMillis = 400;
+        scheduler = start(permits, windowMillis, 1000, 10_000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // WHEN
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String url = baseUrl + "/quote/" + i;
+            results.add(callers.submit(() -> scheduler.get(url, Priority.QUOTE)));
+        }
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).contains("\"c\"");
+        }
+        callers.shutdownNow();
+
+        // THEN - allow a little loopback jitter on the server-side clock
+        List<Long> sorted = arrivals.stream().sorted().toList();
+        assertThat(sorted).hasSize(20);
+        for (int i = 0; i < sorted.size(); i++) {
+            long windowEnd = sorted.get(i) + windowMillis - 50;
+            long inWindow = sorted.subList(i, sorted.size()).stream().filter(t -> t < windowEnd).count();
+            assertThat(inWindow).as("requests starting within one window").isLessThanOrEqualTo(permits);
+        }
+        assertThat(sorted.get(sorted.size() - 1) - sorted.get(0)).isGreaterThanOrEqualTo(3 * (windowMillis - 50));
+    }
+
+    @Test
+    @DisplayName("Given duplicate requests in flight when submit then call the server once")
+    void givenDuplicateRequests_whenSubmit_thenCoalesce() throws Exception {
+        // GIVEN
+        gate = new CountDownLatch(1);
+        scheduler = start(10, 1000, 100, 10_000);
+        String url = baseUrl + "/quote/AAPL";
+
+        // WHEN
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(scheduler.submit(url, Priority.QUOTE));
+        }
+        gate.countDown();
+
+        // THEN
+        for (CompletableFuture<String> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).contains("\"c\"");
+        }
+        assertThat(arrivals).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given an exhausted budget when news and quotes are queued then quotes go first")
+    void givenExhaustedBudget_whenMixedPriorities_thenQuotesFirst() throws Exception {
+        // GIVEN - the only permit in the window is taken
+        scheduler = start(1, 300, 100, 10_000);
+        scheduler.submit(baseUrl + "/first", Priority.QUOTE).get(5, TimeUnit.SECONDS);
+
+        // WHEN
+        CompletableFuture<String> news = scheduler.submit(baseUrl + "/news", Priority.NEWS);
+        CompletableFuture<String> validation = scheduler.submit(baseUrl + "/validation", Priority.VALIDATION);
+        CompletableFuture<String> quote = scheduler.submit(baseUrl + "/quote", Priority.QUOTE);
+        CompletableFuture.allOf(news, validation, quote).get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertThat(paths).containsExactly("/first", "/quote", "/validation", "/news");
+    }
+
+    @Test
+    @DisplayName("Given a queued refresh behind a backlog when a quote joins it then it moves to the quote lane")
+    void givenQueuedRefresh_whenQuoteJoins_thenRaised() throws Exception {
+        // GIVEN - the only permit is taken and the refresh lane is backed up
+        scheduler = start(1, 200, 100, 10_000);
+        scheduler.submit(baseUrl + "/first", Priority.QUOTE).get(5, TimeUnit.SECONDS);
+        List<CompletableFuture<String>> backlog = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            backlog.add(scheduler.submit(baseUrl + "/refresh" + i, Priority.REFRESH));
+        }
+        CompletableFuture<String> refresh = scheduler.submit(baseUrl + "/aapl", Priority.REFRESH);
+        backlog.add(scheduler.submit(baseUrl + "/news", Priority.NEWS));
+        backlog.add(scheduler.submit(baseUrl + "/msft", Priority.REFRESH));
+
+        // WHEN
+        CompletableFuture<String> quote = scheduler.submit(baseUrl + "/aapl", Priority.QUOTE);
+        scheduler.prioritize(baseUrl + "/msft", Priority.VALIDATION);
+        scheduler.prioritize(baseUrl + "/news", Priority.REFRESH);
+        quote.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(backlog.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // THEN - one call, shared, ahead of everything queued before it
+        assertThat(quote).isSameAs(refresh);
+        assertThat(paths).containsExactly("/first", "/aapl", "/msft", "/news", "/refresh0", "/refresh1", "/refresh2");
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a full queue when submit then shed the request")
+    void givenFullQueue_whenSubmit_thenReject() throws Exception {
+        // GIVEN
+        scheduler = start(1, 5_000, 1, 10_000);
+        scheduler.submit(baseUrl + "/first", Priority.QUOTE).get(5, TimeUnit.SECONDS);
+        scheduler.submit(baseUrl + "/queued", Priority.QUOTE);
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> scheduler.get(baseUrl + "/shed", Priority.NEWS))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Given a request that waits past its deadline when dispatched then fail it without calling the server")
+    void givenExpiredRequest_whenDispatched_thenShed() throws Exception {
+        // GIVEN
+        scheduler = start(1, 2_000, 10, 100);
+        scheduler.submit(baseUrl + "/first", Priority.QUOTE).get(5, TimeUnit.SECONDS);
+
+        // WHEN
+        CompletableFuture<String> late = scheduler.submit(baseUrl + "/late", Priority.QUOTE);
+
+        // THEN
+        assertThatThrownBy(() -> late.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(paths).containsExactly("/first");
+    }
+
+    private FinnhubRequestScheduler start(int permits, long windowMillis, int queueCapacity, long maxWaitMillis) {
+        FinnhubRequestScheduler started =
+                new FinnhubRequestScheduler(permits, windowMillis, queueCapacity, maxWaitMillis, 4);
+        started.start();
+        return started;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointTest {
+
+    @Test
+    @DisplayName("Given random amounts when multiplied and divided then results equal BigDecimal HALF_UP arithmetic")
+    void givenRandomAmounts_whenComputed_thenMatchBigDecimal() {
+        // GIVEN: quantities (19,4) and prices (19,2) of either sign, including products over 64 bits
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(random.nextLong() % 100_000_000_000L, 4);
+            BigDecimal price = BigDecimal.valueOf(random.nextLong() % 1_000_000_000L, 2);
+            BigDecimal cost = BigDecimal.valueOf(Math.abs(random.nextLong() % 1_000_000_000_000L) + 1, 4);
+
+            // WHEN
+            long value = FixedPoint.multiply(FixedPoint.of(quantity), FixedPoint.of(price));
+            long percentage = FixedPoint.percentage(value, FixedPoint.of(cost));
+
+            // THEN
+            BigDecimal expectedValue = quantity.multiply(price).setScale(4, RoundingMode.HALF_UP);
+            assertThat(FixedPoint.toBigDecimal(value)).isEqualTo(expectedValue);
+            assertThat(FixedPoint.toBigDecimal(percentage))
+                    .isEqualTo(expectedValue.divide(cost, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)));
+        }
+    }
+
+    @Test
+    @DisplayName("Given ties and extra decimals when rounded then HALF_UP rounds away from zero")
+    void givenTies_whenRounded_thenHalfUp() {
+        assertThat(FixedPoint.of(new BigDecimal("1.23445"))).isEqualTo(12_345);
+        assertThat(FixedPoint.of(new BigDecimal("-1.23445"))).isEqualTo(-12_345);
+        assertThat(FixedPoint.of(new BigDecimal("1.234449"))).isEqualTo(12_344);
+        assertThat(FixedPoint.of(null)).isZero();
+        // 0.0001 x 0.5 = 0.00005 -> 0.0001
+        assertThat(FixedPoint.multiply(1, 5_000)).isEqualTo(1);
+        assertThat(FixedPoint.multiply(-1, 5_000)).isEqualTo(-1);
+        assertThat(FixedPoint.multiply(1, 4_999)).isZero();
+        assertThat(FixedPoint.divide(FixedPoint.ONE, 3 * FixedPoint.ONE)).isEqualTo(3_333);
+        assertThat(FixedPoint.divide(-2 * FixedPoint.ONE, 3 * FixedPoint.ONE)).isEqualTo(-6_667);
+        assertThat(FixedPoint.toBigDecimal(FixedPoint.percentage(1, 8))).isEqualTo(new BigDecimal("12.5000"));
+    }
+
+    @Test
+    @DisplayName("Given a price below 0.0001 when valued then the value keeps it instead of rounding it to 0")
+    void givenSubBasisPointPrice_whenValueAt_thenKept() {
+        // GIVEN: 50 million tokens at 0.00001234
+        long quantity = FixedPoint.of(new BigDecimal("50000000"));
+        long price = FixedPoint.ofPrice(new BigDecimal("0.00001234"));
+
+        // WHEN
+        long value = FixedPoint.valueAt(quantity, price);
+
+        // THEN
+        assertThat(FixedPoint.of(new BigDecimal("0.00001234"))).isZero();
+        assertThat(FixedPoint.priceToBigDecimal(price)).isEqualByComparingTo("0.00001234");
+        assertThat(FixedPoint.toBigDecimal(value)).isEqualByComparingTo("617.0000");
+        assertThat(FixedPoint.valueAt(FixedPoint.of(new BigDecimal("3")), FixedPoint.ofPrice(new BigDecimal("0.000000005"))))
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Given results beyond a long when computed then an ArithmeticException is thrown")
+    void givenOverflow_whenComputed_thenThrow() {
+        assertThatThrownBy(() -> FixedPoint.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.subtract(Long.MIN_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.multiply(Long.MAX_VALUE / 2, 3 * FixedPoint.ONE)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.of(new BigDecimal("1e16"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> FixedPoint.divide(1, 0)).isInstanceOf(ArithmeticException.class);
+        // The 128-bit intermediate keeps a large but representable result exact
+        assertThat(FixedPoint.multiply(Long.MAX_VALUE / 2, FixedPoint.ONE)).isEqualTo(Long.MAX_VALUE / 2);
+    }
+}
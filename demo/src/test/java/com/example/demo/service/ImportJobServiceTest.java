@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportJobDTO;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "portfolio.import.chunk-size=2"
+})
+@Import({AssetImportService.class, ImportJobService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportJobServiceTest {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @AfterEach
+    void cleanUp() {
+        portfolioAssetRepository.deleteAll();
+    }
+
+    private ImportJobDTO submit(String csv) throws IOException {
+        return importJobService.submit("assets.csv", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ImportJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportJobDTO job = importJobService.getJob(id);
+        while ((job.getStatus() == ImportJobDTO.Status.QUEUED || job.getStatus() == ImportJobDTO.Status.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = importJobService.getJob(id);
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("Given a CSV upload when submit then the job runs in the background and reports its progress")
+    void givenCsv_whenSubmit_thenJobCompletes() throws Exception {
+        // GIVEN
+        String csv = """
+                symbol,name,type,quantity,buyPrice
+                AAPL,Apple,STOCK,10,150.00
+                XYZ,Unknown,WIDGET,1,1.00
+                BND,Bond fund,BOND,5,72.50
+                """;
+
+        // WHEN
+        ImportJobDTO queued = submit(csv);
+        ImportJobDTO job = awaitFinished(queued.getId());
+
+        // THEN
+        assertThat(job.getStatus()).isEqualTo(ImportJobDTO.Status.COMPLETED);
+        assertThat(job.getCommittedRows()).isEqualTo(3);
+        assertThat(job.getProgress().getImported()).isEqualTo(2);
+        assertThat(job.getProgress().getRejected()).isEqualTo(1);
+        assertThat(portfolioAssetRepository.findAllBaseViews()).extracting(AssetBaseView::getSymbol)
+                .containsExactlyInAnyOrder("AAPL", "BND");
+
+        assertThatThrownBy(() -> importJobService.resume(job.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Given a CSV without a required column when submit then the job fails with the reason")
+    void givenBadHeader_whenSubmit_thenJobFails() throws Exception {
+        // WHEN
+        ImportJobDTO job = awaitFinished(submit("symbol,name\nAAPL,Apple\n").getId());
+
+        // THEN
+        assertThat(job.getStatus()).isEqualTo(ImportJobDTO.Status.FAILED);
+        assertThat(job.getError()).contains("type", "quantity", "buyprice");
+        assertThat(job.getStatus().isResumable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given an unknown job id when getJob then throw ResourceNotFoundException")
+    void givenUnknownId_whenGetJob_thenThrow() {
+        assertThatThrownBy(() -> importJobService.getJob("nope"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
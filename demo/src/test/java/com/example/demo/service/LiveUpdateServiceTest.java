@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LiveUpdateDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveUpdateServiceTest {
+
+    private PortfolioAggregates portfolioAggregates;
+    private PriceCache priceCache;
+    private LiveUpdateService liveUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioAggregates = mock(PortfolioAggregates.class);
+        priceCache = mock(PriceCache.class);
+        when(portfolioAggregates.snapshot()).thenReturn(Map.of(
+                AssetType.STOCK, new TypeTotals(2, new BigDecimal("3000.00"), new BigDecimal("4500.00")),
+                AssetType.CASH, new TypeTotals(1, new BigDecimal("1500.00"), new BigDecimal("1500.00"))));
+        when(priceCache.getIfPresent("MSFT")).thenReturn(new BigDecimal("120"));
+        liveUpdateService = new LiveUpdateService(portfolioAggregates, priceCache, 10, 50, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveUpdateService.shutdown();
+    }
+
+    /**
+     * Records the updates sent to it; with a gate, every send blocks until the gate opens.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<LiveUpdateDTO> updates = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .filter(part -> part.getData() instanceof LiveUpdateDTO)
+                    .forEach(part -> updates.add((LiveUpdateDTO) part.getData()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    // Flush until the emitter has received count updates, as the scheduler would
+    private void flushUntil(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (emitter.updates.size() < count && System.currentTimeMillis() < deadline) {
+            liveUpdateService.flush();
+            Thread.sleep(10);
+        }
+        assertThat(emitter.updates).hasSize(count);
+    }
+
+    private static AssetBaseView asset(long id, String symbol) {
+        return AssetBaseView.builder()
+                .id(id)
+                .type(AssetType.STOCK)
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(new BigDecimal("10"))
+                .buyPrice(new BigDecimal("100"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given many changes between flushes when flush then the client gets one coalesced update")
+    void givenManyChanges_whenFlush_thenOneCoalescedUpdate() throws InterruptedException {
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        liveUpdateService.register(emitter);
+        flushUntil(emitter, 1);
+
+        liveUpdateService.onPriceUpdated(new PriceUpdatedEvent("AAPL", new BigDecimal("150"), new BigDecimal("151")));
+        liveUpdateService.onPriceUpdated(new PriceUpdatedEvent("AAPL", new BigDecimal("151"), new BigDecimal("152")));
+        liveUpdateService.onAssetChanged(AssetChangedEvent.created(asset(7, "MSFT")));
+        liveUpdateService.onAssetChanged(AssetChangedEvent.deleted(asset(3, "IBM")));
+
+        // WHEN
+        flushUntil(emitter, 2);
+
+        // THEN
+        LiveUpdateDTO initial = emitter.updates.get(0);
+        assertThat(initial.getSequence()).isEqualTo(1);
+        assertThat(initial.getPrices()).isNull();
+        assertThat(initial.getTotalValue()).isEqualByComparingTo("6000.00");
+        assertThat(initial.getAllocationByType()).containsEntry("STOCK", new BigDecimal("75.0000"));
+
+        LiveUpdateDTO update = emitter.updates.get(1);
+        assertThat(update.getSequence()).isEqualTo(2);
+        assertThat(update.getPrices()).containsExactly(Map.entry("AAPL", new BigDecimal("152")));
+        assertThat(update.getAssets()).singleElement().satisfies(asset -> {
+            assertThat(asset.getId()).isEqualTo(7);
+            assertThat(asset.getCurrentValue()).isEqualByComparingTo("1200");
+        });
+        assertThat(update.getRemovedAssetIds()).containsExactly(3L);
+        assertThat(update.getTotalGainLoss()).isEqualByComparingTo("1500.00");
+
+        // Nothing changed since: no further update
+        liveUpdateService.flush();
+        Thread.sleep(50);
+        assertThat(emitter.updates).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Given a client stuck writing when flush then it is dropped and the others keep receiving")
+    void givenStuckClient_whenFlush_thenDroppedOthersKeepReceiving() throws InterruptedException {
+        // GIVEN
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(gate);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        liveUpdateService.register(slow);
+        liveUpdateService.register(fast);
+        flushUntil(fast, 1);
+        Thread.sleep(100); // past max-lag with the slow client's first update still blocked
+
+        // WHEN
+        liveUpdateService.onPriceUpdated(new PriceUpdatedEvent("AAPL", null, new BigDecimal("152")));
+        flushUntil(fast, 2);
+
+        // THEN
+        assertThat(liveUpdateService.getClientCount()).isEqualTo(1);
+        assertThat(slow.completed.getCount()).isEqualTo(1);
+
+        // The stuck write completes the dropped stream once it returns
+        gate.countDown();
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.updates).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given as many stuck clients as sender threads when flush then they are dropped and a healthy client still receives")
+    void givenStuckClientsFillingSenders_whenFlush_thenHealthyClientReceives() throws InterruptedException {
+        // GIVEN - both sender threads block on the first two clients; the third client's write waits in the queue
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter stuck1 = new RecordingEmitter(gate);
+        RecordingEmitter stuck2 = new RecordingEmitter(gate);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        liveUpdateService.register(stuck1);
+        liveUpdateService.register(stuck2);
+        liveUpdateService.register(healthy);
+
+        // WHEN
+        flushUntil(healthy, 1);
+        liveUpdateService.onPriceUpdated(new PriceUpdatedEvent("AAPL", null, new BigDecimal("152")));
+        flushUntil(healthy, 2);
+
+        // THEN - waiting for a thread did not count as lag; the stuck writes did
+        assertThat(liveUpdateService.getClientCount()).isEqualTo(1);
+        gate.countDown();
+        assertThat(stuck1.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stuck2.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        liveUpdateService.onPriceUpdated(new PriceUpdatedEvent("AAPL", null, new BigDecimal("153")));
+        flushUntil(healthy, 3);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.LotEventDTO;
+import com.example.demo.dto.PositionDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.BaseAsset;
+import com.example.demo.entity.CostBasisMethod;
+import com.example.demo.entity.LotEventType;
+import com.example.demo.entity.Stock;
+import com.example.demo.repository.LotEventRepository;
+import com.example.demo.repository.PortfolioAssetRepository;
+import com.example.demo.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "portfolio.ledger.cost-basis-method=FIFO"
+})
+@Import({LotLedgerService.class, AssetServiceImpl.class, AssetSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LotLedgerServiceTest {
+
+    @Autowired
+    private LotLedgerService lotLedgerService;
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PortfolioAssetRepository portfolioAssetRepository;
+
+    @Autowired
+    private LotEventRepository lotEventRepository;
+
+    @MockBean
+    private StockPriceService stockPriceService;
+
+    @AfterEach
+    void cleanUp() {
+        lotEventRepository.deleteAll();
+        portfolioAssetRepository.deleteAll();
+    }
+
+    private Long saveStock(String quantity, String buyPrice) {
+        Stock stock = new Stock();
+        stock.setSymbol("AAPL");
+        stock.setName("Apple Inc.");
+        stock.setQuantity(new BigDecimal(quantity));
+        stock.setBuyPrice(new BigDecimal(buyPrice));
+        stock.setPurchaseDate(LocalDate.of(2024, 1, 15));
+        return stockRepository.save(stock).getId();
+    }
+
+    private static LotEventDTO trade(LotEventType type, String quantity, String price) {
+        return LotEventDTO.builder().type(type).quantity(new BigDecimal(quantity)).price(new BigDecimal(price)).build();
+    }
+
+    @Test
+    @DisplayName("Given an asset without entries when a buy and a sell are recorded then the holding is the opening lot plus the ledger")
+    void givenAsset_whenRecordBuyAndSell_thenAssetFollowsLedger() {
+        // GIVEN
+        Long id = saveStock("10", "100.00");
+
+        // WHEN
+        lotLedgerService.record(id, trade(LotEventType.BUY, "10", "120"));
+        PositionDTO position = lotLedgerService.record(id, trade(LotEventType.SELL, "15", "150"));
+
+        // THEN
+        assertThat(position.getQuantity()).isEqualByComparingTo("5");
+        assertThat(position.getLedgerEntries()).isEqualTo(3);
+        assertThat(position.getCostBasis().get(CostBasisMethod.FIFO)).isEqualByComparingTo("600");
+        assertThat(position.getCostBasis().get(CostBasisMethod.LIFO)).isEqualByComparingTo("500");
+        assertThat(position.getRealizedGain().get(CostBasisMethod.FIFO)).isEqualByComparingTo("650");
+        assertThat(lotLedgerService.getEntries(id, null, 10))
+                .extracting(LotEventDTO::getType)
+                .containsExactly(LotEventType.BUY, LotEventType.BUY, LotEventType.SELL);
+
+        BaseAsset asset = portfolioAssetRepository.findById(id).orElseThrow();
+        assertThat(asset.getQuantity()).isEqualByComparingTo("5");
+        assertThat(asset.getLedgerCostBasis()).isEqualByComparingTo("600");
+        assertThat(asset.getCostBasis()).isEqualByComparingTo("600");
+        assertThat(asset.getBuyPrice()).isEqualByComparingTo("120.00");
+        assertThat(portfolioAssetRepository.calculateTotalCostBasis()).isEqualByComparingTo("600");
+    }
+
+    @Test
+    @DisplayName("Given a ledger when more is sold than held then nothing is recorded")
+    void givenLedger_whenOversell_thenNothingRecorded() {
+        // GIVEN
+        Long id = saveStock("2", "50.00");
+        lotLedgerService.record(id, trade(LotEventType.BUY, "1", "60"));
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> lotLedgerService.record(id, trade(LotEventType.SELL, "4", "70")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot sell 4 units; only 3 held");
+        assertThat(lotLedgerService.getPosition(id).getQuantity()).isEqualByComparingTo("3");
+        assertThat(lotEventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a position closed through the ledger when it is updated with quantity 0 then the update is accepted")
+    void givenClosedPosition_whenUpdateWithZeroQuantity_thenAccepted() {
+        // GIVEN
+        Long id = saveStock("2", "50.00");
+        lotLedgerService.record(id, trade(LotEventType.SELL, "2", "60"));
+        AssetDTO update = AssetDTO.builder()
+                .symbol("AAPL").name("Apple (closed)").type(AssetType.STOCK)
+                .quantity(BigDecimal.ZERO).buyPrice(new BigDecimal("50.00"))
+                .build();
+
+        // WHEN
+        AssetDTO updated = assetService.updateAsset(id, update);
+
+        // THEN
+        assertThat(updated.getName()).isEqualTo("Apple (closed)");
+        assertThat(updated.getQuantity()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Given an asset without a ledger when it is updated with quantity 0 then the update is rejected")
+    void givenNoLedger_whenUpdateWithZeroQuantity_thenRejected() {
+        // GIVEN
+        Long id = saveStock("2", "50.00");
+        AssetDTO update = AssetDTO.builder()
+                .symbol("AAPL").name("Apple").type(AssetType.STOCK)
+                .quantity(BigDecimal.ZERO).buyPrice(new BigDecimal("50.00"))
+                .build();
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> assetService.updateAsset(id, update))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Quantity must be greater than 0");
+    }
+
+    @Test
+    @DisplayName("Given an asset with a ledger when its quantity is edited directly then the update is rejected")
+    void givenLedger_whenUpdateQuantity_thenRejected() {
+        // GIVEN
+        Long id = saveStock("2", "50.00");
+        lotLedgerService.record(id, trade(LotEventType.BUY, "2", "50"));
+        AssetDTO update = AssetDTO.builder()
+                .symbol("AAPL").name("Apple").type(AssetType.STOCK)
+                .quantity(new BigDecimal("10")).buyPrice(new BigDecimal("50.00"))
+                .build();
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> assetService.updateAsset(id, update))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("has a lot ledger");
+        update.setQuantity(new BigDecimal("4"));
+        assertThat(assetService.updateAsset(id, update).getName()).isEqualTo("Apple");
+    }
+
+    @Test
+    @DisplayName("Given an asset with a ledger when it is deleted then its ledger goes with it")
+    void givenLedger_whenAssetDeleted_thenLedgerDeleted() {
+        // GIVEN
+        Long id = saveStock("2", "50.00");
+        lotLedgerService.record(id, LotEventDTO.builder().type(LotEventType.DIVIDEND).amount(new BigDecimal("1.25")).build());
+
+        // WHEN
+        assetService.deleteAsset(id);
+
+        // THEN
+        assertThat(lotEventRepository.count()).isZero();
+    }
+}
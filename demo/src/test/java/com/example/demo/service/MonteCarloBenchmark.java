@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of the Monte Carlo engine in paths per second, for a
+ * portfolio of {@code types} asset types projected 1, 5 and 10 years ahead,
+ * on the common fork/join pool and on the calling thread.
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=MonteCarloBenchmark
+ * Sizes can be overridden with -Dbenchmark.types=1,7
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MonteCarloBenchmark {
+
+    private static final int PATHS = 8 * MonteCarloEngine.CHUNK_PATHS;
+    private static final int[] HORIZONS = {1, 5, 10};
+
+    @Param({"1", "7"})
+    public int types;
+
+    private MonteCarloEngine engine;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] values = new double[types];
+        double[] drifts = new double[types];
+        double[] volatilities = new double[types];
+        for (int i = 0; i < types; i++) {
+            values[i] = 1000 * (i + 1);
+            drifts[i] = 0.02 + 0.01 * i;
+            volatilities[i] = 0.05 + 0.1 * i;
+        }
+        engine = new MonteCarloEngine(values, drifts, volatilities, HORIZONS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public MonteCarloEngine.Result forkJoin() {
+        return engine.run(PATHS, seed++, ForkJoinPool.commonPool(), n -> { }, () -> false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public MonteCarloEngine.Result singleThread() {
+        return engine.run(PATHS, seed++, null, n -> { }, () -> false);
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MonteCarloBenchmark.class.getSimpleName() + "\\.")
+                .param("types", System.getProperty("benchmark.types", "1,7").split(","))
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
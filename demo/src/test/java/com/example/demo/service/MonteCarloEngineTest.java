@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class MonteCarloEngineTest {
+
+    private static final int[] HORIZONS = {1, 5};
+
+    @Test
+    @DisplayName("Given one lognormal component when run then mean, median, 95th percentile and loss probability match the closed form")
+    void givenOneComponent_whenRun_thenMatchesClosedForm() {
+        // GIVEN: 7% drift, 20% volatility; log growth after one year ~ N(ln 1.07 - 0.02, 0.2)
+        MonteCarloEngine engine = new MonteCarloEngine(new double[]{1000}, new double[]{0.07}, new double[]{0.2}, HORIZONS);
+        AtomicLong done = new AtomicLong();
+
+        // WHEN
+        MonteCarloEngine.Result result = engine.run(200_000, 7, ForkJoinPool.commonPool(), done::addAndGet, () -> false);
+
+        // THEN
+        double mu = Math.log(1.07) - 0.02;
+        assertThat(done.get()).isEqualTo(200_000);
+        assertThat(result.mean(0)).isCloseTo(1.07, within(0.003));
+        assertThat(result.mean(1)).isCloseTo(Math.pow(1.07, 5), within(0.02));
+        assertThat(result.percentile(0, 0.5)).isCloseTo(Math.exp(mu), within(0.005));
+        assertThat(result.percentile(0, 0.95)).isCloseTo(Math.exp(mu + 1.6448536 * 0.2), within(0.01));
+        // P(log growth < 0) = P(Z < -mu / 0.2)
+        assertThat(result.probabilityOfLoss(0)).isCloseTo(0.4058, within(0.005));
+    }
+
+    @Test
+    @DisplayName("Given the same seed when run on the pool or inline then the results are identical")
+    void givenSameSeed_whenRunParallelOrInline_thenIdentical() {
+        // GIVEN: a mixed portfolio and a path count that leaves a partial last chunk
+        MonteCarloEngine engine = new MonteCarloEngine(new double[]{6000, 3000, 1000, 0},
+                new double[]{0.07, 0.035, 0.15, 0.05}, new double[]{0.18, 0.06, 0.7, 0.12}, HORIZONS);
+        long paths = 5 * MonteCarloEngine.CHUNK_PATHS + 123;
+
+        // WHEN
+        MonteCarloEngine.Result parallel = engine.run(paths, 42, ForkJoinPool.commonPool(), n -> { }, () -> false);
+        MonteCarloEngine.Result inline = engine.run(paths, 42, null, n -> { }, () -> false);
+        MonteCarloEngine.Result otherSeed = engine.run(paths, 43, null, n -> { }, () -> false);
+
+        // THEN
+        for (int h = 0; h < HORIZONS.length; h++) {
+            assertThat(parallel.mean(h)).isEqualTo(inline.mean(h));
+            assertThat(parallel.probabilityOfLoss(h)).isEqualTo(inline.probabilityOfLoss(h));
+            for (double q : new double[]{0.05, 0.5, 0.95}) {
+                assertThat(parallel.percentile(h, q)).isEqualTo(inline.percentile(h, q));
+            }
+        }
+        assertThat(otherSeed.mean(1)).isNotEqualTo(inline.mean(1));
+    }
+
+    @Test
+    @DisplayName("Given a cancelled run or an empty portfolio when run then it is refused")
+    void givenCancelledOrEmpty_whenRun_thenRefused() {
+        MonteCarloEngine engine = new MonteCarloEngine(new double[]{1000}, new double[]{0.07}, new double[]{0.2}, HORIZONS);
+
+        assertThatThrownBy(() -> engine.run(100_000, 1, null, n -> { }, () -> true))
+                .isInstanceOf(CancellationException.class);
+        assertThatThrownBy(() -> new MonteCarloEngine(new double[]{0}, new double[]{0.07}, new double[]{0.2}, HORIZONS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no value");
+        assertThatThrownBy(() -> new MonteCarloEngine(new double[]{1000}, new double[]{0.07}, new double[]{0.2}, new int[]{5, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.dto.MoversDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoversRankingTest {
+
+    private PortfolioAssetRepository repository;
+    private PriceCache priceCache;
+    private MoversRanking ranking;
+
+    private static AssetBaseView asset(long id, AssetType type, String symbol, String buyPrice) {
+        return AssetBaseView.builder()
+                .id(id)
+                .type(type)
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(BigDecimal.TEN)
+                .buyPrice(new BigDecimal(buyPrice))
+                .build();
+    }
+
+    private static List<String> symbols(List<AssetDTO> assets) {
+        return assets.stream().map(AssetDTO::getSymbol).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PortfolioAssetRepository.class);
+        priceCache = mock(PriceCache.class);
+        when(repository.findAllBaseViews()).thenReturn(List.of(
+                asset(1, AssetType.STOCK, "AAPL", "100"),
+                asset(2, AssetType.STOCK, "MSFT", "100"),
+                asset(3, AssetType.ETF, "SPY", "100"),
+                asset(4, AssetType.CRYPTO, "BTC-USD", "100"),
+                asset(5, AssetType.CASH, "USD", "1")));
+        when(priceCache.getIfPresent("AAPL")).thenReturn(new BigDecimal("150"));
+        when(priceCache.getIfPresent("MSFT")).thenReturn(new BigDecimal("120"));
+        when(priceCache.getIfPresent("SPY")).thenReturn(new BigDecimal("90"));
+        ranking = new MoversRanking(repository, priceCache);
+    }
+
+    @Test
+    @DisplayName("Given priced positions when top then gainers and losers are split and ordered")
+    void givenPricedPositions_whenTop_thenOrderedMovers() {
+        // WHEN
+        MoversDTO movers = ranking.top(5);
+
+        // THEN - BTC-USD has no price yet and cash never moves
+        assertThat(symbols(movers.getTopGainers())).containsExactly("AAPL", "MSFT");
+        assertThat(symbols(movers.getTopLosers())).containsExactly("SPY");
+        AssetDTO best = movers.getTopGainers().get(0);
+        assertThat(best.getCurrentValue()).isEqualByComparingTo("1500");
+        assertThat(best.getGainLossPercentage()).isEqualByComparingTo("50");
+    }
+
+    @Test
+    @DisplayName("Given k smaller than the movers when top then return only k of each")
+    void givenSmallK_whenTop_thenBounded() {
+        assertThat(symbols(ranking.top(1).getTopGainers())).containsExactly("AAPL");
+    }
+
+    @Test
+    @DisplayName("Given price updates when applied then positions are re-ranked")
+    void givenPriceUpdates_whenApplied_thenReRanked() {
+        // GIVEN
+        ranking.top(5);
+
+        // WHEN
+        ranking.onPriceUpdated(new PriceUpdatedEvent("BTC-USD", null, new BigDecimal("300")));
+        ranking.onPriceUpdated(new PriceUpdatedEvent("AAPL", new BigDecimal("150"), new BigDecimal("50")));
+
+        // THEN
+        MoversDTO movers = ranking.top(5);
+        assertThat(symbols(movers.getTopGainers())).containsExactly("BTC-USD", "MSFT");
+        assertThat(symbols(movers.getTopLosers())).containsExactly("AAPL", "SPY");
+    }
+
+    @Test
+    @DisplayName("Given asset changes when applied then the ranking follows them")
+    void givenAssetChanges_whenApplied_thenRankingUpdated() {
+        // GIVEN
+        ranking.top(5);
+
+        // WHEN - MSFT bought higher turns into a loser, SPY is sold
+        ranking.onAssetChanged(AssetChangedEvent.updated(
+                asset(2, AssetType.STOCK, "MSFT", "100"), asset(2, AssetType.STOCK, "MSFT", "200")));
+        ranking.onAssetChanged(AssetChangedEvent.deleted(asset(3, AssetType.ETF, "SPY", "100")));
+
+        // THEN
+        MoversDTO movers = ranking.top(5);
+        assertThat(symbols(movers.getTopGainers())).containsExactly("AAPL");
+        assertThat(symbols(movers.getTopLosers())).containsExactly("MSFT");
+    }
+
+    @Test
+    @DisplayName("Given a change committed while the ranking loads when top then the change is not lost")
+    void givenChangeDuringLoad_whenTop_thenNotLost() {
+        // GIVEN - the first load reads the table just before MSFT is repriced into a loser
+        List<AssetBaseView> seed = List.of(asset(1, AssetType.STOCK, "AAPL", "100"),
+                asset(2, AssetType.STOCK, "MSFT", "100"));
+        AssetChangedEvent updated = AssetChangedEvent.updated(
+                asset(2, AssetType.STOCK, "MSFT", "100"), asset(2, AssetType.STOCK, "MSFT", "200"));
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findAllBaseViews()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                ranking.beforeAssetCommit(updated);
+                ranking.onAssetChanged(updated);
+                ranking.afterAssetCompletion(updated);
+                return seed;
+            }
+            return List.of(seed.get(0), updated.after());
+        });
+
+        // WHEN
+        MoversDTO movers = ranking.top(5);
+
+        // THEN
+        assertThat(symbols(movers.getTopLosers())).containsExactly("MSFT");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Given a random list when selected with a bounded heap then it matches a full sort")
+    void givenRandomList_whenTopK_thenMatchesSort() {
+        // GIVEN
+        Random random = new Random(7);
+        List<Integer> values = IntStream.range(0, 10_000).map(i -> random.nextInt(1_000_000)).boxed().toList();
+
+        // WHEN
+        List<Integer> top = values.parallelStream().collect(TopK.greatest(20, Integer::compare));
+
+        // THEN
+        assertThat(top).isEqualTo(values.stream().sorted((a, b) -> b - a).limit(20).toList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.entity.AssetType;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH comparison of performance-by-type over an enriched asset list: the
+ * previous 7 types x 3 passes loop against a single pass into the accumulator.
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=PerformanceByTypeBenchmark
+ * Sizes can be overridden with -Dbenchmark.assets=1000,100000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PerformanceByTypeBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int assets;
+
+    private List<AssetDTO> portfolio;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        AssetType[] types = AssetType.values();
+        portfolio = new ArrayList<>(assets);
+        for (int i = 0; i < assets; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(1000));
+            BigDecimal buyPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            BigDecimal currentPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            portfolio.add(AssetDTO.builder()
+                    .id((long) i)
+                    .symbol("SYM" + i)
+                    .type(types[i % types.length])
+                    .quantity(quantity)
+                    .buyPrice(buyPrice)
+                    .costBasis(quantity.multiply(buyPrice))
+                    .currentPrice(currentPrice)
+                    .currentValue(quantity.multiply(currentPrice))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> sevenTypePasses() {
+        Map<String, Map<String, BigDecimal>> performanceByType = new HashMap<>();
+
+        for (AssetType type : AssetType.values()) {
+            List<AssetDTO> assetsOfType = portfolio.stream()
+                    .filter(a -> a.getType() == type)
+                    .collect(Collectors.toList());
+
+            if (!assetsOfType.isEmpty()) {
+                BigDecimal totalValue = assetsOfType.stream()
+                        .map(a -> a.getCurrentValue() != null ? a.getCurrentValue() : BigDecimal.ZERO)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+                BigDecimal totalCost = assetsOfType.stream()
+                        .map(a -> a.getCostBasis() != null ? a.getCostBasis() : BigDecimal.ZERO)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+                BigDecimal gainLoss = totalValue.subtract(totalCost);
+
+                Map<String, BigDecimal> typePerformance = new HashMap<>();
+                typePerformance.put("value", totalValue);
+                typePerformance.put("cost", totalCost);
+                typePerformance.put("gainLoss", gainLoss);
+
+                if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
+                    typePerformance.put("percentage", gainLoss
+                            .divide(totalCost, 4, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(100)));
+                }
+
+                performanceByType.put(type.name(), typePerformance);
+            }
+        }
+
+        return performanceByType;
+    }
+
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> singlePass() {
+        TypeTotalsAccumulator totals = new TypeTotalsAccumulator();
+        for (AssetDTO asset : portfolio) {
+            totals.add(asset.getType(), 1, asset.getCostBasis(), asset.getCurrentValue());
+        }
+        return PortfolioService.performanceByType(totals.toMap());
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PerformanceByTypeBenchmark.class.getSimpleName() + "\\.")
+                .param("assets", System.getProperty("benchmark.assets", "1000,100000,1000000").split(","))
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
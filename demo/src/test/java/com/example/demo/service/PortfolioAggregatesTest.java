@@ -0,0 +1,199 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.event.PriceUpdatedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.AssetGroupTotals;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioAggregatesTest {
+
+    private static final List<AssetBaseView> SEED = List.of(
+            asset(1, AssetType.STOCK, "AAPL", "10", "150"),
+            asset(2, AssetType.STOCK, "MSFT", "5", "300"),
+            asset(3, AssetType.BOND, "T-2030", "10", "95"),
+            asset(4, AssetType.CASH, "USD", "1000", "1"));
+
+    private PortfolioAssetRepository repository;
+    private PriceCache priceCache;
+    private PortfolioAggregates aggregates;
+
+    private static AssetBaseView asset(long id, AssetType type, String symbol, String quantity, String buyPrice) {
+        return AssetBaseView.builder()
+                .id(id)
+                .type(type)
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(new BigDecimal(quantity))
+                .buyPrice(new BigDecimal(buyPrice))
+                .build();
+    }
+
+    /**
+     * What the GROUP BY in findGroupTotals() returns for these assets.
+     */
+    private static List<AssetGroupTotals> groupTotals(Collection<AssetBaseView> assets) {
+        Map<List<Object>, AssetGroupTotals> groups = new LinkedHashMap<>();
+        for (AssetBaseView asset : assets) {
+            String key = asset.getType().isTradeable() ? asset.getSymbol().toUpperCase().trim() : "";
+            groups.merge(List.of(asset.getType(), key),
+                    new AssetGroupTotals(asset.getType(), key, 1, asset.getQuantity(), asset.getCostBasis()),
+                    (a, b) -> new AssetGroupTotals(a.getType(), a.getSymbol(), a.getCount() + b.getCount(),
+                            a.getQuantity().add(b.getQuantity()), a.getCostBasis().add(b.getCostBasis())));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PortfolioAssetRepository.class);
+        priceCache = mock(PriceCache.class);
+        when(priceCache.getIfPresent("AAPL")).thenReturn(new BigDecimal("200"));
+        when(repository.findGroupTotals()).thenReturn(groupTotals(SEED));
+        aggregates = new PortfolioAggregates(repository, priceCache);
+    }
+
+    @Test
+    @DisplayName("Given seeded assets when snapshot then value priced symbols at market and the rest at cost")
+    void givenSeededAssets_whenSnapshot_thenTotalsPerType() {
+        // WHEN
+        Map<AssetType, TypeTotals> snapshot = aggregates.snapshot();
+
+        // THEN - AAPL 10 x 200, MSFT has no quote yet so it stays at cost
+        assertThat(snapshot).containsOnlyKeys(AssetType.STOCK, AssetType.BOND, AssetType.CASH);
+        TypeTotals stocks = snapshot.get(AssetType.STOCK);
+        assertThat(stocks.count()).isEqualTo(2);
+        assertThat(stocks.costBasis()).isEqualByComparingTo("3000");
+        assertThat(stocks.value()).isEqualByComparingTo("3500");
+        assertThat(stocks.gainLossPercentage()).isEqualByComparingTo("16.6700");
+        assertThat(snapshot.get(AssetType.BOND).value()).isEqualByComparingTo("950");
+    }
+
+    @Test
+    @DisplayName("Given a price update when applied then only groups holding the symbol are revalued")
+    void givenPriceUpdate_whenApplied_thenRevalueHoldingGroups() {
+        // GIVEN
+        aggregates.snapshot();
+
+        // WHEN
+        aggregates.onPriceUpdated(new PriceUpdatedEvent("MSFT", null, new BigDecimal("400")));
+        aggregates.onPriceUpdated(new PriceUpdatedEvent("AAPL", new BigDecimal("200"), new BigDecimal("180")));
+        aggregates.onPriceUpdated(new PriceUpdatedEvent("NVDA", null, new BigDecimal("900")));
+
+        // THEN
+        Map<AssetType, TypeTotals> snapshot = aggregates.snapshot();
+        assertThat(snapshot.get(AssetType.STOCK).value()).isEqualByComparingTo("3800");
+        assertThat(snapshot.get(AssetType.CASH).value()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("Given asset changes when applied then totals move by the delta")
+    void givenAssetChanges_whenApplied_thenTotalsMoveByDelta() {
+        // GIVEN
+        aggregates.snapshot();
+
+        // WHEN - buy more AAPL, delete the bond, add an ETF
+        aggregates.onAssetChanged(AssetChangedEvent.updated(
+                asset(1, AssetType.STOCK, "AAPL", "10", "150"),
+                asset(1, AssetType.STOCK, "AAPL", "20", "150")));
+        aggregates.onAssetChanged(AssetChangedEvent.deleted(asset(3, AssetType.BOND, "T-2030", "10", "95")));
+        aggregates.onAssetChanged(AssetChangedEvent.created(asset(5, AssetType.ETF, "SPY", "2", "400")));
+
+        // THEN
+        Map<AssetType, TypeTotals> snapshot = aggregates.snapshot();
+        assertThat(snapshot).containsOnlyKeys(AssetType.STOCK, AssetType.CASH, AssetType.ETF);
+        assertThat(snapshot.get(AssetType.STOCK).costBasis()).isEqualByComparingTo("4500");
+        assertThat(snapshot.get(AssetType.STOCK).value()).isEqualByComparingTo("5500");
+        assertThat(snapshot.get(AssetType.ETF).value()).isEqualByComparingTo("800");
+    }
+
+    @Test
+    @DisplayName("Given a random sequence of changes when applied then totals match a full rebuild")
+    void givenRandomChanges_whenApplied_thenMatchRebuild() {
+        // GIVEN
+        aggregates.snapshot();
+        Random random = new Random(42);
+        String[] symbols = {"AAPL", "MSFT", "SPY", "BTC-USD"};
+        AssetType[] types = {AssetType.STOCK, AssetType.ETF, AssetType.CRYPTO, AssetType.CASH};
+        Map<Long, AssetBaseView> current = new HashMap<>();
+        SEED.forEach(a -> current.put(a.getId(), a));
+        Map<String, BigDecimal> latestPrices = new HashMap<>(Map.of("AAPL", new BigDecimal("200")));
+
+        // WHEN
+        for (int i = 0; i < 500; i++) {
+            long id = random.nextInt(20);
+            AssetBaseView before = current.get(id);
+            int action = random.nextInt(4);
+            if (action == 3) {
+                String symbol = symbols[random.nextInt(symbols.length)];
+                BigDecimal price = BigDecimal.valueOf(random.nextInt(50_000), 2);
+                aggregates.onPriceUpdated(new PriceUpdatedEvent(symbol, latestPrices.put(symbol, price), price));
+            } else if (before != null && action == 0) {
+                current.remove(id);
+                aggregates.onAssetChanged(AssetChangedEvent.deleted(before));
+            } else {
+                AssetBaseView after = asset(id, types[random.nextInt(types.length)],
+                        symbols[random.nextInt(symbols.length)],
+                        String.valueOf(1 + random.nextInt(100)), String.valueOf(1 + random.nextInt(500)));
+                current.put(id, after);
+                aggregates.onAssetChanged(before == null
+                        ? AssetChangedEvent.created(after)
+                        : AssetChangedEvent.updated(before, after));
+            }
+        }
+
+        // THEN
+        Map<AssetType, TypeTotals> incremental = aggregates.snapshot();
+        latestPrices.forEach((symbol, price) -> when(priceCache.getIfPresent(symbol)).thenReturn(price));
+        when(repository.findGroupTotals()).thenReturn(groupTotals(current.values()));
+        aggregates.rebuild();
+        Map<AssetType, TypeTotals> rebuilt = aggregates.snapshot();
+
+        assertThat(incremental.keySet()).isEqualTo(rebuilt.keySet());
+        rebuilt.forEach((type, totals) -> {
+            assertThat(incremental.get(type).count()).isEqualTo(totals.count());
+            assertThat(incremental.get(type).costBasis()).isEqualByComparingTo(totals.costBasis());
+            assertThat(incremental.get(type).value()).isEqualByComparingTo(totals.value());
+        });
+    }
+
+    @Test
+    @DisplayName("Given a change committed while the totals load when snapshot then the change is not lost")
+    void givenChangeDuringLoad_whenSnapshot_thenNotLost() {
+        // GIVEN - the first GROUP BY runs just before an ETF purchase commits
+        AssetBaseView etf = asset(5, AssetType.ETF, "SPY", "2", "400");
+        AssetChangedEvent created = AssetChangedEvent.created(etf);
+        List<AssetBaseView> withEtf = new ArrayList<>(SEED);
+        withEtf.add(etf);
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findGroupTotals()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                aggregates.beforeAssetCommit(created);
+                aggregates.onAssetChanged(created);
+                aggregates.afterAssetCompletion(created);
+                return groupTotals(SEED);
+            }
+            return groupTotals(withEtf);
+        });
+
+        // WHEN
+        Map<AssetType, TypeTotals> snapshot = aggregates.snapshot();
+
+        // THEN
+        assertThat(snapshot).containsKey(AssetType.ETF);
+        assertThat(snapshot.get(AssetType.ETF).costBasis()).isEqualByComparingTo("800");
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PortfolioSnapshotDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.PortfolioSnapshot;
+import com.example.demo.entity.SnapshotResolution;
+import com.example.demo.repository.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "portfolio.snapshots.enabled=false"
+})
+@Import(PortfolioSnapshotService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortfolioSnapshotServiceTest {
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
+
+    @Autowired
+    private PortfolioSnapshotRepository snapshotRepository;
+
+    @MockBean
+    private PortfolioAggregates portfolioAggregates;
+
+    @AfterEach
+    void cleanUp() {
+        snapshotRepository.deleteAll();
+        snapshotService.reload();
+    }
+
+    private void givenTotals(String stockValue, String cashValue) {
+        when(portfolioAggregates.snapshot()).thenReturn(Map.of(
+                AssetType.STOCK, new TypeTotals(2, new BigDecimal("1000"), new BigDecimal(stockValue)),
+                AssetType.CASH, new TypeTotals(1, new BigDecimal("500"), new BigDecimal(cashValue))));
+    }
+
+    @Test
+    @DisplayName("Given samples across two hours when recorded then each resolution rolls them up into its buckets")
+    void givenSamples_whenRecord_thenRolledUpPerResolution() {
+        // GIVEN
+        Instant start = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(Duration.ofHours(10));
+
+        // WHEN: 10:58, 10:59, 11:00
+        givenTotals("1200", "500");
+        snapshotService.record(start.plus(Duration.ofMinutes(58)));
+        givenTotals("900", "500");
+        snapshotService.record(start.plus(Duration.ofMinutes(59)));
+        givenTotals("1100", "510");
+        snapshotService.record(start.plus(Duration.ofMinutes(60)));
+
+        // THEN
+        Instant from = start.truncatedTo(ChronoUnit.DAYS);
+        Instant to = from.plus(Duration.ofDays(1));
+        assertThat(snapshotService.getHistory(from, to, SnapshotResolution.MINUTE)).hasSize(3);
+
+        List<PortfolioSnapshotDTO> hours = snapshotService.getHistory(from, to, SnapshotResolution.HOUR);
+        assertThat(hours).extracting(PortfolioSnapshotDTO::getTime)
+                .containsExactly(start, start.plus(Duration.ofHours(1)));
+        assertThat(hours.get(0).getValue()).isEqualByComparingTo("1400");
+        assertThat(hours.get(0).getHigh()).isEqualByComparingTo("1700");
+        assertThat(hours.get(0).getLow()).isEqualByComparingTo("1400");
+
+        List<PortfolioSnapshotDTO> days = snapshotService.getHistory(from, to, SnapshotResolution.DAY);
+        assertThat(days).hasSize(1);
+        assertThat(days.get(0).getValue()).isEqualByComparingTo("1610");
+        assertThat(days.get(0).getCostBasis()).isEqualByComparingTo("1500");
+        assertThat(days.get(0).getGainLoss()).isEqualByComparingTo("110");
+        assertThat(days.get(0).getValueByType()).containsOnlyKeys(AssetType.STOCK, AssetType.CASH);
+        assertThat(days.get(0).getValueByType().get(AssetType.CASH)).isEqualByComparingTo("510");
+        assertThat(snapshotRepository.findFirstByResolutionOrderByBucketStartDesc(SnapshotResolution.DAY))
+                .map(PortfolioSnapshot::getSamples).contains(3);
+    }
+
+    @Test
+    @DisplayName("Given a range without a resolution when getHistory then the finest rollup of at most MAX_POINTS points answers it")
+    void givenRange_whenGetHistoryWithoutResolution_thenCoarseEnoughRollup() {
+        // GIVEN
+        givenTotals("1200", "500");
+        Instant now = Instant.now();
+        snapshotService.record(now);
+
+        // WHEN
+        List<PortfolioSnapshotDTO> hour = snapshotService.getHistory(now.minus(Duration.ofHours(1)), now.plusSeconds(1), null);
+        List<PortfolioSnapshotDTO> year = snapshotService.getHistory(now.minus(Duration.ofDays(365)), now.plusSeconds(1), null);
+
+        // THEN: MINUTE buckets for the hour, DAY buckets for the year
+        assertThat(hour).extracting(PortfolioSnapshotDTO::getTime)
+                .containsExactly(SnapshotResolution.MINUTE.bucketStart(now));
+        assertThat(year).extracting(PortfolioSnapshotDTO::getTime)
+                .containsExactly(SnapshotResolution.DAY.bucketStart(now));
+    }
+}
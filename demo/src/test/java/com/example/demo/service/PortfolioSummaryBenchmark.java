@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssetDTO;
+import com.example.demo.entity.AssetType;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the per-asset summary arithmetic (value, gain/loss and
+ * gain % of every asset, then totals, allocation and performance per type):
+ * the previous BigDecimal code, the {@link FixedPoint} code behind the DTOs,
+ * and fixed point over long columns as the maintained aggregates hold them.
+ * The GC profiler reports bytes allocated per operation (gc.alloc.rate.norm).
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=PortfolioSummaryBenchmark
+ * Sizes can be overridden with -Dbenchmark.assets=10000,100000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PortfolioSummaryBenchmark {
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    @Param({"10000", "100000"})
+    public int assets;
+
+    private List<AssetDTO> portfolio;
+    private BigDecimal[] prices;
+
+    private int[] typeColumn;
+    private long[] quantityColumn;
+    private long[] costColumn;
+    private long[] priceColumn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        portfolio = new ArrayList<>(assets);
+        prices = new BigDecimal[assets];
+        typeColumn = new int[assets];
+        quantityColumn = new long[assets];
+        costColumn = new long[assets];
+        priceColumn = new long[assets];
+        for (int i = 0; i < assets; i++) {
+            AssetType type = TYPES[i % TYPES.length];
+            BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(10_000_000), 4);
+            BigDecimal buyPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            prices[i] = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            portfolio.add(AssetDTO.builder()
+                    .id((long) i)
+                    .symbol("SYM" + i)
+                    .type(type)
+                    .quantity(quantity)
+                    .buyPrice(buyPrice)
+                    .costBasis(quantity.multiply(buyPrice))
+                    .build());
+            typeColumn[i] = type.ordinal();
+            quantityColumn[i] = FixedPoint.of(quantity);
+            costColumn[i] = FixedPoint.of(quantity.multiply(buyPrice));
+            priceColumn[i] = FixedPoint.of(prices[i]);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> bigDecimal() {
+        BigDecimal[] costs = new BigDecimal[TYPES.length];
+        BigDecimal[] values = new BigDecimal[TYPES.length];
+        Arrays.fill(costs, BigDecimal.ZERO);
+        Arrays.fill(values, BigDecimal.ZERO);
+        for (int i = 0; i < assets; i++) {
+            AssetDTO dto = portfolio.get(i);
+            BigDecimal value = dto.getQuantity().multiply(prices[i]);
+            BigDecimal gainLoss = value.subtract(dto.getCostBasis());
+            dto.setCurrentPrice(prices[i]);
+            dto.setCurrentValue(value);
+            dto.setGainLoss(gainLoss);
+            dto.setGainLossPercentage(gainLoss.divide(dto.getCostBasis(), 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100)));
+            int slot = dto.getType().ordinal();
+            costs[slot] = costs[slot].add(dto.getCostBasis());
+            values[slot] = values[slot].add(value);
+        }
+
+        BigDecimal total = Arrays.stream(values).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<String, Map<String, BigDecimal>> result = new HashMap<>();
+        for (int slot = 0; slot < TYPES.length; slot++) {
+            BigDecimal gainLoss = values[slot].subtract(costs[slot]);
+            result.put(TYPES[slot].name(), Map.of(
+                    "value", values[slot],
+                    "gainLoss", gainLoss,
+                    "percentage", gainLoss.divide(costs[slot], 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)),
+                    "allocation", values[slot].divide(total, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> fixedPointDTOs() {
+        TypeTotalsAccumulator totals = new TypeTotalsAccumulator();
+        for (int i = 0; i < assets; i++) {
+            AssetDTO dto = portfolio.get(i);
+            AssetPricing.applyPricing(dto, prices[i]);
+            totals.add(dto.getType(), 1, dto.getCostBasis(), dto.getCurrentValue());
+        }
+        return performance(totals.toMap());
+    }
+
+    @Benchmark
+    public Map<String, Map<String, BigDecimal>> fixedPointColumns() {
+        TypeTotalsAccumulator totals = new TypeTotalsAccumulator();
+        long[] percentages = new long[assets];
+        for (int i = 0; i < assets; i++) {
+            long value = FixedPoint.multiply(quantityColumn[i], priceColumn[i]);
+            long gainLoss = FixedPoint.subtract(value, costColumn[i]);
+            percentages[i] = FixedPoint.percentage(gainLoss, costColumn[i]);
+            totals.add(TYPES[typeColumn[i]], 1, costColumn[i], value);
+        }
+        return performance(totals.toMap());
+    }
+
+    private static Map<String, Map<String, BigDecimal>> performance(Map<AssetType, TypeTotals> totalsByType) {
+        Map<String, Map<String, BigDecimal>> result = PortfolioService.performanceByType(totalsByType);
+        long total = totalsByType.values().stream().mapToLong(t -> FixedPoint.of(t.value())).sum();
+        totalsByType.forEach((type, totals) -> result.get(type.name()).put("allocation",
+                FixedPoint.toBigDecimal(FixedPoint.percentage(FixedPoint.of(totals.value()), total))));
+        return result;
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PortfolioSummaryBenchmark.class.getSimpleName() + "\\.")
+                .param("assets", System.getProperty("benchmark.assets", "10000,100000").split(","))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceCacheStats;
+import com.example.demo.event.PriceUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceCacheTest {
+
+    private static final long TTL_MS = 1_000;
+    private static final long MAX_STALE_MS = 10_000;
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, BigDecimal> loader = symbol -> BigDecimal.valueOf(loads.incrementAndGet());
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private PriceCache cache = new PriceCache(TTL_MS, MAX_STALE_MS, 3, clock, events::add);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given a fresh entry when get then serve it without loading")
+    void givenFreshEntry_whenGet_thenServeFromCache() {
+        // GIVEN
+        cache.get("AAPL", loader);
+
+        // WHEN
+        clock.advance(TTL_MS);
+        BigDecimal price = cache.get("AAPL", loader);
+
+        // THEN
+        assertThat(price).isEqualByComparingTo("1");
+        assertThat(loads).hasValue(1);
+        PriceCacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a stale entry when get then serve it and refresh once in the background")
+    void givenStaleEntry_whenGet_thenServeStaleAndRefresh() throws Exception {
+        // GIVEN
+        cache.get("AAPL", loader);
+        clock.advance(TTL_MS + 1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, BigDecimal> heldLoader = symbol -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(symbol);
+        };
+
+        // WHEN
+        BigDecimal first = cache.get("AAPL", heldLoader);
+        BigDecimal second = cache.get("AAPL", heldLoader);
+        release.countDown();
+
+        // THEN
+        assertThat(first).isEqualByComparingTo("1");
+        assertThat(second).isEqualByComparingTo("1");
+        awaitNoLoadsInFlight();
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get("AAPL", loader)).isEqualByComparingTo("2");
+        assertThat(cache.stats().getStaleHits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given an entry past max-stale when get then load synchronously")
+    void givenExpiredEntry_whenGet_thenLoadSynchronously() {
+        // GIVEN
+        cache.get("AAPL", loader);
+        clock.advance(MAX_STALE_MS + 1);
+
+        // WHEN
+        BigDecimal price = cache.get("AAPL", loader);
+
+        // THEN
+        assertThat(price).isEqualByComparingTo("2");
+        assertThat(cache.stats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given concurrent misses for one symbol when getAsync then load only once")
+    void givenConcurrentMisses_whenGetAsync_thenSingleFlight() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, BigDecimal> slowLoader = symbol -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(symbol);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // WHEN
+            List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(cache.getAsync("MSFT", slowLoader, executor));
+            }
+            release.countDown();
+
+            // THEN
+            for (CompletableFuture<BigDecimal> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("1");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given a full cache when a new symbol loads then evict the least recently used")
+    void givenFullCache_whenNewSymbolLoaded_thenEvictLeastRecentlyUsed() {
+        // GIVEN
+        cache.get("A", loader);
+        cache.get("B", loader);
+        cache.get("C", loader);
+        cache.get("A", loader); // A is now most recently used
+
+        // WHEN
+        cache.get("D", loader);
+
+        // THEN
+        assertThat(cache.getIfPresent("B")).isNull();
+        assertThat(cache.getIfPresent("A")).isNotNull();
+        PriceCacheStats stats = cache.stats();
+        assertThat(stats.getSize()).isEqualTo(3);
+        assertThat(stats.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a failing loader when get then return null and do not cache")
+    void givenFailingLoader_whenGet_thenNotCached() {
+        // GIVEN
+        Function<String, BigDecimal> failing = symbol -> {
+            throw new IllegalStateException("boom");
+        };
+
+        // WHEN
+        BigDecimal price = cache.get("BAD", failing);
+
+        // THEN
+        assertThat(price).isNull();
+        assertThat(cache.getIfPresent("BAD")).isNull();
+        assertThat(cache.stats().getLoadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a reload when the price changes then publish one update event")
+    void givenReload_whenPriceChanges_thenPublishEvent() {
+        // GIVEN
+        cache.get("AAPL", symbol -> new BigDecimal("100"));
+        clock.advance(TTL_MS + 1);
+        cache.refresh("AAPL", symbol -> new BigDecimal("100.00")).join();
+        clock.advance(TTL_MS + 1);
+
+        // WHEN
+        cache.refresh("AAPL", symbol -> new BigDecimal("105")).join();
+
+        // THEN - the unchanged reload publishes nothing
+        assertThat(events).containsExactly(
+                new PriceUpdatedEvent("AAPL", null, new BigDecimal("100")),
+                new PriceUpdatedEvent("AAPL", new BigDecimal("100.00"), new BigDecimal("105")));
+    }
+
+    @Test
+    @DisplayName("Given an entry past max-stale when reloaded at the same price then publish it as newly priced")
+    void givenExpiredEntry_whenReloadedUnchanged_thenPublishEvent() {
+        // GIVEN
+        cache.get("AAPL", symbol -> new BigDecimal("100"));
+        clock.advance(MAX_STALE_MS + 1);
+
+        // WHEN
+        cache.get("AAPL", symbol -> new BigDecimal("100"));
+
+        // THEN - listeners stopped seeing the expired price, so they hear about it again
+        assertThat(events).containsExactly(
+                new PriceUpdatedEvent("AAPL", null, new BigDecimal("100")),
+                new PriceUpdatedEvent("AAPL", null, new BigDecimal("100")));
+    }
+
+    private void awaitNoLoadsInFlight() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cache.stats().getInFlightLoads() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private long millis = 1_000_000;
+
+        void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.event.AssetChangedEvent;
+import com.example.demo.repository.AssetBaseView;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PriceRefresherTest {
+
+    private static final long TTL_MS = 300_000;
+
+    private PortfolioAssetRepository repository;
+    private StockPriceService stockPriceService;
+    private PriceCache priceCache;
+    private FinnhubRequestScheduler requestScheduler;
+    private Clock clock;
+    private PriceRefresher refresher;
+
+    private static AssetBaseView asset(long id, AssetType type, String symbol, String quantity, String buyPrice) {
+        return AssetBaseView.builder()
+                .id(id)
+                .type(type)
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(new BigDecimal(quantity))
+                .buyPrice(new BigDecimal(buyPrice))
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PortfolioAssetRepository.class);
+        stockPriceService = mock(StockPriceService.class);
+        priceCache = mock(PriceCache.class);
+        requestScheduler = mock(FinnhubRequestScheduler.class);
+        clock = mock(Clock.class);
+
+        when(priceCache.getTtlMillis()).thenReturn(TTL_MS);
+        when(priceCache.ageMillis(anyString())).thenReturn(-1L);
+        when(stockPriceService.refreshPrice(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(BigDecimal.ONE));
+        when(repository.findAllBaseViews()).thenReturn(List.of(
+                asset(1, AssetType.STOCK, "AAPL", "10", "150"),
+                asset(2, AssetType.STOCK, "aapl", "5", "150"),
+                asset(3, AssetType.ETF, "SPY", "100", "400"),
+                asset(4, AssetType.CRYPTO, "BTC-USD", "1", "30000"),
+                asset(5, AssetType.CASH, "USD", "50000", "1")));
+
+        // 30 calls/minute every 10s -> 5 symbols per tick
+        refresher = new PriceRefresher(repository, stockPriceService, priceCache, requestScheduler,
+                true, 30, 10_000, 60, 900, clock);
+    }
+
+    @Test
+    @DisplayName("Given nothing cached when refreshDue then refresh held tradeable symbols by position value")
+    void givenEmptyCache_whenRefreshDue_thenLargestPositionsFirst() {
+        // WHEN
+        List<String> refreshed = refresher.refreshDue();
+
+        // THEN - SPY 40000, BTC-USD 30000, AAPL 2250; cash is not quoted
+        assertThat(refreshed).containsExactly("SPY", "BTC-USD", "AAPL");
+        verify(stockPriceService).refreshPrice("SPY");
+        verify(stockPriceService, never()).refreshPrice("USD");
+    }
+
+    @Test
+    @DisplayName("Given fresh and aging quotes when refreshDue then skip fresh ones and weight the rest by age")
+    void givenAgingQuotes_whenRefreshDue_thenSkipFreshAndWeightByAge() {
+        // GIVEN - SPY was just loaded; AAPL is close to expiry, BTC-USD only just past the refresh-ahead point
+        when(priceCache.ageMillis("SPY")).thenReturn(1_000L);
+        when(priceCache.ageMillis("AAPL")).thenReturn(TTL_MS);
+        when(priceCache.ageMillis("BTC-USD")).thenReturn(TTL_MS - 60_000);
+        when(priceCache.getIfPresent("AAPL")).thenReturn(new BigDecimal("4000"));
+        when(priceCache.getIfPresent("BTC-USD")).thenReturn(new BigDecimal("30000"));
+
+        // WHEN
+        List<String> due = refresher.dueSymbols(10);
+
+        // THEN - AAPL 15 x 4000 x 2.0 beats BTC-USD 30000 x 1.8
+        assertThat(due).containsExactly("AAPL", "BTC-USD");
+    }
+
+    @Test
+    @DisplayName("Given more due symbols than the tick budget when refreshDue then refresh only the budget")
+    void givenBudget_whenRefreshDue_thenBounded() {
+        // GIVEN
+        PriceRefresher slow = new PriceRefresher(repository, stockPriceService, priceCache, requestScheduler,
+                true, 12, 10_000, 60, 900, clock);
+
+        // WHEN & THEN - 12 calls/minute every 10s -> 2 per tick
+        assertThat(slow.refreshDue()).containsExactly("SPY", "BTC-USD");
+    }
+
+    @Test
+    @DisplayName("Given interactive requests queued when refreshDue then skip the tick")
+    void givenQueuedRequests_whenRefreshDue_thenSkip() {
+        // GIVEN
+        when(requestScheduler.getQueuedCount()).thenReturn(3);
+
+        // WHEN & THEN
+        assertThat(refresher.refreshDue()).isEmpty();
+        verifyNoInteractions(stockPriceService);
+    }
+
+    @Test
+    @DisplayName("Given asset changes when events arrive then held symbols follow them")
+    void givenAssetChanges_whenEvents_thenHoldingsUpdated() {
+        // GIVEN
+        refresher.refreshDue();
+
+        // WHEN - sell all SPY, one of two AAPL lots, and buy NVDA
+        refresher.onAssetChanged(AssetChangedEvent.deleted(asset(3, AssetType.ETF, "SPY", "100", "400")));
+        refresher.onAssetChanged(AssetChangedEvent.deleted(asset(1, AssetType.STOCK, "AAPL", "10", "150")));
+        refresher.onAssetChanged(AssetChangedEvent.created(asset(6, AssetType.STOCK, "NVDA", "10", "450")));
+
+        // THEN
+        assertThat(refresher.dueSymbols(10)).containsExactly("BTC-USD", "NVDA", "AAPL");
+    }
+
+    @Test
+    @DisplayName("Given a symbol that fails to refresh when later ticks run then it backs off and stops jumping the queue")
+    void givenFailingSymbol_whenRefreshDue_thenBackOff() {
+        // GIVEN - SPY has no quote at Finnhub; AAPL's quote is about to expire
+        when(stockPriceService.refreshPrice("SPY")).thenReturn(CompletableFuture.completedFuture(null));
+        when(priceCache.ageMillis("AAPL")).thenReturn(TTL_MS);
+        when(priceCache.getIfPresent("AAPL")).thenReturn(new BigDecimal("150"));
+        when(clock.millis()).thenReturn(0L);
+        refresher.refreshDue();
+
+        // WHEN & THEN - not retried within interval-ms
+        when(clock.millis()).thenReturn(9_999L);
+        assertThat(refresher.dueSymbols(10)).containsExactly("BTC-USD", "AAPL");
+
+        // WHEN & THEN - retried after it, but ranked by value x age like any quote, not as missing
+        when(clock.millis()).thenReturn(10_000L);
+        assertThat(refresher.dueSymbols(10)).containsExactly("BTC-USD", "SPY", "AAPL");
+
+        // WHEN & THEN - a second failure doubles the wait
+        refresher.refreshDue();
+        when(clock.millis()).thenReturn(29_999L);
+        assertThat(refresher.dueSymbols(10)).doesNotContain("SPY");
+        when(clock.millis()).thenReturn(30_000L);
+        assertThat(refresher.dueSymbols(10)).contains("SPY");
+    }
+
+    @Test
+    @DisplayName("Given a failing symbol when a refresh succeeds then its backoff is cleared")
+    void givenFailingSymbol_whenRefreshSucceeds_thenBackoffCleared() {
+        // GIVEN
+        when(stockPriceService.refreshPrice("SPY")).thenReturn(CompletableFuture.completedFuture(null));
+        when(clock.millis()).thenReturn(0L);
+        refresher.refreshDue();
+
+        // WHEN
+        when(stockPriceService.refreshPrice("SPY")).thenReturn(CompletableFuture.completedFuture(BigDecimal.TEN));
+        when(clock.millis()).thenReturn(10_000L);
+        refresher.refreshDue();
+
+        // THEN - missing again, so first on the next tick
+        when(clock.millis()).thenReturn(10_001L);
+        assertThat(refresher.dueSymbols(10)).startsWith("SPY");
+    }
+
+    @Test
+    @DisplayName("Given a purchase committed while the holdings load when dueSymbols then its symbol is tracked")
+    void givenChangeDuringLoad_whenDueSymbols_thenTracked() {
+        // GIVEN - the first query runs just before an NVDA purchase commits and SPY is sold
+        AssetChangedEvent created = AssetChangedEvent.created(asset(6, AssetType.STOCK, "NVDA", "10", "450"));
+        AssetChangedEvent deleted = AssetChangedEvent.deleted(asset(3, AssetType.ETF, "SPY", "100", "400"));
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findAllBaseViews()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                for (AssetChangedEvent event : List.of(created, deleted)) {
+                    refresher.beforeAssetCommit(event);
+                    refresher.onAssetChanged(event);
+                    refresher.afterAssetCompletion(event);
+                }
+                return List.of(
+                        asset(1, AssetType.STOCK, "AAPL", "10", "150"),
+                        asset(3, AssetType.ETF, "SPY", "100", "400"));
+            }
+            return List.of(
+                    asset(1, AssetType.STOCK, "AAPL", "10", "150"),
+                    asset(6, AssetType.STOCK, "NVDA", "10", "450"));
+        });
+
+        // WHEN
+        List<String> due = refresher.dueSymbols(10);
+
+        // THEN
+        assertThat(due).containsExactly("NVDA", "AAPL");
+        assertThat(loads).hasValue(2);
+    }
+}
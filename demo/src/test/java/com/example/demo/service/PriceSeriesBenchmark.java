@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBarDTO;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH measurement of range scans over the memory-mapped price history:
+ * 10 years of daily bars for each of {@code symbols} symbols, read for one
+ * symbol (as stored and downsampled to weeks) and for every symbol.
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=PriceSeriesBenchmark
+ * Sizes can be overridden with -Dbenchmark.symbols=100,500
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PriceSeriesBenchmark {
+
+    private static final int DAYS = 3653;
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+
+    @Param({"100", "500"})
+    public int symbols;
+
+    private Path directory;
+    private PriceSeriesStore store;
+    private Instant from;
+    private Instant to;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("price-series-benchmark");
+        store = new PriceSeriesStore(directory, false);
+        from = START.atStartOfDay(ZoneOffset.UTC).toInstant();
+        to = START.plusDays(DAYS).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        Random random = new Random(42);
+        for (int s = 0; s < symbols; s++) {
+            List<PriceBarDTO> bars = new ArrayList<>(DAYS);
+            long close = 10_000 + random.nextInt(1_000_000);
+            for (int d = 0; d < DAYS; d++) {
+                long open = close;
+                close = Math.max(100, open + random.nextInt(401) - 200);
+                bars.add(PriceBarDTO.builder()
+                        .time(START.plusDays(d).atStartOfDay(ZoneOffset.UTC).toInstant())
+                        .open(BigDecimal.valueOf(open, 2))
+                        .high(BigDecimal.valueOf(Math.max(open, close) + random.nextInt(100), 2))
+                        .low(BigDecimal.valueOf(Math.max(1, Math.min(open, close) - random.nextInt(100)), 2))
+                        .close(BigDecimal.valueOf(close, 2))
+                        .build());
+            }
+            store.append("SYM" + s, bars);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private String nextSymbol() {
+        next = (next + 1) % symbols;
+        return "SYM" + next;
+    }
+
+    @Benchmark
+    public PriceBars tenYearsOneSymbol() {
+        return store.getBars(nextSymbol(), from, to, null);
+    }
+
+    @Benchmark
+    public PriceBars tenYearsOneSymbolWeekly() {
+        return store.getBars(nextSymbol(), from, to, BarInterval.WEEK);
+    }
+
+    @Benchmark
+    public long tenYearsAllSymbols() {
+        long sum = 0;
+        for (int s = 0; s < symbols; s++) {
+            PriceBars bars = store.getBars("SYM" + s, from, to, null);
+            sum += bars.getClose(bars.size() - 1);
+        }
+        return sum;
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PriceSeriesBenchmark.class.getSimpleName() + "\\.")
+                .param("symbols", System.getProperty("benchmark.symbols", "100,500").split(","))
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBarDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceSeriesStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1); // a Monday
+
+    @TempDir
+    Path directory;
+
+    private PriceSeriesStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new PriceSeriesStore(directory, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static Instant day(int offset) {
+        return START.plusDays(offset).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static PriceBarDTO bar(int dayOffset, String open, String high, String low, String close) {
+        return PriceBarDTO.builder()
+                .time(day(dayOffset))
+                .open(new BigDecimal(open))
+                .high(new BigDecimal(high))
+                .low(new BigDecimal(low))
+                .close(new BigDecimal(close))
+                .build();
+    }
+
+    /**
+     * One bar per day; day i opens at 100 + i and closes one higher.
+     */
+    private static List<PriceBarDTO> dailyBars(int days) {
+        List<PriceBarDTO> bars = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            bars.add(bar(i, String.valueOf(100 + i), String.valueOf(102 + i), String.valueOf(99 + i), String.valueOf(101 + i)));
+        }
+        return bars;
+    }
+
+    @Test
+    @DisplayName("Given stored bars when the store is reopened then a range scan returns the same bars")
+    void givenStoredBars_whenReopened_thenRangeScanReturnsThem() throws IOException {
+        // GIVEN: more bars than the initial mapping holds
+        assertThat(store.append("aapl", dailyBars(3000))).isEqualTo(3000);
+        store.close();
+
+        // WHEN
+        store = new PriceSeriesStore(directory, true);
+        List<PriceBarDTO> bars = store.getBars("AAPL", day(10), day(13), null).toDTOs();
+
+        // THEN
+        assertThat(bars).extracting(PriceBarDTO::getTime).containsExactly(day(10), day(11), day(12));
+        assertThat(bars.get(0).getOpen()).isEqualByComparingTo("110");
+        assertThat(bars.get(0).getHigh()).isEqualByComparingTo("112");
+        assertThat(bars.get(0).getLow()).isEqualByComparingTo("109");
+        assertThat(bars.get(0).getClose()).isEqualByComparingTo("111");
+        assertThat(store.getBars("AAPL", day(2990), day(4000), null).size()).isEqualTo(10);
+        assertThat(store.getBars("MSFT", day(0), day(10), null).size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given daily bars when downsampled to weeks then each week keeps its first open, extremes and last close")
+    void givenDailyBars_whenDownsampleWeek_thenOhlcPerWeek() {
+        // GIVEN
+        store.append("AAPL", dailyBars(10));
+
+        // WHEN
+        List<PriceBarDTO> weeks = store.getBars("AAPL", day(0), day(10), BarInterval.WEEK).toDTOs();
+
+        // THEN
+        assertThat(weeks).extracting(PriceBarDTO::getTime).containsExactly(day(0), day(7));
+        assertThat(weeks.get(0).getOpen()).isEqualByComparingTo("100");
+        assertThat(weeks.get(0).getHigh()).isEqualByComparingTo("108");
+        assertThat(weeks.get(0).getLow()).isEqualByComparingTo("99");
+        assertThat(weeks.get(0).getClose()).isEqualByComparingTo("107");
+        assertThat(weeks.get(1).getClose()).isEqualByComparingTo("110");
+    }
+
+    @Test
+    @DisplayName("Given stored bars when an older bar is appended then the whole append is rejected")
+    void givenStoredBars_whenOutOfOrder_thenRejected() {
+        // GIVEN
+        store.append("AAPL", dailyBars(5));
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> store.append("AAPL", List.of(bar(5, "1", "1", "1", "1"), bar(3, "1", "1", "1", "1"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is before the bar at");
+        assertThatThrownBy(() -> store.append("AAPL", List.of(bar(6, "10", "9", "8", "10"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.getBars("AAPL", day(0), day(100), null).size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Given a recorded quote when older bars are backfilled then they are merged before it")
+    void givenRecordedQuote_whenBackfill_thenMergedInTimeOrder() throws IOException {
+        // GIVEN: a live quote on day 10, then a backfill of days 0-11 overlapping it
+        store.recordQuote("AAPL", day(10).plusSeconds(3600), new BigDecimal("150"));
+
+        // WHEN
+        int size = store.append("AAPL", dailyBars(4).subList(2, 4));
+        store.append("AAPL", dailyBars(2));
+        store.append("AAPL", List.of(bar(3, "200", "201", "199", "200"), bar(11, "111", "113", "110", "112")));
+
+        // THEN
+        assertThat(size).isEqualTo(3);
+        List<PriceBarDTO> bars = store.getBars("AAPL", day(0), day(100), null).toDTOs();
+        assertThat(bars).extracting(PriceBarDTO::getTime)
+                .containsExactly(day(0), day(1), day(2), day(3), day(10), day(11));
+        assertThat(bars.get(0).getOpen()).isEqualByComparingTo("100");
+        assertThat(bars.get(3).getOpen()).isEqualByComparingTo("200");
+        assertThat(bars.get(4).getClose()).isEqualByComparingTo("150");
+
+        store.close();
+        store = new PriceSeriesStore(directory, true);
+        assertThat(store.getBars("AAPL", day(0), day(2), null).toDTOs())
+                .extracting(PriceBarDTO::getTime).containsExactly(day(0), day(1));
+        store.recordQuote("AAPL", day(11).plusSeconds(60), new BigDecimal("90"));
+        assertThat(store.getBars("AAPL", day(11), day(12), null).toDTOs().get(0).getLow()).isEqualByComparingTo("90");
+    }
+
+    @Test
+    @DisplayName("Given quotes during a day when recorded then they fold into that day's bar")
+    void givenQuotes_whenRecordQuote_thenDailyBarUpdated() {
+        // GIVEN
+        Instant morning = day(0).plusSeconds(9 * 3600);
+
+        // WHEN
+        store.recordQuote("BTC-USD", morning, new BigDecimal("42000.50"));
+        store.recordQuote("BTC-USD", morning.plusSeconds(3600), new BigDecimal("43000"));
+        store.recordQuote("BTC-USD", morning.plusSeconds(7200), new BigDecimal("41500.25"));
+        store.recordQuote("BTC-USD", day(1), new BigDecimal("41800"));
+
+        // THEN
+        List<PriceBarDTO> bars = store.getBars("BTC-USD", day(0), day(2), null).toDTOs();
+        assertThat(bars).hasSize(2);
+        assertThat(bars.get(0).getTime()).isEqualTo(day(0));
+        assertThat(bars.get(0).getOpen()).isEqualByComparingTo("42000.50");
+        assertThat(bars.get(0).getHigh()).isEqualByComparingTo("43000");
+        assertThat(bars.get(0).getLow()).isEqualByComparingTo("41500.25");
+        assertThat(bars.get(0).getClose()).isEqualByComparingTo("41500.25");
+        assertThat(bars.get(1).getOpen()).isEqualByComparingTo("41800");
+        assertThat(PriceSeriesStore.fileName("^GSPC")).isEqualTo("_5EGSPC.bars");
+    }
+}
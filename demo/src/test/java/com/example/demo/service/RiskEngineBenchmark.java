@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH measurement of the risk engine over {@code symbols} x 2,500 days of
+ * returns: the correlation matrix on the common fork/join pool and inline,
+ * and the portfolio-level statistics (returns, volatility, VaR, drawdown).
+ * Not part of the regular test run: mvn -Pbenchmark test -Dtest=RiskEngineBenchmark
+ * Sizes can be overridden with -Dbenchmark.symbols=200,2000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RiskEngineBenchmark {
+
+    private static final int DAYS = 2500;
+
+    @Param({"200", "2000"})
+    public int symbols;
+
+    private double[][] closes;
+    private double[][] returns;
+    private double[] weights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        double[] market = new double[DAYS];
+        for (int t = 0; t < DAYS; t++) {
+            market[t] = random.nextGaussian() / 100;
+        }
+        closes = new double[symbols][DAYS + 1];
+        weights = new double[symbols];
+        for (int i = 0; i < symbols; i++) {
+            double beta = 0.5 + random.nextDouble();
+            closes[i][0] = 10 + random.nextInt(500);
+            for (int t = 0; t < DAYS; t++) {
+                closes[i][t + 1] = closes[i][t] * (1 + beta * market[t] + random.nextGaussian() / 100);
+            }
+            weights[i] = 1.0 / symbols;
+        }
+        returns = RiskEngine.returns(closes);
+    }
+
+    @Benchmark
+    public double[][] correlationForkJoin() {
+        return RiskEngine.correlationMatrix(returns, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public double[][] correlationSingleThread() {
+        return RiskEngine.correlationMatrix(returns, null);
+    }
+
+    @Benchmark
+    public double portfolioStatistics() {
+        double[][] r = RiskEngine.returns(closes);
+        double[] portfolio = RiskEngine.portfolioReturns(r, weights);
+        double sum = RiskEngine.annualizedVolatility(portfolio)
+                + RiskEngine.historicalVar(portfolio, 0.99)
+                + RiskEngine.parametricVar(portfolio, 0.99)
+                + RiskEngine.maxDrawdown(portfolio)
+                + RiskEngine.beta(portfolio, r[0]);
+        for (double[] row : r) {
+            sum += RiskEngine.annualizedVolatility(row);
+        }
+        return sum;
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RiskEngineBenchmark.class.getSimpleName() + "\\.")
+                .param("symbols", System.getProperty("benchmark.symbols", "200,2000").split(","))
+                .forks(1)
+                .jvmArgsAppend("-Xmx3g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
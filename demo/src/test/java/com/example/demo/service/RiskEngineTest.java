@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RiskEngineTest {
+
+    @Test
+    @DisplayName("Given return series when measured then volatility, beta, VaR and drawdown match hand-computed values")
+    void givenReturns_whenMeasured_thenMatchHandComputedValues() {
+        // GIVEN: -1%..-10% and +1%..+90%, 100 days in all
+        double[] returns = new double[100];
+        for (int t = 0; t < 100; t++) {
+            returns[t] = t < 10 ? -(t + 1) / 100.0 : (t - 9) / 100.0;
+        }
+        double[] doubled = new double[100];
+        for (int t = 0; t < 100; t++) {
+            doubled[t] = 2 * returns[t];
+        }
+
+        // WHEN & THEN
+        assertThat(RiskEngine.beta(doubled, returns)).isCloseTo(2.0, within(1e-12));
+        // Losses beyond 5% happen on 5 of the 100 days
+        assertThat(RiskEngine.historicalVar(returns, 0.95)).isCloseTo(0.05, within(1e-12));
+        assertThat(RiskEngine.annualizedVolatility(returns))
+                .isCloseTo(RiskEngine.stdDev(returns) * Math.sqrt(252), within(1e-12));
+        assertThat(RiskEngine.parametricVar(new double[]{0.01, -0.01, 0.01, -0.01}, 0.95))
+                .isCloseTo(1.6448536 * Math.sqrt(4.0 / 3) * 0.01, within(1e-6));
+        // 1.10 -> 0.55 is the deepest fall; 1.10 -> 0.594 later is shallower
+        assertThat(RiskEngine.maxDrawdown(new double[]{0.10, -0.50, 0.20, -0.10, 1.0}))
+                .isCloseTo(0.5, within(1e-12));
+        assertThat(RiskEngine.inverseNormal(0.99)).isCloseTo(2.3263479, within(1e-6));
+        assertThat(RiskEngine.inverseNormal(0.01)).isCloseTo(-2.3263479, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Given related series when correlated then the matrix is symmetric with the expected signs")
+    void givenRelatedSeries_whenCorrelated_thenExpectedMatrix() {
+        // GIVEN: a, 3a + 1%, -a, and a constant series
+        Random random = new Random(7);
+        double[] a = new double[500];
+        for (int t = 0; t < a.length; t++) {
+            a[t] = random.nextGaussian() / 100;
+        }
+        double[][] returns = new double[4][500];
+        for (int t = 0; t < a.length; t++) {
+            returns[0][t] = a[t];
+            returns[1][t] = 3 * a[t] + 0.01;
+            returns[2][t] = -a[t];
+            returns[3][t] = 0.002;
+        }
+
+        // WHEN
+        double[][] correlation = RiskEngine.correlationMatrix(returns, null);
+
+        // THEN
+        assertThat(correlation[0][1]).isCloseTo(1.0, within(1e-12));
+        assertThat(correlation[0][2]).isCloseTo(-1.0, within(1e-12));
+        assertThat(correlation[2][1]).isCloseTo(-1.0, within(1e-12));
+        assertThat(correlation[3][0]).isZero();
+        assertThat(correlation[3][3]).isZero();
+        assertThat(correlation[1][1]).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Given many series when correlated on a fork/join pool then the result equals the sequential one")
+    void givenManySeries_whenParallel_thenMatchesSequential() {
+        // GIVEN: more rows than one task handles, and a row count that is not a multiple of 4
+        Random random = new Random(42);
+        double[][] returns = new double[67][250];
+        for (double[] row : returns) {
+            for (int t = 0; t < row.length; t++) {
+                row[t] = random.nextGaussian() / 100;
+            }
+        }
+
+        // WHEN
+        double[][] sequential = RiskEngine.correlationMatrix(returns, null);
+        double[][] parallel = RiskEngine.correlationMatrix(returns, new ForkJoinPool(4));
+
+        // THEN
+        assertThat(parallel).isDeepEqualTo(sequential);
+        for (int i = 0; i < returns.length; i++) {
+            for (int j = 0; j < returns.length; j++) {
+                assertThat(sequential[i][j]).isEqualTo(sequential[j][i]);
+            }
+        }
+    }
+}
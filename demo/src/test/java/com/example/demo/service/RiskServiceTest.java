@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBarDTO;
+import com.example.demo.dto.RiskReportDTO;
+import com.example.demo.entity.AssetType;
+import com.example.demo.repository.AssetGroupTotals;
+import com.example.demo.repository.PortfolioAssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private PriceSeriesStore store;
+    private PortfolioAssetRepository repository;
+    private RiskService riskService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new PriceSeriesStore(directory, false);
+        repository = mock(PortfolioAssetRepository.class);
+        riskService = new RiskService(repository, store, "spy", 0.25);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static AssetGroupTotals group(AssetType type, String symbol, String quantity) {
+        return new AssetGroupTotals(type, symbol, 1, new BigDecimal(quantity), new BigDecimal(quantity));
+    }
+
+    /**
+     * Daily closes ending yesterday, starting at 100 and moving by the given returns.
+     */
+    private void storeCloses(String symbol, double[] returns) {
+        LocalDate first = LocalDate.now(ZoneOffset.UTC).minusDays(returns.length + 1);
+        List<PriceBarDTO> bars = new ArrayList<>();
+        double close = 100;
+        for (int d = 0; d <= returns.length; d++) {
+            if (d > 0) {
+                close *= 1 + returns[d - 1];
+            }
+            BigDecimal price = BigDecimal.valueOf(close);
+            bars.add(PriceBarDTO.builder()
+                    .time(first.plusDays(d).atStartOfDay(ZoneOffset.UTC).toInstant())
+                    .open(price).high(price).low(price).close(price)
+                    .build());
+        }
+        store.append(symbol, bars);
+    }
+
+    @Test
+    @DisplayName("Given holdings with stored closes when getRisk then the report covers their common history")
+    void givenStoredCloses_whenGetRisk_thenReportOverCommonHistory() {
+        // GIVEN: AAPL moves twice as much as SPY; MSFT has only the last 40 days
+        Random random = new Random(3);
+        double[] market = new double[100];
+        double[] aapl = new double[100];
+        for (int t = 0; t < market.length; t++) {
+            market[t] = random.nextGaussian() / 100;
+            aapl[t] = 2 * market[t];
+        }
+        double[] msft = new double[40];
+        for (int t = 0; t < msft.length; t++) {
+            msft[t] = random.nextGaussian() / 100;
+        }
+        storeCloses("SPY", market);
+        storeCloses("AAPL", aapl);
+        storeCloses("MSFT", msft);
+        when(repository.findGroupTotals()).thenReturn(List.of(
+                group(AssetType.STOCK, "AAPL", "10"),
+                group(AssetType.STOCK, "MSFT", "5"),
+                group(AssetType.ETF, "XYZ", "1"),
+                group(AssetType.CASH, "", "1000")));
+
+        // WHEN
+        RiskReportDTO report = riskService.getRisk(365, 0.99, true);
+
+        // THEN
+        assertThat(report.getObservations()).isEqualTo(40);
+        assertThat(report.getUnpricedSymbols()).containsExactly("XYZ");
+        assertThat(report.getHoldings()).extracting(RiskReportDTO.HoldingRisk::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(report.getHoldings().get(0).getBeta()).isCloseTo(2.0, within(1e-4));
+        assertThat(report.getHoldings().get(0).getWeight() + report.getHoldings().get(1).getWeight()).isCloseTo(1.0, within(1e-12));
+        assertThat(report.getPortfolioValue()).isEqualByComparingTo(
+                report.getHoldings().get(0).getValue().add(report.getHoldings().get(1).getValue()));
+        assertThat(report.getHistoricalVar().signum()).isPositive();
+        assertThat(report.getParametricVar().signum()).isPositive();
+        assertThat(report.getCorrelation()).hasDimensions(2, 2);
+        assertThat(report.getCorrelation()[0][0]).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Given a holding with one bar when getRisk then it is listed as short history and the window is kept")
+    void givenOneBarHolding_whenGetRisk_thenShortHistoryAndFullWindow() {
+        // GIVEN: AAPL has 100 days of returns, NEW only yesterday's close
+        Random random = new Random(5);
+        double[] aapl = new double[100];
+        for (int t = 0; t < aapl.length; t++) {
+            aapl[t] = random.nextGaussian() / 100;
+        }
+        storeCloses("AAPL", aapl);
+        storeCloses("NEW", new double[0]);
+        when(repository.findGroupTotals()).thenReturn(List.of(
+                group(AssetType.STOCK, "AAPL", "10"),
+                group(AssetType.STOCK, "NEW", "3")));
+
+        // WHEN
+        RiskReportDTO report = riskService.getRisk(365, 0.95, false);
+
+        // THEN
+        assertThat(report.getObservations()).isEqualTo(100);
+        assertThat(report.getShortHistorySymbols()).containsExactly("NEW");
+        assertThat(report.getUnpricedSymbols()).isEmpty();
+        assertThat(report.getHoldings()).extracting(RiskReportDTO.HoldingRisk::getSymbol).containsExactly("AAPL");
+        assertThat(report.getHoldings().get(0).getWeight()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Given no price history when getRisk then the holdings are reported as unpriced")
+    void givenNoHistory_whenGetRisk_thenUnpriced() {
+        // GIVEN
+        when(repository.findGroupTotals()).thenReturn(List.of(group(AssetType.STOCK, "AAPL", "10")));
+
+        // WHEN
+        RiskReportDTO report = riskService.getRisk(365, 0.95, false);
+
+        // THEN
+        assertThat(report.getObservations()).isZero();
+        assertThat(report.getUnpricedSymbols()).containsExactly("AAPL");
+        assertThatThrownBy(() -> riskService.getRisk(365, 1.0, false)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
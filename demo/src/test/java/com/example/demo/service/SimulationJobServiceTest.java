@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationJobDTO;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.entity.AssetType;
+import com.example.demo.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimulationJobServiceTest {
+
+    private PortfolioAggregates portfolioAggregates;
+    private SimulationJobService simulationJobService;
+
+    @BeforeEach
+    void setUp() {
+        portfolioAggregates = mock(PortfolioAggregates.class);
+        when(portfolioAggregates.snapshot()).thenReturn(Map.of(
+                AssetType.STOCK, new TypeTotals(2, new BigDecimal("5000.00"), new BigDecimal("6000.00")),
+                AssetType.CASH, new TypeTotals(1, new BigDecimal("4000.00"), new BigDecimal("4000.00"))));
+        simulationJobService = new SimulationJobService(portfolioAggregates, 1_000_000, 2, 1, 5, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulationJobService.shutdown();
+    }
+
+    private SimulationJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        SimulationJobDTO job = simulationJobService.getJob(id);
+        while ((job.getStatus() == SimulationJobDTO.Status.QUEUED || job.getStatus() == SimulationJobDTO.Status.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = simulationJobService.getJob(id);
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("Given a seeded request when submit then the job completes with percentile bands, reproducibly")
+    void givenSeededRequest_whenSubmit_thenCompletesReproducibly() throws InterruptedException {
+        // GIVEN
+        SimulationRequest request = SimulationRequest.builder()
+                .paths(50_000L)
+                .seed(11L)
+                .horizons(List.of(10, 1))
+                .volatilities(Map.of(AssetType.STOCK, new BigDecimal("0.25")))
+                .build();
+
+        // WHEN
+        SimulationJobDTO first = awaitFinished(simulationJobService.submit(request).getId());
+        SimulationJobDTO second = awaitFinished(simulationJobService.submit(request).getId());
+
+        // THEN
+        assertThat(first.getStatus()).isEqualTo(SimulationJobDTO.Status.COMPLETED);
+        assertThat(first.getCompletedPaths()).isEqualTo(50_000);
+        assertThat(first.getPathsPerSecond()).isPositive();
+        assertThat(first.getInitialValue()).isEqualByComparingTo("10000.00");
+        assertThat(first.getVolatilities()).containsOnlyKeys(AssetType.STOCK, AssetType.CASH)
+                .containsEntry(AssetType.STOCK, BigDecimal.valueOf(0.25));
+        assertThat(first.getHorizons()).extracting(SimulationJobDTO.HorizonResult::getYears).containsExactly(1, 10);
+        SimulationJobDTO.HorizonResult tenYears = first.getHorizons().get(1);
+        assertThat(tenYears.getPercentiles()).containsOnlyKeys(5, 25, 50, 75, 95);
+        assertThat(tenYears.getPercentiles().get(5)).isLessThan(tenYears.getPercentiles().get(50));
+        assertThat(tenYears.getPercentiles().get(50)).isLessThan(tenYears.getPercentiles().get(95));
+        assertThat(second.getHorizons()).isEqualTo(first.getHorizons());
+    }
+
+    @Test
+    @DisplayName("Given invalid parameters or an unknown id when used then the service refuses")
+    void givenInvalidRequest_whenSubmit_thenRefused() {
+        assertThatThrownBy(() -> simulationJobService.submit(SimulationRequest.builder().paths(2_000_000L).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("paths");
+        assertThatThrownBy(() -> simulationJobService.submit(SimulationRequest.builder().horizons(List.of(1, 1)).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("horizons");
+        assertThatThrownBy(() -> simulationJobService.submit(SimulationRequest.builder()
+                .drifts(Map.of(AssetType.CRYPTO, new BigDecimal("3"))).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("drift of CRYPTO");
+        assertThatThrownBy(() -> simulationJobService.getJob("nope"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
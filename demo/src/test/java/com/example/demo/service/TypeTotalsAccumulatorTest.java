@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.AssetType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeTotalsAccumulatorTest {
+
+    private static void add(TypeTotalsAccumulator totals, AssetType type, String costBasis, String currentValue) {
+        totals.add(type, 1,
+                costBasis != null ? new BigDecimal(costBasis) : null,
+                currentValue != null ? new BigDecimal(currentValue) : null);
+    }
+
+    @Test
+    @DisplayName("Given mixed assets when added then each type is totalled")
+    void givenMixedAssets_whenAdded_thenTotalsPerType() {
+        // GIVEN
+        TypeTotalsAccumulator accumulator = new TypeTotalsAccumulator();
+
+        // WHEN
+        add(accumulator, AssetType.STOCK, "1000", "1500");
+        add(accumulator, AssetType.STOCK, "500", "400");
+        add(accumulator, AssetType.CASH, "200", "200");
+        add(accumulator, AssetType.BOND, null, null);
+        Map<AssetType, TypeTotals> totals = accumulator.toMap();
+
+        // THEN
+        assertThat(totals).containsOnlyKeys(AssetType.STOCK, AssetType.CASH, AssetType.BOND);
+        TypeTotals stocks = totals.get(AssetType.STOCK);
+        assertThat(stocks.count()).isEqualTo(2);
+        assertThat(stocks.value()).isEqualByComparingTo("1900");
+        assertThat(stocks.gainLoss()).isEqualByComparingTo("400");
+        assertThat(stocks.gainLossPercentage()).isEqualByComparingTo("26.6700");
+        assertThat(totals.get(AssetType.BOND).gainLossPercentage()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given a contribution when removed by a negative delta then the type drops out")
+    void givenContribution_whenRemoved_thenTypeDropsOut() {
+        // GIVEN
+        TypeTotalsAccumulator accumulator = new TypeTotalsAccumulator();
+        add(accumulator, AssetType.STOCK, "1000", "1500");
+        add(accumulator, AssetType.CASH, "200", "200");
+
+        // WHEN
+        accumulator.add(AssetType.STOCK, -1, new BigDecimal("-1000"), new BigDecimal("-1500"));
+
+        // THEN
+        assertThat(accumulator.count(AssetType.STOCK)).isZero();
+        assertThat(accumulator.toMap()).containsOnlyKeys(AssetType.CASH);
+    }
+}
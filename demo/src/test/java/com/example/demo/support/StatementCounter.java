@@ -0,0 +1,104 @@
+package com.example.demo.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts JDBC statements prepared through the application DataSource,
+ * regardless of whether they come from Hibernate or JdbcTemplate.
+ * Import {@link Config} into a test slice to install it.
+ */
+public class StatementCounter {
+
+    private final List<String> statements = new ArrayList<>();
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized long count() {
+        return statements.size();
+    }
+
+    public synchronized long selectCount() {
+        return statements.stream().filter(sql -> sql.trim().toLowerCase().startsWith("select")).count();
+    }
+
+    public synchronized List<String> statements() {
+        return new ArrayList<>(statements);
+    }
+
+    private synchronized void record(String sql) {
+        statements.add(sql);
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection connection ? wrap(connection) : result;
+                });
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")) {
+                        record((String) args[0]);
+                    }
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement && method.getName().equals("createStatement")
+                            ? wrap(statement)
+                            : result;
+                });
+    }
+
+    private Statement wrap(Statement statement) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                        record(sql);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor(
+                ObjectProvider<StatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counter.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}